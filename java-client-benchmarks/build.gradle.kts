@@ -0,0 +1,38 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+plugins {
+    java
+    // The versions of the plugin and of JMH are set in gradle.properties
+    id("me.champeau.jmh")
+
+    id("opensearch-java.spotless-conventions")
+}
+
+java {
+    targetCompatibility = JavaVersion.VERSION_11
+    sourceCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    jmh(project(":java-client"))
+    jmh("com.fasterxml.jackson.core", "jackson-databind", "2.17.0")
+    jmh("jakarta.json.bind", "jakarta.json.bind-api", "2.0.0")
+    jmh("org.eclipse", "yasson", "2.0.2")
+}
+
+jmh {
+    jmhVersion.set(project.property("jmhVersion").toString())
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    resultFormat.set("JSON")
+
+    // Run a subset of the benchmarks with e.g. -Pjmh.includes=SearchResponseBenchmark
+    project.findProperty("jmh.includes")?.let { includes.add(it.toString()) }
+}
@@ -0,0 +1,58 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.benchmarks;
+
+import jakarta.json.stream.JsonParser;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+import org.opensearch.client.json.JsonData;
+import org.opensearch.client.json.JsonpDeserializer;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Deserialization of search responses with typed-keys aggregations (terms with sub-aggregations, date histogram
+ * and stats).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AggregationsBenchmark {
+    @Param({ "jackson", "jsonb" })
+    public String mapperName;
+
+    @Param({ "10", "1000" })
+    public int buckets;
+
+    private JsonpMapper mapper;
+    private byte[] json;
+    private JsonpDeserializer<SearchResponse<JsonData>> deserializer;
+
+    @Setup
+    public void setup() {
+        mapper = BenchmarkData.mapper(mapperName);
+        json = BenchmarkData.aggregationsResponse(buckets);
+        deserializer = SearchResponse.createSearchResponseDeserializer(JsonData._DESERIALIZER);
+    }
+
+    @Benchmark
+    public SearchResponse<JsonData> deserialize() {
+        try (JsonParser parser = mapper.jsonProvider().createParser(new ByteArrayInputStream(json))) {
+            return deserializer.deserialize(parser, mapper);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.benchmarks;
+
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import jakarta.json.spi.JsonProvider;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.json.jsonb.JsonbJsonpMapper;
+import org.opensearch.client.opensearch.core.BulkRequest;
+
+/**
+ * Mappers and deterministic payloads shared by the benchmarks, so that results can be compared across runs.
+ */
+final class BenchmarkData {
+    static final String INDEX = "benchmark";
+
+    private BenchmarkData() {}
+
+    /**
+     * Returns the mapper with the given name: {@code jackson}, {@code jsonb}, or {@code jsonb-portable} for a JSON-B
+     * mapper that can't use Yasson's extensions, as with other JSON-B implementations.
+     */
+    static JsonpMapper mapper(String name) {
+        switch (name) {
+            case "jackson":
+                return new JacksonJsonpMapper();
+            case "jsonb":
+                return new JsonbJsonpMapper();
+            case "jsonb-portable":
+                final Jsonb yasson = JsonbBuilder.create();
+                final Jsonb jsonb = (Jsonb) Proxy.newProxyInstance(
+                    Jsonb.class.getClassLoader(),
+                    new Class<?>[] { Jsonb.class },
+                    (proxy, method, args) -> method.invoke(yasson, args)
+                );
+                return new JsonbJsonpMapper(JsonProvider.provider(), jsonb);
+            default:
+                throw new IllegalArgumentException("Unknown mapper '" + name + "'");
+        }
+    }
+
+    static Document document(int i) {
+        return new Document(
+            Integer.toString(i),
+            "Document number " + i,
+            "A description that is long enough to be representative of a small text field, for document " + i,
+            i,
+            i * 0.25,
+            Arrays.asList("tag" + (i % 10), "tag" + (i % 7), "benchmark")
+        );
+    }
+
+    /**
+     * A search response with the given number of hits, each of them with a {@link Document} source.
+     */
+    static byte[] searchResponse(int hits) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"took\":12,\"timed_out\":false,");
+        sb.append("\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0},");
+        sb.append("\"hits\":{\"total\":{\"value\":").append(hits).append(",\"relation\":\"eq\"},\"max_score\":1.0,\"hits\":[");
+        for (int i = 0; i < hits; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            Document doc = document(i);
+            sb.append("{\"_index\":\"").append(INDEX).append("\",\"_id\":\"").append(i).append("\",\"_score\":1.0,");
+            sb.append("\"_source\":{\"id\":\"").append(doc.getId()).append("\",\"title\":\"").append(doc.getTitle());
+            sb.append("\",\"description\":\"").append(doc.getDescription()).append("\",\"count\":").append(doc.getCount());
+            sb.append(",\"price\":").append(doc.getPrice()).append(",\"tags\":[");
+            for (int t = 0; t < doc.getTags().size(); t++) {
+                sb.append(t > 0 ? ",\"" : "\"").append(doc.getTags().get(t)).append('"');
+            }
+            sb.append("]},\"sort\":[").append(i).append("]}");
+        }
+        sb.append("]}}");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A search response without hits, with terms, date histogram, stats and sub-aggregations with the given number
+     * of buckets, as returned with {@code typed_keys}.
+     */
+    static byte[] aggregationsResponse(int buckets) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"took\":25,\"timed_out\":false,");
+        sb.append("\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0},");
+        sb.append("\"hits\":{\"total\":{\"value\":10000,\"relation\":\"gte\"},\"max_score\":null,\"hits\":[]},");
+        sb.append("\"aggregations\":{");
+
+        sb.append("\"sterms#by_tag\":{\"doc_count_error_upper_bound\":0,\"sum_other_doc_count\":0,\"buckets\":[");
+        for (int i = 0; i < buckets; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"key\":\"tag").append(i).append("\",\"doc_count\":").append(buckets - i);
+            sb.append(",\"avg#avg_price\":{\"value\":").append(i * 1.5).append("}}");
+        }
+        sb.append("]},");
+
+        sb.append("\"date_histogram#per_day\":{\"buckets\":[");
+        long day = 86_400_000L;
+        for (int i = 0; i < buckets; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            long key = 1_700_006_400_000L + i * day;
+            sb.append("{\"key_as_string\":\"").append(String.format(Locale.ROOT, "%tF", key)).append("\",\"key\":").append(key);
+            sb.append(",\"doc_count\":").append(i + 1).append('}');
+        }
+        sb.append("]},");
+
+        sb.append("\"stats#price_stats\":{\"count\":10000,\"min\":0.0,\"max\":2499.75,\"avg\":1249.875,\"sum\":1.249875E7}");
+        sb.append("}}");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A bulk request with the given number of index operations.
+     */
+    static BulkRequest bulkRequest(int operations) {
+        BulkRequest.Builder builder = new BulkRequest.Builder().index(INDEX);
+        for (int i = 0; i < operations; i++) {
+            final Document doc = document(i);
+            builder.operations(op -> op.index(idx -> idx.id(doc.getId()).document(doc)));
+        }
+        return builder.build();
+    }
+
+    /**
+     * The response to a bulk request with the given number of index operations.
+     */
+    static byte[] bulkResponse(int operations) {
+        StringBuilder sb = new StringBuilder("{\"took\":3,\"errors\":false,\"items\":[");
+        for (int i = 0; i < operations; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"index\":{\"_index\":\"").append(INDEX).append("\",\"_id\":\"").append(i);
+            sb.append("\",\"_version\":1,\"result\":\"created\",\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0}");
+            sb.append(",\"_seq_no\":").append(i).append(",\"_primary_term\":1,\"status\":201}}");
+        }
+        sb.append("]}");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
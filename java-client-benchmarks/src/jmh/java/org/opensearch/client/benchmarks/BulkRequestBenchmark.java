@@ -0,0 +1,83 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.benchmarks;
+
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonParser;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.NdJsonpSerializable;
+import org.opensearch.client.opensearch.core.BulkRequest;
+import org.opensearch.client.opensearch.core.BulkResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Nd-json serialization of bulk requests, as done by the transports, and deserialization of their responses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class BulkRequestBenchmark {
+    @Param({ "jackson", "jsonb", "jsonb-portable" })
+    public String mapperName;
+
+    @Param({ "100", "1000" })
+    public int operations;
+
+    private JsonpMapper mapper;
+    private BulkRequest request;
+    private byte[] responseJson;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @Setup
+    public void setup() {
+        mapper = BenchmarkData.mapper(mapperName);
+        request = BenchmarkData.bulkRequest(operations);
+        responseJson = BenchmarkData.bulkResponse(operations);
+    }
+
+    @Benchmark
+    public int serializeRequest() {
+        out.reset();
+        writeNdJson(request);
+        return out.size();
+    }
+
+    @Benchmark
+    public BulkResponse deserializeResponse() {
+        try (JsonParser parser = mapper.jsonProvider().createParser(new ByteArrayInputStream(responseJson))) {
+            return BulkResponse._DESERIALIZER.deserialize(parser, mapper);
+        }
+    }
+
+    private void writeNdJson(NdJsonpSerializable value) {
+        Iterator<?> values = value._serializables();
+        while (values.hasNext()) {
+            Object item = values.next();
+            if (item instanceof NdJsonpSerializable && item != value) {
+                writeNdJson((NdJsonpSerializable) item);
+            } else {
+                JsonGenerator generator = mapper.jsonProvider().createGenerator(out);
+                mapper.serialize(item, generator);
+                generator.close();
+                out.write('\n');
+            }
+        }
+    }
+}
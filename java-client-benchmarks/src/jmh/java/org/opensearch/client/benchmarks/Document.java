@@ -0,0 +1,82 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.benchmarks;
+
+import java.util.List;
+
+/**
+ * The application document used by the benchmarks, mapped by both Jackson and JSON-B.
+ */
+public class Document {
+    private String id;
+    private String title;
+    private String description;
+    private int count;
+    private double price;
+    private List<String> tags;
+
+    public Document() {}
+
+    public Document(String id, String title, String description, int count, double price, List<String> tags) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.count = count;
+        this.price = price;
+        this.tags = tags;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+}
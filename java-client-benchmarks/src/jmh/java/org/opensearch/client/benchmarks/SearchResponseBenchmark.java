@@ -0,0 +1,79 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.benchmarks;
+
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonParser;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+import org.opensearch.client.json.JsonData;
+import org.opensearch.client.json.JsonpDeserializer;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Deserialization and serialization of search responses, with typed and raw document sources.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SearchResponseBenchmark {
+    @Param({ "jackson", "jsonb", "jsonb-portable" })
+    public String mapperName;
+
+    @Param({ "10", "1000" })
+    public int hits;
+
+    private JsonpMapper mapper;
+    private byte[] json;
+    private JsonpDeserializer<SearchResponse<Document>> documentDeserializer;
+    private JsonpDeserializer<SearchResponse<JsonData>> jsonDataDeserializer;
+    private SearchResponse<Document> response;
+
+    @Setup
+    public void setup() {
+        mapper = BenchmarkData.mapper(mapperName);
+        json = BenchmarkData.searchResponse(hits);
+        documentDeserializer = SearchResponse.createSearchResponseDeserializer(JsonpDeserializer.of(Document.class));
+        jsonDataDeserializer = SearchResponse.createSearchResponseDeserializer(JsonData._DESERIALIZER);
+        response = deserializeDocuments();
+    }
+
+    @Benchmark
+    public SearchResponse<Document> deserializeDocuments() {
+        try (JsonParser parser = mapper.jsonProvider().createParser(new ByteArrayInputStream(json))) {
+            return documentDeserializer.deserialize(parser, mapper);
+        }
+    }
+
+    @Benchmark
+    public SearchResponse<JsonData> deserializeJsonData() {
+        try (JsonParser parser = mapper.jsonProvider().createParser(new ByteArrayInputStream(json))) {
+            return jsonDataDeserializer.deserialize(parser, mapper);
+        }
+    }
+
+    @Benchmark
+    public int serializeDocuments() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+        try (JsonGenerator generator = mapper.jsonProvider().createGenerator(out)) {
+            response.serialize(generator, mapper);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.apache.hc.core5.http.HttpHost;
+import org.opensearch.client.opensearch.OpenSearchClient;
+import org.opensearch.client.opensearch.core.BulkRequest;
+import org.opensearch.client.opensearch.core.BulkResponse;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.transport.OpenSearchTransport;
+import org.opensearch.client.transport.httpclient5.ApacheHttpClient5TransportBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * End-to-end requests through {@code ApacheHttpClient5Transport} against a local stub server, which measures the
+ * per-request overhead of the client: request serialization, the HTTP exchange over loopback and response
+ * deserialization. Run it with several threads (e.g. {@code -t 8}) to measure contention.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TransportBenchmark {
+    private static final int SEARCH_HITS = 10;
+    private static final int BULK_OPERATIONS = 10;
+
+    @Param({ "jackson", "jsonb" })
+    public String mapperName;
+
+    private StubServer server;
+    private OpenSearchTransport transport;
+    private OpenSearchClient client;
+    private BulkRequest bulkRequest;
+
+    @Setup
+    public void setup() {
+        try {
+            server = new StubServer().respond("/" + BenchmarkData.INDEX + "/_search", BenchmarkData.searchResponse(SEARCH_HITS))
+                .respond("/" + BenchmarkData.INDEX + "/_bulk", BenchmarkData.bulkResponse(BULK_OPERATIONS))
+                .respond("/", "{}".getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot start the stub server", e);
+        }
+
+        transport = ApacheHttpClient5TransportBuilder.builder(new HttpHost("http", "localhost", server.port()))
+            .setMapper(BenchmarkData.mapper(mapperName))
+            .build();
+        client = new OpenSearchClient(transport);
+        bulkRequest = BenchmarkData.bulkRequest(BULK_OPERATIONS);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        transport.close();
+        server.close();
+    }
+
+    @Benchmark
+    public boolean ping() throws IOException {
+        return client.ping().value();
+    }
+
+    @Benchmark
+    public SearchResponse<Document> search() throws IOException {
+        return client.search(s -> s.index(BenchmarkData.INDEX).size(SEARCH_HITS), Document.class);
+    }
+
+    @Benchmark
+    public BulkResponse bulk() throws IOException {
+        return client.bulk(bulkRequest);
+    }
+}
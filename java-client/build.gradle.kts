@@ -191,6 +191,11 @@ dependencies {
     }
     testImplementation("org.opensearch.client", "opensearch-rest-client", opensearchVersion)
 
+    // Public Domain (CC0) OR BSD-2-Clause
+    // For HdrHistogramInstrumentation: https://github.com/HdrHistogram/HdrHistogram
+    compileOnly("org.hdrhistogram:HdrHistogram:2.2.2")
+    testImplementation("org.hdrhistogram:HdrHistogram:2.2.2")
+
     api("org.apache.httpcomponents.client5:httpclient5:5.4.1") {
       exclude(group = "org.apache.httpcomponents.core5")
     }
@@ -0,0 +1,151 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.json;
+
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonParser;
+
+/**
+ * A {@link JsonData} read from a parser, whose events are kept in a {@link BufferingJsonGenerator}. Converting it
+ * replays these events, and so does serializing it, while the {@link JsonValue} representation is only built if it is
+ * requested.
+ */
+class BufferedJsonData implements JsonData {
+    private final BufferingJsonGenerator buffer;
+    private final JsonpMapper mapper;
+    private volatile JsonValue json;
+
+    BufferedJsonData(BufferingJsonGenerator buffer, JsonpMapper mapper) {
+        this.buffer = buffer;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public String toString() {
+        return toJson().toString();
+    }
+
+    @Override
+    public JsonValue toJson() {
+        JsonValue result = json;
+        if (result == null) {
+            final JsonParser parser = buffer.getParsedBuffer();
+            parser.next(); // move to first event
+            result = parser.getValue();
+            json = result;
+        }
+        return result;
+    }
+
+    @Override
+    public JsonValue toJson(JsonpMapper mapper) {
+        return toJson();
+    }
+
+    @Override
+    public <T> T to(Class<T> clazz) {
+        return to(clazz, null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T to(Class<T> clazz, JsonpMapper mapper) {
+        if (JsonValue.class.isAssignableFrom(clazz)) {
+            final JsonValue value = toJson();
+            if (clazz.isInstance(value)) {
+                return (T) value;
+            }
+        }
+
+        mapper = mapper != null ? mapper : this.mapper;
+        if (!canReplay(mapper)) {
+            return JsonData.of(toJson(), this.mapper).to(clazz, mapper);
+        }
+        return mapper.deserialize(buffer.getParsedBuffer(), clazz);
+    }
+
+    @Override
+    public <T> T deserialize(JsonpDeserializer<T> deserializer) {
+        return deserialize(deserializer, null);
+    }
+
+    @Override
+    public <T> T deserialize(JsonpDeserializer<T> deserializer, JsonpMapper mapper) {
+        mapper = mapper != null ? mapper : this.mapper;
+        if (!canReplay(mapper)) {
+            return JsonData.of(toJson(), this.mapper).deserialize(deserializer, mapper);
+        }
+        return deserializer.deserialize(buffer.getParsedBuffer(), mapper);
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, JsonpMapper mapper) {
+        final JsonValue value = json;
+        if (value != null) {
+            generator.write(value);
+            return;
+        }
+        try (JsonParser parser = buffer.getParsedBuffer()) {
+            copy(parser, generator);
+        }
+    }
+
+    /**
+     * Writes the events of the value of a parser to a generator, without building its {@link JsonValue}
+     * representation.
+     */
+    private static void copy(JsonParser parser, JsonGenerator generator) {
+        int depth = 0;
+        do {
+            switch (parser.next()) {
+                case START_OBJECT:
+                    generator.writeStartObject();
+                    depth++;
+                    break;
+                case START_ARRAY:
+                    generator.writeStartArray();
+                    depth++;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    generator.writeEnd();
+                    depth--;
+                    break;
+                case KEY_NAME:
+                    generator.writeKey(parser.getString());
+                    break;
+                case VALUE_STRING:
+                    generator.write(parser.getString());
+                    break;
+                case VALUE_NUMBER:
+                    // Keeps the precision of big and decimal numbers
+                    generator.write(parser.getValue());
+                    break;
+                case VALUE_TRUE:
+                    generator.write(true);
+                    break;
+                case VALUE_FALSE:
+                    generator.write(false);
+                    break;
+                case VALUE_NULL:
+                    generator.writeNull();
+                    break;
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Parsers replaying the buffer come from the provider of the mapper that created it, and can only be used by
+     * mappers that share that provider.
+     */
+    private boolean canReplay(JsonpMapper mapper) {
+        return mapper == this.mapper || mapper.jsonProvider().getClass() == this.mapper.jsonProvider().getClass();
+    }
+}
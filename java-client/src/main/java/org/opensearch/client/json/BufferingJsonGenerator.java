@@ -0,0 +1,31 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.json;
+
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonParser;
+
+/**
+ * A {@link JsonGenerator} that keeps the events written to it in memory, and can replay them as a {@link JsonParser}.
+ *
+ * @see BufferingJsonpMapper
+ */
+public interface BufferingJsonGenerator extends JsonGenerator {
+    /**
+     * Copies the value at the current position of a parser, which must be on the first event of that value. The parser
+     * is left on the last event of the value.
+     */
+    void copyValue(JsonParser parser);
+
+    /**
+     * Closes this generator and returns a new parser that replays the events that were written to it. This method can
+     * be called several times, each parser being independent of the others.
+     */
+    JsonParser getParsedBuffer();
+}
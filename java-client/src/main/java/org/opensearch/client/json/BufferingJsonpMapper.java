@@ -0,0 +1,20 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.json;
+
+/**
+ * A {@link JsonpMapper} that can buffer JSON events in memory and replay them, so that values can be converted
+ * without being serialized to text and parsed again.
+ */
+public interface BufferingJsonpMapper extends JsonpMapper {
+    /**
+     * Creates a generator that keeps the events written to it in memory.
+     */
+    BufferingJsonGenerator createBufferingGenerator();
+}
@@ -104,9 +104,26 @@ public interface JsonData extends JsonpSerializable {
      * {@link #deserialize(JsonpDeserializer)}.
      */
     static JsonData from(JsonParser parser, JsonpMapper mapper) {
-        parser.next(); // Need to be at the beginning of the value to read
+        return from(parser, mapper, parser.next()); // Need to be at the beginning of the value to read
+    }
+
+    /**
+     * Creates a raw JSON value from a parser that is on the first event of that value.
+     *
+     * @see #from(JsonParser, JsonpMapper)
+     */
+    static JsonData from(JsonParser parser, JsonpMapper mapper, JsonParser.Event event) {
+        if (mapper instanceof BufferingJsonpMapper) {
+            // Keep the value's events, so that converting it doesn't require building a JsonValue and serializing it
+            BufferingJsonGenerator buffer = ((BufferingJsonpMapper) mapper).createBufferingGenerator();
+            buffer.copyValue(parser);
+            return new BufferedJsonData(buffer, mapper);
+        }
         return of(parser.getValue(), mapper);
     }
 
-    JsonpDeserializer<JsonData> _DESERIALIZER = JsonpDeserializer.of(EnumSet.allOf(JsonParser.Event.class), JsonData::from);
+    JsonpDeserializer<JsonData> _DESERIALIZER = JsonpDeserializer.of(
+        EnumSet.allOf(JsonParser.Event.class),
+        (JsonParser parser, JsonpMapper mapper, JsonParser.Event event) -> from(parser, mapper, event)
+    );
 }
@@ -146,17 +146,26 @@ class JsonDataImpl implements JsonData {
     }
 
     private JsonParser getParser(JsonpMapper mapper) {
-        // FIXME: inefficient roundtrip through a string. Should be replaced by an Event buffer structure.
+        if (mapper instanceof BufferingJsonpMapper) {
+            // Replay the value's events from memory, without going through a text representation
+            BufferingJsonGenerator generator = ((BufferingJsonpMapper) mapper).createBufferingGenerator();
+            writeValue(generator, mapper);
+            return generator.getParsedBuffer();
+        }
+
         StringWriter sw = new StringWriter();
         JsonGenerator generator = mapper.jsonProvider().createGenerator(sw);
+        writeValue(generator, mapper);
+        generator.close();
 
+        return mapper.jsonProvider().createParser(new StringReader(sw.toString()));
+    }
+
+    private void writeValue(JsonGenerator generator, JsonpMapper mapper) {
         if (value instanceof JsonValue) {
             generator.write((JsonValue) value);
         } else {
             mapper.serialize(value, generator);
         }
-        generator.close();
-
-        return mapper.jsonProvider().createParser(new StringReader(sw.toString()));
     }
 }
@@ -12,4 +12,10 @@ public final class JsonpMapperAttributes {
     private JsonpMapperAttributes() {}
 
     public static final String SERIALIZE_TYPED_KEYS = JsonpMapperAttributes.class.getName() + ":SERIALIZE_TYPED_KEYS";
+
+    /**
+     * When set to {@code true}, the {@code _source} of search hits is kept as raw JSON and only deserialized when
+     * {@link org.opensearch.client.opensearch.core.search.Hit#source()} is first called.
+     */
+    public static final String LAZY_HIT_SOURCE = JsonpMapperAttributes.class.getName() + ":LAZY_HIT_SOURCE";
 }
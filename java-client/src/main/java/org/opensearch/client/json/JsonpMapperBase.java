@@ -40,16 +40,44 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.annotation.Nullable;
 
 public abstract class JsonpMapperBase implements JsonpMapper {
+    // Reflective lookups only depend on the class, they are memoized for all mappers
+    private static final ClassValue<JsonpDeserializer<?>> ANNOTATED_DESERIALIZERS = new ClassValue<JsonpDeserializer<?>>() {
+        @Override
+        protected JsonpDeserializer<?> computeValue(Class<?> type) {
+            return lookupAnnotatedDeserializer(type);
+        }
+    };
+
+    private static final ClassValue<JsonpSerializer<?>> BUILTIN_SERIALIZERS = new ClassValue<JsonpSerializer<?>>() {
+        @Override
+        protected JsonpSerializer<?> computeValue(Class<?> type) {
+            if (JsonpSerializable.class.isAssignableFrom(type)) {
+                return JsonpSerializableSerializer.INSTANCE;
+            }
+            if (JsonValue.class.isAssignableFrom(type)) {
+                return JsonpValueSerializer.INSTANCE;
+            }
+            return null;
+        }
+    };
+
     @Nullable
     private Map<String, Object> attributes;
 
-    protected JsonpMapperBase() {}
+    private final Registry registry;
+
+    protected JsonpMapperBase() {
+        this.registry = new Registry();
+    }
 
     protected JsonpMapperBase(JsonpMapperBase o) {
         this.attributes = o.attributes; // We always copy in `setAttribute` so no need to copy here.
+        this.registry = o.registry; // Copies only differ by their attributes, and share their (de)serializers.
     }
 
     @Override
@@ -91,24 +119,83 @@ public abstract class JsonpMapperBase implements JsonpMapper {
     /** Get a serializer when none of the builtin ones are applicable */
     protected abstract <T> JsonpDeserializer<T> getDefaultDeserializer(Class<T> clazz);
 
+    /**
+     * Registers the deserializer to use for a class, instead of its {@link JsonpDeserializable} deserializer or the
+     * default deserializer of this mapper. The registration is shared with the mappers created from this one with
+     * {@link #withAttribute(String, Object)}, and should happen before the mapper is used.
+     */
+    public <T> JsonpMapperBase registerDeserializer(Class<T> clazz, JsonpDeserializer<T> deserializer) {
+        registry.deserializers.put(Objects.requireNonNull(clazz), Objects.requireNonNull(deserializer));
+        return this;
+    }
+
+    /**
+     * Registers the serializer to use for values of a class, instead of the serialization provided by this mapper.
+     * Only values of this exact class are serialized with it, not values of its subclasses. The registration is shared
+     * with the mappers created from this one with {@link #withAttribute(String, Object)}, and should happen before the
+     * mapper is used.
+     */
+    public <T> JsonpMapperBase registerSerializer(Class<T> clazz, JsonpSerializer<T> serializer) {
+        registry.serializers.put(Objects.requireNonNull(clazz), Objects.requireNonNull(serializer));
+        return this;
+    }
+
     @Override
     public <T> T deserialize(JsonParser parser, Class<T> clazz) {
-        JsonpDeserializer<T> deserializer = findDeserializer(clazz);
+        return deserializer(clazz).deserialize(parser, this);
+    }
+
+    /**
+     * Returns the deserializer used by this mapper for a class: the registered one, the {@link JsonpDeserializable} one,
+     * or the default one. It is looked up once and then memoized.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> JsonpDeserializer<T> deserializer(Class<T> clazz) {
+        JsonpDeserializer<T> deserializer = (JsonpDeserializer<T>) registry.deserializers.get(clazz);
         if (deserializer != null) {
-            return deserializer.deserialize(parser, this);
+            return deserializer;
+        }
+
+        deserializer = findDeserializer(clazz);
+        if (deserializer == null) {
+            deserializer = getDefaultDeserializer(clazz);
+        }
+        // Not computeIfAbsent: getDefaultDeserializer may look up other deserializers
+        JsonpDeserializer<?> existing = registry.deserializers.putIfAbsent(clazz, deserializer);
+        return existing == null ? deserializer : (JsonpDeserializer<T>) existing;
+    }
+
+    /**
+     * Returns the serializer registered for the class of a value, or the builtin serializer of
+     * {@link JsonpSerializable} and {@link JsonValue} values, or {@code null} if the value has to be serialized by
+     * the implementation.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    protected <T> JsonpSerializer<T> serializer(T value) {
+        if (false == registry.serializers.isEmpty()) {
+            JsonpSerializer<T> serializer = (JsonpSerializer<T>) registry.serializers.get(value.getClass());
+            if (serializer != null) {
+                return serializer;
+            }
         }
 
-        return getDefaultDeserializer(clazz).deserialize(parser, this);
+        return findSerializer(value);
     }
 
     @Nullable
     @SuppressWarnings("unchecked")
     public static <T> JsonpDeserializer<T> findDeserializer(Class<T> clazz) {
+        return (JsonpDeserializer<T>) ANNOTATED_DESERIALIZERS.get(clazz);
+    }
+
+    @Nullable
+    private static JsonpDeserializer<?> lookupAnnotatedDeserializer(Class<?> clazz) {
         JsonpDeserializable annotation = clazz.getAnnotation(JsonpDeserializable.class);
         if (annotation != null) {
             try {
                 Field field = clazz.getDeclaredField(annotation.field());
-                return (JsonpDeserializer<T>) field.get(null);
+                return (JsonpDeserializer<?>) field.get(null);
             } catch (Exception e) {
                 throw new RuntimeException("No deserializer found in '" + clazz.getName() + "." + annotation.field() + "'");
             }
@@ -120,16 +207,16 @@ public abstract class JsonpMapperBase implements JsonpMapper {
     @Nullable
     @SuppressWarnings("unchecked")
     public static <T> JsonpSerializer<T> findSerializer(T value) {
-        Class<?> valueClass = value.getClass();
-        if (JsonpSerializable.class.isAssignableFrom(valueClass)) {
-            return (JsonpSerializer<T>) JsonpSerializableSerializer.INSTANCE;
-        }
-
-        if (JsonValue.class.isAssignableFrom(valueClass)) {
-            return (JsonpSerializer<T>) JsonpValueSerializer.INSTANCE;
-        }
+        return (JsonpSerializer<T>) BUILTIN_SERIALIZERS.get(value.getClass());
+    }
 
-        return null;
+    /**
+     * The (de)serializers of a mapper and of its copies. Classes are not unloaded while the mapper is reachable, as
+     * with the caches of Jackson or JSON-B.
+     */
+    private static final class Registry {
+        private final ConcurrentMap<Class<?>, JsonpDeserializer<?>> deserializers = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Class<?>, JsonpSerializer<?>> serializers = new ConcurrentHashMap<>();
     }
 
     protected static class JsonpSerializableSerializer<T extends JsonpSerializable> implements JsonpSerializer<T> {
@@ -76,8 +76,9 @@ public class JsonpUtils {
 
         @Override
         public <T> void serialize(T value, JsonGenerator generator) {
-            if (value instanceof JsonpSerializable) {
-                ((JsonpSerializable) value).serialize(generator, this);
+            JsonpSerializer<T> serializer = serializer(value);
+            if (serializer != null) {
+                serializer.serialize(value, generator, this);
                 return;
             }
             throw new JsonException(
@@ -114,6 +114,8 @@ public class ObjectDeserializer<ObjectType> implements JsonpDeserializer<ObjectT
     private String defaultType;
     private FieldDeserializer<ObjectType> shortcutProperty;
     private QuadConsumer<ObjectType, String, JsonParser, JsonpMapper> unknownFieldHandler;
+    // Lookup structure built from fieldDeserializers on first use
+    private volatile FieldTable<ObjectType> fieldTable;
 
     public ObjectDeserializer(Supplier<ObjectType> constructor) {
         this.constructor = constructor;
@@ -174,16 +176,42 @@ public class ObjectDeserializer<ObjectType> implements JsonpDeserializer<ObjectT
                 event = parser.next();
             }
             // Regular object: read all properties until we reach the end of the object
+            final FieldTable<ObjectType> table = fieldTable();
+            FieldEntry<ObjectType> expected = table.first;
+            FieldEntry<ObjectType> previous = null;
+            boolean isFirst = true;
             while (event != Event.END_OBJECT) {
                 JsonpUtils.expectEvent(parser, Event.KEY_NAME, event);
                 String fieldName = parser.getString();
 
-                FieldDeserializer<ObjectType> fieldDeserializer = fieldDeserializers.get(fieldName);
-                if (fieldDeserializer == null) {
+                FieldEntry<ObjectType> entry;
+                if (expected != null && expected.name == fieldName) {
+                    // Same field as the one that followed the previous one last time
+                    entry = expected;
+                } else {
+                    entry = table.get(fieldName);
+                    // Predictions are only learned once: the stores are rare, and don't flap between objects with
+                    // different property orders
+                    if (entry != null) {
+                        if (isFirst) {
+                            if (table.first == null) {
+                                table.first = entry;
+                            }
+                        } else if (previous != null && previous.next == null) {
+                            previous.next = entry;
+                        }
+                    }
+                }
+
+                if (entry == null) {
                     parseUnknownField(parser, mapper, fieldName, value);
+                    expected = null;
                 } else {
-                    fieldDeserializer.deserialize(parser, mapper, fieldName, value);
+                    entry.deserializer.deserialize(parser, mapper, fieldName, value);
+                    expected = entry.next;
                 }
+                previous = entry;
+                isFirst = false;
                 event = parser.next();
             }
         } else {
@@ -194,11 +222,11 @@ public class ObjectDeserializer<ObjectType> implements JsonpDeserializer<ObjectT
             String variant = unionInfo.getKey();
             JsonParser innerParser = unionInfo.getValue();
 
-            FieldDeserializer<ObjectType> fieldDeserializer = fieldDeserializers.get(variant);
-            if (fieldDeserializer == null) {
+            FieldEntry<ObjectType> entry = fieldTable().get(variant);
+            if (entry == null) {
                 parseUnknownField(parser, mapper, variant, value);
             } else {
-                fieldDeserializer.deserialize(innerParser, mapper, variant, value);
+                entry.deserializer.deserialize(innerParser, mapper, variant, value);
             }
         }
 
@@ -209,6 +237,15 @@ public class ObjectDeserializer<ObjectType> implements JsonpDeserializer<ObjectT
         return value;
     }
 
+    private FieldTable<ObjectType> fieldTable() {
+        FieldTable<ObjectType> table = this.fieldTable;
+        if (table == null || table.size != fieldDeserializers.size()) {
+            table = new FieldTable<>(fieldDeserializers);
+            this.fieldTable = table;
+        }
+        return table;
+    }
+
     protected void parseUnknownField(JsonParser parser, JsonpMapper mapper, String fieldName, ObjectType object) {
         if (this.unknownFieldHandler != null) {
             this.unknownFieldHandler.accept(object, fieldName, parser, mapper);
@@ -231,6 +268,7 @@ public class ObjectDeserializer<ObjectType> implements JsonpDeserializer<ObjectT
     @SuppressWarnings("unchecked")
     public void ignore(String name) {
         this.fieldDeserializers.put(name, (FieldDeserializer<ObjectType>) IGNORED_FIELD);
+        this.fieldTable = null;
     }
 
     public void shortcutProperty(String name) {
@@ -252,6 +290,7 @@ public class ObjectDeserializer<ObjectType> implements JsonpDeserializer<ObjectT
     public <FieldType> void add(BiConsumer<ObjectType, FieldType> setter, JsonpDeserializer<FieldType> deserializer, String name) {
         FieldObjectDeserializer<ObjectType, FieldType> fieldDeserializer = new FieldObjectDeserializer<>(setter, deserializer, name);
         this.fieldDeserializers.put(name, fieldDeserializer);
+        this.fieldTable = null;
     }
 
     public <FieldType> void add(
@@ -265,6 +304,18 @@ public class ObjectDeserializer<ObjectType> implements JsonpDeserializer<ObjectT
         for (String alias : aliases) {
             this.fieldDeserializers.put(alias, fieldDeserializer);
         }
+        this.fieldTable = null;
+    }
+
+    /**
+     * Adds a custom field deserializer, for fields that need more than a setter and a value deserializer.
+     */
+    public void add(FieldDeserializer<ObjectType> fieldDeserializer, String... aliases) {
+        this.fieldDeserializers.put(fieldDeserializer.name, fieldDeserializer);
+        for (String alias : aliases) {
+            this.fieldDeserializers.put(alias, fieldDeserializer);
+        }
+        this.fieldTable = null;
     }
 
     public <FieldType> void setKey(BiConsumer<ObjectType, FieldType> setter, JsonpDeserializer<FieldType> deserializer) {
@@ -283,4 +334,79 @@ public class ObjectDeserializer<ObjectType> implements JsonpDeserializer<ObjectT
         add(setter::accept, JsonpDeserializer.integerDeserializer(), name, deprecatedNames);
     }
 
+    // ----- Field lookup
+
+    private static final class FieldEntry<ObjectType> {
+        final String name;
+        final FieldDeserializer<ObjectType> deserializer;
+        // The entry that followed this one in the first object where it was followed by a known field, set once.
+        // Shared by all threads without synchronization: it's only a prediction that is checked before being used.
+        FieldEntry<ObjectType> next;
+
+        FieldEntry(String name, FieldDeserializer<ObjectType> deserializer) {
+            this.name = name;
+            this.deserializer = deserializer;
+        }
+    }
+
+    /**
+     * An open-addressing table of field deserializers, optimized for the lookups done while parsing.
+     * <p>
+     * Names are compared by identity before equality: Jackson canonicalizes field names, which are then the same
+     * instances as the string constants used to set up deserializers, so that matching a known field usually doesn't
+     * compare any characters. Properties also tend to come in the same order in all objects of a given type: each entry
+     * remembers the entry that followed it the first time, so that the next property is most often matched with a single
+     * reference comparison, without hashing its name. Predictions are never overwritten, so that parsing doesn't keep
+     * writing to a table shared by all threads.
+     */
+    private static final class FieldTable<ObjectType> {
+        final int size;
+        private final String[] names;
+        private final int[] hashes;
+        private final FieldEntry<ObjectType>[] entries;
+        private final int mask;
+        // Entry for the first property of the first object that was read, see FieldEntry.next
+        FieldEntry<ObjectType> first;
+
+        @SuppressWarnings("unchecked")
+        FieldTable(Map<String, FieldDeserializer<ObjectType>> fieldDeserializers) {
+            this.size = fieldDeserializers.size();
+            // Keep the load factor at or below 0.5 so that probe sequences are short
+            int capacity = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+            this.names = new String[capacity];
+            this.hashes = new int[capacity];
+            this.entries = new FieldEntry[capacity];
+            this.mask = capacity - 1;
+
+            for (Map.Entry<String, FieldDeserializer<ObjectType>> e : fieldDeserializers.entrySet()) {
+                String name = e.getKey();
+                int hash = name.hashCode();
+                int i = spread(hash) & mask;
+                while (names[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                names[i] = name;
+                hashes[i] = hash;
+                entries[i] = new FieldEntry<>(name, e.getValue());
+            }
+        }
+
+        @Nullable
+        FieldEntry<ObjectType> get(String name) {
+            int hash = name.hashCode();
+            int i = spread(hash) & mask;
+            String candidate;
+            while ((candidate = names[i]) != null) {
+                if (candidate == name || (hashes[i] == hash && candidate.equals(name))) {
+                    return entries[i];
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
 }
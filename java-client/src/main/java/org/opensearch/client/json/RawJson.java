@@ -0,0 +1,164 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.json;
+
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonParser;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import javax.annotation.Nullable;
+
+/**
+ * A JSON value that is already serialized, held as UTF-8 bytes. It can be used as the document of index and create
+ * requests and of bulk index and create operations, whose body is then written verbatim by the transports, without
+ * being parsed and serialized again:
+ * <pre>{@code
+ * // The document as received from a message queue
+ * byte[] payload = record.value();
+ * br.operations(op -> op.index(idx -> idx.index("logs").document(RawJson.of(payload))));
+ * }</pre>
+ * The bytes are not validated: they must be a single JSON value, and must not contain newlines when used in bulk
+ * requests. The bytes are not copied either, and must not be modified until the request is sent.
+ * <p>
+ * It can also be used as the document type of responses, to get the documents as bytes.
+ */
+@JsonpDeserializable
+public final class RawJson implements JsonpSerializable {
+    private final byte[] bytes;
+    private final int offset;
+    private final int length;
+
+    private RawJson(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > bytes.length - length) {
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + length) + ") out of bounds for " + bytes.length);
+        }
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Creates a raw JSON value from UTF-8 bytes.
+     */
+    public static RawJson of(byte[] utf8) {
+        return new RawJson(utf8, 0, utf8.length);
+    }
+
+    /**
+     * Creates a raw JSON value from a range of UTF-8 bytes.
+     */
+    public static RawJson of(byte[] utf8, int offset, int length) {
+        return new RawJson(utf8, offset, length);
+    }
+
+    /**
+     * Creates a raw JSON value from the remaining UTF-8 bytes of a buffer. Heap buffers are not copied.
+     */
+    public static RawJson of(ByteBuffer utf8) {
+        if (utf8.hasArray()) {
+            return new RawJson(utf8.array(), utf8.arrayOffset() + utf8.position(), utf8.remaining());
+        }
+        final byte[] bytes = new byte[utf8.remaining()];
+        utf8.duplicate().get(bytes);
+        return of(bytes);
+    }
+
+    /**
+     * Creates a raw JSON value from a string.
+     */
+    public static RawJson of(String json) {
+        return of(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The size of the value in bytes.
+     */
+    public int size() {
+        return length;
+    }
+
+    /**
+     * Returns a read-only buffer over the bytes of the value.
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(bytes, offset, length).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a stream over the bytes of the value.
+     */
+    public InputStream asInputStream() {
+        return new ByteArrayInputStream(bytes, offset, length);
+    }
+
+    /**
+     * Writes the bytes of the value.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, offset, length);
+    }
+
+    /**
+     * Converts this value to a target class.
+     */
+    public <T> T to(Class<T> clazz, JsonpMapper mapper) {
+        try (JsonParser parser = mapper.jsonProvider().createParser(asInputStream())) {
+            return mapper.deserialize(parser, clazz);
+        }
+    }
+
+    /**
+     * Serializes this value by parsing it. Transports don't use this method for the documents of index, create and
+     * bulk requests, but write the bytes directly.
+     */
+    @Override
+    public void serialize(JsonGenerator generator, JsonpMapper mapper) {
+        try (JsonParser parser = mapper.jsonProvider().createParser(asInputStream())) {
+            parser.next();
+            generator.write(parser.getValue());
+        }
+    }
+
+    /**
+     * Returns the raw JSON value that makes up a request body or an nd-json item, if any: either the value itself, or
+     * the document of a {@link RawJsonBody}.
+     */
+    @Nullable
+    public static RawJson rawBody(Object value) {
+        if (value instanceof RawJson) {
+            return (RawJson) value;
+        }
+        if (value instanceof RawJsonBody) {
+            return ((RawJsonBody) value)._rawBody();
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
+    public static final JsonpDeserializer<RawJson> _DESERIALIZER = JsonpDeserializer.of(
+        EnumSet.allOf(JsonParser.Event.class),
+        (JsonParser parser, JsonpMapper mapper, JsonParser.Event event) -> {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (JsonGenerator generator = mapper.jsonProvider().createGenerator(baos)) {
+                generator.write(parser.getValue());
+            }
+            return of(baos.toByteArray());
+        }
+    );
+}
@@ -0,0 +1,24 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.json;
+
+import javax.annotation.Nullable;
+
+/**
+ * Marks a request whose body is a single document (e.g. index requests). When that document is a {@link RawJson}, the
+ * transports write it as the body instead of serializing the request.
+ */
+public interface RawJsonBody {
+    /**
+     * The document that makes up the body of this request, or {@code null} if it isn't a {@link RawJson} or if it has
+     * to be serialized.
+     */
+    @Nullable
+    RawJson _rawBody();
+}
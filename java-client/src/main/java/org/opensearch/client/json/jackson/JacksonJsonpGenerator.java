@@ -33,15 +33,18 @@
 package org.opensearch.client.json.jackson;
 
 import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import jakarta.json.JsonNumber;
 import jakarta.json.JsonString;
 import jakarta.json.JsonValue;
 import jakarta.json.stream.JsonGenerationException;
 import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonParser;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Map;
+import org.opensearch.client.json.BufferingJsonGenerator;
 
 /**
  * A JSONP generator implementation on top of Jackson.
@@ -382,4 +385,42 @@ public class JacksonJsonpGenerator implements JsonGenerator {
                 break;
         }
     }
+
+    /**
+     * A generator that writes to a Jackson {@link TokenBuffer}, whose events can be replayed without being
+     * serialized to text.
+     */
+    static class Buffering extends JacksonJsonpGenerator implements BufferingJsonGenerator {
+        private final TokenBuffer buffer;
+        private final JacksonJsonpMapper mapper;
+
+        Buffering(JacksonJsonpMapper mapper) {
+            this(new TokenBuffer(mapper.objectMapper(), false), mapper);
+        }
+
+        private Buffering(TokenBuffer buffer, JacksonJsonpMapper mapper) {
+            super(buffer);
+            this.buffer = buffer;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void copyValue(JsonParser parser) {
+            if (parser instanceof JacksonJsonpParser) {
+                try {
+                    buffer.copyCurrentStructure(((JacksonJsonpParser) parser).jacksonParser());
+                } catch (IOException e) {
+                    throw JacksonUtils.convertException(e);
+                }
+            } else {
+                write(parser.getValue());
+            }
+        }
+
+        @Override
+        public JsonParser getParsedBuffer() {
+            close();
+            return new JacksonJsonpParser(buffer.asParser(mapper.objectMapper()));
+        }
+    }
 }
@@ -41,13 +41,15 @@ import jakarta.json.stream.JsonGenerator;
 import jakarta.json.stream.JsonParser;
 import java.io.IOException;
 import java.util.EnumSet;
+import org.opensearch.client.json.BufferingJsonGenerator;
+import org.opensearch.client.json.BufferingJsonpMapper;
 import org.opensearch.client.json.JsonpDeserializer;
 import org.opensearch.client.json.JsonpDeserializerBase;
 import org.opensearch.client.json.JsonpMapper;
 import org.opensearch.client.json.JsonpMapperBase;
 import org.opensearch.client.json.JsonpSerializer;
 
-public class JacksonJsonpMapper extends JsonpMapperBase {
+public class JacksonJsonpMapper extends JsonpMapperBase implements BufferingJsonpMapper {
     private final JacksonJsonProvider provider;
     private final ObjectMapper objectMapper;
 
@@ -90,6 +92,11 @@ public class JacksonJsonpMapper extends JsonpMapperBase {
         return provider;
     }
 
+    @Override
+    public BufferingJsonGenerator createBufferingGenerator() {
+        return new JacksonJsonpGenerator.Buffering(this);
+    }
+
     @Override
     protected <T> JsonpDeserializer<T> getDefaultDeserializer(Class<T> clazz) {
         return new JacksonValueParser<>(clazz);
@@ -102,7 +109,7 @@ public class JacksonJsonpMapper extends JsonpMapperBase {
             throw new IllegalArgumentException("Jackson's ObjectMapper can only be used with the JacksonJsonpProvider");
         }
 
-        JsonpSerializer<T> serializer = findSerializer(value);
+        JsonpSerializer<T> serializer = serializer(value);
         if (serializer != null) {
             serializer.serialize(value, generator, this);
             return;
@@ -32,6 +32,7 @@
 
 package org.opensearch.client.json.jsonb;
 
+import jakarta.json.JsonStructure;
 import jakarta.json.bind.Jsonb;
 import jakarta.json.bind.spi.JsonbProvider;
 import jakarta.json.spi.JsonProvider;
@@ -41,20 +42,23 @@ import jakarta.json.stream.JsonParser.Event;
 import java.io.CharArrayReader;
 import java.io.CharArrayWriter;
 import java.util.EnumSet;
+import org.eclipse.yasson.YassonJsonb;
 import org.opensearch.client.json.JsonpDeserializer;
 import org.opensearch.client.json.JsonpDeserializerBase;
 import org.opensearch.client.json.JsonpMapper;
 import org.opensearch.client.json.JsonpMapperBase;
-import org.opensearch.client.json.JsonpSerializable;
+import org.opensearch.client.json.JsonpSerializer;
 
 public class JsonbJsonpMapper extends JsonpMapperBase {
 
     private final JsonProvider jsonProvider;
     private final Jsonb jsonb;
+    private final boolean yasson;
 
     public JsonbJsonpMapper(JsonProvider jsonProvider, Jsonb jsonb) {
         this.jsonProvider = jsonProvider;
         this.jsonb = jsonb;
+        this.yasson = YassonSupport.isYasson(jsonb);
     }
 
     public JsonbJsonpMapper(JsonProvider jsonProvider, JsonbProvider jsonbProvider) {
@@ -69,6 +73,7 @@ public class JsonbJsonpMapper extends JsonpMapperBase {
         super(o);
         this.jsonProvider = o.jsonProvider;
         this.jsonb = o.jsonb;
+        this.yasson = o.yasson;
     }
 
     @Override
@@ -83,8 +88,14 @@ public class JsonbJsonpMapper extends JsonpMapperBase {
 
     @Override
     public <T> void serialize(T value, JsonGenerator generator) {
-        if (value instanceof JsonpSerializable) {
-            ((JsonpSerializable) value).serialize(generator, this);
+        JsonpSerializer<T> serializer = serializer(value);
+        if (serializer != null) {
+            serializer.serialize(value, generator, this);
+            return;
+        }
+
+        if (yasson) {
+            YassonSupport.toJson(jsonb, value, generator);
             return;
         }
 
@@ -112,11 +123,21 @@ public class JsonbJsonpMapper extends JsonpMapperBase {
 
         @Override
         public T deserialize(JsonParser parser, JsonpMapper mapper, JsonParser.Event event) {
-            // TODO: Add a runtime check to use Yasson's JsonB extensions
+            if (yasson) {
+                // The event has already been read, so Yasson can't read the value from the parser itself: get the
+                // structure that starts with it instead, which is still much cheaper than writing and parsing text.
+                switch (event) {
+                    case START_OBJECT:
+                        return YassonSupport.fromJsonStructure(jsonb, parser.getObject(), clazz);
+                    case START_ARRAY:
+                        return YassonSupport.fromJsonStructure(jsonb, parser.getArray(), clazz);
+                    default:
+                        // Scalar values are not structures, and are small anyway
+                }
+            }
+
             // JsonB doesn't provide methods to deserialize from a JsonParser or a JsonValue. We therefore have
-            // to roundtrip through a string, which is far from efficient. Yasson addresses this with an additional
-            // `YassonJsonb` that extends the base JSON-B interface with additional mapping functions. We should check
-            // here at runtime if the mapper implements this interface and use it if present.
+            // to roundtrip through a string, which is far from efficient.
             CharArrayWriter caw = new CharArrayWriter();
             JsonGenerator generator = jsonProvider.createGenerator(caw);
             transferAll(parser, event, generator);
@@ -127,6 +148,31 @@ public class JsonbJsonpMapper extends JsonpMapperBase {
         }
     }
 
+    /**
+     * Yasson's {@link YassonJsonb} extensions, that map objects from and to JSON-P structures and generators without
+     * going through their textual representation. Yasson is only loaded when it is on the classpath, so that other
+     * JSON-B implementations can be used.
+     */
+    private static final class YassonSupport {
+        static boolean isYasson(Jsonb jsonb) {
+            try {
+                return jsonb instanceof YassonJsonb;
+            } catch (LinkageError e) {
+                // Yasson isn't on the classpath
+                return false;
+            }
+        }
+
+        static <T> T fromJsonStructure(Jsonb jsonb, JsonStructure structure, Class<T> clazz) {
+            return ((YassonJsonb) jsonb).fromJsonStructure(structure, clazz);
+        }
+
+        static void toJson(Jsonb jsonb, Object value, JsonGenerator generator) {
+            // Does not close the generator
+            ((YassonJsonb) jsonb).toJson(value, generator);
+        }
+    }
+
     private void transferAll(JsonParser from, JsonGenerator to) {
         transferAll(from, from.next(), to);
     }
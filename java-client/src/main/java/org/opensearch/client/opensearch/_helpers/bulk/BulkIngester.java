@@ -0,0 +1,622 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.opensearch._helpers.bulk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch.core.BulkRequest;
+import org.opensearch.client.opensearch.core.BulkResponse;
+import org.opensearch.client.opensearch.core.bulk.BulkOperation;
+import org.opensearch.client.opensearch.core.bulk.BulkResponseItem;
+import org.opensearch.client.util.ObjectBuilder;
+import org.opensearch.client.util.ObjectBuilderBase;
+
+/**
+ * Buffers bulk operations added concurrently by many threads and sends them to the cluster in bulk requests.
+ * <p>
+ * The buffer is flushed when it reaches the maximum number of operations or the maximum estimated size in bytes,
+ * and optionally at a regular interval. At most {@link Builder#maxConcurrentRequests(int)} bulk requests are in
+ * flight at any time: when this limit is reached and the buffer is full, {@link #add(BulkOperation, Object)}
+ * blocks until a request completes, which applies backpressure to producers and bounds memory usage.
+ * <p>
+ * Closing the ingester flushes the buffer and waits for all in-flight requests to complete. It does not close
+ * the underlying client.
+ *
+ * @param <Context> the type of the optional contexts associated with operations, that are given back to the
+ *                 {@link BulkListener}. Use {@code Void} if not needed.
+ */
+public class BulkIngester<Context> implements AutoCloseable {
+    private static final Log logger = LogFactory.getLog(BulkIngester.class);
+
+    /**
+     * The default maximum number of operations in a bulk request.
+     */
+    public static final int DEFAULT_MAX_OPERATIONS = 1000;
+
+    /**
+     * The default maximum estimated size in bytes of a bulk request (5 MB).
+     */
+    public static final long DEFAULT_MAX_SIZE = 5 * 1024 * 1024;
+
+    /**
+     * The default maximum number of in-flight bulk requests.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 1;
+
+    // Used to name the flusher threads of each ingester
+    private static final AtomicInteger INGESTER_COUNT = new AtomicInteger();
+
+    private final OpenSearchAsyncClient client;
+    private final JsonpMapper mapper;
+    private final BulkRequest globalSettings;
+    private final int maxOperations;
+    private final long maxSize;
+    private final int maxConcurrentRequests;
+    @Nullable
+    private final BulkListener<Context> listener;
+
+    @Nullable
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+    @Nullable
+    private final ScheduledFuture<?> flushTask;
+
+    // All state below is guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    // Signaled when an in-flight request completes
+    private final Condition requestCompleted = lock.newCondition();
+    private List<BulkOperation> operations = new ArrayList<>();
+    // The operations of the buffer with their documents serialized, which are sent
+    private List<BulkOperation> serializedOperations = new ArrayList<>();
+    private List<Context> contexts = new ArrayList<>();
+    private long currentSize = 0;
+    private int inFlightRequests = 0;
+    private long executionCount = 0;
+    private long operationCount = 0;
+    private long failedItemCount = 0;
+    private boolean closed = false;
+
+    private BulkIngester(Builder<Context> builder) {
+        this.client = Objects.requireNonNull(builder.client, "client must not be null");
+        this.mapper = client._transport().jsonpMapper();
+        this.globalSettings = builder.globalSettings;
+        this.maxOperations = builder.maxOperations;
+        this.maxSize = builder.maxSize;
+        this.maxConcurrentRequests = builder.maxConcurrentRequests;
+        this.listener = builder.listener;
+
+        if (builder.flushIntervalNanos > 0) {
+            if (builder.scheduler == null) {
+                this.ownsScheduler = true;
+                final String threadName = "bulk-ingester-flusher#" + INGESTER_COUNT.incrementAndGet();
+                this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread t = new Thread(r, threadName);
+                    t.setDaemon(true);
+                    return t;
+                });
+            } else {
+                this.ownsScheduler = false;
+                this.scheduler = builder.scheduler;
+            }
+            this.flushTask = scheduler.scheduleWithFixedDelay(
+                this::scheduledFlush,
+                builder.flushIntervalNanos,
+                builder.flushIntervalNanos,
+                TimeUnit.NANOSECONDS
+            );
+        } else {
+            this.ownsScheduler = false;
+            this.scheduler = null;
+            this.flushTask = null;
+        }
+    }
+
+    public static <Context> BulkIngester<Context> of(Function<Builder<Context>, ObjectBuilder<BulkIngester<Context>>> fn) {
+        return fn.apply(new Builder<>()).build();
+    }
+
+    /**
+     * Adds an operation to the ingester, without context.
+     *
+     * @see #add(BulkOperation, Object)
+     */
+    public void add(BulkOperation operation) {
+        add(operation, null);
+    }
+
+    /**
+     * Adds an operation to the ingester. If the buffer becomes full, it is sent in a bulk request.
+     * <p>
+     * This method blocks if the buffer is full and the maximum number of in-flight requests has been reached,
+     * until a request completes.
+     *
+     * @param operation the operation
+     * @param context an optional context that will be given back to the listener along with this operation
+     * @throws IllegalStateException if the ingester has been closed, including while this method was blocked
+     */
+    public void add(BulkOperation operation, @Nullable Context context) {
+        // Size estimation is done outside of the lock so that producers serialize concurrently
+        final IngesterOperation ingesterOp = IngesterOperation.of(operation, mapper);
+
+        PendingRequest<Context> request = null;
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Bulk ingester is closed");
+            }
+            awaitSlotWhileFull();
+            if (closed) {
+                // Closed while waiting: the buffer may already have been flushed for the last time
+                throw new IllegalStateException("Bulk ingester is closed");
+            }
+
+            operations.add(ingesterOp.operation());
+            serializedOperations.add(ingesterOp.serializedOperation());
+            contexts.add(context);
+            currentSize += ingesterOp.size();
+
+            if (isFull() && inFlightRequests < maxConcurrentRequests) {
+                request = drain();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (request != null) {
+            send(request);
+        }
+    }
+
+    /**
+     * Sends the buffered operations in a bulk request, waiting for an in-flight request to complete if the
+     * maximum number of in-flight requests has been reached. Does nothing if the buffer is empty.
+     */
+    public void flush() {
+        PendingRequest<Context> request = null;
+        lock.lock();
+        try {
+            while (!operations.isEmpty() && inFlightRequests >= maxConcurrentRequests) {
+                requestCompleted.awaitUninterruptibly();
+            }
+            if (!operations.isEmpty()) {
+                request = drain();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (request != null) {
+            send(request);
+        }
+    }
+
+    /**
+     * Flushes the buffer and waits for all in-flight requests to complete. Operations can no longer be added once
+     * this method has been called. The client is not closed.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+        if (ownsScheduler) {
+            scheduler.shutdownNow();
+        }
+
+        flush();
+
+        lock.lock();
+        try {
+            while (inFlightRequests > 0) {
+                requestCompleted.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The number of operations currently buffered and not yet sent.
+     */
+    public int pendingOperations() {
+        lock.lock();
+        try {
+            return operations.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The estimated size in bytes of the operations currently buffered.
+     */
+    public long pendingSize() {
+        lock.lock();
+        try {
+            return currentSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The number of bulk requests that have been sent and have not completed yet.
+     */
+    public int pendingRequests() {
+        lock.lock();
+        try {
+            return inFlightRequests;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The total number of bulk requests sent by this ingester.
+     */
+    public long requestCount() {
+        lock.lock();
+        try {
+            return executionCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The total number of operations sent by this ingester.
+     */
+    public long operationsCount() {
+        lock.lock();
+        try {
+            return operationCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The total number of operations that failed in the responses received by this ingester. Failures are also
+     * reported to the listener if there is one, and logged otherwise.
+     */
+    public long failedItemsCount() {
+        lock.lock();
+        try {
+            return failedItemCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------
+
+    private boolean isFull() {
+        return operations.size() >= maxOperations || currentSize >= maxSize;
+    }
+
+    /**
+     * A full buffer can only be drained once a request slot is available. Wait for it, unless another thread
+     * drained the buffer in the meantime. Must be called with the lock held.
+     */
+    private void awaitSlotWhileFull() {
+        while (isFull()) {
+            if (inFlightRequests < maxConcurrentRequests) {
+                // A slot is available but the buffer was not drained: leave it to the caller
+                return;
+            }
+            requestCompleted.awaitUninterruptibly();
+        }
+    }
+
+    /**
+     * Creates a request from the buffer contents and resets the buffer. Must be called with the lock held.
+     */
+    private PendingRequest<Context> drain() {
+        final BulkRequest request = globalSettings.toBuilder().operations(operations).build();
+        final BulkRequest serializedRequest = globalSettings.toBuilder().operations(serializedOperations).build();
+        final PendingRequest<Context> pending = new PendingRequest<>(++executionCount, request, serializedRequest, contexts);
+
+        operationCount += operations.size();
+        operations = new ArrayList<>(Math.min(maxOperations, 1024));
+        serializedOperations = new ArrayList<>(Math.min(maxOperations, 1024));
+        contexts = new ArrayList<>(Math.min(maxOperations, 1024));
+        currentSize = 0;
+        inFlightRequests++;
+
+        return pending;
+    }
+
+    private void send(PendingRequest<Context> pending) {
+        if (listener != null) {
+            try {
+                listener.beforeBulk(pending.executionId, pending.request, pending.contexts);
+            } catch (Exception e) {
+                logger.warn("Bulk listener failed in beforeBulk for execution " + pending.executionId, e);
+            }
+        }
+
+        CompletableFuture<BulkResponse> future;
+        try {
+            future = client.bulk(pending.serializedRequest);
+        } catch (Exception e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+
+        future.whenComplete((response, failure) -> {
+            try {
+                if (failure != null) {
+                    notifyFailure(pending, failure);
+                } else {
+                    notifyResponse(pending, response);
+                }
+            } finally {
+                onRequestCompleted();
+            }
+        });
+    }
+
+    private void notifyResponse(PendingRequest<Context> pending, BulkResponse response) {
+        final List<BulkOperation> ops = pending.request.operations();
+        final List<BulkResponseItem> items = response.items();
+        int failures = 0;
+        BulkResponseItem firstFailure = null;
+        if (response.errors()) {
+            for (BulkResponseItem item : items) {
+                if (item.error() != null) {
+                    if (firstFailure == null) {
+                        firstFailure = item;
+                    }
+                    failures++;
+                }
+            }
+            lock.lock();
+            try {
+                failedItemCount += failures;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        if (listener == null) {
+            if (firstFailure != null) {
+                logger.warn(
+                    "Bulk request "
+                        + pending.executionId
+                        + " has "
+                        + failures
+                        + " failed items, the first one on index ["
+                        + firstFailure.index()
+                        + "] with id ["
+                        + firstFailure.id()
+                        + "]: "
+                        + firstFailure.error().type()
+                        + ": "
+                        + firstFailure.error().reason()
+                );
+            }
+            return;
+        }
+        try {
+            if (firstFailure != null) {
+                for (int i = 0; i < items.size() && i < ops.size(); i++) {
+                    BulkResponseItem item = items.get(i);
+                    if (item.error() != null) {
+                        listener.afterItemFailure(pending.executionId, ops.get(i), pending.contexts.get(i), item);
+                    }
+                }
+            }
+            listener.afterBulk(pending.executionId, pending.request, pending.contexts, response);
+        } catch (Exception e) {
+            logger.warn("Bulk listener failed in afterBulk for execution " + pending.executionId, e);
+        }
+    }
+
+    private void notifyFailure(PendingRequest<Context> pending, Throwable failure) {
+        if (listener == null) {
+            logger.warn("Bulk request " + pending.executionId + " failed", failure);
+            return;
+        }
+        try {
+            listener.afterBulk(pending.executionId, pending.request, pending.contexts, failure);
+        } catch (Exception e) {
+            logger.warn("Bulk listener failed in afterBulk for execution " + pending.executionId, e);
+        }
+    }
+
+    private void onRequestCompleted() {
+        PendingRequest<Context> next = null;
+        lock.lock();
+        try {
+            inFlightRequests--;
+            // A producer may have filled the buffer while all slots were taken: send it from here so that
+            // it doesn't wait for the next add or flush.
+            if (isFull()) {
+                next = drain();
+            }
+            requestCompleted.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        if (next != null) {
+            send(next);
+        }
+    }
+
+    private void scheduledFlush() {
+        PendingRequest<Context> request = null;
+        lock.lock();
+        try {
+            // Never block the scheduler thread: if no slot is available, the buffer will be sent when a
+            // request completes or on the next tick.
+            if (!operations.isEmpty() && inFlightRequests < maxConcurrentRequests) {
+                request = drain();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (request != null) {
+            send(request);
+        }
+    }
+
+    private static class PendingRequest<Context> {
+        final long executionId;
+        // The request with the operations added by the caller, given to the listener
+        final BulkRequest request;
+        final BulkRequest serializedRequest;
+        final List<Context> contexts;
+
+        PendingRequest(long executionId, BulkRequest request, BulkRequest serializedRequest, List<Context> contexts) {
+            this.executionId = executionId;
+            this.request = request;
+            this.serializedRequest = serializedRequest;
+            this.contexts = Collections.unmodifiableList(contexts);
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------
+
+    /**
+     * Builder for {@link BulkIngester}.
+     */
+    public static class Builder<Context> extends ObjectBuilderBase implements ObjectBuilder<BulkIngester<Context>> {
+        private OpenSearchAsyncClient client;
+        private BulkRequest globalSettings = new BulkRequest.Builder().operations(Collections.emptyList()).build();
+        private int maxOperations = DEFAULT_MAX_OPERATIONS;
+        private long maxSize = DEFAULT_MAX_SIZE;
+        private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+        private long flushIntervalNanos = 0;
+        @Nullable
+        private ScheduledExecutorService scheduler;
+        @Nullable
+        private BulkListener<Context> listener;
+
+        /**
+         * Required - The client used to send bulk requests.
+         */
+        public final Builder<Context> client(OpenSearchAsyncClient client) {
+            this.client = client;
+            return this;
+        }
+
+        /**
+         * The maximum number of operations in a bulk request. Defaults to {@value #DEFAULT_MAX_OPERATIONS}.
+         */
+        public final Builder<Context> maxOperations(int count) {
+            if (count <= 0) {
+                throw new IllegalArgumentException("maxOperations must be greater than 0");
+            }
+            this.maxOperations = count;
+            return this;
+        }
+
+        /**
+         * The maximum estimated size in bytes of a bulk request. Defaults to 5 MB.
+         */
+        public final Builder<Context> maxSize(long bytes) {
+            if (bytes <= 0) {
+                throw new IllegalArgumentException("maxSize must be greater than 0");
+            }
+            this.maxSize = bytes;
+            return this;
+        }
+
+        /**
+         * The maximum number of bulk requests in flight. Once reached, adding operations to a full buffer blocks
+         * until a request completes. Defaults to {@value #DEFAULT_MAX_CONCURRENT_REQUESTS}.
+         */
+        public final Builder<Context> maxConcurrentRequests(int count) {
+            if (count <= 0) {
+                throw new IllegalArgumentException("maxConcurrentRequests must be greater than 0");
+            }
+            this.maxConcurrentRequests = count;
+            return this;
+        }
+
+        /**
+         * Flush the buffer at regular intervals, using a single-thread scheduler owned by the ingester. Disabled
+         * by default.
+         */
+        public final Builder<Context> flushInterval(long value, TimeUnit unit) {
+            return flushInterval(value, unit, null);
+        }
+
+        /**
+         * Flush the buffer at regular intervals, using the provided scheduler. The scheduler is not shut down
+         * when the ingester is closed.
+         */
+        public final Builder<Context> flushInterval(long value, TimeUnit unit, @Nullable ScheduledExecutorService scheduler) {
+            if (value <= 0) {
+                throw new IllegalArgumentException("flushInterval must be greater than 0");
+            }
+            this.flushIntervalNanos = unit.toNanos(value);
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Settings applied to all bulk requests, such as the default index, pipeline or refresh policy. Operations
+         * must not be added in this function.
+         */
+        public final Builder<Context> globalSettings(Function<BulkRequest.Builder, BulkRequest.Builder> fn) {
+            this.globalSettings = fn.apply(new BulkRequest.Builder().operations(Collections.emptyList())).build();
+            return this;
+        }
+
+        /**
+         * The listener notified of bulk requests and per-item failures.
+         */
+        public final Builder<Context> listener(@Nullable BulkListener<Context> listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Builds a {@link BulkIngester}.
+         *
+         * @throws NullPointerException
+         *             if the client is null.
+         */
+        @Override
+        public BulkIngester<Context> build() {
+            _checkSingleUse();
+
+            return new BulkIngester<>(this);
+        }
+    }
+}
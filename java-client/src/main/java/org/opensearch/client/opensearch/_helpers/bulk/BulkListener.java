@@ -0,0 +1,69 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.opensearch._helpers.bulk;
+
+import java.util.List;
+import org.opensearch.client.opensearch.core.BulkRequest;
+import org.opensearch.client.opensearch.core.BulkResponse;
+import org.opensearch.client.opensearch.core.bulk.BulkOperation;
+import org.opensearch.client.opensearch.core.bulk.BulkResponseItem;
+
+/**
+ * A listener that is notified of the lifecycle of the bulk requests sent by a {@link BulkIngester}.
+ * <p>
+ * Listener methods are called from the thread that sends the request or from the thread that completes
+ * it, and must therefore be thread-safe and return quickly.
+ *
+ * @param <Context> the type of the contexts associated with operations added to the ingester.
+ */
+public interface BulkListener<Context> {
+
+    /**
+     * Called before a bulk request is sent. Note: the documents of index and create operations in
+     * {@code request} have already been serialized, and are {@link org.opensearch.client.json.RawJson} values.
+     *
+     * @param executionId the bulk request counter, starting at 1.
+     * @param request the bulk request that will be sent.
+     * @param contexts the contexts of the request operations, in the same order as the operations.
+     */
+    void beforeBulk(long executionId, BulkRequest request, List<Context> contexts);
+
+    /**
+     * Called after a bulk request has been processed by the server. The response may contain failed
+     * items, that have also been reported individually to {@link #afterItemFailure}.
+     *
+     * @param executionId the bulk request counter.
+     * @param request the bulk request that was sent.
+     * @param contexts the contexts of the request operations.
+     * @param response the server response.
+     */
+    void afterBulk(long executionId, BulkRequest request, List<Context> contexts, BulkResponse response);
+
+    /**
+     * Called when a bulk request could not be sent or processed, i.e. when no response was received
+     * from the server.
+     *
+     * @param executionId the bulk request counter.
+     * @param request the bulk request that failed.
+     * @param contexts the contexts of the request operations.
+     * @param failure the failure cause.
+     */
+    void afterBulk(long executionId, BulkRequest request, List<Context> contexts, Throwable failure);
+
+    /**
+     * Called for each item of a bulk response that failed, before {@link #afterBulk(long, BulkRequest, List, BulkResponse)}
+     * is called for that response. The default implementation does nothing.
+     *
+     * @param executionId the bulk request counter.
+     * @param operation the operation that failed, with its document serialized if it is an index or create operation.
+     * @param context the context of the operation, possibly {@code null}.
+     * @param item the failed response item.
+     */
+    default void afterItemFailure(long executionId, BulkOperation operation, Context context, BulkResponseItem item) {}
+}
@@ -0,0 +1,163 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.opensearch._helpers.bulk;
+
+import jakarta.json.stream.JsonGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.NdJsonpSerializable;
+import org.opensearch.client.json.RawJson;
+import org.opensearch.client.opensearch.core.bulk.BulkOperation;
+import org.opensearch.client.opensearch.core.bulk.CreateOperation;
+import org.opensearch.client.opensearch.core.bulk.IndexOperation;
+
+/**
+ * A bulk operation along with its estimated serialized size, used to decide when a {@link BulkIngester}
+ * buffer has to be flushed.
+ * <p>
+ * The documents of index and create operations are serialized once, when the size is estimated. The operation that
+ * is sent holds the serialized document as {@link RawJson}, that transports send as it is, while the operation added
+ * by the caller is kept unchanged for the {@link BulkListener}.
+ */
+class IngesterOperation {
+    private final BulkOperation operation;
+    private final BulkOperation serializedOperation;
+    private final long size;
+
+    IngesterOperation(BulkOperation operation, BulkOperation serializedOperation, long size) {
+        this.operation = operation;
+        this.serializedOperation = serializedOperation;
+        this.size = size;
+    }
+
+    /**
+     * Creates an ingester operation, serializing its document with {@code mapper} if it has one. The size of the
+     * other lines of the operation is estimated by serializing them into a byte counter.
+     */
+    static IngesterOperation of(BulkOperation operation, JsonpMapper mapper) {
+        final BulkOperation serialized = withSerializedDocument(operation, mapper);
+        final CountingOutputStream counter = new CountingOutputStream();
+        writeNdJson(serialized, counter, mapper);
+        return new IngesterOperation(operation, serialized, counter.count);
+    }
+
+    /**
+     * The operation added by the caller.
+     */
+    BulkOperation operation() {
+        return operation;
+    }
+
+    /**
+     * The operation to send, with the same headers as {@link #operation()} and its document already serialized.
+     */
+    BulkOperation serializedOperation() {
+        return serializedOperation;
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Copies the headers of index and create operations along with their serialized document. The headers copied
+     * here must match the fields of {@link IndexOperation} and {@link CreateOperation}, which is checked by tests.
+     */
+    private static BulkOperation withSerializedDocument(BulkOperation operation, JsonpMapper mapper) {
+        if (operation.isIndex()) {
+            final IndexOperation<Object> index = operation.index();
+            if (index.document() instanceof RawJson) {
+                return operation;
+            }
+            final RawJson document = serialize(index.document(), mapper);
+            return BulkOperation.of(
+                b -> b.index(
+                    IndexOperation.<RawJson>of(
+                        i -> i.id(index.id())
+                            .index(index.index())
+                            .routing(index.routing())
+                            .ifPrimaryTerm(index.ifPrimaryTerm())
+                            .ifSeqNo(index.ifSeqNo())
+                            .version(index.version())
+                            .versionType(index.versionType())
+                            .pipeline(index.pipeline())
+                            .requireAlias(index.requireAlias())
+                            .document(document)
+                    )
+                )
+            );
+        }
+        if (operation.isCreate()) {
+            final CreateOperation<Object> create = operation.create();
+            if (create.document() instanceof RawJson) {
+                return operation;
+            }
+            final RawJson document = serialize(create.document(), mapper);
+            return BulkOperation.of(
+                b -> b.create(
+                    CreateOperation.<RawJson>of(
+                        c -> c.id(create.id())
+                            .index(create.index())
+                            .routing(create.routing())
+                            .ifPrimaryTerm(create.ifPrimaryTerm())
+                            .ifSeqNo(create.ifSeqNo())
+                            .version(create.version())
+                            .versionType(create.versionType())
+                            .pipeline(create.pipeline())
+                            .requireAlias(create.requireAlias())
+                            .document(document)
+                    )
+                )
+            );
+        }
+        // Update documents are nested in the action data and deletes have none
+        return operation;
+    }
+
+    private static RawJson serialize(Object document, JsonpMapper mapper) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator generator = mapper.jsonProvider().createGenerator(out);
+        mapper.serialize(document, generator);
+        generator.close();
+        return RawJson.of(out.toByteArray());
+    }
+
+    private static void writeNdJson(NdJsonpSerializable value, CountingOutputStream out, JsonpMapper mapper) {
+        Iterator<?> values = value._serializables();
+        while (values.hasNext()) {
+            Object item = values.next();
+            if (item instanceof NdJsonpSerializable && item != value) { // do not recurse on the item itself
+                writeNdJson((NdJsonpSerializable) item, out, mapper);
+            } else if (item instanceof RawJson) {
+                out.count += ((RawJson) item).size() + 1;
+            } else {
+                JsonGenerator generator = mapper.jsonProvider().createGenerator(out);
+                mapper.serialize(item, generator);
+                generator.close();
+                out.write('\n');
+            }
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.opensearch._helpers.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Sends the requests of the search iterators with the asynchronous client, and reports their failures.
+ */
+final class AsyncRequests {
+    private AsyncRequests() {}
+
+    /**
+     * A request sent with the asynchronous client, which throws if it cannot be sent.
+     */
+    @FunctionalInterface
+    interface Request<R> {
+        CompletableFuture<R> send() throws IOException;
+    }
+
+    /**
+     * Sends a request, returning a failed future if it cannot be sent.
+     */
+    static <R> CompletableFuture<R> send(Request<R> request) {
+        try {
+            return request.send();
+        } catch (IOException | RuntimeException e) {
+            final CompletableFuture<R> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    /**
+     * Returns the exception to throw to the consumer of an iterator for the failure of a request: runtime exceptions
+     * as they are, and I/O exceptions wrapped in an {@link UncheckedIOException}. Errors are thrown.
+     */
+    static RuntimeException unwrap(Throwable failure) {
+        while (failure instanceof CompletionException && failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        if (failure instanceof RuntimeException) {
+            return (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure instanceof IOException) {
+            return new UncheckedIOException((IOException) failure);
+        }
+        return new IllegalStateException(failure);
+    }
+}
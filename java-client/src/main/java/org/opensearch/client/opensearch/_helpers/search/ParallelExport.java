@@ -0,0 +1,490 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.opensearch._helpers.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.pit.CreatePitResponse;
+import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.util.ObjectBuilder;
+import org.opensearch.client.util.ObjectBuilderBase;
+
+/**
+ * Exports all the hits of a search by splitting it in slices that are iterated over in parallel, with one
+ * {@link SearchIterator} per slice on a point in time (PIT) shared by all slices.
+ * <p>
+ * The hits are delivered to a {@link Sink} that is called concurrently by the slices, and in order within each slice.
+ * The throughput of each slice is available while the export runs and once it has completed, to tune the number of
+ * slices, which is usually best set to a multiple of the number of shards.
+ * <pre>{@code
+ * List<ParallelExport.SliceStats> stats = ParallelExport.of(b -> b
+ *     .client(asyncClient)
+ *     .documentClass(Doc.class)
+ *     .index("logs")
+ *     .slices(8)
+ *     .parallelism(4)
+ * ).run((slice, hit) -> writers[slice].write(hit.source()));
+ * }</pre>
+ * Slices are exported by {@code parallelism} threads: when there are more slices than threads, a thread starts
+ * exporting another slice once it has exported one. The first failure stops the export.
+ *
+ * @param <T> the type of the documents
+ */
+public class ParallelExport<T> {
+    private static final Log logger = LogFactory.getLog(ParallelExport.class);
+
+    private static final AtomicInteger EXPORT_COUNT = new AtomicInteger();
+
+    private final OpenSearchAsyncClient client;
+    private final Class<T> documentClass;
+    private final List<String> indices;
+    private final Function<SearchRequest.Builder, SearchRequest.Builder> request;
+    private final int slices;
+    private final int parallelism;
+    @Nullable
+    private final ExecutorService executor;
+    private final String keepAlive;
+    private final Function<SearchIterator.Builder<T>, SearchIterator.Builder<T>> iteratorSettings;
+
+    private final SliceProgress[] progress;
+    private boolean started = false;
+
+    private ParallelExport(Builder<T> builder) {
+        this.client = Objects.requireNonNull(builder.client, "client must not be null");
+        this.documentClass = Objects.requireNonNull(builder.documentClass, "documentClass must not be null");
+        if (builder.indices.isEmpty()) {
+            throw new IllegalArgumentException("At least one index must be set");
+        }
+        this.indices = builder.indices;
+        this.request = builder.request;
+        if (request.apply(new SearchRequest.Builder()).build().slice() != null) {
+            throw new IllegalArgumentException("The request must not have a slice");
+        }
+        this.slices = builder.slices;
+        this.parallelism = Math.min(builder.parallelism, slices);
+        this.executor = builder.executor;
+        this.keepAlive = builder.keepAlive;
+        this.iteratorSettings = builder.iteratorSettings;
+
+        this.progress = new SliceProgress[slices];
+        for (int i = 0; i < slices; i++) {
+            progress[i] = new SliceProgress(i);
+        }
+    }
+
+    public static <T> ParallelExport<T> of(Function<Builder<T>, ObjectBuilder<ParallelExport<T>>> fn) {
+        return fn.apply(new Builder<>()).build();
+    }
+
+    /**
+     * Receives the exported hits.
+     */
+    @FunctionalInterface
+    public interface Sink<T> {
+        /**
+         * Called for each hit, concurrently for different slices, and in the order of the sort within a slice.
+         */
+        void accept(int slice, Hit<T> hit) throws IOException;
+
+        /**
+         * Called once all the hits of a slice have been accepted.
+         */
+        default void sliceCompleted(int slice) throws IOException {}
+    }
+
+    /**
+     * Runs the export and waits for it to complete. An export can only be run once.
+     *
+     * @return the statistics of each slice
+     * @throws RuntimeException the first failure of a slice, with the failures of other slices suppressed
+     */
+    public List<SliceStats> run(Sink<T> sink) {
+        Objects.requireNonNull(sink, "sink must not be null");
+        synchronized (this) {
+            if (started) {
+                throw new IllegalStateException("An export can only be run once");
+            }
+            started = true;
+        }
+
+        final String pitId = createPit();
+        final ExecutorService workers = executor != null ? executor : newExecutor();
+        final AtomicInteger nextSlice = new AtomicInteger();
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(parallelism);
+        try {
+            for (int i = 0; i < parallelism; i++) {
+                try {
+                    workers.execute(() -> {
+                        try {
+                            int slice;
+                            while (failure.get() == null && (slice = nextSlice.getAndIncrement()) < slices) {
+                                exportSlice(pitId, slice, sink, failure);
+                            }
+                        } finally {
+                            done.countDown();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    addFailure(failure, e);
+                    done.countDown();
+                }
+            }
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            addFailure(failure, new IllegalStateException("Interrupted while waiting for the export", e));
+        } finally {
+            if (executor == null) {
+                workers.shutdown();
+            }
+            deletePit(pitId);
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return stats();
+    }
+
+    /**
+     * Returns the current statistics of each slice. Can be called while the export runs.
+     */
+    public List<SliceStats> stats() {
+        final List<SliceStats> stats = new ArrayList<>(slices);
+        for (SliceProgress slice : progress) {
+            stats.add(slice.snapshot());
+        }
+        return Collections.unmodifiableList(stats);
+    }
+
+    // ---------------------------------------------------------------------------------------------
+
+    private void exportSlice(String pitId, int slice, Sink<T> sink, AtomicReference<RuntimeException> failure) {
+        final SliceProgress sliceProgress = progress[slice];
+        sliceProgress.start();
+        try (
+            SearchIterator<T> hits = SearchIterator.of(
+                b -> iteratorSettings.apply(b)
+                    .client(client)
+                    .documentClass(documentClass)
+                    .pitId(pitId)
+                    .keepAlive(keepAlive)
+                    .request(r -> slices > 1 ? request.apply(r).slice(s -> s.id(slice).max(slices)) : request.apply(r))
+            )
+        ) {
+            while (hits.hasNext()) {
+                if (failure.get() != null) {
+                    // Another slice failed: stop fetching pages
+                    return;
+                }
+                sink.accept(slice, hits.next());
+                sliceProgress.update(hits.hitCount(), hits.pageCount());
+            }
+            sliceProgress.update(hits.hitCount(), hits.pageCount());
+            sink.sliceCompleted(slice);
+            sliceProgress.complete();
+        } catch (IOException e) {
+            addFailure(failure, new UncheckedIOException(e));
+        } catch (RuntimeException e) {
+            addFailure(failure, e);
+        }
+    }
+
+    private static void addFailure(AtomicReference<RuntimeException> failure, RuntimeException e) {
+        if (false == failure.compareAndSet(null, e)) {
+            failure.get().addSuppressed(e);
+        }
+    }
+
+    private String createPit() {
+        try {
+            final CreatePitResponse response = client.createPit(p -> p.targetIndexes(indices).keepAlive(t -> t.time(keepAlive))).join();
+            return response.pitId();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw new UncheckedIOException((IOException) cause);
+            }
+            throw e;
+        }
+    }
+
+    private void deletePit(String pitId) {
+        try {
+            client.deletePit(d -> d.pitId(Collections.singletonList(pitId))).join();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to delete point in time " + pitId, e);
+        }
+    }
+
+    private ExecutorService newExecutor() {
+        final String threadName = "parallel-export#" + EXPORT_COUNT.incrementAndGet() + "-";
+        final AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, threadName + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * The progress of a slice, updated by the thread that exports it.
+     */
+    private static class SliceProgress {
+        private final int slice;
+        private volatile boolean started;
+        private volatile long startNanos;
+        private volatile long endNanos;
+        private volatile long hitCount;
+        private volatile long pageCount;
+        private volatile boolean completed;
+
+        SliceProgress(int slice) {
+            this.slice = slice;
+        }
+
+        void start() {
+            startNanos = System.nanoTime();
+            started = true;
+        }
+
+        void update(long hitCount, long pageCount) {
+            this.hitCount = hitCount;
+            this.pageCount = pageCount;
+        }
+
+        void complete() {
+            endNanos = System.nanoTime();
+            completed = true;
+        }
+
+        SliceStats snapshot() {
+            final boolean isCompleted = completed;
+            final long elapsed = started ? (isCompleted ? endNanos : System.nanoTime()) - startNanos : 0;
+            return new SliceStats(slice, hitCount, pageCount, elapsed, isCompleted);
+        }
+    }
+
+    /**
+     * The statistics of a slice.
+     */
+    public static final class SliceStats {
+        private final int slice;
+        private final long hitCount;
+        private final long pageCount;
+        private final long elapsedNanos;
+        private final boolean completed;
+
+        private SliceStats(int slice, long hitCount, long pageCount, long elapsedNanos, boolean completed) {
+            this.slice = slice;
+            this.hitCount = hitCount;
+            this.pageCount = pageCount;
+            this.elapsedNanos = elapsedNanos;
+            this.completed = completed;
+        }
+
+        /**
+         * The id of the slice, from 0 to the number of slices, excluded.
+         */
+        public int slice() {
+            return slice;
+        }
+
+        /**
+         * The number of hits delivered to the sink.
+         */
+        public long hitCount() {
+            return hitCount;
+        }
+
+        public long pageCount() {
+            return pageCount;
+        }
+
+        /**
+         * The time spent exporting the slice, including the time spent in the sink. Zero if it hasn't started.
+         */
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Whether all the hits of the slice have been delivered to the sink.
+         */
+        public boolean completed() {
+            return completed;
+        }
+
+        /**
+         * The number of hits delivered per second.
+         */
+        public double hitsPerSecond() {
+            return elapsedNanos == 0 ? 0 : hitCount * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "SliceStats{slice="
+                + slice
+                + ", hitCount="
+                + hitCount
+                + ", pageCount="
+                + pageCount
+                + ", elapsedNanos="
+                + elapsedNanos
+                + ", completed="
+                + completed
+                + "}";
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------
+
+    /**
+     * Builder for {@link ParallelExport}.
+     */
+    public static class Builder<T> extends ObjectBuilderBase implements ObjectBuilder<ParallelExport<T>> {
+        private OpenSearchAsyncClient client;
+        private Class<T> documentClass;
+        private List<String> indices = Collections.emptyList();
+        private Function<SearchRequest.Builder, SearchRequest.Builder> request = Function.identity();
+        private int slices = Runtime.getRuntime().availableProcessors();
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        @Nullable
+        private ExecutorService executor;
+        private String keepAlive = SearchIterator.DEFAULT_KEEP_ALIVE;
+        private Function<SearchIterator.Builder<T>, SearchIterator.Builder<T>> iteratorSettings = Function.identity();
+
+        /**
+         * Required - The client used to send the requests.
+         */
+        public final Builder<T> client(OpenSearchAsyncClient client) {
+            this.client = client;
+            return this;
+        }
+
+        /**
+         * Required - The class of the documents.
+         */
+        public final Builder<T> documentClass(Class<T> documentClass) {
+            this.documentClass = documentClass;
+            return this;
+        }
+
+        /**
+         * Required - The indices to export, on which the PIT is created.
+         */
+        public final Builder<T> index(String value, String... values) {
+            this.indices = _listAdd(this.indices, value, values);
+            return this;
+        }
+
+        /**
+         * Required - The indices to export, on which the PIT is created.
+         */
+        public final Builder<T> index(List<String> list) {
+            this.indices = _listAddAll(this.indices, list);
+            return this;
+        }
+
+        /**
+         * The search request, with the same restrictions as {@link SearchIterator.Builder#request(Function)}. It
+         * must not set a slice either.
+         */
+        public final Builder<T> request(Function<SearchRequest.Builder, SearchRequest.Builder> fn) {
+            this.request = Objects.requireNonNull(fn);
+            return this;
+        }
+
+        /**
+         * The number of slices. Defaults to the number of available processors.
+         */
+        public final Builder<T> slices(int slices) {
+            if (slices <= 0) {
+                throw new IllegalArgumentException("slices must be greater than 0");
+            }
+            this.slices = slices;
+            return this;
+        }
+
+        /**
+         * The maximum number of slices exported at the same time. Defaults to the number of available processors.
+         */
+        public final Builder<T> parallelism(int parallelism) {
+            if (parallelism <= 0) {
+                throw new IllegalArgumentException("parallelism must be greater than 0");
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * The executor running the slices, which must be able to run {@code parallelism} tasks at the same time. It
+         * is not shut down when the export completes. Defaults to a fixed thread pool owned by the export.
+         */
+        public final Builder<T> executor(@Nullable ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * The time that the PIT is kept alive between two pages of a slice. Defaults to
+         * {@value SearchIterator#DEFAULT_KEEP_ALIVE}.
+         */
+        public final Builder<T> keepAlive(String keepAlive) {
+            this.keepAlive = Objects.requireNonNull(keepAlive);
+            return this;
+        }
+
+        /**
+         * Additional settings of the iterators of the slices, such as their page sizes.
+         */
+        public final Builder<T> iteratorSettings(Function<SearchIterator.Builder<T>, SearchIterator.Builder<T>> fn) {
+            this.iteratorSettings = Objects.requireNonNull(fn);
+            return this;
+        }
+
+        /**
+         * Builds a {@link ParallelExport}. No request is sent until it is run.
+         *
+         * @throws NullPointerException
+         *             if the client or the document class is null.
+         */
+        @Override
+        public ParallelExport<T> build() {
+            _checkSingleUse();
+
+            return new ParallelExport<>(this);
+        }
+    }
+}
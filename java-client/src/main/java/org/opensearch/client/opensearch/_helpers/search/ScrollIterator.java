@@ -0,0 +1,372 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.opensearch._helpers.search;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.annotation.Nullable;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch._types.Time;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.util.ObjectBuilder;
+import org.opensearch.client.util.ObjectBuilderBase;
+
+/**
+ * Iterates over all the hits of a search with a scroll, for clusters or indices that don't support point in time
+ * searches.
+ * <p>
+ * Each scroll request needs the scroll id returned with the previous page, so pages are fetched one after the other.
+ * The next page is requested while the consumer processes the current one, as long as the hits that would then be
+ * buffered stay within {@link Builder#maxBufferedHits(int)} and {@link Builder#maxBufferedBytes(long, ToLongFunction)}.
+ * Each request extends the scroll by {@link Builder#keepAlive(String)}, which must cover the time the consumer takes
+ * to process a page when the next one is not requested ahead.
+ * <p>
+ * An open scroll keeps the search context and the segments it reads on the nodes. It is cleared once the last page
+ * has been fetched, when a request fails, or when the iterator is closed, whichever comes first: iterators that are
+ * not consumed to the end must be closed. The iterator is meant to be used by a single thread.
+ * <pre>{@code
+ * try (ScrollIterator<Doc> hits = ScrollIterator.of(b -> b
+ *     .client(asyncClient)
+ *     .documentClass(Doc.class)
+ *     .request(r -> r.index("logs").size(1000).sort(s -> s.field(f -> f.field("_doc"))))
+ * )) {
+ *     hits.forEachRemaining(hit -> process(hit.source()));
+ * }
+ * }</pre>
+ * {@link SearchIterator} should be preferred when the cluster supports point in time searches.
+ *
+ * @param <T> the type of the documents
+ */
+public class ScrollIterator<T> implements Iterator<Hit<T>>, AutoCloseable {
+    private static final Log logger = LogFactory.getLog(ScrollIterator.class);
+
+    /**
+     * The default time that the scroll is kept alive between two pages.
+     */
+    public static final String DEFAULT_KEEP_ALIVE = "5m";
+
+    // The default size of search requests
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
+    private final OpenSearchAsyncClient client;
+    private final Class<T> documentClass;
+    private final SearchRequest request;
+    private final Time keepAlive;
+    private final int pageSize;
+    private final int maxBufferedHits;
+    private final long maxBufferedBytes;
+    @Nullable
+    private final ToLongFunction<Hit<T>> weigher;
+
+    // The scroll id can change with each response
+    @Nullable
+    private volatile String scrollId;
+    private boolean started = false;
+    @Nullable
+    private CompletableFuture<SearchResponse<T>> nextPage;
+    @Nullable
+    private CompletableFuture<Void> clearing;
+
+    private List<Hit<T>> hits = Collections.emptyList();
+    @Nullable
+    private long[] weights;
+    private int position = 0;
+    private long remainingBytes = 0;
+    private long averageHitBytes = 0;
+    private boolean exhausted = false;
+    private boolean closed = false;
+    private long pageCount = 0;
+    private long hitCount = 0;
+
+    private ScrollIterator(Builder<T> builder) {
+        this.client = Objects.requireNonNull(builder.client, "client must not be null");
+        this.documentClass = Objects.requireNonNull(builder.documentClass, "documentClass must not be null");
+        this.keepAlive = Time.of(t -> t.time(builder.keepAlive));
+
+        final SearchRequest template = builder.request.apply(new SearchRequest.Builder()).build();
+        if (template.pit() != null || template.scroll() != null || false == template.searchAfter().isEmpty()) {
+            throw new IllegalArgumentException("The request must not have a pit, a scroll or search_after");
+        }
+        this.request = template.toBuilder().scroll(keepAlive).build();
+        this.pageSize = template.size() == null ? DEFAULT_PAGE_SIZE : template.size();
+        this.maxBufferedHits = builder.maxBufferedHits > 0 ? builder.maxBufferedHits : 2 * pageSize;
+        this.maxBufferedBytes = builder.maxBufferedBytes;
+        this.weigher = builder.weigher;
+    }
+
+    public static <T> ScrollIterator<T> of(Function<Builder<T>, ObjectBuilder<ScrollIterator<T>>> fn) {
+        return fn.apply(new Builder<>()).build();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (position >= hits.size()) {
+            if (exhausted || closed) {
+                return false;
+            }
+            nextPage();
+        }
+        return true;
+    }
+
+    @Override
+    public Hit<T> next() {
+        if (false == hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (weights != null) {
+            remainingBytes -= weights[position];
+        }
+        final Hit<T> hit = hits.get(position++);
+        hitCount++;
+        prefetch();
+        return hit;
+    }
+
+    /**
+     * Returns the remaining hits as a sequential stream. Closing the stream closes this iterator.
+     */
+    public Stream<Hit<T>> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(this::close);
+    }
+
+    /**
+     * Clears the scroll, if it hasn't been cleared yet, and waits for it to be cleared. Does not close the client.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        hits = Collections.emptyList();
+        weights = null;
+        position = 0;
+        if (nextPage != null) {
+            // The response has the latest scroll id
+            nextPage.handle((page, failure) -> null).join();
+            nextPage = null;
+        }
+        clearScroll().join();
+    }
+
+    /**
+     * The number of pages fetched so far.
+     */
+    public long pageCount() {
+        return pageCount;
+    }
+
+    /**
+     * The number of hits returned by {@link #next()} so far.
+     */
+    public long hitCount() {
+        return hitCount;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+
+    private void nextPage() {
+        if (nextPage == null) {
+            nextPage = fetch();
+        }
+
+        final SearchResponse<T> page;
+        try {
+            page = nextPage.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IllegalStateException("Interrupted while waiting for the next page", e);
+        } catch (ExecutionException e) {
+            nextPage = null;
+            close();
+            throw AsyncRequests.unwrap(e.getCause());
+        }
+        nextPage = null;
+        pageCount++;
+        hits = page.hits().hits();
+        position = 0;
+
+        if (hits.isEmpty()) {
+            exhausted = true;
+            clearScroll();
+            return;
+        }
+        if (weigher != null) {
+            weights = new long[hits.size()];
+            remainingBytes = 0;
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = weigher.applyAsLong(hits.get(i));
+                remainingBytes += weights[i];
+            }
+            averageHitBytes = remainingBytes / hits.size();
+        }
+        prefetch();
+    }
+
+    /**
+     * Requests the next page if there isn't one in flight already, and if the hits buffered once it is received stay
+     * within bounds.
+     */
+    private void prefetch() {
+        if (nextPage != null || exhausted || closed) {
+            return;
+        }
+        final int remaining = hits.size() - position;
+        if ((long) remaining + pageSize > maxBufferedHits) {
+            return;
+        }
+        if (weigher != null && remainingBytes + averageHitBytes * pageSize > maxBufferedBytes) {
+            return;
+        }
+        nextPage = fetch();
+    }
+
+    private CompletableFuture<SearchResponse<T>> fetch() {
+        final CompletableFuture<? extends SearchResponse<T>> response;
+        if (false == started) {
+            started = true;
+            response = AsyncRequests.send(() -> client.search(request, documentClass));
+        } else {
+            response = AsyncRequests.send(() -> client.scroll(s -> s.scrollId(scrollId).scroll(keepAlive), documentClass));
+        }
+        return response.thenApply(page -> {
+            if (page.scrollId() != null) {
+                scrollId = page.scrollId();
+            }
+            return page;
+        });
+    }
+
+    private CompletableFuture<Void> clearScroll() {
+        if (clearing == null) {
+            final String id = scrollId;
+            if (id == null) {
+                clearing = CompletableFuture.completedFuture(null);
+            } else {
+                clearing = AsyncRequests.send(() -> client.clearScroll(c -> c.scrollId(id))).handle((response, failure) -> {
+                    if (failure != null) {
+                        logger.warn("Failed to clear scroll " + id, failure);
+                    }
+                    return null;
+                });
+            }
+        }
+        return clearing;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+
+    /**
+     * Builder for {@link ScrollIterator}.
+     */
+    public static class Builder<T> extends ObjectBuilderBase implements ObjectBuilder<ScrollIterator<T>> {
+        private OpenSearchAsyncClient client;
+        private Class<T> documentClass;
+        private Function<SearchRequest.Builder, SearchRequest.Builder> request = Function.identity();
+        private String keepAlive = DEFAULT_KEEP_ALIVE;
+        private int maxBufferedHits = 0;
+        private long maxBufferedBytes = Long.MAX_VALUE;
+        @Nullable
+        private ToLongFunction<Hit<T>> weigher;
+
+        /**
+         * Required - The client used to send the requests.
+         */
+        public final Builder<T> client(OpenSearchAsyncClient client) {
+            this.client = client;
+            return this;
+        }
+
+        /**
+         * Required - The class of the documents.
+         */
+        public final Builder<T> documentClass(Class<T> documentClass) {
+            this.documentClass = documentClass;
+            return this;
+        }
+
+        /**
+         * The search request, whose size is the size of the pages. It must not set a scroll, which is set by the
+         * iterator, nor a PIT or {@code search_after}. Sort by {@code _doc} when the order of the hits doesn't matter.
+         */
+        public final Builder<T> request(Function<SearchRequest.Builder, SearchRequest.Builder> fn) {
+            this.request = Objects.requireNonNull(fn);
+            return this;
+        }
+
+        /**
+         * The time that the scroll is kept alive between two pages, such as {@code 1m}. Defaults to
+         * {@value #DEFAULT_KEEP_ALIVE}.
+         */
+        public final Builder<T> keepAlive(String keepAlive) {
+            this.keepAlive = Objects.requireNonNull(keepAlive);
+            return this;
+        }
+
+        /**
+         * The maximum number of hits that are buffered, in the current page and in the next one. The next page is not
+         * requested before the consumer has taken enough hits of the current one. Defaults to twice the page size,
+         * so that the next page is always requested when the current one is received.
+         */
+        public final Builder<T> maxBufferedHits(int count) {
+            if (count <= 0) {
+                throw new IllegalArgumentException("maxBufferedHits must be greater than 0");
+            }
+            this.maxBufferedHits = count;
+            return this;
+        }
+
+        /**
+         * The maximum size of the hits that are buffered, in the current page and in the next one, whose size is
+         * estimated from the current one. Unbounded by default.
+         *
+         * @param weigher returns the size of a hit, such as {@code hit -> hit.source().size()} for
+         *            {@link org.opensearch.client.json.RawJson} documents
+         */
+        public final Builder<T> maxBufferedBytes(long bytes, ToLongFunction<Hit<T>> weigher) {
+            if (bytes <= 0) {
+                throw new IllegalArgumentException("maxBufferedBytes must be greater than 0");
+            }
+            this.maxBufferedBytes = bytes;
+            this.weigher = Objects.requireNonNull(weigher);
+            return this;
+        }
+
+        /**
+         * Builds a {@link ScrollIterator}. No request is sent until the first hit is requested.
+         *
+         * @throws NullPointerException
+         *             if the client or the document class is null.
+         */
+        @Override
+        public ScrollIterator<T> build() {
+            _checkSingleUse();
+
+            return new ScrollIterator<>(this);
+        }
+    }
+}
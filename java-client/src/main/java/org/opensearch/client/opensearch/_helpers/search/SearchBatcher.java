@@ -0,0 +1,488 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.opensearch._helpers.search;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch._types.OpenSearchException;
+import org.opensearch.client.opensearch.core.MsearchResponse;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.msearch.MultiSearchResponseItem;
+import org.opensearch.client.opensearch.core.msearch.RequestItem;
+import org.opensearch.client.util.ObjectBuilder;
+import org.opensearch.client.util.ObjectBuilderBase;
+
+/**
+ * Sends search requests in multi search ({@code _msearch}) requests when they arrive close enough to each other, to
+ * save the overhead of one HTTP request per search.
+ * <p>
+ * When a search arrives, it is sent on its own if it isn't expected to be joined by another one within
+ * {@link Builder#maxWait(long, TimeUnit)}, based on the recent rate of searches, so that the latency doesn't increase
+ * when the traffic is low. Otherwise it is added to a batch, which is sent once it has
+ * {@link Builder#maxBatchSize(int)} searches or once it is {@code maxWait} old. Each search completes with its own
+ * response or failure from the multi search response.
+ * <pre>{@code
+ * SearchBatcher<Product> batcher = SearchBatcher.of(b -> b
+ *     .client(asyncClient)
+ *     .documentClass(Product.class)
+ *     .maxBatchSize(32)
+ *     .maxWait(2, TimeUnit.MILLISECONDS)
+ * );
+ *
+ * CompletableFuture<SearchResponse<Product>> response = batcher.search(s -> s.index("products").query(query));
+ * }</pre>
+ * Searches that use parameters that multi search requests don't support, such as scrolls, PITs or runtime mappings,
+ * are always sent on their own.
+ *
+ * @param <T> the type of the documents
+ */
+public class SearchBatcher<T> implements AutoCloseable {
+    private static final AtomicInteger BATCHER_COUNT = new AtomicInteger();
+
+    /**
+     * The default maximum number of searches in a batch.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 32;
+
+    /**
+     * The default maximum time that a search waits for others to be batched with, in microseconds.
+     */
+    public static final long DEFAULT_MAX_WAIT_MICROS = 2000;
+
+    private final OpenSearchAsyncClient client;
+    private final Class<T> documentClass;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private List<Pending<T>> pending = new ArrayList<>();
+    @Nullable
+    private ScheduledFuture<?> flushTask;
+    private long lastArrivalNanos = 0;
+    // Moving average of the time between two searches. No batching until it is known.
+    private long meanIntervalNanos = Long.MAX_VALUE;
+    private volatile boolean closed = false;
+
+    private final AtomicLong directCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong batchedCount = new AtomicLong();
+
+    private SearchBatcher(Builder<T> builder) {
+        this.client = Objects.requireNonNull(builder.client, "client must not be null");
+        this.documentClass = Objects.requireNonNull(builder.documentClass, "documentClass must not be null");
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxWaitNanos = builder.maxWaitNanos;
+
+        if (builder.scheduler == null) {
+            this.ownsScheduler = true;
+            final String threadName = "search-batcher#" + BATCHER_COUNT.incrementAndGet();
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, threadName);
+                t.setDaemon(true);
+                return t;
+            });
+        } else {
+            this.ownsScheduler = false;
+            this.scheduler = builder.scheduler;
+        }
+    }
+
+    public static <T> SearchBatcher<T> of(Function<Builder<T>, ObjectBuilder<SearchBatcher<T>>> fn) {
+        return fn.apply(new Builder<>()).build();
+    }
+
+    /**
+     * Sends a search, either on its own or in a batch.
+     *
+     * @throws IllegalStateException if the batcher has been closed
+     */
+    public CompletableFuture<SearchResponse<T>> search(SearchRequest request) {
+        final RequestItem item = toRequestItem(request);
+        if (item == null) {
+            if (closed) {
+                throw new IllegalStateException("Search batcher is closed");
+            }
+            return direct(request);
+        }
+
+        final CompletableFuture<SearchResponse<T>> future = new CompletableFuture<>();
+        List<Pending<T>> batch = null;
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Search batcher is closed");
+            }
+            final long now = System.nanoTime();
+            if (lastArrivalNanos != 0) {
+                final long interval = now - lastArrivalNanos;
+                meanIntervalNanos = meanIntervalNanos == Long.MAX_VALUE ? interval : meanIntervalNanos + (interval - meanIntervalNanos) / 4;
+            }
+            lastArrivalNanos = now;
+
+            if (pending.isEmpty() && meanIntervalNanos >= maxWaitNanos) {
+                // No other search is expected in time to be batched with this one
+                batch = Collections.emptyList();
+            } else {
+                pending.add(new Pending<>(request, item, future));
+                if (pending.size() >= maxBatchSize) {
+                    batch = takePending();
+                } else if (pending.size() == 1) {
+                    flushTask = scheduler.schedule(this::flush, maxWaitNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (batch == null) {
+            return future;
+        }
+        if (batch.isEmpty()) {
+            return direct(request);
+        }
+        send(batch);
+        return future;
+    }
+
+    /**
+     * Sends a search, either on its own or in a batch.
+     *
+     * @throws IllegalStateException if the batcher has been closed
+     */
+    public final CompletableFuture<SearchResponse<T>> search(Function<SearchRequest.Builder, ObjectBuilder<SearchRequest>> fn) {
+        return search(fn.apply(new SearchRequest.Builder()).build());
+    }
+
+    /**
+     * Sends the pending batch, if any, and stops accepting searches. Searches that have been sent complete normally.
+     * The client is not closed.
+     */
+    @Override
+    public void close() {
+        final List<Pending<T>> batch;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            batch = takePending();
+        } finally {
+            lock.unlock();
+        }
+        send(batch);
+        if (ownsScheduler) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * The number of searches sent on their own.
+     */
+    public long directCount() {
+        return directCount.get();
+    }
+
+    /**
+     * The number of multi search requests sent.
+     */
+    public long batchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * The number of searches sent in multi search requests.
+     */
+    public long batchedCount() {
+        return batchedCount.get();
+    }
+
+    // ---------------------------------------------------------------------------------------------
+
+    private void flush() {
+        final List<Pending<T>> batch;
+        lock.lock();
+        try {
+            batch = takePending();
+        } finally {
+            lock.unlock();
+        }
+        send(batch);
+    }
+
+    // Must be called with the lock held
+    private List<Pending<T>> takePending() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+        final List<Pending<T>> batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    private void send(List<Pending<T>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (batch.size() == 1) {
+            // It has already waited, but a multi search request is still more expensive than a search
+            final Pending<T> single = batch.get(0);
+            complete(single.future, direct(single.request));
+            return;
+        }
+
+        batchCount.incrementAndGet();
+        batchedCount.addAndGet(batch.size());
+        final List<RequestItem> items = new ArrayList<>(batch.size());
+        for (Pending<T> search : batch) {
+            items.add(search.item);
+        }
+        final CompletableFuture<MsearchResponse<T>> response;
+        try {
+            response = client.msearch(m -> m.searches(items), documentClass);
+        } catch (IOException | RuntimeException e) {
+            for (Pending<T> search : batch) {
+                search.future.completeExceptionally(e);
+            }
+            return;
+        }
+
+        response.whenComplete((msearch, failure) -> {
+            if (failure != null) {
+                final Throwable cause = unwrap(failure);
+                for (Pending<T> search : batch) {
+                    search.future.completeExceptionally(cause);
+                }
+                return;
+            }
+            final List<MultiSearchResponseItem<T>> responses = msearch.responses();
+            for (int i = 0; i < batch.size(); i++) {
+                final CompletableFuture<SearchResponse<T>> future = batch.get(i).future;
+                if (i >= responses.size()) {
+                    future.completeExceptionally(
+                        new IllegalStateException(
+                            "Multi search returned " + responses.size() + " responses for " + batch.size() + " searches"
+                        )
+                    );
+                } else if (responses.get(i).isResult()) {
+                    future.complete(responses.get(i).result());
+                } else {
+                    future.completeExceptionally(new OpenSearchException(responses.get(i).failure()));
+                }
+            }
+        });
+    }
+
+    private CompletableFuture<SearchResponse<T>> direct(SearchRequest request) {
+        directCount.incrementAndGet();
+        try {
+            return client.search(request, documentClass);
+        } catch (IOException | RuntimeException e) {
+            final CompletableFuture<SearchResponse<T>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private static <R> void complete(CompletableFuture<R> future, CompletableFuture<R> source) {
+        source.whenComplete((result, failure) -> {
+            if (failure != null) {
+                future.completeExceptionally(unwrap(failure));
+            } else {
+                future.complete(result);
+            }
+        });
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        while (failure instanceof CompletionException && failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        return failure;
+    }
+
+    /**
+     * Converts a search request to a multi search item, or returns {@code null} if it uses parameters that multi search
+     * items don't have.
+     */
+    @Nullable
+    static RequestItem toRequestItem(SearchRequest request) {
+        if (request.allowPartialSearchResults() != null
+            || request.analyzeWildcard() != null
+            || request.analyzer() != null
+            || request.batchedReduceSize() != null
+            || request.ccsMinimizeRoundtrips() != null
+            || request.phaseTook() != null
+            || request.pipeline() != null
+            || request.cancelAfterTimeInterval() != null
+            || request.defaultOperator() != null
+            || request.df() != null
+            || false == request.docvalueFields().isEmpty()
+            || request.ignoreThrottled() != null
+            || request.lenient() != null
+            || request.maxConcurrentShardRequests() != null
+            || request.minCompatibleShardNode() != null
+            || request.pit() != null
+            || request.preFilterShardSize() != null
+            || request.profile() != null
+            || request.q() != null
+            || false == request.runtimeMappings().isEmpty()
+            || request.scroll() != null
+            || request.slice() != null
+            || false == request.stats().isEmpty()
+            || request.terminateAfter() != null) {
+            return null;
+        }
+
+        return RequestItem.of(
+            r -> r.header(
+                h -> h.index(request.index())
+                    .allowNoIndices(request.allowNoIndices())
+                    .expandWildcards(request.expandWildcards())
+                    .ignoreUnavailable(request.ignoreUnavailable())
+                    .preference(request.preference())
+                    .requestCache(request.requestCache())
+                    .routing(request.routing())
+                    .searchType(request.searchType())
+            )
+                .body(
+                    b -> b.aggregations(request.aggregations())
+                        .collapse(request.collapse())
+                        .explain(request.explain())
+                        .ext(request.ext())
+                        .fields(request.fields())
+                        .from(request.from())
+                        .highlight(request.highlight())
+                        .indicesBoost(request.indicesBoost())
+                        .minScore(request.minScore())
+                        .postFilter(request.postFilter())
+                        .query(request.query())
+                        .rescore(request.rescore())
+                        .scriptFields(request.scriptFields())
+                        .searchAfter(request.searchAfter())
+                        .seqNoPrimaryTerm(request.seqNoPrimaryTerm())
+                        .size(request.size())
+                        .sort(request.sort())
+                        .source(request.source())
+                        .storedFields(request.storedFields())
+                        .suggest(request.suggest())
+                        .timeout(request.timeout())
+                        .trackScores(request.trackScores())
+                        .trackTotalHits(request.trackTotalHits())
+                        .version(request.version())
+                )
+        );
+    }
+
+    private static class Pending<T> {
+        final SearchRequest request;
+        final RequestItem item;
+        final CompletableFuture<SearchResponse<T>> future;
+
+        Pending(SearchRequest request, RequestItem item, CompletableFuture<SearchResponse<T>> future) {
+            this.request = request;
+            this.item = item;
+            this.future = future;
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------
+
+    /**
+     * Builder for {@link SearchBatcher}.
+     */
+    public static class Builder<T> extends ObjectBuilderBase implements ObjectBuilder<SearchBatcher<T>> {
+        private OpenSearchAsyncClient client;
+        private Class<T> documentClass;
+        private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        private long maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(DEFAULT_MAX_WAIT_MICROS);
+        @Nullable
+        private ScheduledExecutorService scheduler;
+
+        /**
+         * Required - The client used to send the requests.
+         */
+        public final Builder<T> client(OpenSearchAsyncClient client) {
+            this.client = client;
+            return this;
+        }
+
+        /**
+         * Required - The class of the documents.
+         */
+        public final Builder<T> documentClass(Class<T> documentClass) {
+            this.documentClass = documentClass;
+            return this;
+        }
+
+        /**
+         * The maximum number of searches in a multi search request. Defaults to {@value #DEFAULT_MAX_BATCH_SIZE}.
+         */
+        public final Builder<T> maxBatchSize(int count) {
+            if (count < 2) {
+                throw new IllegalArgumentException("maxBatchSize must be at least 2");
+            }
+            this.maxBatchSize = count;
+            return this;
+        }
+
+        /**
+         * The maximum time that a search waits for others to be batched with. Defaults to
+         * {@value #DEFAULT_MAX_WAIT_MICROS} µs.
+         */
+        public final Builder<T> maxWait(long value, TimeUnit unit) {
+            if (value <= 0) {
+                throw new IllegalArgumentException("maxWait must be greater than 0");
+            }
+            this.maxWaitNanos = unit.toNanos(value);
+            return this;
+        }
+
+        /**
+         * The scheduler used to send batches once they are {@code maxWait} old. It is not shut down when the batcher
+         * is closed. Defaults to a single-thread scheduler owned by the batcher.
+         */
+        public final Builder<T> scheduler(@Nullable ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Builds a {@link SearchBatcher}.
+         *
+         * @throws NullPointerException
+         *             if the client or the document class is null.
+         */
+        @Override
+        public SearchBatcher<T> build() {
+            _checkSingleUse();
+
+            return new SearchBatcher<>(this);
+        }
+    }
+}
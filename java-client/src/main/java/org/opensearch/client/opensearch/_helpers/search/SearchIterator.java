@@ -0,0 +1,455 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.opensearch._helpers.search;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.annotation.Nullable;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch._types.FieldValue;
+import org.opensearch.client.opensearch._types.SortOptions;
+import org.opensearch.client.opensearch._types.SortOrder;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.opensearch.core.search.Pit;
+import org.opensearch.client.util.ObjectBuilder;
+import org.opensearch.client.util.ObjectBuilderBase;
+
+/**
+ * Iterates over all the hits of a search, page by page, in a point in time (PIT) with {@code search_after}.
+ * <p>
+ * The request for the next page is sent as soon as the consumer starts processing the current one, so that the
+ * network round trip overlaps with the processing: at most two pages are held in memory. The size of the pages is
+ * adapted to their response times, to get pages that take about {@link Builder#targetPageTime(long, TimeUnit)} to
+ * fetch.
+ * <p>
+ * The PIT is created when the first page is fetched, and deleted once the last page has been fetched or when the
+ * iterator is closed, whichever comes first: iterators that are not consumed to the end must be closed. The iterator
+ * is meant to be used by a single thread.
+ * <pre>{@code
+ * try (SearchIterator<Doc> hits = SearchIterator.of(b -> b
+ *     .client(asyncClient)
+ *     .documentClass(Doc.class)
+ *     .index("logs")
+ *     .request(r -> r.query(q -> q.term(t -> t.field("level").value(FieldValue.of("error")))))
+ * )) {
+ *     hits.forEachRemaining(hit -> process(hit.source()));
+ * }
+ * }</pre>
+ *
+ * @param <T> the type of the documents
+ */
+public class SearchIterator<T> implements Iterator<Hit<T>>, AutoCloseable {
+    private static final Log logger = LogFactory.getLog(SearchIterator.class);
+
+    /**
+     * The default size of the first page.
+     */
+    public static final int DEFAULT_INITIAL_PAGE_SIZE = 1000;
+
+    /**
+     * The default maximum size of a page.
+     */
+    public static final int DEFAULT_MAX_PAGE_SIZE = 10_000;
+
+    /**
+     * The default response time that page sizes are adapted to, in milliseconds.
+     */
+    public static final long DEFAULT_TARGET_PAGE_TIME_MILLIS = 500;
+
+    /**
+     * The default time that the PIT is kept alive between two pages.
+     */
+    public static final String DEFAULT_KEEP_ALIVE = "5m";
+
+    // Used when the request isn't sorted: search_after needs a total order
+    private static final SortOptions DEFAULT_SORT = SortOptions.of(s -> s.field(f -> f.field("_id").order(SortOrder.Asc)));
+
+    private final OpenSearchAsyncClient client;
+    private final Class<T> documentClass;
+    private final List<String> indices;
+    private final Function<SearchRequest.Builder, SearchRequest.Builder> request;
+    private final boolean sorted;
+    private final String keepAlive;
+    private final int minPageSize;
+    private final int maxPageSize;
+    private final long targetPageNanos;
+    // False when iterating over a PIT created by the caller
+    private final boolean ownsPit;
+
+    @Nullable
+    private CompletableFuture<String> pit;
+    // The PIT id can change with each response
+    private volatile String pitId;
+    @Nullable
+    private CompletableFuture<Void> pitDeletion;
+
+    @Nullable
+    private CompletableFuture<Page<T>> nextPage;
+    private List<Hit<T>> hits = Collections.emptyList();
+    private int position = 0;
+    private int pageSize;
+    private boolean exhausted = false;
+    private boolean closed = false;
+    private long pageCount = 0;
+    private long hitCount = 0;
+
+    private SearchIterator(Builder<T> builder) {
+        this.client = Objects.requireNonNull(builder.client, "client must not be null");
+        this.documentClass = Objects.requireNonNull(builder.documentClass, "documentClass must not be null");
+        if (builder.pitId != null) {
+            if (false == builder.indices.isEmpty()) {
+                throw new IllegalArgumentException("The indices of an existing PIT can't be set");
+            }
+            this.pit = CompletableFuture.completedFuture(builder.pitId);
+            this.pitId = builder.pitId;
+            this.ownsPit = false;
+        } else if (builder.indices.isEmpty()) {
+            throw new IllegalArgumentException("At least one index must be set");
+        } else {
+            this.ownsPit = true;
+        }
+        this.indices = builder.indices;
+        this.request = builder.request;
+        this.keepAlive = builder.keepAlive;
+        this.minPageSize = builder.minPageSize;
+        this.maxPageSize = Math.max(builder.maxPageSize, minPageSize);
+        this.pageSize = Math.min(Math.max(builder.initialPageSize, minPageSize), maxPageSize);
+        this.targetPageNanos = builder.targetPageNanos;
+
+        final SearchRequest template = request.apply(new SearchRequest.Builder()).build();
+        if (false == template.index().isEmpty()) {
+            throw new IllegalArgumentException("The indices must be set on the iterator, not on the request");
+        }
+        if (template.pit() != null || template.scroll() != null || false == template.searchAfter().isEmpty()) {
+            throw new IllegalArgumentException("The request must not have a pit, a scroll or search_after");
+        }
+        this.sorted = false == template.sort().isEmpty();
+    }
+
+    public static <T> SearchIterator<T> of(Function<Builder<T>, ObjectBuilder<SearchIterator<T>>> fn) {
+        return fn.apply(new Builder<>()).build();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (position >= hits.size()) {
+            if (exhausted || closed) {
+                return false;
+            }
+            nextPage();
+        }
+        return true;
+    }
+
+    @Override
+    public Hit<T> next() {
+        if (false == hasNext()) {
+            throw new NoSuchElementException();
+        }
+        hitCount++;
+        return hits.get(position++);
+    }
+
+    /**
+     * Returns the remaining hits as a sequential stream. Closing the stream closes this iterator.
+     */
+    public Stream<Hit<T>> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(this::close);
+    }
+
+    /**
+     * Deletes the PIT, if it hasn't been deleted yet, and waits for the deletion to complete. Does not close the
+     * client.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        hits = Collections.emptyList();
+        position = 0;
+        if (nextPage != null) {
+            // The response is not needed, but the PIT can only be deleted once the search has completed with it
+            nextPage.handle((page, failure) -> null).join();
+            nextPage = null;
+        }
+        deletePit().join();
+    }
+
+    /**
+     * The number of pages fetched so far.
+     */
+    public long pageCount() {
+        return pageCount;
+    }
+
+    /**
+     * The number of hits returned by {@link #next()} so far.
+     */
+    public long hitCount() {
+        return hitCount;
+    }
+
+    /**
+     * The size of the next page to be requested.
+     */
+    public int pageSize() {
+        return pageSize;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+
+    private void nextPage() {
+        if (nextPage == null) {
+            nextPage = fetch(null, pageSize);
+        }
+
+        final Page<T> page;
+        try {
+            page = nextPage.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IllegalStateException("Interrupted while waiting for the next page", e);
+        } catch (ExecutionException e) {
+            nextPage = null;
+            close();
+            throw AsyncRequests.unwrap(e.getCause());
+        }
+        pageCount++;
+        hits = page.hits;
+        position = 0;
+
+        if (page.hits.size() < page.size) {
+            // Nothing left to fetch: release the PIT right away
+            exhausted = true;
+            nextPage = null;
+            deletePit();
+        } else {
+            // Fetch the next page while the consumer processes this one
+            adaptPageSize(page);
+            nextPage = fetch(page.hits.get(page.hits.size() - 1).sort(), pageSize);
+        }
+    }
+
+    private void adaptPageSize(Page<T> page) {
+        if (page.nanos <= 0) {
+            return;
+        }
+        // Converge smoothly towards the target time, without following the noise of individual responses
+        final double ratio = Math.min(2.0, Math.max(0.5, (double) targetPageNanos / page.nanos));
+        pageSize = (int) Math.min(maxPageSize, Math.max(minPageSize, Math.round(page.size * ratio)));
+    }
+
+    private CompletableFuture<Page<T>> fetch(@Nullable List<FieldValue> searchAfter, int size) {
+        if (pit == null) {
+            pit = AsyncRequests.send(
+                () -> client.createPit(p -> p.targetIndexes(indices).keepAlive(t -> t.time(keepAlive)))
+                    .thenApply(response -> pitId = response.pitId())
+            );
+        }
+        final long start = System.nanoTime();
+        return pit.thenCompose(id -> AsyncRequests.send(() -> {
+            final SearchRequest.Builder builder = request.apply(new SearchRequest.Builder())
+                .pit(Pit.of(p -> p.id(pitId).keepAlive(keepAlive)))
+                .size(size);
+            if (false == sorted) {
+                builder.sort(DEFAULT_SORT);
+            }
+            if (searchAfter != null) {
+                builder.searchAfter(searchAfter);
+            }
+            return client.search(builder.build(), documentClass);
+        })).thenApply(response -> {
+            if (response.pitId() != null) {
+                pitId = response.pitId();
+            }
+            return new Page<>(response, size, System.nanoTime() - start);
+        });
+    }
+
+    private CompletableFuture<Void> deletePit() {
+        if (pitDeletion == null) {
+            if (pit == null || false == ownsPit) {
+                pitDeletion = CompletableFuture.completedFuture(null);
+            } else {
+                pitDeletion = pit.thenCompose(
+                    id -> AsyncRequests.send(() -> client.deletePit(d -> d.pitId(Collections.singletonList(pitId))))
+                ).handle((response, failure) -> {
+                    if (failure != null) {
+                        // Creation failures are reported to the consumer
+                        if (false == pit.isCompletedExceptionally()) {
+                            logger.warn("Failed to delete point in time " + pitId, failure);
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        return pitDeletion;
+    }
+
+    private static class Page<T> {
+        final List<Hit<T>> hits;
+        // The requested size
+        final int size;
+        final long nanos;
+
+        Page(SearchResponse<T> response, int size, long nanos) {
+            this.hits = response.hits().hits();
+            this.size = size;
+            this.nanos = nanos;
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------
+
+    /**
+     * Builder for {@link SearchIterator}.
+     */
+    public static class Builder<T> extends ObjectBuilderBase implements ObjectBuilder<SearchIterator<T>> {
+        private OpenSearchAsyncClient client;
+        private Class<T> documentClass;
+        private List<String> indices = Collections.emptyList();
+        @Nullable
+        private String pitId;
+        private Function<SearchRequest.Builder, SearchRequest.Builder> request = Function.identity();
+        private String keepAlive = DEFAULT_KEEP_ALIVE;
+        private int initialPageSize = DEFAULT_INITIAL_PAGE_SIZE;
+        private int minPageSize = 1;
+        private int maxPageSize = DEFAULT_MAX_PAGE_SIZE;
+        private long targetPageNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_TARGET_PAGE_TIME_MILLIS);
+
+        /**
+         * Required - The client used to send the requests.
+         */
+        public final Builder<T> client(OpenSearchAsyncClient client) {
+            this.client = client;
+            return this;
+        }
+
+        /**
+         * Required - The class of the documents.
+         */
+        public final Builder<T> documentClass(Class<T> documentClass) {
+            this.documentClass = documentClass;
+            return this;
+        }
+
+        /**
+         * Required, unless {@link #pitId(String)} is set - The indices to search, on which the PIT is created.
+         */
+        public final Builder<T> index(String value, String... values) {
+            this.indices = _listAdd(this.indices, value, values);
+            return this;
+        }
+
+        /**
+         * Required, unless {@link #pitId(String)} is set - The indices to search, on which the PIT is created.
+         */
+        public final Builder<T> index(List<String> list) {
+            this.indices = _listAddAll(this.indices, list);
+            return this;
+        }
+
+        /**
+         * Iterate over an existing PIT instead of creating one on {@link #index(String, String...)}. The PIT is not
+         * deleted by the iterator, so that it can be shared, for instance by iterators on different slices.
+         */
+        public final Builder<T> pitId(String pitId) {
+            this.pitId = Objects.requireNonNull(pitId);
+            return this;
+        }
+
+        /**
+         * The search request, such as its query, sort or source filtering. It must not set the indices, the PIT, the
+         * size or {@code search_after}, which are set by the iterator. The sort must be a total order for the
+         * iteration to be complete; it defaults to {@code _id}.
+         */
+        public final Builder<T> request(Function<SearchRequest.Builder, SearchRequest.Builder> fn) {
+            this.request = Objects.requireNonNull(fn);
+            return this;
+        }
+
+        /**
+         * The time that the PIT is kept alive between two pages, such as {@code 1m}. Defaults to
+         * {@value #DEFAULT_KEEP_ALIVE}.
+         */
+        public final Builder<T> keepAlive(String keepAlive) {
+            this.keepAlive = Objects.requireNonNull(keepAlive);
+            return this;
+        }
+
+        /**
+         * The size of the first page. Defaults to {@value #DEFAULT_INITIAL_PAGE_SIZE}.
+         */
+        public final Builder<T> initialPageSize(int size) {
+            if (size <= 0) {
+                throw new IllegalArgumentException("initialPageSize must be greater than 0");
+            }
+            this.initialPageSize = size;
+            return this;
+        }
+
+        /**
+         * The bounds of the page size. Defaults to 1 and {@value #DEFAULT_MAX_PAGE_SIZE}, which is the default
+         * {@code index.max_result_window} of indices.
+         */
+        public final Builder<T> pageSizeBounds(int min, int max) {
+            if (min <= 0 || max < min) {
+                throw new IllegalArgumentException("The page size bounds must be greater than 0 and ordered");
+            }
+            this.minPageSize = min;
+            this.maxPageSize = max;
+            return this;
+        }
+
+        /**
+         * The response time that page sizes are adapted to. Defaults to {@value #DEFAULT_TARGET_PAGE_TIME_MILLIS} ms.
+         * Use the same value for the bounds of {@link #pageSizeBounds(int, int)} to have pages of a fixed size.
+         */
+        public final Builder<T> targetPageTime(long value, TimeUnit unit) {
+            if (value <= 0) {
+                throw new IllegalArgumentException("targetPageTime must be greater than 0");
+            }
+            this.targetPageNanos = unit.toNanos(value);
+            return this;
+        }
+
+        /**
+         * Builds a {@link SearchIterator}. No request is sent until the first hit is requested.
+         *
+         * @throws NullPointerException
+         *             if the client or the document class is null.
+         */
+        @Override
+        public SearchIterator<T> build() {
+            _checkSingleUse();
+
+            return new SearchIterator<>(this);
+        }
+    }
+}
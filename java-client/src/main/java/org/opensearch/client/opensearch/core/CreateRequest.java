@@ -42,6 +42,8 @@ import org.opensearch.client.json.JsonpMapper;
 import org.opensearch.client.json.JsonpSerializer;
 import org.opensearch.client.json.JsonpUtils;
 import org.opensearch.client.json.PlainJsonSerializable;
+import org.opensearch.client.json.RawJson;
+import org.opensearch.client.json.RawJsonBody;
 import org.opensearch.client.opensearch._types.ErrorResponse;
 import org.opensearch.client.opensearch._types.Refresh;
 import org.opensearch.client.opensearch._types.RequestBase;
@@ -64,7 +66,7 @@ import org.opensearch.client.util.ObjectBuilderBase;
  *
  */
 
-public class CreateRequest<TDocument> extends RequestBase implements PlainJsonSerializable {
+public class CreateRequest<TDocument> extends RequestBase implements PlainJsonSerializable, RawJsonBody {
     private final String id;
 
     private final String index;
@@ -229,6 +231,12 @@ public class CreateRequest<TDocument> extends RequestBase implements PlainJsonSe
 
     }
 
+    @Override
+    @Nullable
+    public RawJson _rawBody() {
+        return tDocumentSerializer == null && document instanceof RawJson ? (RawJson) document : null;
+    }
+
     public Builder<TDocument> toBuilder() {
         return new Builder<TDocument>().id(id)
             .index(index)
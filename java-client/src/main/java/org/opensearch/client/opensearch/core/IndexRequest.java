@@ -42,6 +42,8 @@ import org.opensearch.client.json.JsonpMapper;
 import org.opensearch.client.json.JsonpSerializer;
 import org.opensearch.client.json.JsonpUtils;
 import org.opensearch.client.json.PlainJsonSerializable;
+import org.opensearch.client.json.RawJson;
+import org.opensearch.client.json.RawJsonBody;
 import org.opensearch.client.opensearch._types.ErrorResponse;
 import org.opensearch.client.opensearch._types.OpType;
 import org.opensearch.client.opensearch._types.Refresh;
@@ -62,7 +64,7 @@ import org.opensearch.client.util.ObjectBuilderBase;
  *
  */
 
-public class IndexRequest<TDocument> extends RequestBase implements PlainJsonSerializable {
+public class IndexRequest<TDocument> extends RequestBase implements PlainJsonSerializable, RawJsonBody {
     @Nullable
     private final String id;
 
@@ -289,6 +291,12 @@ public class IndexRequest<TDocument> extends RequestBase implements PlainJsonSer
 
     }
 
+    @Override
+    @Nullable
+    public RawJson _rawBody() {
+        return tDocumentSerializer == null && document instanceof RawJson ? (RawJson) document : null;
+    }
+
     public Builder<TDocument> toBuilder() {
         return new Builder<TDocument>().id(id)
             .ifPrimaryTerm(ifPrimaryTerm)
@@ -33,6 +33,7 @@
 package org.opensearch.client.opensearch.core.search;
 
 import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonParser;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -41,6 +42,7 @@ import javax.annotation.Nullable;
 import org.opensearch.client.json.JsonData;
 import org.opensearch.client.json.JsonpDeserializer;
 import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.JsonpMapperAttributes;
 import org.opensearch.client.json.JsonpSerializer;
 import org.opensearch.client.json.JsonpUtils;
 import org.opensearch.client.json.ObjectBuilderDeserializer;
@@ -88,7 +90,11 @@ public class Hit<TDocument> implements PlainJsonSerializable {
     private final String routing;
 
     @Nullable
-    private final TDocument source;
+    private volatile TDocument source;
+
+    // Raw _source that hasn't been deserialized yet, see JsonpMapperAttributes.LAZY_HIT_SOURCE
+    @Nullable
+    private volatile RawSource<TDocument> rawSource;
 
     @Nullable
     private final Long seqNo;
@@ -122,6 +128,7 @@ public class Hit<TDocument> implements PlainJsonSerializable {
         this.node = builder.node;
         this.routing = builder.routing;
         this.source = builder.source;
+        this.rawSource = builder.rawSource;
         this.seqNo = builder.seqNo;
         this.primaryTerm = builder.primaryTerm;
         this.version = builder.version;
@@ -234,12 +241,26 @@ public class Hit<TDocument> implements PlainJsonSerializable {
 
     /**
      * API name: {@code _source}
+     * <p>
+     * If the hit was read with the {@link JsonpMapperAttributes#LAZY_HIT_SOURCE} mapper attribute set, the source is
+     * deserialized on the first call to this method.
      */
     @Nullable
     public final TDocument source() {
+        if (this.rawSource != null) {
+            materializeSource();
+        }
         return this.source;
     }
 
+    private synchronized void materializeSource() {
+        final RawSource<TDocument> raw = this.rawSource;
+        if (raw != null) {
+            this.source = raw.data.deserialize(raw.deserializer);
+            this.rawSource = null;
+        }
+    }
+
     /**
      * API name: {@code _seq_no}
      */
@@ -382,7 +403,13 @@ public class Hit<TDocument> implements PlainJsonSerializable {
             generator.write(this.routing);
 
         }
-        if (this.source != null) {
+        final RawSource<TDocument> rawSource = this.rawSource;
+        if (rawSource != null) {
+            // Not deserialized yet: write it as is
+            generator.writeKey("_source");
+            rawSource.data.serialize(generator, mapper);
+
+        } else if (this.source != null) {
             generator.writeKey("_source");
             JsonpUtils.serialize(this.source, generator, tDocumentSerializer, mapper);
 
@@ -465,6 +492,9 @@ public class Hit<TDocument> implements PlainJsonSerializable {
         @Nullable
         private TDocument source;
 
+        @Nullable
+        private RawSource<TDocument> rawSource;
+
         @Nullable
         private Long seqNo;
 
@@ -672,6 +702,7 @@ public class Hit<TDocument> implements PlainJsonSerializable {
          */
         public final Builder<TDocument> source(@Nullable TDocument value) {
             this.source = value;
+            this.rawSource = null;
             return this;
         }
 
@@ -775,7 +806,7 @@ public class Hit<TDocument> implements PlainJsonSerializable {
         op.add(Builder::shard, JsonpDeserializer.stringDeserializer(), "_shard");
         op.add(Builder::node, JsonpDeserializer.stringDeserializer(), "_node");
         op.add(Builder::routing, JsonpDeserializer.stringDeserializer(), "_routing");
-        op.add(Builder::source, tDocumentDeserializer, "_source");
+        op.add(new SourceDeserializer<>(tDocumentDeserializer));
         op.add(Builder::seqNo, JsonpDeserializer.longDeserializer(), "_seq_no");
         op.add(Builder::primaryTerm, JsonpDeserializer.longDeserializer(), "_primary_term");
         op.add(Builder::version, JsonpDeserializer.longDeserializer(), "_version");
@@ -783,4 +814,53 @@ public class Hit<TDocument> implements PlainJsonSerializable {
 
     }
 
+    /**
+     * A {@code _source} that was kept as raw JSON, along with the deserializer that will materialize it.
+     */
+    private static final class RawSource<TDocument> {
+        private final JsonData data;
+        private final JsonpDeserializer<TDocument> deserializer;
+
+        RawSource(JsonData data, JsonpDeserializer<TDocument> deserializer) {
+            this.data = data;
+            this.deserializer = deserializer;
+        }
+    }
+
+    /**
+     * Deserializes {@code _source} eagerly, or keeps it as raw JSON if the mapper has the
+     * {@link JsonpMapperAttributes#LAZY_HIT_SOURCE} attribute set.
+     */
+    private static final class SourceDeserializer<TDocument> extends ObjectDeserializer.FieldDeserializer<Builder<TDocument>> {
+        private final JsonpDeserializer<TDocument> deserializer;
+
+        SourceDeserializer(JsonpDeserializer<TDocument> deserializer) {
+            super("_source");
+            this.deserializer = deserializer;
+        }
+
+        @Override
+        public void deserialize(JsonParser parser, JsonpMapper mapper, String fieldName, Builder<TDocument> object) {
+            if (mapper.attribute(JsonpMapperAttributes.LAZY_HIT_SOURCE, false)) {
+                setRawSource(object, JsonData.from(parser, mapper));
+            } else {
+                object.source(deserializer.deserialize(parser, mapper));
+            }
+        }
+
+        @Override
+        public void deserialize(JsonParser parser, JsonpMapper mapper, String fieldName, Builder<TDocument> object, JsonParser.Event event) {
+            if (mapper.attribute(JsonpMapperAttributes.LAZY_HIT_SOURCE, false)) {
+                setRawSource(object, JsonData.from(parser, mapper, event));
+            } else {
+                JsonpUtils.ensureAccepts(deserializer, parser, event);
+                object.source(deserializer.deserialize(parser, mapper, event));
+            }
+        }
+
+        private void setRawSource(Builder<TDocument> object, JsonData data) {
+            object.source = null;
+            object.rawSource = new RawSource<>(data, deserializer);
+        }
+    }
 }
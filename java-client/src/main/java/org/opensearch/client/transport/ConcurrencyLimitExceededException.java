@@ -0,0 +1,19 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport;
+
+/**
+ * Thrown when a request is not sent because too many requests are already in flight, see {@link ConcurrencyLimiter}.
+ */
+public class ConcurrencyLimitExceededException extends TransportException {
+
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport;
+
+/**
+ * Limits how many requests are in flight, adapting the limit to how the cluster copes with the load (AIMD): the
+ * limit grows by one for each limit's worth of requests that succeed while the limit is being used, and shrinks by a
+ * ratio when a request is rejected because the cluster is overloaded, or when requests take much longer on average
+ * than the fastest ones seen recently, which means that they queue up somewhere.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class ConcurrencyLimiter {
+    /**
+     * How a request that held a permit ended, which drives the limit.
+     */
+    public enum Outcome {
+        /** The request was answered, its latency tells whether the limit can grow. */
+        SUCCESS,
+        /** The request was rejected or timed out because the cluster is overloaded: the limit shrinks. */
+        OVERLOADED,
+        /** The request ended for a reason that says nothing about the load, e.g. it was cancelled. */
+        IGNORED
+    }
+
+    static final int MIN_LATENCY_WINDOW = 1000;
+    private static final double LATENCY_SMOOTHING = 0.1;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+
+    private double limit;
+    private int inFlight;
+    private long minLatencyNanos = Long.MAX_VALUE;
+    private double averageLatencyNanos;
+    private int samples;
+    private int releasesSinceDecrease;
+
+    private ConcurrencyLimiter(Builder builder) {
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.backoffRatio = builder.backoffRatio;
+        this.latencyTolerance = builder.latencyTolerance;
+        this.limit = builder.initialLimit;
+        this.releasesSinceDecrease = builder.initialLimit;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Takes a permit if fewer requests than the limit are in flight. A permit that was taken must be given back with
+     * {@link #release(long, Outcome)}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Gives back a permit, adjusting the limit.
+     *
+     * @param latencyNanos how long the request took
+     * @param outcome how the request ended
+     */
+    public synchronized void release(long latencyNanos, Outcome outcome) {
+        final int wasInFlight = inFlight;
+        inFlight--;
+        releasesSinceDecrease++;
+        switch (outcome) {
+            case OVERLOADED:
+                decrease();
+                break;
+            case SUCCESS:
+                // The fastest latency is forgotten from time to time, so that it follows the cluster when it slows down
+                if (++samples >= MIN_LATENCY_WINDOW) {
+                    samples = 0;
+                    minLatencyNanos = latencyNanos;
+                } else {
+                    minLatencyNanos = Math.min(minLatencyNanos, latencyNanos);
+                }
+                averageLatencyNanos = (averageLatencyNanos == 0)
+                    ? latencyNanos
+                    : averageLatencyNanos + LATENCY_SMOOTHING * (latencyNanos - averageLatencyNanos);
+                if (averageLatencyNanos > minLatencyNanos * latencyTolerance) {
+                    decrease();
+                } else if (wasInFlight * 2 >= limit) {
+                    // Only grow the limit when it is being used, or it would grow forever under a light load. It grows
+                    // by one per round trip, as it only shrinks once per round trip
+                    limit = Math.min(maxLimit, limit + 1 / limit);
+                }
+                break;
+            case IGNORED:
+                break;
+        }
+    }
+
+    private void decrease() {
+        // The requests in flight when the cluster got overloaded are likely to fail or be slow too: only shrink the
+        // limit once for all of them
+        if (releasesSinceDecrease >= (int) limit) {
+            releasesSinceDecrease = 0;
+            limit = Math.max(minLimit, limit * backoffRatio);
+        }
+    }
+
+    /**
+     * The current limit.
+     */
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * The number of permits currently taken.
+     */
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ConcurrencyLimiter{limit=" + (int) limit + ", inFlight=" + inFlight + "}";
+    }
+
+    public static class Builder {
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 1000;
+        private double backoffRatio = 0.9;
+        private double latencyTolerance = 4;
+
+        private Builder() {}
+
+        /**
+         * Sets the limit to start with. Defaults to 20.
+         */
+        public Builder initialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * Sets the bounds of the limit. Default to 1 and 1000.
+         */
+        public Builder limits(int minLimit, int maxLimit) {
+            if (minLimit < 1 || maxLimit < minLimit) {
+                throw new IllegalArgumentException("limits must be positive and minLimit must not be greater than maxLimit");
+            }
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * Sets the ratio by which the limit is multiplied when the cluster is overloaded. Defaults to 0.9.
+         */
+        public Builder backoffRatio(double backoffRatio) {
+            if (backoffRatio <= 0 || backoffRatio >= 1) {
+                throw new IllegalArgumentException("backoffRatio must be between 0 and 1 exclusive");
+            }
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * Sets how many times longer than the fastest recent request requests may take on average before the limit
+         * shrinks. Workloads that mix fast and slow requests need a higher tolerance, and
+         * {@link Double#POSITIVE_INFINITY} only lets overload errors shrink the limit. Defaults to 4.
+         */
+        public Builder latencyTolerance(double latencyTolerance) {
+            if (latencyTolerance < 1) {
+                throw new IllegalArgumentException("latencyTolerance must be greater than or equal to 1");
+            }
+            this.latencyTolerance = latencyTolerance;
+            return this;
+        }
+
+        public ConcurrencyLimiter build() {
+            if (initialLimit < minLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException("initialLimit must be between minLimit and maxLimit");
+            }
+            return new ConcurrencyLimiter(this);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.transport.ConcurrencyLimiter.Outcome;
+
+/**
+ * A transport that limits how many requests another transport has in flight with a {@link ConcurrencyLimiter}, so
+ * that the application sheds load when the cluster is saturated instead of piling up requests that will time out.
+ * It can wrap any {@link OpenSearchTransport}.
+ * <p>
+ * When the limit is reached, requests either fail right away or wait in a queue for up to a timeout, and then fail
+ * with a {@link ConcurrencyLimitExceededException}. Queued requests are sent in order, by the thread that completes
+ * the request whose permit they take. Closing this transport closes the wrapped one.
+ */
+public class ConcurrencyLimitingTransport implements OpenSearchTransport {
+    private final OpenSearchTransport delegate;
+    private final ConcurrencyLimiter limiter;
+    private final long queueTimeoutNanos;
+    private final int maxQueueSize;
+    private final Deque<CompletableFuture<Void>> queue = new ArrayDeque<>();
+    @Nullable
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a transport that fails requests right away when the limit is reached.
+     */
+    public ConcurrencyLimitingTransport(OpenSearchTransport delegate, ConcurrencyLimiter limiter) {
+        this(delegate, limiter, Duration.ZERO, 0);
+    }
+
+    /**
+     * Creates a transport that queues up to {@code maxQueueSize} requests when the limit is reached, and fails those
+     * that could not be sent within {@code queueTimeout}.
+     */
+    public ConcurrencyLimitingTransport(OpenSearchTransport delegate, ConcurrencyLimiter limiter, Duration queueTimeout, int maxQueueSize) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        this.limiter = Objects.requireNonNull(limiter, "limiter must not be null");
+        Objects.requireNonNull(queueTimeout, "queueTimeout must not be null");
+        if (queueTimeout.isNegative() || maxQueueSize < 0) {
+            throw new IllegalArgumentException("queueTimeout and maxQueueSize must not be negative");
+        }
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.maxQueueSize = maxQueueSize;
+        if (queueTimeoutNanos > 0 && maxQueueSize > 0) {
+            final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+                final Thread thread = new Thread(r, "opensearch-java-queue-timeout");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Most requests leave the queue before their timeout
+            executor.setRemoveOnCancelPolicy(true);
+            this.scheduler = executor;
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * The limiter of this transport.
+     */
+    public ConcurrencyLimiter limiter() {
+        return limiter;
+    }
+
+    /**
+     * The transport that sends the requests.
+     */
+    public OpenSearchTransport delegate() {
+        return delegate;
+    }
+
+    @Override
+    public <RequestT, ResponseT, ErrorT> ResponseT performRequest(
+        RequestT request,
+        Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+        @Nullable TransportOptions options
+    ) throws IOException {
+        final CompletableFuture<Void> permit = acquire();
+        try {
+            permit.get();
+        } catch (ExecutionException e) {
+            throw (ConcurrencyLimitExceededException) e.getCause();
+        } catch (InterruptedException e) {
+            abandon(permit);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to send the request");
+        }
+
+        final long startNanos = System.nanoTime();
+        try {
+            final ResponseT response = delegate.performRequest(request, endpoint, options);
+            release(System.nanoTime() - startNanos, Outcome.SUCCESS);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            release(System.nanoTime() - startNanos, outcome(e));
+            throw e;
+        }
+    }
+
+    @Override
+    public <RequestT, ResponseT, ErrorT> CompletableFuture<ResponseT> performRequestAsync(
+        RequestT request,
+        Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+        @Nullable TransportOptions options
+    ) {
+        return acquire().thenCompose(permit -> {
+            final long startNanos = System.nanoTime();
+            final CompletableFuture<ResponseT> future;
+            try {
+                future = delegate.performRequestAsync(request, endpoint, options);
+            } catch (RuntimeException e) {
+                release(System.nanoTime() - startNanos, outcome(e));
+                throw e;
+            }
+            return future.whenComplete((response, e) -> release(System.nanoTime() - startNanos, outcome(e)));
+        });
+    }
+
+    /**
+     * Takes a permit, waiting in the queue if needed. The future fails with a {@link ConcurrencyLimitExceededException}
+     * if no permit could be taken.
+     */
+    private CompletableFuture<Void> acquire() {
+        final CompletableFuture<Void> waiter;
+        synchronized (queue) {
+            // Requests that are already waiting go first
+            if (queue.isEmpty() && limiter.tryAcquire()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (scheduler == null || queue.size() >= maxQueueSize) {
+                final CompletableFuture<Void> rejected = new CompletableFuture<>();
+                rejected.completeExceptionally(new ConcurrencyLimitExceededException("Too many requests in flight: " + limiter));
+                return rejected;
+            }
+            waiter = new CompletableFuture<>();
+            queue.add(waiter);
+        }
+
+        final ScheduledFuture<?> timeout = scheduler.schedule(() -> {
+            final boolean removed;
+            synchronized (queue) {
+                removed = queue.remove(waiter);
+            }
+            if (removed) {
+                waiter.completeExceptionally(
+                    new ConcurrencyLimitExceededException(
+                        "Timed out after " + Duration.ofNanos(queueTimeoutNanos) + " waiting to send the request: " + limiter
+                    )
+                );
+            }
+        }, queueTimeoutNanos, TimeUnit.NANOSECONDS);
+        waiter.whenComplete((r, e) -> timeout.cancel(false));
+        return waiter;
+    }
+
+    /**
+     * Gives up a permit that may not have been granted yet.
+     */
+    private void abandon(CompletableFuture<Void> permit) {
+        synchronized (queue) {
+            if (queue.remove(permit)) {
+                permit.cancel(false);
+                return;
+            }
+        }
+        // The permit was granted, or is about to be
+        permit.whenComplete((r, e) -> {
+            if (e == null) {
+                release(0, Outcome.IGNORED);
+            }
+        });
+    }
+
+    private void release(long latencyNanos, Outcome outcome) {
+        limiter.release(latencyNanos, outcome);
+        while (true) {
+            final CompletableFuture<Void> next;
+            synchronized (queue) {
+                if (queue.isEmpty() || false == limiter.tryAcquire()) {
+                    return;
+                }
+                next = queue.poll();
+            }
+            // Sends the queued request on this thread
+            next.complete(null);
+        }
+    }
+
+    /**
+     * How the failure of a request, if any, should affect the limit.
+     */
+    static Outcome outcome(@Nullable Throwable failure) {
+        if (failure == null) {
+            return Outcome.SUCCESS;
+        }
+        failure = TransportErrors.unwrap(failure);
+        if (TransportErrors.isRejectedExecution(failure)) {
+            return Outcome.OVERLOADED;
+        }
+        final int status = TransportErrors.status(failure);
+        if (status == 429 || status == 503) {
+            return Outcome.OVERLOADED;
+        }
+        if (status >= 0) {
+            // The cluster answered: the request failed for another reason
+            return Outcome.SUCCESS;
+        }
+        return TransportErrors.isTimeout(failure) ? Outcome.OVERLOADED : Outcome.IGNORED;
+    }
+
+    @Override
+    public JsonpMapper jsonpMapper() {
+        return delegate.jsonpMapper();
+    }
+
+    @Override
+    public TransportOptions options() {
+        return delegate.options();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            delegate.close();
+        } finally {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+        }
+    }
+}
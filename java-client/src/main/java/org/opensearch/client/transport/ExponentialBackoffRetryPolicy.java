@@ -0,0 +1,308 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import org.opensearch.client.opensearch.core.CountRequest;
+import org.opensearch.client.opensearch.core.CreateRequest;
+import org.opensearch.client.opensearch.core.DeleteRequest;
+import org.opensearch.client.opensearch.core.ExistsRequest;
+import org.opensearch.client.opensearch.core.GetRequest;
+import org.opensearch.client.opensearch.core.IndexRequest;
+import org.opensearch.client.opensearch.core.MgetRequest;
+import org.opensearch.client.opensearch.core.MsearchRequest;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.generic.Request;
+
+/**
+ * A {@link RetryPolicy} that waits exponentially longer between attempts, with full jitter: the delay before the
+ * n-th retry is picked at random between zero and {@code min(maxDelay, initialDelay * multiplier^(n-1))}, so that
+ * clients that failed at the same time don't retry at the same time.
+ * <p>
+ * Requests are retried when OpenSearch rejects them because it is overloaded ({@code 429 Too Many Requests} or a
+ * {@code rejected_execution_exception}), in which case they were not executed. Idempotent requests, such as searches,
+ * gets, deletes and documents indexed with an explicit id, are also retried when a node answers with {@code 502},
+ * {@code 503} or {@code 504} and when a connection failed: other requests may have been executed already, and sending
+ * them again could for instance index a document twice, or skip a page of a scroll. Which requests are considered
+ * idempotent can be changed with {@link Builder#idempotentRequests(Predicate)}.
+ * <p>
+ * Requests are retried until the maximum number of attempts or the maximum elapsed time is reached, and as long as
+ * the retry budget allows it: each successful request earns a fraction of a retry, so that when most requests fail,
+ * retries stop adding load to the cluster. These retries come on top of the ones made by the wrapped transport, which
+ * tries each node before reporting a failure: with 3 nodes and 3 attempts, a request can be sent up to 9 times.
+ * <p>
+ * A policy keeps state and can be shared by several transports, which then share its budget.
+ */
+public final class ExponentialBackoffRetryPolicy implements RetryPolicy {
+    private static final long TOKEN = 1000;
+
+    private final long initialDelayNanos;
+    private final long maxDelayNanos;
+    private final double multiplier;
+    private final int maxAttempts;
+    private final long maxElapsedNanos;
+    private final Set<Integer> retryStatuses;
+    private final boolean retryOnConnectionFailure;
+    private final Predicate<Object> idempotentRequests;
+    private final long tokensPerSuccess;
+    private final long maxTokens;
+    private final AtomicLong tokens;
+    private final DoubleSupplier random;
+
+    private ExponentialBackoffRetryPolicy(Builder builder) {
+        this.initialDelayNanos = builder.initialDelay.toNanos();
+        this.maxDelayNanos = builder.maxDelay.toNanos();
+        this.multiplier = builder.multiplier;
+        this.maxAttempts = builder.maxAttempts;
+        this.maxElapsedNanos = builder.maxElapsedTime.toNanos();
+        this.retryStatuses = new HashSet<>(builder.retryStatuses);
+        this.retryOnConnectionFailure = builder.retryOnConnectionFailure;
+        this.idempotentRequests = builder.idempotentRequests;
+        this.tokensPerSuccess = Math.round(builder.budgetRatio * TOKEN);
+        this.maxTokens = builder.maxBudget * TOKEN;
+        this.tokens = new AtomicLong(maxTokens);
+        this.random = builder.random;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    @Nullable
+    public Duration onFailure(Object request, int attempts, long elapsedNanos, Throwable failure) {
+        if (attempts >= maxAttempts || false == isRetryable(request, failure)) {
+            return null;
+        }
+        final long delayNanos = (long) (random.getAsDouble() * backoffNanos(attempts));
+        if (elapsedNanos + delayNanos > maxElapsedNanos || false == tryAcquire()) {
+            return null;
+        }
+        return Duration.ofNanos(delayNanos);
+    }
+
+    @Override
+    public void onSuccess(Object request) {
+        if (tokensPerSuccess > 0) {
+            tokens.getAndUpdate(t -> Math.min(maxTokens, t + tokensPerSuccess));
+        }
+    }
+
+    /**
+     * The upper bound of the delay before the retry following the given number of attempts.
+     */
+    long backoffNanos(int attempts) {
+        final double backoff = initialDelayNanos * Math.pow(multiplier, attempts - 1);
+        return (long) Math.min(maxDelayNanos, backoff);
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            final long current = tokens.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Whether the failure is worth retrying.
+     */
+    boolean isRetryable(Object request, Throwable failure) {
+        if (TransportErrors.isRejectedExecution(failure)) {
+            return true;
+        }
+        final int status = TransportErrors.status(failure);
+        if (status >= 0) {
+            // OpenSearch did not execute requests it rejected with a 429, a gateway may have forwarded the others
+            return retryStatuses.contains(status) && (status == 429 || idempotentRequests.test(request));
+        }
+        // Failing to serialize the request or deserialize the response will fail again
+        return retryOnConnectionFailure
+            && failure instanceof IOException
+            && false == failure instanceof TransportException
+            && idempotentRequests.test(request);
+    }
+
+    /**
+     * Whether sending the request several times has the same effect as sending it once: reads, deletes, and
+     * documents indexed or created with an explicit id. Scrolls are not: each scroll request moves the cursor to the
+     * next page, and each search that starts a scroll opens a new scroll context.
+     */
+    static boolean isIdempotent(Object request) {
+        if (request instanceof SearchRequest) {
+            return ((SearchRequest) request).scroll() == null;
+        }
+        if (request instanceof IndexRequest) {
+            return ((IndexRequest<?>) request).id() != null;
+        }
+        if (request instanceof Request) {
+            final String method = ((Request) request).getMethod();
+            return "GET".equals(method) || "HEAD".equals(method) || "PUT".equals(method) || "DELETE".equals(method);
+        }
+        return request instanceof MsearchRequest
+            || request instanceof CountRequest
+            || request instanceof GetRequest
+            || request instanceof MgetRequest
+            || request instanceof ExistsRequest
+            || request instanceof CreateRequest
+            || request instanceof DeleteRequest;
+    }
+
+    @Override
+    public String toString() {
+        return "ExponentialBackoffRetryPolicy{initialDelay="
+            + Duration.ofNanos(initialDelayNanos)
+            + ", maxDelay="
+            + Duration.ofNanos(maxDelayNanos)
+            + ", maxAttempts="
+            + maxAttempts
+            + "}";
+    }
+
+    public static class Builder {
+        private Duration initialDelay = Duration.ofMillis(100);
+        private Duration maxDelay = Duration.ofSeconds(10);
+        private double multiplier = 2;
+        private int maxAttempts = 3;
+        private Duration maxElapsedTime = Duration.ofSeconds(30);
+        private Set<Integer> retryStatuses = new HashSet<>(Arrays.asList(429, 502, 503, 504));
+        private boolean retryOnConnectionFailure = true;
+        private Predicate<Object> idempotentRequests = ExponentialBackoffRetryPolicy::isIdempotent;
+        private double budgetRatio = 0.1;
+        private int maxBudget = 10;
+        private DoubleSupplier random = () -> ThreadLocalRandom.current().nextDouble();
+
+        private Builder() {}
+
+        /**
+         * Sets the upper bound of the delay before the first retry. Defaults to 100ms.
+         */
+        public Builder initialDelay(Duration initialDelay) {
+            this.initialDelay = checkPositive(initialDelay, "initialDelay");
+            return this;
+        }
+
+        /**
+         * Sets the upper bound of the delay between two attempts. Defaults to 10s.
+         */
+        public Builder maxDelay(Duration maxDelay) {
+            this.maxDelay = checkPositive(maxDelay, "maxDelay");
+            return this;
+        }
+
+        /**
+         * Sets the factor by which the upper bound of the delay grows after each retry. Defaults to 2.
+         */
+        public Builder multiplier(double multiplier) {
+            if (multiplier < 1) {
+                throw new IllegalArgumentException("multiplier must be greater than or equal to 1");
+            }
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of attempts, including the first one. Defaults to 3.
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("maxAttempts must be positive");
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sets the time after which a request is no longer retried, counted from its first attempt. A retry that would
+         * start after this time is not made. Defaults to 30s.
+         */
+        public Builder maxElapsedTime(Duration maxElapsedTime) {
+            this.maxElapsedTime = checkPositive(maxElapsedTime, "maxElapsedTime");
+            return this;
+        }
+
+        /**
+         * Sets the HTTP status codes for which requests are retried. Defaults to 429, 502, 503 and 504. Only
+         * idempotent requests are retried for statuses other than 429.
+         */
+        public Builder retryStatuses(Integer... retryStatuses) {
+            this.retryStatuses = new HashSet<>(Arrays.asList(retryStatuses));
+            return this;
+        }
+
+        /**
+         * Sets whether idempotent requests are retried when no node could be reached or a connection failed while
+         * waiting for the response, in which case a request may have been executed already. Defaults to {@code true}.
+         */
+        public Builder retryOnConnectionFailure(boolean retryOnConnectionFailure) {
+            this.retryOnConnectionFailure = retryOnConnectionFailure;
+            return this;
+        }
+
+        /**
+         * Sets which requests can be sent again after a connection failure or a {@code 502}, {@code 503} or
+         * {@code 504} response, when they may have been executed already. Defaults to reads, deletes, and documents
+         * indexed or created with an explicit id. Use {@code request -> true} to retry all requests.
+         */
+        public Builder idempotentRequests(Predicate<Object> idempotentRequests) {
+            this.idempotentRequests = Objects.requireNonNull(idempotentRequests, "idempotentRequests must not be null");
+            return this;
+        }
+
+        /**
+         * Sets the ratio of retries to successful requests that may be made over time, and how many retries can be
+         * made in a row when the budget has not been used for a while. Defaults to {@code 0.1} and {@code 10}.
+         */
+        public Builder budget(double ratio, int maxBudget) {
+            if (ratio < 0) {
+                throw new IllegalArgumentException("ratio must not be negative");
+            }
+            if (maxBudget < 1) {
+                throw new IllegalArgumentException("maxBudget must be positive");
+            }
+            this.budgetRatio = ratio;
+            this.maxBudget = maxBudget;
+            return this;
+        }
+
+        /**
+         * Sets the source of the random factor, between 0 and 1, applied to the delays. For testing.
+         */
+        Builder random(DoubleSupplier random) {
+            this.random = Objects.requireNonNull(random, "random must not be null");
+            return this;
+        }
+
+        public ExponentialBackoffRetryPolicy build() {
+            return new ExponentialBackoffRetryPolicy(this);
+        }
+
+        private static Duration checkPositive(Duration duration, String name) {
+            Objects.requireNonNull(duration, name + " must not be null");
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException(name + " must be positive");
+            }
+            return duration;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport;
+
+import java.time.Duration;
+import javax.annotation.Nullable;
+
+/**
+ * Decides whether and when a {@link RetryingTransport} sends a failed request again. Transports already try the next
+ * node right away when a node cannot be reached; a retry policy acts once they have given up, and spaces the attempts
+ * so that an overloaded cluster is not flooded with retries.
+ *
+ * @see ExponentialBackoffRetryPolicy
+ */
+public interface RetryPolicy {
+    /**
+     * Called when an attempt failed.
+     *
+     * @param request the request, which can be used to only retry some kinds of requests
+     * @param attempts the number of attempts made so far, starting at 1
+     * @param elapsedNanos the time elapsed since the first attempt started
+     * @param failure the failure of the last attempt
+     * @return how long to wait before the next attempt, or {@code null} if the failure should be reported
+     */
+    @Nullable
+    Duration onFailure(Object request, int attempts, long elapsedNanos, Throwable failure);
+
+    /**
+     * Called when a request succeeded, possibly after some retries.
+     */
+    default void onSuccess(Object request) {}
+
+    /**
+     * Policy that never retries.
+     */
+    RetryPolicy NONE = new RetryPolicy() {
+        @Override
+        public Duration onFailure(Object request, int attempts, long elapsedNanos, Throwable failure) {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return "NONE";
+        }
+    };
+}
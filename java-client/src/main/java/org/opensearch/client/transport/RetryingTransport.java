@@ -0,0 +1,186 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.opensearch.client.json.JsonpMapper;
+
+/**
+ * A transport that sends requests with another transport, and sends them again according to a {@link RetryPolicy}
+ * when they fail. It can wrap any {@link OpenSearchTransport}:
+ * <pre>{@code
+ * OpenSearchTransport transport = new RetryingTransport(
+ *     ApacheHttpClient5TransportBuilder.builder(hosts).build(),
+ *     ExponentialBackoffRetryPolicy.builder().maxAttempts(5).build()
+ * );
+ * OpenSearchClient client = new OpenSearchClient(transport);
+ * }</pre>
+ * Synchronous requests wait on the calling thread between attempts, and asynchronous requests are sent again by a
+ * scheduler. Closing this transport closes the wrapped one.
+ */
+public class RetryingTransport implements OpenSearchTransport {
+    private final OpenSearchTransport delegate;
+    private final RetryPolicy retryPolicy;
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+
+    /**
+     * Creates a transport that schedules the retries of asynchronous requests on its own thread.
+     */
+    public RetryingTransport(OpenSearchTransport delegate, RetryPolicy retryPolicy) {
+        this(delegate, retryPolicy, createScheduler(), true);
+    }
+
+    /**
+     * Creates a transport that schedules the retries of asynchronous requests on {@code scheduler}, which is not shut
+     * down when the transport is closed.
+     */
+    public RetryingTransport(OpenSearchTransport delegate, RetryPolicy retryPolicy, ScheduledExecutorService scheduler) {
+        this(delegate, retryPolicy, scheduler, false);
+    }
+
+    private RetryingTransport(
+        OpenSearchTransport delegate,
+        RetryPolicy retryPolicy,
+        ScheduledExecutorService scheduler,
+        boolean ownsScheduler
+    ) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        this.retryPolicy = Objects.requireNonNull(retryPolicy, "retryPolicy must not be null");
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler must not be null");
+        this.ownsScheduler = ownsScheduler;
+    }
+
+    private static ScheduledExecutorService createScheduler() {
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            final Thread thread = new Thread(r, "opensearch-java-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * The transport that sends the requests.
+     */
+    public OpenSearchTransport delegate() {
+        return delegate;
+    }
+
+    @Override
+    public <RequestT, ResponseT, ErrorT> ResponseT performRequest(
+        RequestT request,
+        Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+        @Nullable TransportOptions options
+    ) throws IOException {
+        final long startNanos = System.nanoTime();
+        for (int attempts = 1;; attempts++) {
+            try {
+                final ResponseT response = delegate.performRequest(request, endpoint, options);
+                retryPolicy.onSuccess(request);
+                return response;
+            } catch (IOException | RuntimeException e) {
+                final Duration delay = retryPolicy.onFailure(request, attempts, System.nanoTime() - startNanos, e);
+                if (delay == null) {
+                    throw e;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(delay.toNanos());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    e.addSuppressed(ie);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    @Override
+    public <RequestT, ResponseT, ErrorT> CompletableFuture<ResponseT> performRequestAsync(
+        RequestT request,
+        Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+        @Nullable TransportOptions options
+    ) {
+        final CompletableFuture<ResponseT> result = new CompletableFuture<>();
+        performRequestAsync(request, endpoint, options, 1, System.nanoTime(), result);
+        return result;
+    }
+
+    private <RequestT, ResponseT, ErrorT> void performRequestAsync(
+        RequestT request,
+        Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+        @Nullable TransportOptions options,
+        int attempts,
+        long startNanos,
+        CompletableFuture<ResponseT> result
+    ) {
+        CompletableFuture<ResponseT> future;
+        try {
+            future = delegate.performRequestAsync(request, endpoint, options);
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+
+        future.whenComplete((response, e) -> {
+            if (e == null) {
+                retryPolicy.onSuccess(request);
+                result.complete(response);
+                return;
+            }
+            final Throwable failure = TransportErrors.unwrap(e);
+            final Duration delay = retryPolicy.onFailure(request, attempts, System.nanoTime() - startNanos, failure);
+            if (delay == null || result.isDone()) {
+                result.completeExceptionally(failure);
+                return;
+            }
+            try {
+                scheduler.schedule(
+                    () -> performRequestAsync(request, endpoint, options, attempts + 1, startNanos, result),
+                    delay.toNanos(),
+                    TimeUnit.NANOSECONDS
+                );
+            } catch (RejectedExecutionException ree) {
+                // The transport is being closed
+                failure.addSuppressed(ree);
+                result.completeExceptionally(failure);
+            }
+        });
+    }
+
+    @Override
+    public JsonpMapper jsonpMapper() {
+        return delegate.jsonpMapper();
+    }
+
+    @Override
+    public TransportOptions options() {
+        return delegate.options();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            delegate.close();
+        } finally {
+            if (ownsScheduler) {
+                scheduler.shutdownNow();
+            }
+        }
+    }
+}
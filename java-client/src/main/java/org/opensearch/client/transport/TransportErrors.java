@@ -0,0 +1,98 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import javax.annotation.Nullable;
+import org.opensearch.client.opensearch._types.ErrorCause;
+import org.opensearch.client.opensearch._types.OpenSearchException;
+import org.opensearch.client.transport.httpclient5.ResponseException;
+
+/**
+ * Helpers to find out why a request failed, whichever transport sent it.
+ */
+final class TransportErrors {
+    private static final String REST_CLIENT_RESPONSE_EXCEPTION = "org.opensearch.client.ResponseException";
+
+    private TransportErrors() {}
+
+    /**
+     * The actual failure of a request whose future completed exceptionally.
+     */
+    static Throwable unwrap(Throwable e) {
+        if ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            return e.getCause();
+        }
+        return e;
+    }
+
+    /**
+     * Whether the failure was caused by a timeout.
+     */
+    static boolean isTimeout(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof SocketTimeoutException || t instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The HTTP status code of the response that caused the failure, or {@code -1} if no response was received.
+     */
+    static int status(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof OpenSearchException) {
+                return ((OpenSearchException) t).status();
+            }
+            if (t instanceof ResponseException) {
+                return ((ResponseException) t).status();
+            }
+            if (REST_CLIENT_RESPONSE_EXCEPTION.equals(t.getClass().getName())) {
+                return RestClientSupport.status(t);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Whether OpenSearch rejected the request because one of its thread pools is full.
+     */
+    static boolean isRejectedExecution(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof OpenSearchException) {
+                for (ErrorCause cause = ((OpenSearchException) t).error(); cause != null; cause = cause.causedBy()) {
+                    if (isRejectedExecution(cause.type())) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isRejectedExecution(@Nullable String type) {
+        return "es_rejected_execution_exception".equals(type) || "rejected_execution_exception".equals(type);
+    }
+
+    /**
+     * The low level rest client is an optional dependency: its classes are only used once one of its exceptions
+     * has been thrown, which means that it is available.
+     */
+    private static class RestClientSupport {
+        static int status(Throwable responseException) {
+            return ((org.opensearch.client.ResponseException) responseException).getResponse().getStatusLine().getStatusCode();
+        }
+    }
+}
@@ -12,31 +12,53 @@ import java.nio.ByteBuffer;
 import java.util.Optional;
 import javax.annotation.CheckForNull;
 import org.reactivestreams.Subscriber;
-import software.amazon.awssdk.core.async.AsyncRequestBody;
+import org.reactivestreams.Subscription;
 import software.amazon.awssdk.http.async.SdkHttpContentPublisher;
 
 /**
  * An implementation of AWS {@SdkHttpContentPublisher} that transfers a pre-existing
- * byte array
+ * byte buffer, without copying it
  */
 class AsyncByteArrayContentPublisher implements SdkHttpContentPublisher {
-    private final AsyncRequestBody delegate;
-
-    AsyncByteArrayContentPublisher(@CheckForNull byte[] data) {
-        if (data == null) {
-            delegate = AsyncRequestBody.empty();
-        } else {
-            delegate = AsyncRequestBody.fromBytes(data);
-        }
+    private static final ByteBuffer NO_BYTES = ByteBuffer.allocate(0);
+
+    private final ByteBuffer data;
+
+    AsyncByteArrayContentPublisher(@CheckForNull ByteBuffer data) {
+        this.data = data == null ? NO_BYTES : data;
     }
 
     @Override
     public Optional<Long> contentLength() {
-        return delegate.contentLength();
+        return Optional.of((long) data.remaining());
     }
 
     @Override
     public void subscribe(Subscriber<? super ByteBuffer> s) {
-        delegate.subscribe(s);
+        // Each subscriber gets its own view of the data, so that the request can be replayed
+        s.onSubscribe(new Subscription() {
+            private boolean done = false;
+
+            @Override
+            public void request(long n) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                if (n <= 0) {
+                    s.onError(new IllegalArgumentException("Demand must be positive"));
+                } else {
+                    if (data.hasRemaining()) {
+                        s.onNext(data.asReadOnlyBuffer());
+                    }
+                    s.onComplete();
+                }
+            }
+
+            @Override
+            public void cancel() {
+                done = true;
+            }
+        });
     }
 }
@@ -50,6 +50,9 @@ import org.opensearch.client.transport.TransportException;
 import org.opensearch.client.transport.TransportOptions;
 import org.opensearch.client.transport.endpoints.BooleanEndpoint;
 import org.opensearch.client.transport.endpoints.BooleanResponse;
+import org.opensearch.client.transport.instrumentation.RequestMetrics;
+import org.opensearch.client.transport.instrumentation.TransportInstrumentation;
+import org.opensearch.client.util.ByteArrayPool;
 import org.opensearch.client.util.MissingRequiredPropertyException;
 import org.opensearch.client.util.OpenSearchRequestBodyBuffer;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
@@ -83,7 +86,6 @@ public class AwsSdk2Transport implements OpenSearchTransport {
      */
     public static final Integer DEFAULT_REQUEST_COMPRESSION_SIZE = 8192;
 
-    private static final byte[] NO_BYTES = new byte[0];
     private final SdkAutoCloseable httpClient;
     private final boolean isApacheHttpClient;
     private final String host;
@@ -210,28 +212,58 @@ public class AwsSdk2Transport implements OpenSearchTransport {
         Endpoint<RequestT, ResponseT, ErrorT> endpoint,
         @Nullable TransportOptions options
     ) throws IOException {
-        OpenSearchRequestBodyBuffer requestBody = prepareRequestBody(request, endpoint, options);
-        SignedRequest clientReq = prepareRequest(request, endpoint, options, requestBody);
-
-        if (httpClient instanceof SdkHttpClient) {
-            return executeSync((SdkHttpClient) httpClient, clientReq, endpoint, options);
-        } else if (httpClient instanceof SdkAsyncHttpClient) {
-            try {
-                return executeAsync((SdkAsyncHttpClient) httpClient, clientReq, requestBody, endpoint, options).get();
-            } catch (ExecutionException e) {
-                Exception cause = extractAndWrapCause(e);
-                if (cause instanceof IOException) {
-                    throw (IOException) cause;
-                }
-                if (cause instanceof RuntimeException) {
-                    throw (RuntimeException) cause;
-                }
-                throw new IllegalStateException("unexpected exception type: must be either RuntimeException or IOException", cause);
-            } catch (InterruptedException e) {
-                throw new IOException("HttpRequest was interrupted", e);
+        final RequestMetrics.Recorder metrics = RequestMetrics.Recorder.start(getInstrumentation(options), request, endpoint);
+        OpenSearchRequestBodyBuffer requestBody = null;
+        try {
+            requestBody = prepareRequestBody(request, endpoint, options);
+            SignedRequest clientReq = prepareRequest(request, endpoint, options, requestBody);
+            onSerialized(requestBody, metrics);
+
+            final ResponseT response;
+            if (httpClient instanceof SdkHttpClient) {
+                response = executeSync((SdkHttpClient) httpClient, clientReq, endpoint, options, metrics);
+            } else if (httpClient instanceof SdkAsyncHttpClient) {
+                final OpenSearchRequestBodyBuffer body = requestBody;
+                // The exchange may outlive an interrupted wait: let it release the request body
+                requestBody = null;
+                response = releaseOnCompletion(
+                    executeAsync((SdkAsyncHttpClient) httpClient, clientReq, body, endpoint, options, metrics),
+                    body
+                ).get();
+            } else {
+                throw new IOException("invalid httpClient: " + httpClient);
+            }
+            if (metrics != null) {
+                metrics.complete(null);
+            }
+            return response;
+        } catch (ExecutionException e) {
+            Exception cause = extractAndWrapCause(e);
+            if (metrics != null) {
+                metrics.complete(cause);
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("unexpected exception type: must be either RuntimeException or IOException", cause);
+        } catch (InterruptedException e) {
+            final IOException ex = new IOException("HttpRequest was interrupted", e);
+            if (metrics != null) {
+                metrics.complete(ex);
+            }
+            throw ex;
+        } catch (IOException | RuntimeException e) {
+            if (metrics != null) {
+                metrics.complete(e);
+            }
+            throw e;
+        } finally {
+            if (requestBody != null) {
+                requestBody.release();
             }
-        } else {
-            throw new IOException("invalid httpClient: " + httpClient);
         }
     }
 
@@ -241,21 +273,43 @@ public class AwsSdk2Transport implements OpenSearchTransport {
         Endpoint<RequestT, ResponseT, ErrorT> endpoint,
         @Nullable TransportOptions options
     ) {
+        final RequestMetrics.Recorder metrics = RequestMetrics.Recorder.start(getInstrumentation(options), request, endpoint);
+        OpenSearchRequestBodyBuffer requestBody = null;
         try {
-            OpenSearchRequestBodyBuffer requestBody = prepareRequestBody(request, endpoint, options);
+            requestBody = prepareRequestBody(request, endpoint, options);
             SignedRequest clientReq = prepareRequest(request, endpoint, options, requestBody);
+            onSerialized(requestBody, metrics);
             if (httpClient instanceof SdkAsyncHttpClient) {
-                return executeAsync((SdkAsyncHttpClient) httpClient, clientReq, requestBody, endpoint, options);
+                final OpenSearchRequestBodyBuffer body = requestBody;
+                requestBody = null;
+                final CompletableFuture<ResponseT> future = releaseOnCompletion(
+                    executeAsync((SdkAsyncHttpClient) httpClient, clientReq, body, endpoint, options, metrics),
+                    body
+                );
+                if (metrics != null) {
+                    future.whenComplete((r, e) -> metrics.complete(e));
+                }
+                return future;
             } else if (httpClient instanceof SdkHttpClient) {
-                ResponseT result = executeSync((SdkHttpClient) httpClient, clientReq, endpoint, options);
+                ResponseT result = executeSync((SdkHttpClient) httpClient, clientReq, endpoint, options, metrics);
+                if (metrics != null) {
+                    metrics.complete(null);
+                }
                 return CompletableFuture.completedFuture(result);
             } else {
                 throw new IOException("invalid httpClient: " + httpClient);
             }
         } catch (Throwable e) {
+            if (metrics != null) {
+                metrics.complete(e);
+            }
             CompletableFuture<ResponseT> cf = new CompletableFuture<>();
             cf.completeExceptionally(e);
             return cf;
+        } finally {
+            if (requestBody != null) {
+                requestBody.release();
+            }
         }
     }
 
@@ -272,6 +326,45 @@ public class AwsSdk2Transport implements OpenSearchTransport {
     @Override
     public void close() {}
 
+    /**
+     * Returns the request body buffers to their pool once the exchange is over, whatever its outcome.
+     */
+    private static <T> CompletableFuture<T> releaseOnCompletion(
+        CompletableFuture<T> future,
+        @CheckForNull OpenSearchRequestBodyBuffer requestBody
+    ) {
+        if (requestBody == null) {
+            return future;
+        }
+        return future.whenComplete((r, e) -> requestBody.release());
+    }
+
+    @CheckForNull
+    private TransportInstrumentation getInstrumentation(@CheckForNull TransportOptions options) {
+        return getOption(options, AwsSdk2TransportOptions::instrumentation).orElse(null);
+    }
+
+    private static void onSerialized(
+        @CheckForNull OpenSearchRequestBodyBuffer body,
+        @CheckForNull RequestMetrics.Recorder metrics
+    ) {
+        if (metrics != null) {
+            metrics.onSerialized(body == null ? 0 : body.getContentLength());
+        }
+    }
+
+    private void onResponse(SdkHttpResponse httpResponse, @CheckForNull RequestMetrics.Recorder metrics) {
+        if (metrics != null) {
+            long contentLength;
+            try {
+                contentLength = httpResponse.firstMatchingHeader("Content-Length").map(Long::parseLong).orElse(-1L);
+            } catch (NumberFormatException e) {
+                contentLength = -1;
+            }
+            metrics.onResponse("https://" + host, httpResponse.statusCode(), contentLength);
+        }
+    }
+
     @CheckForNull
     private <RequestT> OpenSearchRequestBodyBuffer prepareRequestBody(
         RequestT request,
@@ -286,9 +379,18 @@ public class AwsSdk2Transport implements OpenSearchTransport {
                 DEFAULT_REQUEST_COMPRESSION_SIZE
             );
 
-            OpenSearchRequestBodyBuffer buffer = new OpenSearchRequestBodyBuffer(mapper, maxUncompressedSize);
-            buffer.addContent(request);
-            buffer.close();
+            final ByteArrayPool pool = getOption(options, AwsSdk2TransportOptions::requestBufferPool).orElseGet(
+                ByteArrayPool::defaultPool
+            );
+
+            OpenSearchRequestBodyBuffer buffer = new OpenSearchRequestBodyBuffer(mapper, maxUncompressedSize, pool);
+            try {
+                buffer.addContent(request);
+                buffer.close();
+            } catch (IOException | RuntimeException e) {
+                buffer.release();
+                throw e;
+            }
             return buffer;
         }
         return null;
@@ -344,7 +446,7 @@ public class AwsSdk2Transport implements OpenSearchTransport {
             throw new IllegalArgumentException("Invalid request URI: " + url.toString());
         }
 
-        ContentStreamProvider bodyProvider = body != null ? ContentStreamProvider.fromByteArrayUnsafe(body.getByteArray()) : null;
+        ContentStreamProvider bodyProvider = body != null ? body::getInputStream : null;
 
         applyHeadersPreSigning(req, options, body);
 
@@ -427,16 +529,21 @@ public class AwsSdk2Transport implements OpenSearchTransport {
         SdkHttpClient syncHttpClient,
         SignedRequest signedRequest,
         Endpoint<?, ResponseT, ?> endpoint,
-        TransportOptions options
+        TransportOptions options,
+        @CheckForNull RequestMetrics.Recorder metrics
     ) throws IOException {
         SdkHttpRequest httpRequest = signedRequest.request();
         HttpExecuteRequest.Builder executeRequest = HttpExecuteRequest.builder().request(httpRequest);
         signedRequest.payload().ifPresent(executeRequest::contentStreamProvider);
+        if (metrics != null) {
+            metrics.onAttemptStarted("https://" + host);
+        }
         HttpExecuteResponse executeResponse = syncHttpClient.prepareRequest(executeRequest.build()).call();
         AbortableInputStream bodyStream = null;
         try {
             bodyStream = executeResponse.responseBody().orElse(null);
             SdkHttpResponse httpResponse = executeResponse.httpResponse();
+            onResponse(httpResponse, metrics);
             return parseResponse(
                 httpRequest.getUri(),
                 httpRequest.method(),
@@ -458,18 +565,22 @@ public class AwsSdk2Transport implements OpenSearchTransport {
         SignedRequest signedRequest,
         @CheckForNull OpenSearchRequestBodyBuffer requestBody,
         Endpoint<?, ResponseT, ?> endpoint,
-        TransportOptions options
+        TransportOptions options,
+        @CheckForNull RequestMetrics.Recorder metrics
     ) {
         SdkHttpRequest httpRequest = signedRequest.request();
-        byte[] requestBodyArray = requestBody == null ? NO_BYTES : requestBody.getByteArray();
         final AsyncCapturingResponseHandler responseHandler = new AsyncCapturingResponseHandler();
         AsyncExecuteRequest.Builder executeRequest = AsyncExecuteRequest.builder()
             .request(httpRequest)
-            .requestContentPublisher(new AsyncByteArrayContentPublisher(requestBodyArray))
+            .requestContentPublisher(new AsyncByteArrayContentPublisher(requestBody == null ? null : requestBody.getByteBuffer()))
             .responseHandler(responseHandler);
+        if (metrics != null) {
+            metrics.onAttemptStarted("https://" + host);
+        }
         CompletableFuture<Void> executeFuture = asyncHttpClient.execute(executeRequest.build());
         return executeFuture.thenCompose(_v -> responseHandler.getHeaderPromise())
             .thenCompose(response -> responseHandler.getBodyPromise().thenCompose(responseBody -> {
+                onResponse(response, metrics);
                 CompletableFuture<ResponseT> ret = new CompletableFuture<>();
                 try {
                     InputStream bodyStream = new ByteArrayInputStream(responseBody);
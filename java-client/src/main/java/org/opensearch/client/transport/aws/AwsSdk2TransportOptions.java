@@ -13,6 +13,8 @@ import java.util.List;
 import java.util.function.Function;
 import org.opensearch.client.json.JsonpMapper;
 import org.opensearch.client.transport.TransportOptions;
+import org.opensearch.client.transport.instrumentation.TransportInstrumentation;
+import org.opensearch.client.util.ByteArrayPool;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 
 public interface AwsSdk2TransportOptions extends TransportOptions {
@@ -84,6 +86,29 @@ public interface AwsSdk2TransportOptions extends TransportOptions {
      */
     Clock signingClock();
 
+    /**
+     * Get the pool of buffers used to serialize request bodies.
+     * <p>
+     * If this is null, then a default will be used -- either a value specified
+     * in a more general {@link AwsSdk2TransportOptions} that applies to the request, or
+     * {@link ByteArrayPool#defaultPool()} if there is none.
+     * </P>
+     *
+     * @return A buffer pool or null
+     */
+    ByteArrayPool requestBufferPool();
+
+    /**
+     * Get the instrumentation that the metrics of requests are reported to.
+     * <p>
+     * If this is null, then the instrumentation specified in a more general {@link AwsSdk2TransportOptions} that
+     * applies to the request is used, if any.
+     * </P>
+     *
+     * @return An instrumentation or null
+     */
+    TransportInstrumentation instrumentation();
+
     AwsSdk2TransportOptions.Builder toBuilder();
 
     static AwsSdk2TransportOptions.Builder builder() {
@@ -107,6 +132,10 @@ public interface AwsSdk2TransportOptions extends TransportOptions {
 
         Builder setSigningClock(Clock clock);
 
+        Builder setRequestBufferPool(ByteArrayPool pool);
+
+        Builder setInstrumentation(TransportInstrumentation instrumentation);
+
         AwsSdk2TransportOptions build();
     }
 
@@ -117,6 +146,8 @@ public interface AwsSdk2TransportOptions extends TransportOptions {
         protected Boolean responseCompression;
         protected JsonpMapper mapper;
         protected Clock signingClock;
+        protected ByteArrayPool requestBufferPool;
+        protected TransportInstrumentation instrumentation;
 
         public BuilderImpl() {}
 
@@ -127,6 +158,8 @@ public interface AwsSdk2TransportOptions extends TransportOptions {
             responseCompression = src.responseCompression();
             mapper = src.mapper();
             signingClock = src.signingClock();
+            requestBufferPool = src.requestBufferPool();
+            instrumentation = src.instrumentation();
         }
 
         @Override
@@ -177,6 +210,18 @@ public interface AwsSdk2TransportOptions extends TransportOptions {
             return this;
         }
 
+        @Override
+        public Builder setRequestBufferPool(ByteArrayPool pool) {
+            this.requestBufferPool = pool;
+            return this;
+        }
+
+        @Override
+        public Builder setInstrumentation(TransportInstrumentation instrumentation) {
+            this.instrumentation = instrumentation;
+            return this;
+        }
+
         @Override
         public AwsSdk2TransportOptions build() {
             return new DefaultImpl(this);
@@ -190,6 +235,8 @@ public interface AwsSdk2TransportOptions extends TransportOptions {
         private final Boolean responseCompression;
         private final JsonpMapper mapper;
         private final Clock signingClock;
+        private final ByteArrayPool requestBufferPool;
+        private final TransportInstrumentation instrumentation;
 
         DefaultImpl(AwsSdk2TransportOptions.BuilderImpl builder) {
             super(builder);
@@ -198,6 +245,8 @@ public interface AwsSdk2TransportOptions extends TransportOptions {
             responseCompression = builder.responseCompression;
             mapper = builder.mapper;
             signingClock = builder.signingClock;
+            requestBufferPool = builder.requestBufferPool;
+            instrumentation = builder.instrumentation;
         }
 
         @Override
@@ -225,6 +274,16 @@ public interface AwsSdk2TransportOptions extends TransportOptions {
             return signingClock;
         }
 
+        @Override
+        public ByteArrayPool requestBufferPool() {
+            return requestBufferPool;
+        }
+
+        @Override
+        public TransportInstrumentation instrumentation() {
+            return instrumentation;
+        }
+
         @Override
         public AwsSdk2TransportOptions.Builder toBuilder() {
             return new AwsSdk2TransportOptions.BuilderImpl(this);
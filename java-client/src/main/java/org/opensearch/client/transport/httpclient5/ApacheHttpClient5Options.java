@@ -20,6 +20,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.hc.client5.http.config.RequestConfig;
@@ -37,6 +38,7 @@ public class ApacheHttpClient5Options implements TransportOptions {
         Collections.emptyList(),
         HttpAsyncResponseConsumerFactory.HeapBufferedResponseConsumerFactory.DEFAULT,
         null,
+        null,
         null
     ).build();
 
@@ -44,12 +46,14 @@ public class ApacheHttpClient5Options implements TransportOptions {
     private final HttpAsyncResponseConsumerFactory httpAsyncResponseConsumerFactory;
     private final WarningsHandler warningsHandler;
     private final RequestConfig requestConfig;
+    private final Executor deserializationExecutor;
 
     private ApacheHttpClient5Options(Builder builder) {
         this.headers = Collections.unmodifiableList(new ArrayList<>(builder.headers));
         this.httpAsyncResponseConsumerFactory = builder.httpAsyncResponseConsumerFactory;
         this.warningsHandler = builder.warningsHandler;
         this.requestConfig = builder.requestConfig;
+        this.deserializationExecutor = builder.deserializationExecutor;
     }
 
     public HttpAsyncResponseConsumerFactory getHttpAsyncResponseConsumerFactory() {
@@ -64,6 +68,10 @@ public class ApacheHttpClient5Options implements TransportOptions {
         return requestConfig;
     }
 
+    public Executor getDeserializationExecutor() {
+        return deserializationExecutor;
+    }
+
     @Override
     public Collection<Entry<String, String>> headers() {
         return headers.stream().map(h -> new AbstractMap.SimpleImmutableEntry<>(h.getName(), h.getValue())).collect(Collectors.toList());
@@ -85,7 +93,7 @@ public class ApacheHttpClient5Options implements TransportOptions {
 
     @Override
     public Builder toBuilder() {
-        return new Builder(headers, httpAsyncResponseConsumerFactory, warningsHandler, requestConfig);
+        return new Builder(headers, httpAsyncResponseConsumerFactory, warningsHandler, requestConfig, deserializationExecutor);
     }
 
     public static class Builder implements TransportOptions.Builder {
@@ -93,21 +101,30 @@ public class ApacheHttpClient5Options implements TransportOptions {
         private HttpAsyncResponseConsumerFactory httpAsyncResponseConsumerFactory;
         private WarningsHandler warningsHandler;
         private RequestConfig requestConfig;
+        private Executor deserializationExecutor;
 
         private Builder(Builder builder) {
-            this(builder.headers, builder.httpAsyncResponseConsumerFactory, builder.warningsHandler, builder.requestConfig);
+            this(
+                builder.headers,
+                builder.httpAsyncResponseConsumerFactory,
+                builder.warningsHandler,
+                builder.requestConfig,
+                builder.deserializationExecutor
+            );
         }
 
         private Builder(
             List<Header> headers,
             HttpAsyncResponseConsumerFactory httpAsyncResponseConsumerFactory,
             WarningsHandler warningsHandler,
-            RequestConfig requestConfig
+            RequestConfig requestConfig,
+            Executor deserializationExecutor
         ) {
             this.headers = new ArrayList<>(headers);
             this.httpAsyncResponseConsumerFactory = httpAsyncResponseConsumerFactory;
             this.warningsHandler = warningsHandler;
             this.requestConfig = requestConfig;
+            this.deserializationExecutor = deserializationExecutor;
         }
 
         /**
@@ -155,6 +172,10 @@ public class ApacheHttpClient5Options implements TransportOptions {
          * {@link AsyncResponseConsumer} callback per retry. Controls how the
          * response body gets streamed from a non-blocking HTTP connection on the
          * client side.
+         * <p>
+         * The default factory buffers the whole response in heap memory before deserializing it. Use
+         * {@link HttpAsyncResponseConsumerFactory.StreamingResponseConsumerFactory} to deserialize responses while
+         * they are being received instead.
          *
          * @param httpAsyncResponseConsumerFactory factory for creating {@link AsyncResponseConsumer}.
          * @throws NullPointerException if {@code httpAsyncResponseConsumerFactory} is null.
@@ -200,6 +221,21 @@ public class ApacheHttpClient5Options implements TransportOptions {
             return this;
         }
 
+        /**
+         * Set the executor on which the responses of asynchronous requests are deserialized, overriding the one set
+         * with {@link ApacheHttpClient5TransportBuilder#setDeserializationExecutor} for this request. If null (the
+         * default), the transport executor is used.
+         * <p>
+         * Synchronous requests are always deserialized on the calling thread.
+         *
+         * @param deserializationExecutor the executor on which responses are deserialized
+         * @return Builder
+         */
+        public Builder setDeserializationExecutor(Executor deserializationExecutor) {
+            this.deserializationExecutor = deserializationExecutor;
+            return this;
+        }
+
         @Override
         public ApacheHttpClient5Options build() {
             return new ApacheHttpClient5Options(this);
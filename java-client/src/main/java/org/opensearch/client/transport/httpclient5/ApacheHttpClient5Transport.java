@@ -15,6 +15,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.ConnectException;
 import java.net.SocketTimeoutException;
 import java.net.URI;
@@ -30,6 +31,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -39,8 +41,18 @@ import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.zip.GZIPOutputStream;
 import javax.annotation.Nullable;
@@ -59,6 +71,7 @@ import org.apache.hc.client5.http.entity.GzipDecompressingEntity;
 import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
 import org.apache.hc.client5.http.impl.auth.BasicAuthCache;
 import org.apache.hc.client5.http.impl.auth.BasicScheme;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.protocol.HttpClientContext;
 import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.http.ClassicHttpResponse;
@@ -69,6 +82,7 @@ import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.HttpRequest;
 import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
 import org.apache.hc.core5.http.io.entity.BufferedHttpEntity;
 import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
@@ -78,13 +92,21 @@ import org.apache.hc.core5.http.message.RequestLine;
 import org.apache.hc.core5.http.message.StatusLine;
 import org.apache.hc.core5.http.nio.AsyncRequestProducer;
 import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http2.H2ConnectionException;
+import org.apache.hc.core5.http2.impl.nio.ProtocolNegotiationException;
+import org.apache.hc.core5.io.Closer;
+import org.apache.hc.core5.net.URIAuthority;
 import org.apache.hc.core5.net.URIBuilder;
 import org.apache.hc.core5.util.Args;
 import org.opensearch.client.json.JsonpDeserializer;
 import org.opensearch.client.json.JsonpMapper;
 import org.opensearch.client.json.NdJsonpSerializable;
+import org.opensearch.client.json.RawJson;
 import org.opensearch.client.opensearch._types.OpenSearchException;
 import org.opensearch.client.opensearch.generic.OpenSearchClientException;
+import org.opensearch.client.transport.ConcurrencyLimitExceededException;
+import org.opensearch.client.transport.ConcurrencyLimiter;
+import org.opensearch.client.transport.ConcurrencyLimiter.Outcome;
 import org.opensearch.client.transport.Endpoint;
 import org.opensearch.client.transport.GenericEndpoint;
 import org.opensearch.client.transport.GenericSerializable;
@@ -95,9 +117,15 @@ import org.opensearch.client.transport.TransportOptions;
 import org.opensearch.client.transport.endpoints.BooleanEndpoint;
 import org.opensearch.client.transport.endpoints.BooleanResponse;
 import org.opensearch.client.transport.httpclient5.internal.HttpUriRequestProducer;
+import org.opensearch.client.transport.httpclient5.internal.JsonpHttpEntity;
 import org.opensearch.client.transport.httpclient5.internal.Node;
 import org.opensearch.client.transport.httpclient5.internal.NodeSelector;
+import org.opensearch.client.transport.httpclient5.internal.RankingNodeSelector;
+import org.opensearch.client.transport.instrumentation.RequestMetrics;
+import org.opensearch.client.transport.instrumentation.TransportInstrumentation;
+import org.opensearch.client.util.ByteArrayPool;
 import org.opensearch.client.util.MissingRequiredPropertyException;
+import org.opensearch.client.util.PooledByteArrayOutputStream;
 
 /**
  * Apache HttpClient 5 based client transport.
@@ -112,13 +140,35 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
     private final ConcurrentMap<HttpHost, DeadHostState> denylist = new ConcurrentHashMap<>();
     private final AtomicInteger lastNodeIndex = new AtomicInteger(0);
     private volatile NodeTuple<List<Node>> nodeTuple;
+    private final AtomicLong denylistVersion = new AtomicLong(0);
+    private volatile NodeSnapshot nodeSnapshot;
     private final NodeSelector nodeSelector;
+    @Nullable
+    private final RankingNodeSelector rankingNodeSelector;
     private final WarningsHandler warningsHandler;
     private final FailureListener failureListener;
     private final boolean compressionEnabled;
     private final boolean chunkedEnabled;
     private final String pathPrefix;
     private final List<Header> defaultHeaders;
+    private final ByteArrayPool requestBufferPool;
+    @Nullable
+    private final Executor deserializationExecutor;
+    @Nullable
+    private final CloseableHttpClient classicClient;
+    @Nullable
+    private final HedgingPolicy hedgingPolicy;
+    @Nullable
+    private final ScheduledExecutorService hedgingScheduler;
+    @Nullable
+    private final Supplier<ConcurrencyLimiter> nodeConcurrencyLimiter;
+    private final ConcurrentMap<HttpHost, ConcurrencyLimiter> nodeLimiters = new ConcurrentHashMap<>();
+    @Nullable
+    private final CloseableHttpAsyncClient http2Client;
+    private final int http2MaxConcurrentStreams;
+    private final ConcurrentMap<HttpHost, Http2StreamStats> http2Streams = new ConcurrentHashMap<>();
+    @Nullable
+    private final TransportInstrumentation instrumentation;
 
     public ApacheHttpClient5Transport(
         final CloseableHttpAsyncClient client,
@@ -133,6 +183,42 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
         final boolean compressionEnabled,
         final boolean chunkedEnabled
     ) {
+        this(
+            client,
+            defaultHeaders,
+            nodes,
+            mapper,
+            options,
+            pathPrefix,
+            failureListener,
+            nodeSelector,
+            strictDeprecationMode,
+            compressionEnabled,
+            chunkedEnabled,
+            ApacheHttpClient5TransportBuilder.Settings.DEFAULT
+        );
+    }
+
+    /**
+     * Creates a transport with the options that can only be set with {@link ApacheHttpClient5TransportBuilder}.
+     */
+    ApacheHttpClient5Transport(
+        final CloseableHttpAsyncClient client,
+        final Header[] defaultHeaders,
+        final List<Node> nodes,
+        final JsonpMapper mapper,
+        @Nullable TransportOptions options,
+        final String pathPrefix,
+        final FailureListener failureListener,
+        final NodeSelector nodeSelector,
+        final boolean strictDeprecationMode,
+        final boolean compressionEnabled,
+        final boolean chunkedEnabled,
+        final ApacheHttpClient5TransportBuilder.Settings settings
+    ) {
+        if (settings.http2Client != null && settings.http2MaxConcurrentStreams < 1) {
+            throw new IllegalArgumentException("http2MaxConcurrentStreams must be positive");
+        }
         this.mapper = mapper;
         this.client = client;
         this.defaultHeaders = Collections.unmodifiableList(Arrays.asList(defaultHeaders));
@@ -140,9 +226,30 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
         this.transportOptions = (options == null) ? ApacheHttpClient5Options.initialOptions() : ApacheHttpClient5Options.of(options);
         this.warningsHandler = strictDeprecationMode ? WarningsHandler.STRICT : WarningsHandler.PERMISSIVE;
         this.nodeSelector = (nodeSelector == null) ? NodeSelector.ANY : nodeSelector;
+        this.rankingNodeSelector = (nodeSelector instanceof RankingNodeSelector) ? (RankingNodeSelector) nodeSelector : null;
         this.failureListener = (failureListener == null) ? new FailureListener() : failureListener;
         this.chunkedEnabled = chunkedEnabled;
         this.compressionEnabled = compressionEnabled;
+        this.requestBufferPool = (settings.requestBufferPool == null) ? ByteArrayPool.defaultPool() : settings.requestBufferPool;
+        this.deserializationExecutor = settings.deserializationExecutor;
+        this.classicClient = settings.classicClient;
+        this.hedgingPolicy = settings.hedgingPolicy;
+        if (hedgingPolicy != null) {
+            final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+                final Thread thread = new Thread(r, "opensearch-java-hedging");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Most hedges are not needed and get cancelled, there is no need to keep them until their delay expires
+            executor.setRemoveOnCancelPolicy(true);
+            this.hedgingScheduler = executor;
+        } else {
+            this.hedgingScheduler = null;
+        }
+        this.nodeConcurrencyLimiter = settings.nodeConcurrencyLimiter;
+        this.http2Client = settings.http2Client;
+        this.http2MaxConcurrentStreams = settings.http2MaxConcurrentStreams;
+        this.instrumentation = settings.instrumentation;
         setNodes(nodes);
     }
 
@@ -152,9 +259,25 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
         Endpoint<RequestT, ResponseT, ErrorT> endpoint,
         TransportOptions options
     ) throws IOException {
+        final ApacheHttpClient5Options requestOptions = (options == null) ? transportOptions : ApacheHttpClient5Options.of(options);
+        final RequestMetrics.Recorder metrics = RequestMetrics.Recorder.start(instrumentation, request, endpoint);
         try {
-            return performRequestAsync(request, endpoint, options).get();
+            final ResponseT response;
+            if (classicClient != null) {
+                response = performClassicRequest(request, endpoint, requestOptions, metrics);
+            } else {
+                final Response clientResp = sendRequest(request, endpoint, requestOptions, metrics).get();
+                // Deserialize on the calling thread, which waits for the response anyway, rather than on an I/O reactor thread
+                response = prepareResponse(clientResp, endpoint);
+            }
+            if (metrics != null) {
+                metrics.complete(null);
+            }
+            return response;
         } catch (final Exception ex) {
+            if (metrics != null) {
+                metrics.complete(ex);
+            }
             Exception cause = extractAndWrapCause(ex);
             if (cause instanceof IOException) {
                 throw (IOException) cause;
@@ -174,25 +297,213 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
     ) {
 
         final ApacheHttpClient5Options requestOptions = (options == null) ? transportOptions : ApacheHttpClient5Options.of(options);
-        final CompletableFuture<Response> future = new CompletableFuture<>();
+        final RequestMetrics.Recorder metrics = RequestMetrics.Recorder.start(instrumentation, request, endpoint);
+        final CompletableFuture<Response> future = sendRequest(request, endpoint, requestOptions, metrics);
+        final Function<Response, ResponseT> deserializer = r -> {
+            try {
+                return prepareResponse(r, endpoint);
+            } catch (final IOException ex) {
+                throw new CompletionException(ex);
+            }
+        };
+
+        final Executor executor = (requestOptions.getDeserializationExecutor() == null)
+            ? this.deserializationExecutor
+            : requestOptions.getDeserializationExecutor();
+        final CompletableFuture<ResponseT> result;
+        if (executor == null) {
+            // Runs on the thread that completes the future, usually an I/O reactor thread
+            result = future.thenApply(deserializer);
+        } else {
+            result = future.thenApplyAsync(deserializer, executor);
+        }
+        if (metrics != null) {
+            result.whenComplete((r, e) -> metrics.complete(e));
+        }
+        return result;
+    }
+
+    private <RequestT, ResponseT, ErrorT> CompletableFuture<Response> sendRequest(
+        RequestT request,
+        Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+        ApacheHttpClient5Options requestOptions,
+        @Nullable RequestMetrics.Recorder metrics
+    ) {
+        if (hedgingScheduler != null && hedgingPolicy.isHedgeable(request)) {
+            return sendHedgedRequest(request, endpoint, requestOptions, metrics);
+        }
         final HttpUriRequestBase clientReq = prepareLowLevelRequest(request, endpoint, requestOptions);
+        onSerialized(clientReq, metrics);
+        try {
+            return sendAttempts(clientReq, requestOptions, nextNodes(), metrics);
+        } catch (final IOException ex) {
+            if (clientReq instanceof PooledBodyRequest) {
+                ((PooledBodyRequest) clientReq).releaseBody();
+            }
+            final CompletableFuture<Response> future = new CompletableFuture<>();
+            future.completeExceptionally(ex);
+            return future;
+        }
+    }
+
+    /**
+     * Sends the request to the first node and, if an attempt fails, to the following ones until one of them answers.
+     */
+    private CompletableFuture<Response> sendAttempts(
+        final HttpUriRequestBase clientReq,
+        final ApacheHttpClient5Options requestOptions,
+        final NodeTuple<Iterator<Node>> nodeTuple,
+        @Nullable final RequestMetrics.Recorder metrics
+    ) {
+        final CompletableFuture<Response> future = new CompletableFuture<>();
+        if (clientReq instanceof PooledBodyRequest) {
+            // No more attempts are made once the future is done, but the exchanges of the previous attempts may still be
+            // sending the body: each of them holds its own reference on the buffer, which goes back to the pool after the last
+            future.whenComplete((r, e) -> ((PooledBodyRequest) clientReq).releaseBody());
+        }
         final WarningsHandler warningsHandler = (requestOptions.getWarningsHandler() == null)
             ? this.warningsHandler
             : requestOptions.getWarningsHandler();
 
+        performRequestAsync(nodeTuple, requestOptions, clientReq, warningsHandler, future, metrics);
+        return future;
+    }
+
+    /**
+     * Sends the request and, if it has not been answered once the delay of the {@link HedgingPolicy} has elapsed and
+     * the budget allows it, sends a copy to another node. The first response wins and the other request is cancelled;
+     * the request only fails if both copies fail.
+     */
+    private <RequestT, ResponseT, ErrorT> CompletableFuture<Response> sendHedgedRequest(
+        RequestT request,
+        Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+        ApacheHttpClient5Options requestOptions,
+        @Nullable RequestMetrics.Recorder metrics
+    ) {
+        final CompletableFuture<Response> result = new CompletableFuture<>();
+        final long startNanos = System.nanoTime();
+        hedgingPolicy.onRequest();
+
+        final HttpUriRequestBase primaryReq = prepareLowLevelRequest(request, endpoint, requestOptions);
+        onSerialized(primaryReq, metrics);
+        final NodeTuple<Iterator<Node>> primaryNodes;
         try {
-            performRequestAsync(nextNodes(), requestOptions, clientReq, warningsHandler, future);
+            primaryNodes = nextNodes();
         } catch (final IOException ex) {
-            future.completeExceptionally(ex);
+            if (primaryReq instanceof PooledBodyRequest) {
+                ((PooledBodyRequest) primaryReq).releaseBody();
+            }
+            result.completeExceptionally(ex);
+            return result;
+        }
+        final List<Node> nodes = new ArrayList<>();
+        primaryNodes.nodes.forEachRemaining(nodes::add);
+
+        // The number of copies that may still answer: the request fails when it drops to zero
+        final AtomicInteger pending = new AtomicInteger(1);
+        final AtomicReference<HttpUriRequestBase> hedgeReq = new AtomicReference<>();
+        final HedgeListener listener = new HedgeListener(result, pending, startNanos, metrics);
+        // Each copy records its own attempts, and only the metrics of the copy that decides the outcome are reported
+        final RequestMetrics.Recorder primaryMetrics = (metrics == null) ? null : metrics.newCopy();
+
+        final ScheduledFuture<?> hedge = hedgingScheduler.schedule(() -> {
+            if (result.isDone() || false == hedgingPolicy.tryAcquire()) {
+                return;
+            }
+            if (pending.getAndUpdate(p -> p == 0 ? 0 : p + 1) == 0) {
+                // The request failed in the meantime
+                return;
+            }
+            final RequestMetrics.Recorder hedgeMetrics = (metrics == null) ? null : metrics.newCopy();
+            try {
+                // The hedge tries the same nodes, starting with the one that the request would have been retried on
+                final List<Node> hedgeNodes = new ArrayList<>(nodes.size());
+                hedgeNodes.addAll(nodes.subList(1, nodes.size()));
+                hedgeNodes.add(nodes.get(0));
+                final HttpUriRequestBase clientReq = prepareLowLevelRequest(request, endpoint, requestOptions);
+                hedgeReq.set(clientReq);
+                sendAttempts(clientReq, requestOptions, new NodeTuple<>(hedgeNodes.iterator(), primaryNodes.authCache), hedgeMetrics)
+                    .whenComplete((r, e) -> listener.onAttemptsCompleted(r, e, true, primaryReq, hedgeMetrics));
+                if (result.isDone()) {
+                    // The request was answered while the hedge was being sent
+                    clientReq.cancel();
+                }
+            } catch (final Exception ex) {
+                listener.onAttemptsCompleted(null, ex, true, primaryReq, hedgeMetrics);
+            }
+        }, hedgingPolicy.delayNanos(), TimeUnit.NANOSECONDS);
+        result.whenComplete((r, e) -> hedge.cancel(false));
+
+        sendAttempts(primaryReq, requestOptions, new NodeTuple<>(nodes.iterator(), primaryNodes.authCache), primaryMetrics).whenComplete(
+            (r, e) -> listener.onAttemptsCompleted(r, e, false, hedgeReq.get(), primaryMetrics)
+        );
+        return result;
+    }
+
+    /**
+     * Completes a hedged request with the first response, or with the last failure if neither copy got a response.
+     */
+    private class HedgeListener {
+        private final CompletableFuture<Response> result;
+        private final AtomicInteger pending;
+        private final long startNanos;
+        @Nullable
+        private final RequestMetrics.Recorder metrics;
+        private final AtomicBoolean answered = new AtomicBoolean();
+
+        HedgeListener(
+            CompletableFuture<Response> result,
+            AtomicInteger pending,
+            long startNanos,
+            @Nullable RequestMetrics.Recorder metrics
+        ) {
+            this.result = result;
+            this.pending = pending;
+            this.startNanos = startNanos;
+            this.metrics = metrics;
         }
 
-        return future.thenApply(r -> {
-            try {
-                return (ResponseT) prepareResponse(r, endpoint);
-            } catch (final IOException ex) {
-                throw new CompletionException(ex);
+        /**
+         * Called when the attempts of one copy are over.
+         *
+         * @param hedge whether this copy is the hedge
+         * @param other the request of the other copy, if it was sent
+         * @param copyMetrics the metrics recorded by this copy
+         */
+        void onAttemptsCompleted(
+            @Nullable Response response,
+            @Nullable Throwable failure,
+            boolean hedge,
+            @Nullable HttpUriRequestBase other,
+            @Nullable RequestMetrics.Recorder copyMetrics
+        ) {
+            if (response == null) {
+                if (pending.decrementAndGet() == 0) {
+                    useMetrics(copyMetrics);
+                    result.completeExceptionally(failure);
+                }
+            } else if (answered.compareAndSet(false, true)) {
+                // The metrics are taken before completing the result, which may report them right away
+                useMetrics(copyMetrics);
+                if (result.complete(response)) {
+                    if (other != null) {
+                        other.cancel();
+                    }
+                    hedgingPolicy.onResponse(System.nanoTime() - startNanos, hedge);
+                } else {
+                    Closer.closeQuietly(response.getEntity());
+                }
+            } else {
+                // The other copy won: this response is not used
+                Closer.closeQuietly(response.getEntity());
             }
-        });
+        }
+
+        private void useMetrics(@Nullable RequestMetrics.Recorder copyMetrics) {
+            if (metrics != null && copyMetrics != null) {
+                metrics.useCopy(copyMetrics);
+            }
+        }
     }
 
     @Override
@@ -207,7 +518,94 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
 
     @Override
     public void close() throws IOException {
-        client.close();
+        try {
+            client.close();
+        } finally {
+            if (hedgingScheduler != null) {
+                hedgingScheduler.shutdownNow();
+            }
+            if (http2Client != null) {
+                http2Client.close();
+            }
+            if (classicClient != null) {
+                classicClient.close();
+            }
+        }
+    }
+
+    /**
+     * Sends the request with the classic client and deserializes the response on the calling thread, trying the
+     * next node if an attempt fails. Nothing in this path blocks while holding a monitor, so that virtual threads
+     * are not pinned to their carrier thread while waiting for the response.
+     */
+    private <RequestT, ResponseT, ErrorT> ResponseT performClassicRequest(
+        RequestT request,
+        Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+        ApacheHttpClient5Options requestOptions,
+        @Nullable RequestMetrics.Recorder metrics
+    ) throws IOException {
+        final HttpUriRequestBase clientReq = prepareLowLevelRequest(request, endpoint, requestOptions);
+        onSerialized(clientReq, metrics);
+        final WarningsHandler warningsHandler = (requestOptions.getWarningsHandler() == null)
+            ? this.warningsHandler
+            : requestOptions.getWarningsHandler();
+
+        try {
+            final NodeTuple<Iterator<Node>> nodeTuple = nextNodes();
+            while (true) {
+                final Node node = nextAvailableNode(nodeTuple.nodes);
+                clientReq.reset();
+                clientReq.setAuthority(new URIAuthority(node.getHost()));
+                clientReq.setScheme(node.getHost().getSchemeName());
+                final HttpClientContext context = HttpClientContext.create();
+                context.setAuthCache(new WrappingAuthCache(context, nodeTuple.authCache));
+
+                final long startNanos = System.nanoTime();
+                onAttemptStarted(node, metrics);
+                final ClassicHttpResponse httpResponse;
+                try {
+                    httpResponse = classicClient.executeOpen(node.getHost(), clientReq, context);
+                } catch (final TransportException ex) {
+                    // The request body could not be serialized: the node is not at fault and retrying won't help
+                    onAttemptCancelled(node);
+                    throw ex;
+                } catch (final IOException ex) {
+                    onAttemptFailed(node, startNanos, ex);
+                    onFailure(node);
+                    if (nodeTuple.nodes.hasNext()) {
+                        continue;
+                    }
+                    throw ex;
+                } catch (final RuntimeException ex) {
+                    // E.g. the connection pool was shut down: the attempt never reached the node
+                    onAttemptCancelled(node);
+                    throw ex;
+                }
+
+                onAttemptCompleted(node, startNanos, httpResponse, metrics);
+                try {
+                    final ResponseOrResponseException responseOrResponseException = convertResponse(
+                        clientReq,
+                        node,
+                        httpResponse,
+                        warningsHandler
+                    );
+                    if (responseOrResponseException.responseException == null) {
+                        return prepareResponse(responseOrResponseException.response, endpoint);
+                    } else if (nodeTuple.nodes.hasNext() == false) {
+                        throw responseOrResponseException.responseException;
+                    }
+                } finally {
+                    // Consuming the entity releases the connection to the pool rather than closing it
+                    EntityUtils.consumeQuietly(httpResponse.getEntity());
+                    httpResponse.close();
+                }
+            }
+        } finally {
+            if (clientReq instanceof PooledBodyRequest) {
+                ((PooledBodyRequest) clientReq).releaseBody();
+            }
+        }
     }
 
     private void performRequestAsync(
@@ -215,9 +613,32 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
         final ApacheHttpClient5Options options,
         final HttpUriRequestBase request,
         final WarningsHandler warningsHandler,
-        final CompletableFuture<Response> listener
+        final CompletableFuture<Response> listener,
+        @Nullable final RequestMetrics.Recorder metrics
     ) {
-        final RequestContext context = createContextForNextAttempt(options, request, nodeTuple.nodes.next(), nodeTuple.authCache);
+        final Node node;
+        try {
+            node = nextAvailableNode(nodeTuple.nodes);
+        } catch (final ConcurrencyLimitExceededException ex) {
+            listener.completeExceptionally(ex);
+            return;
+        }
+        performAttempt(node, nodeTuple, options, request, warningsHandler, listener, metrics, true);
+    }
+
+    private void performAttempt(
+        final Node node,
+        final NodeTuple<Iterator<Node>> nodeTuple,
+        final ApacheHttpClient5Options options,
+        final HttpUriRequestBase request,
+        final WarningsHandler warningsHandler,
+        final CompletableFuture<Response> listener,
+        @Nullable final RequestMetrics.Recorder metrics,
+        final boolean newAttempt
+    ) {
+        final RequestContext context = createContextForNextAttempt(options, request, node, nodeTuple.authCache, metrics, newAttempt);
+        final Http2StreamStats stream = openHttp2Stream(node);
+        final CloseableHttpAsyncClient client = (stream == null) ? this.client : this.http2Client;
         Future<ClassicHttpResponse> future = client.execute(
             context.requestProducer,
             context.asyncResponseConsumer,
@@ -225,6 +646,10 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
             new FutureCallback<ClassicHttpResponse>() {
                 @Override
                 public void completed(ClassicHttpResponse httpResponse) {
+                    if (stream != null) {
+                        stream.release(true);
+                    }
+                    onAttemptCompleted(context.node, context.startNanos, httpResponse, metrics);
                     try {
                         ResponseOrResponseException responseOrResponseException = convertResponse(
                             request,
@@ -236,7 +661,7 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
                             listener.complete(responseOrResponseException.response);
                         } else {
                             if (nodeTuple.nodes.hasNext()) {
-                                performRequestAsync(nodeTuple, options, request, warningsHandler, listener);
+                                performRequestAsync(nodeTuple, options, request, warningsHandler, listener, metrics);
                             } else {
                                 listener.completeExceptionally(responseOrResponseException.responseException);
                             }
@@ -248,10 +673,29 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
 
                 @Override
                 public void failed(Exception failure) {
+                    if (stream != null) {
+                        stream.release(false);
+                        if (isHttp2NegotiationFailure(failure) && stream.fallBackToHttp1()) {
+                            if (logger.isDebugEnabled()) {
+                                logger.debug("[" + context.node + "] does not accept HTTP/2 connections, falling back to HTTP/1.1");
+                            }
+                            // The node did not process the request, which can be sent again whatever its method: the
+                            // attempt goes on over HTTP/1.1, it was not the fault of the node
+                            performAttempt(context.node, nodeTuple, options, request, warningsHandler, listener, metrics, false);
+                            return;
+                        }
+                    }
+                    if (failure instanceof TransportException) {
+                        // The request body could not be serialized: the node is not at fault and retrying won't help
+                        onAttemptCancelled(context.node);
+                        listener.completeExceptionally(failure);
+                        return;
+                    }
+                    onAttemptFailed(context.node, context.startNanos, failure);
                     try {
                         onFailure(context.node);
                         if (nodeTuple.nodes.hasNext()) {
-                            performRequestAsync(nodeTuple, options, request, warningsHandler, listener);
+                            performRequestAsync(nodeTuple, options, request, warningsHandler, listener, metrics);
                         } else {
                             listener.completeExceptionally(failure);
                         }
@@ -262,6 +706,10 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
 
                 @Override
                 public void cancelled() {
+                    if (stream != null) {
+                        stream.release(false);
+                    }
+                    onAttemptCancelled(context.node);
                     listener.completeExceptionally(new CancellationException("request was cancelled"));
                 }
             }
@@ -273,11 +721,13 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
     }
 
     /**
-     * Replaces the nodes with which the client communicates.
+     * Replaces the nodes with which the client communicates. Requests that are in flight keep using the nodes
+     * they were started with, and connections to the nodes that are still present are kept. Typically used by the
+     * {@link org.opensearch.client.transport.httpclient5.sniff.Sniffer}.
      *
      * @param nodes the new nodes to communicate with.
      */
-    private void setNodes(Collection<Node> nodes) {
+    public synchronized void setNodes(Collection<Node> nodes) {
         if (nodes == null || nodes.isEmpty()) {
             throw new IllegalArgumentException("nodes must not be null or empty");
         }
@@ -292,6 +742,21 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
         }
         this.nodeTuple = new NodeTuple<>(Collections.unmodifiableList(new ArrayList<>(nodesByHost.values())), authCache);
         this.denylist.clear();
+        this.denylistVersion.incrementAndGet();
+        for (HttpHost host : nodeLimiters.keySet()) {
+            if (false == nodesByHost.containsKey(host)) {
+                // The limiter of a removed node is kept until its requests in flight are over
+                nodeLimiters.computeIfPresent(host, (h, limiter) -> limiter.inFlight() == 0 ? null : limiter);
+            }
+        }
+        http2Streams.keySet().retainAll(nodesByHost.keySet());
+    }
+
+    /**
+     * Get the list of nodes that the client knows about. The list is unmodifiable.
+     */
+    public List<Node> getNodes() {
+        return nodeTuple.nodes;
     }
 
     private ResponseOrResponseException convertResponse(
@@ -380,50 +845,50 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
      */
     private NodeTuple<Iterator<Node>> nextNodes() throws IOException {
         NodeTuple<List<Node>> nodeTuple = this.nodeTuple;
-        Iterable<Node> hosts = selectNodes(nodeTuple, denylist, lastNodeIndex, nodeSelector);
-        return new NodeTuple<>(hosts.iterator(), nodeTuple.authCache);
+        // Read the version before the denylist, so that a concurrent change makes the snapshot stale rather than lost
+        long denylistVersion = this.denylistVersion.get();
+        NodeSnapshot snapshot = this.nodeSnapshot;
+        if (snapshot == null || false == snapshot.isCurrent(nodeTuple, denylistVersion)) {
+            snapshot = NodeSnapshot.create(nodeTuple, denylist, denylistVersion, nodeSelector);
+            this.nodeSnapshot = snapshot;
+        }
+        return new NodeTuple<>(selectNodes(snapshot, lastNodeIndex, nodeSelector), nodeTuple.authCache);
     }
 
     /**
      * Select nodes to try and sorts them so that the first one will be tried initially, then the following ones
      * if the previous attempt failed and so on. Package private for testing.
      */
-    static Iterable<Node> selectNodes(
-        NodeTuple<List<Node>> nodeTuple,
-        Map<HttpHost, DeadHostState> denylist,
-        AtomicInteger lastNodeIndex,
-        NodeSelector nodeSelector
-    ) throws IOException {
-        /*
-         * Sort the nodes into living and dead lists.
-         */
-        List<Node> livingNodes = new ArrayList<>(Math.max(0, nodeTuple.nodes.size() - denylist.size()));
-        List<DeadNode> deadNodes = new ArrayList<>(denylist.size());
-        for (Node node : nodeTuple.nodes) {
-            DeadHostState deadness = denylist.get(node.getHost());
-            if (deadness == null || deadness.shallBeRetried()) {
-                livingNodes.add(node);
-            } else {
-                deadNodes.add(new DeadNode(node, deadness));
-            }
+    static Iterator<Node> selectNodes(NodeSnapshot snapshot, AtomicInteger lastNodeIndex, NodeSelector nodeSelector)
+        throws IOException {
+        List<Node> selectedLivingNodes = snapshot.selectedLivingNodes;
+        if (selectedLivingNodes == null && false == snapshot.livingNodes.isEmpty()) {
+            /*
+             * The selector can't be trusted to select the same nodes twice: ask
+             * it again for this request.
+             */
+            selectedLivingNodes = new ArrayList<>(snapshot.livingNodes);
+            nodeSelector.select(selectedLivingNodes);
         }
 
-        if (false == livingNodes.isEmpty()) {
+        if (selectedLivingNodes != null && false == selectedLivingNodes.isEmpty()) {
             /*
-             * Normal state: there is at least one living node. If the
-             * selector is ok with any over the living nodes then use them
-             * for the request.
+             * Normal state: there is at least one living node that the selector
+             * is ok with. Rotate the list using a global counter as the distance
+             * so subsequent requests will try the nodes in a different order.
              */
-            List<Node> selectedLivingNodes = new ArrayList<>(livingNodes);
-            nodeSelector.select(selectedLivingNodes);
-            if (false == selectedLivingNodes.isEmpty()) {
-                /*
-                 * Rotate the list using a global counter as the distance so subsequent
-                 * requests will try the nodes in a different order.
-                 */
-                Collections.rotate(selectedLivingNodes, lastNodeIndex.getAndIncrement());
-                return selectedLivingNodes;
+            int size = selectedLivingNodes.size();
+            int shift = Math.floorMod(lastNodeIndex.getAndIncrement(), size);
+            int first = shift == 0 ? 0 : size - shift;
+            if (nodeSelector instanceof RankingNodeSelector) {
+                List<Node> rankedNodes = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    rankedNodes.add(selectedLivingNodes.get((first + i) % size));
+                }
+                ((RankingNodeSelector) nodeSelector).rank(rankedNodes);
+                return rankedNodes.iterator();
             }
+            return new RotatingIterator(selectedLivingNodes, first);
         }
 
         /*
@@ -435,8 +900,8 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
          * are ok. If the selector is ok with any of the nodes then we will take
          * the one in the list that has the lowest revival time and try it.
          */
-        if (false == deadNodes.isEmpty()) {
-            final List<DeadNode> selectedDeadNodes = new ArrayList<>(deadNodes);
+        if (false == snapshot.deadNodes.isEmpty()) {
+            final List<DeadNode> selectedDeadNodes = new ArrayList<>(snapshot.deadNodes);
             /*
              * We'd like NodeSelectors to remove items directly from deadNodes
              * so we can find the minimum after it is filtered without having
@@ -445,11 +910,17 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
              */
             nodeSelector.select(() -> new DeadNodeIteratorAdapter(selectedDeadNodes.iterator()));
             if (false == selectedDeadNodes.isEmpty()) {
-                return Collections.singletonList(Collections.min(selectedDeadNodes).node);
+                return Collections.singletonList(Collections.min(selectedDeadNodes).node).iterator();
             }
         }
         throw new IOException(
-            "NodeSelector [" + nodeSelector + "] rejected all nodes, " + "living " + livingNodes + " and dead " + deadNodes
+            "NodeSelector ["
+                + nodeSelector
+                + "] rejected all nodes, "
+                + "living "
+                + snapshot.livingNodes
+                + " and dead "
+                + snapshot.deadNodes
         );
     }
 
@@ -464,12 +935,14 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
                 new DeadHostState(DeadHostState.DEFAULT_TIME_SUPPLIER)
             );
             if (previousDeadHostState == null) {
+                denylistVersion.incrementAndGet();
                 if (logger.isDebugEnabled()) {
                     logger.debug("added [" + node + "] to denylist");
                 }
                 break;
             }
             if (denylist.replace(node.getHost(), previousDeadHostState, new DeadHostState(previousDeadHostState))) {
+                denylistVersion.incrementAndGet();
                 if (logger.isDebugEnabled()) {
                     logger.debug("updated [" + node + "] already in denylist");
                 }
@@ -483,10 +956,153 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
         final ApacheHttpClient5Options options,
         final HttpUriRequestBase request,
         final Node node,
-        final AuthCache authCache
+        final AuthCache authCache,
+        @Nullable final RequestMetrics.Recorder metrics,
+        final boolean newAttempt
     ) {
         request.reset();
-        return new RequestContext(options, request, node, authCache);
+        final RequestContext context = new RequestContext(options, request, node, authCache);
+        if (newAttempt) {
+            onAttemptStarted(node, metrics);
+        }
+        return context;
+    }
+
+    private static void onSerialized(final HttpUriRequestBase request, @Nullable final RequestMetrics.Recorder metrics) {
+        if (metrics != null) {
+            final HttpEntity entity = request.getEntity();
+            metrics.onSerialized((entity == null) ? 0 : Math.max(-1, entity.getContentLength()));
+        }
+    }
+
+    private void onAttemptStarted(final Node node, @Nullable final RequestMetrics.Recorder metrics) {
+        if (rankingNodeSelector != null) {
+            rankingNodeSelector.onAttemptStarted(node);
+        }
+        if (metrics != null) {
+            metrics.onAttemptStarted(node.getHost().toURI());
+        }
+    }
+
+    private void onAttemptCompleted(
+        final Node node,
+        final long startNanos,
+        final ClassicHttpResponse httpResponse,
+        @Nullable final RequestMetrics.Recorder metrics
+    ) {
+        final int statusCode = httpResponse.getCode();
+        if (metrics != null) {
+            final HttpEntity entity = httpResponse.getEntity();
+            metrics.onResponse(node.getHost().toURI(), statusCode, (entity == null) ? 0 : Math.max(-1, entity.getContentLength()));
+        }
+        final long latencyNanos = System.nanoTime() - startNanos;
+        if (rankingNodeSelector != null) {
+            rankingNodeSelector.onAttemptCompleted(node, latencyNanos, false == isRetryStatus(statusCode));
+        }
+        releaseNodePermit(
+            node,
+            latencyNanos,
+            (statusCode == HttpStatus.SC_TOO_MANY_REQUESTS || statusCode == HttpStatus.SC_SERVICE_UNAVAILABLE)
+                ? Outcome.OVERLOADED
+                : Outcome.SUCCESS
+        );
+    }
+
+    private void onAttemptFailed(final Node node, final long startNanos, final Exception failure) {
+        final long latencyNanos = System.nanoTime() - startNanos;
+        if (rankingNodeSelector != null) {
+            rankingNodeSelector.onAttemptCompleted(node, latencyNanos, false);
+        }
+        // A node that does not answer in time is likely overloaded, one that cannot be reached says nothing about it
+        releaseNodePermit(node, latencyNanos, (failure instanceof SocketTimeoutException) ? Outcome.OVERLOADED : Outcome.IGNORED);
+    }
+
+    private void onAttemptCancelled(final Node node) {
+        if (rankingNodeSelector != null) {
+            rankingNodeSelector.onAttemptCancelled(node);
+        }
+        releaseNodePermit(node, 0, Outcome.IGNORED);
+    }
+
+    /**
+     * Returns the first node that does not have too many requests in flight, taking a permit from its limiter.
+     *
+     * @throws ConcurrencyLimitExceededException if all the remaining nodes have too many requests in flight
+     */
+    private Node nextAvailableNode(final Iterator<Node> nodes) throws ConcurrencyLimitExceededException {
+        if (nodeConcurrencyLimiter == null) {
+            return nodes.next();
+        }
+        final List<Node> saturatedNodes = new ArrayList<>();
+        while (nodes.hasNext()) {
+            final Node node = nodes.next();
+            if (tryAcquireNodePermit(node)) {
+                return node;
+            }
+            saturatedNodes.add(node);
+        }
+        throw new ConcurrencyLimitExceededException("Too many requests in flight to nodes " + saturatedNodes);
+    }
+
+    private boolean tryAcquireNodePermit(final Node node) {
+        final boolean[] acquired = new boolean[1];
+        // Acquiring in compute() keeps setNodes() from dropping the limiter in the meantime
+        nodeLimiters.compute(node.getHost(), (host, limiter) -> {
+            if (limiter == null) {
+                limiter = nodeConcurrencyLimiter.get();
+            }
+            acquired[0] = limiter.tryAcquire();
+            return limiter;
+        });
+        return acquired[0];
+    }
+
+    private void releaseNodePermit(final Node node, final long latencyNanos, final Outcome outcome) {
+        if (nodeConcurrencyLimiter != null) {
+            final ConcurrencyLimiter limiter = nodeLimiters.get(node.getHost());
+            if (limiter != null) {
+                limiter.release(latencyNanos, outcome);
+            }
+        }
+    }
+
+    /**
+     * The limiter of the given node, if a permit was ever taken for it. Package private for testing.
+     */
+    @Nullable
+    ConcurrencyLimiter nodeLimiter(final HttpHost host) {
+        return nodeLimiters.get(host);
+    }
+
+    /**
+     * Opens a stream on the HTTP/2 connection to the node.
+     *
+     * @return the stats of the connection, or {@code null} if the request must be sent over HTTP/1.1
+     */
+    @Nullable
+    private Http2StreamStats openHttp2Stream(final Node node) {
+        if (http2Client == null) {
+            return null;
+        }
+        final Http2StreamStats stats = http2Streams.computeIfAbsent(node.getHost(), h -> new Http2StreamStats(http2MaxConcurrentStreams));
+        return stats.tryAcquire() ? stats : null;
+    }
+
+    /**
+     * Whether the failure means that the node does not speak HTTP/2: a node that only speaks HTTP/1.1 does not agree
+     * on h2 during the TLS handshake, or answers the HTTP/2 preface with an HTTP/1.1 response that is not a valid
+     * frame. Connections closed for other reasons are regular failures.
+     */
+    private static boolean isHttp2NegotiationFailure(final Exception failure) {
+        return failure instanceof ProtocolNegotiationException || failure instanceof H2ConnectionException;
+    }
+
+    /**
+     * How much the HTTP/2 connection to each node is used, if HTTP/2 is enabled. Nodes appear once a request has been
+     * sent to them.
+     */
+    public Map<HttpHost, Http2StreamStats> getHttp2StreamStats() {
+        return Collections.unmodifiableMap(http2Streams);
     }
 
     private <ResponseT, ErrorT> ResponseT prepareResponse(Response clientResp, Endpoint<?, ResponseT, ErrorT> endpoint) throws IOException {
@@ -575,23 +1191,42 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
         final Map<String, String> params = endpoint.queryParameters(request);
 
         final URI uri = buildUri(pathPrefix, path, params);
-        final HttpUriRequestBase clientReq = new HttpUriRequestBase(method, uri);
-        if (endpoint.hasRequestBody()) {
+        final HttpUriRequestBase clientReq;
+        final RawJson rawBody = endpoint.hasRequestBody() ? RawJson.rawBody(request) : null;
+        if (rawBody != null) {
+            // Raw documents are sent from the caller's bytes, with their known length unless they are compressed
+            clientReq = new HttpUriRequestBase(method, uri);
+            final HttpEntity entity = new RawJsonEntity(rawBody);
+            clientReq.setEntity(compressionEnabled ? new ContentCompressingEntity(entity) : entity);
+        } else if (endpoint.hasRequestBody() && chunkedEnabled && !(request instanceof GenericSerializable)) {
+            // The body length doesn't have to be known upfront: serialize it while it is being sent
+            clientReq = new HttpUriRequestBase(method, uri);
+            clientReq.setEntity(new JsonpHttpEntity(request, mapper, JsonContentType, compressionEnabled));
+        } else if (endpoint.hasRequestBody()) {
             // Request has a body and must implement JsonpSerializable or NdJsonpSerializable
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            final PooledByteArrayOutputStream baos = requestBufferPool.newOutputStream();
+            clientReq = new PooledBodyRequest(method, uri, baos);
 
             ContentType contentType = JsonContentType;
-            if (request instanceof NdJsonpSerializable) {
-                writeNdJson((NdJsonpSerializable) request, baos);
-            } else if (request instanceof GenericSerializable) {
-                contentType = ContentType.parse(((GenericSerializable) request).serialize(baos));
-            } else {
-                JsonGenerator generator = mapper.jsonProvider().createGenerator(baos);
-                mapper.serialize(request, generator);
-                generator.close();
+            try {
+                if (request instanceof NdJsonpSerializable) {
+                    writeNdJson((NdJsonpSerializable) request, baos);
+                } else if (request instanceof GenericSerializable) {
+                    contentType = ContentType.parse(((GenericSerializable) request).serialize(baos));
+                } else {
+                    JsonGenerator generator = mapper.jsonProvider().createGenerator(baos);
+                    mapper.serialize(request, generator);
+                    generator.close();
+                }
+            } catch (RuntimeException e) {
+                baos.release();
+                throw e;
             }
 
-            addRequestBody(clientReq, new ByteArrayEntity(baos.toByteArray(), contentType));
+            // The entity wraps the pooled buffer without copying it
+            addRequestBody(clientReq, new ByteArrayEntity(baos.array(), 0, baos.size(), contentType));
+        } else {
+            clientReq = new HttpUriRequestBase(method, uri);
         }
 
         setHeaders(clientReq, options.headers());
@@ -642,6 +1277,9 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
      */
     private void onResponse(Node node) {
         DeadHostState removedHost = this.denylist.remove(node.getHost());
+        if (removedHost != null) {
+            denylistVersion.incrementAndGet();
+        }
         if (logger.isDebugEnabled() && removedHost != null) {
             logger.debug("removed [" + node + "] from denylist");
         }
@@ -685,6 +1323,10 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
             String contentType = null;
             InputStream content = null;
             if (entity != null) {
+                if (entity.isStreaming()) {
+                    // The generic response may be read after the entity has been consumed
+                    entity = new BufferedHttpEntity(entity);
+                }
                 contentType = entity.getContentType();
                 content = entity.getContent();
             }
@@ -722,6 +1364,105 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
         }
     }
 
+    /**
+     * The living and dead nodes at some point in time. When the {@link NodeSelector} is
+     * {@linkplain NodeSelector#isStateless() stateless}, the living nodes it selected are kept as well so that
+     * requests don't have to sort and filter the nodes again. A snapshot is replaced when the nodes or the
+     * denylist change, or when one of its dead nodes is due to be retried.
+     */
+    static final class NodeSnapshot {
+        final NodeTuple<List<Node>> nodeTuple;
+        final long denylistVersion;
+        final List<Node> livingNodes;
+        @Nullable
+        final List<Node> selectedLivingNodes;
+        final List<DeadNode> deadNodes;
+        @Nullable
+        private final DeadHostState nextRetry;
+
+        private NodeSnapshot(
+            NodeTuple<List<Node>> nodeTuple,
+            long denylistVersion,
+            List<Node> livingNodes,
+            @Nullable List<Node> selectedLivingNodes,
+            List<DeadNode> deadNodes,
+            @Nullable DeadHostState nextRetry
+        ) {
+            this.nodeTuple = nodeTuple;
+            this.denylistVersion = denylistVersion;
+            this.livingNodes = livingNodes;
+            this.selectedLivingNodes = selectedLivingNodes;
+            this.deadNodes = deadNodes;
+            this.nextRetry = nextRetry;
+        }
+
+        static NodeSnapshot create(
+            NodeTuple<List<Node>> nodeTuple,
+            Map<HttpHost, DeadHostState> denylist,
+            long denylistVersion,
+            NodeSelector nodeSelector
+        ) {
+            /*
+             * Sort the nodes into living and dead lists.
+             */
+            List<Node> livingNodes = new ArrayList<>(Math.max(0, nodeTuple.nodes.size() - denylist.size()));
+            List<DeadNode> deadNodes = new ArrayList<>(denylist.size());
+            DeadHostState nextRetry = null;
+            for (Node node : nodeTuple.nodes) {
+                DeadHostState deadness = denylist.get(node.getHost());
+                if (deadness == null || deadness.shallBeRetried()) {
+                    livingNodes.add(node);
+                } else {
+                    deadNodes.add(new DeadNode(node, deadness));
+                    if (nextRetry == null || deadness.compareTo(nextRetry) < 0) {
+                        nextRetry = deadness;
+                    }
+                }
+            }
+
+            List<Node> selectedLivingNodes = null;
+            if (nodeSelector.isStateless()) {
+                selectedLivingNodes = new ArrayList<>(livingNodes);
+                nodeSelector.select(selectedLivingNodes);
+            }
+            return new NodeSnapshot(nodeTuple, denylistVersion, livingNodes, selectedLivingNodes, deadNodes, nextRetry);
+        }
+
+        boolean isCurrent(NodeTuple<List<Node>> nodeTuple, long denylistVersion) {
+            return this.nodeTuple == nodeTuple
+                && this.denylistVersion == denylistVersion
+                && (nextRetry == null || false == nextRetry.shallBeRetried());
+        }
+    }
+
+    /**
+     * Iterates over a list starting at a given index and wrapping around, which is the same as iterating over the
+     * list rotated by {@link Collections#rotate(List, int)} without copying it.
+     */
+    private static class RotatingIterator implements Iterator<Node> {
+        private final List<Node> nodes;
+        private final int first;
+        private int count;
+
+        private RotatingIterator(List<Node> nodes, int first) {
+            this.nodes = nodes;
+            this.first = first;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return count < nodes.size();
+        }
+
+        @Override
+        public Node next() {
+            if (count >= nodes.size()) {
+                throw new NoSuchElementException();
+            }
+            return nodes.get((first + count++) % nodes.size());
+        }
+    }
+
     /**
      * Contains a reference to a denylisted node and the time until it is
      * revived. We use this so we can do a single pass over the denylist.
@@ -777,12 +1518,15 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
      * Write an nd-json value by serializing each of its items on a separate line, recursing if its items themselves implement
      * {@link NdJsonpSerializable} to flattening nested structures.
      */
-    private void writeNdJson(NdJsonpSerializable value, ByteArrayOutputStream baos) {
+    private void writeNdJson(NdJsonpSerializable value, PooledByteArrayOutputStream baos) {
         Iterator<?> values = value._serializables();
         while (values.hasNext()) {
             Object item = values.next();
             if (item instanceof NdJsonpSerializable && item != value) { // do not recurse on the item itself
                 writeNdJson((NdJsonpSerializable) item, baos);
+            } else if (item instanceof RawJson) {
+                writeRawJson((RawJson) item, baos);
+                baos.write('\n');
             } else {
                 JsonGenerator generator = mapper.jsonProvider().createGenerator(baos);
                 mapper.serialize(item, generator);
@@ -792,6 +1536,15 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
         }
     }
 
+    private static void writeRawJson(RawJson value, PooledByteArrayOutputStream baos) {
+        try {
+            value.writeTo(baos);
+        } catch (IOException e) {
+            // Not thrown by in-memory streams
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private static URI buildUri(String pathPrefix, String path, Map<String, String> params) {
         Objects.requireNonNull(path, "path must not be null");
         try {
@@ -828,6 +1581,7 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
         private final AsyncRequestProducer requestProducer;
         private final AsyncResponseConsumer<ClassicHttpResponse> asyncResponseConsumer;
         private final HttpClientContext context;
+        private final long startNanos = System.nanoTime();
 
         RequestContext(
             final ApacheHttpClient5Options options,
@@ -836,7 +1590,9 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
             final AuthCache authCache
         ) {
             this.node = node;
-            this.requestProducer = HttpUriRequestProducer.create(request, node.getHost());
+            // The exchange gives its reference on a pooled body back when the client releases the producer
+            final Runnable onRelease = (request instanceof PooledBodyRequest) ? ((PooledBodyRequest) request).retainBody() : null;
+            this.requestProducer = HttpUriRequestProducer.create(request, node.getHost(), onRelease);
             this.asyncResponseConsumer = options.getHttpAsyncResponseConsumerFactory().createHttpAsyncResponseConsumer();
             this.context = HttpClientContext.create();
             context.setAuthCache(new WrappingAuthCache(context, authCache));
@@ -1080,6 +1836,93 @@ public class ApacheHttpClient5Transport implements OpenSearchTransport {
         }
     }
 
+    /**
+     * A request whose body is held in a buffer from the request buffer pool, which has to be released
+     * once the request will no longer be sent.
+     */
+    private static final class PooledBodyRequest extends HttpUriRequestBase {
+        private static final long serialVersionUID = 1L;
+        private final transient PooledByteArrayOutputStream body;
+        // One reference for the request, and one for each exchange that may still be sending the body
+        private final transient AtomicInteger references = new AtomicInteger(1);
+        private final transient AtomicBoolean released = new AtomicBoolean();
+
+        PooledBodyRequest(String method, URI uri, PooledByteArrayOutputStream body) {
+            super(method, uri);
+            this.body = body;
+        }
+
+        /**
+         * Takes a reference on the body for an exchange, returning the action that gives it back. The action can be
+         * run more than once.
+         */
+        Runnable retainBody() {
+            references.incrementAndGet();
+            final AtomicBoolean done = new AtomicBoolean();
+            return () -> {
+                if (done.compareAndSet(false, true)) {
+                    dereference();
+                }
+            };
+        }
+
+        /**
+         * Gives back the reference of the request, once no more attempts will be made. The buffer returns to the
+         * pool when no exchange uses it anymore.
+         */
+        void releaseBody() {
+            if (released.compareAndSet(false, true)) {
+                dereference();
+            }
+        }
+
+        private void dereference() {
+            if (references.decrementAndGet() == 0) {
+                body.release();
+            }
+        }
+    }
+
+    /**
+     * The body of a request that is an already serialized document, read from the bytes of the document.
+     */
+    private static final class RawJsonEntity extends AbstractHttpEntity {
+        private final RawJson body;
+
+        RawJsonEntity(RawJson body) {
+            super(JsonContentType, null);
+            this.body = body;
+        }
+
+        @Override
+        public InputStream getContent() {
+            return body.asInputStream();
+        }
+
+        @Override
+        public void writeTo(OutputStream outStream) throws IOException {
+            body.writeTo(outStream);
+        }
+
+        @Override
+        public long getContentLength() {
+            return body.size();
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+
+        @Override
+        public void close() {}
+    }
+
     /**
      * A ByteArrayOutputStream that can be turned into an input stream without copying the underlying buffer.
      */
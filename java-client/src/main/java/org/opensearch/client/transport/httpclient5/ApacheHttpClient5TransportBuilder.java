@@ -15,19 +15,26 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLEngine;
 import org.apache.hc.client5.http.auth.CredentialsProvider;
 import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.DefaultAuthenticationStrategy;
 import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.H2AsyncClientBuilder;
 import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
 import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
 import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
 import org.apache.hc.core5.function.Factory;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpHost;
@@ -38,9 +45,12 @@ import org.opensearch.client.RestClient;
 import org.opensearch.client.RestClientBuilder;
 import org.opensearch.client.json.JsonpMapper;
 import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.transport.ConcurrencyLimiter;
 import org.opensearch.client.transport.TransportOptions;
 import org.opensearch.client.transport.httpclient5.internal.Node;
 import org.opensearch.client.transport.httpclient5.internal.NodeSelector;
+import org.opensearch.client.transport.instrumentation.TransportInstrumentation;
+import org.opensearch.client.util.ByteArrayPool;
 
 public class ApacheHttpClient5TransportBuilder {
     /**
@@ -63,18 +73,33 @@ public class ApacheHttpClient5TransportBuilder {
      */
     public static final int DEFAULT_MAX_CONN_TOTAL = 30;
 
+    /**
+     * The default maximum of concurrent streams on the HTTP/2 connection to a node.
+     */
+    public static final int DEFAULT_HTTP2_MAX_CONCURRENT_STREAMS = 100;
+
     private static final Header[] EMPTY_HEADERS = new Header[0];
 
     private final List<Node> nodes;
     private Header[] defaultHeaders = EMPTY_HEADERS;
     private ApacheHttpClient5Transport.FailureListener failureListener;
     private HttpClientConfigCallback httpClientConfigCallback;
+    private boolean classicClientEnabled = false;
+    private ClassicHttpClientConfigCallback classicHttpClientConfigCallback;
+    private boolean http2Enabled = false;
+    private int http2MaxConcurrentStreams = DEFAULT_HTTP2_MAX_CONCURRENT_STREAMS;
+    private Http2ClientConfigCallback http2ClientConfigCallback;
     private RequestConfigCallback requestConfigCallback;
     private String pathPrefix;
     private NodeSelector nodeSelector = NodeSelector.ANY;
     private boolean strictDeprecationMode = false;
     private boolean compressionEnabled = false;
     private Optional<Boolean> chunkedEnabled;
+    private ByteArrayPool requestBufferPool;
+    private Executor deserializationExecutor;
+    private HedgingPolicy hedgingPolicy;
+    private Supplier<ConcurrencyLimiter> nodeConcurrencyLimiter;
+    private TransportInstrumentation instrumentation;
     private JsonpMapper mapper;
     private TransportOptions options;
 
@@ -137,6 +162,89 @@ public class ApacheHttpClient5TransportBuilder {
         return this;
     }
 
+    /**
+     * Whether synchronous requests should be sent with a classic (blocking) Apache HttpClient on the calling thread,
+     * instead of being sent with the asynchronous client and waited for. This avoids a hand-off to the I/O reactor
+     * and back for each request, and suits applications that call the client from many virtual threads: the
+     * classic client blocks in socket reads and its connection pool uses locks rather than monitors, so waiting
+     * threads unmount from their carrier thread.
+     * <p>
+     * Asynchronous requests are still sent with the asynchronous client. The two clients have separate connection
+     * pools, both sized as configured, and the classic client is customized with
+     * {@link #setClassicHttpClientConfigCallback(ClassicHttpClientConfigCallback)}: credentials or TLS settings set
+     * with {@link #setHttpClientConfigCallback(HttpClientConfigCallback)} must be set there too.
+     *
+     * @param classicClientEnabled whether synchronous requests use the classic client
+     */
+    public ApacheHttpClient5TransportBuilder setClassicClientEnabled(boolean classicClientEnabled) {
+        this.classicClientEnabled = classicClientEnabled;
+        return this;
+    }
+
+    /**
+     * Sets the {@link ClassicHttpClientConfigCallback} to be used to customize the classic http client configuration,
+     * when enabled with {@link #setClassicClientEnabled(boolean)}.
+     *
+     * @param classicHttpClientConfigCallback the {@link ClassicHttpClientConfigCallback} to be used
+     * @throws NullPointerException if {@code classicHttpClientConfigCallback} is {@code null}.
+     */
+    public ApacheHttpClient5TransportBuilder setClassicHttpClientConfigCallback(
+        ClassicHttpClientConfigCallback classicHttpClientConfigCallback
+    ) {
+        Objects.requireNonNull(classicHttpClientConfigCallback, "classicHttpClientConfigCallback must not be null");
+        this.classicHttpClientConfigCallback = classicHttpClientConfigCallback;
+        return this;
+    }
+
+    /**
+     * Whether asynchronous requests should be multiplexed over a single HTTP/2 connection per node, instead of each
+     * taking a connection from the HTTP/1.1 pool. HTTP/2 is negotiated during the TLS handshake for {@code https}
+     * nodes, and used with prior knowledge (h2c) for {@code http} nodes. Nodes that do not accept HTTP/2 connections
+     * are sent requests over HTTP/1.1 from then on.
+     * <p>
+     * Up to {@link #setHttp2MaxConcurrentStreams(int)} requests are sent at the same time over the connection to a
+     * node, and the following ones are sent over HTTP/1.1 until streams are closed. The HTTP/2 client is customized
+     * with {@link #setHttp2ClientConfigCallback(Http2ClientConfigCallback)}: credentials or TLS settings set with
+     * {@link #setHttpClientConfigCallback(HttpClientConfigCallback)} must be set there too. Synchronous requests sent
+     * with the classic client, see {@link #setClassicClientEnabled(boolean)}, use HTTP/1.1.
+     *
+     * @param http2Enabled whether asynchronous requests use HTTP/2
+     * @see ApacheHttpClient5Transport#getHttp2StreamStats()
+     */
+    public ApacheHttpClient5TransportBuilder setHttp2Enabled(boolean http2Enabled) {
+        this.http2Enabled = http2Enabled;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of concurrent streams on the HTTP/2 connection to a node, when enabled with
+     * {@link #setHttp2Enabled(boolean)}. The node may allow fewer, in which case the requests over its limit wait for
+     * a stream to be closed. Defaults to {@value #DEFAULT_HTTP2_MAX_CONCURRENT_STREAMS}.
+     *
+     * @param http2MaxConcurrentStreams the maximum number of concurrent streams per node
+     * @throws IllegalArgumentException if {@code http2MaxConcurrentStreams} is not positive.
+     */
+    public ApacheHttpClient5TransportBuilder setHttp2MaxConcurrentStreams(int http2MaxConcurrentStreams) {
+        if (http2MaxConcurrentStreams < 1) {
+            throw new IllegalArgumentException("http2MaxConcurrentStreams must be positive");
+        }
+        this.http2MaxConcurrentStreams = http2MaxConcurrentStreams;
+        return this;
+    }
+
+    /**
+     * Sets the {@link Http2ClientConfigCallback} to be used to customize the HTTP/2 client configuration, when enabled
+     * with {@link #setHttp2Enabled(boolean)}.
+     *
+     * @param http2ClientConfigCallback the {@link Http2ClientConfigCallback} to be used
+     * @throws NullPointerException if {@code http2ClientConfigCallback} is {@code null}.
+     */
+    public ApacheHttpClient5TransportBuilder setHttp2ClientConfigCallback(Http2ClientConfigCallback http2ClientConfigCallback) {
+        Objects.requireNonNull(http2ClientConfigCallback, "http2ClientConfigCallback must not be null");
+        this.http2ClientConfigCallback = http2ClientConfigCallback;
+        return this;
+    }
+
     /**
      * Sets the {@link RequestConfigCallback} to be used to customize http client configuration
      *
@@ -251,8 +359,82 @@ public class ApacheHttpClient5TransportBuilder {
         return this;
     }
 
+    /**
+     * Sets the pool of buffers used to serialize request bodies, which defaults to {@link ByteArrayPool#defaultPool()}.
+     * Its allocation counters can be used to monitor the allocation rate of request serialization.
+     *
+     * @param requestBufferPool the pool of request buffers
+     */
+    public ApacheHttpClient5TransportBuilder setRequestBufferPool(ByteArrayPool requestBufferPool) {
+        Objects.requireNonNull(requestBufferPool, "requestBufferPool must not be null");
+        this.requestBufferPool = requestBufferPool;
+        return this;
+    }
+
+    /**
+     * Sets the executor on which the responses of asynchronous requests are deserialized. By default, they are
+     * deserialized on the thread that received them, which is usually an I/O reactor thread: deserializing large
+     * responses there delays the other requests that this thread serves. A dedicated pool, a {@link java.util.concurrent.ForkJoinPool}
+     * or a virtual thread per task executor can be used instead, so that I/O reactor threads only move bytes.
+     * <p>
+     * Synchronous requests are always deserialized on the calling thread. The executor can be overridden per request
+     * with {@link ApacheHttpClient5Options.Builder#setDeserializationExecutor(Executor)}. It is not shut down when the
+     * transport is closed.
+     *
+     * @param deserializationExecutor the executor on which responses are deserialized
+     */
+    public ApacheHttpClient5TransportBuilder setDeserializationExecutor(Executor deserializationExecutor) {
+        Objects.requireNonNull(deserializationExecutor, "deserializationExecutor must not be null");
+        this.deserializationExecutor = deserializationExecutor;
+        return this;
+    }
+
+    /**
+     * Sets the {@link HedgingPolicy} used to send a second copy of slow read-only requests to another node. Hedging
+     * trades some extra load for lower tail latencies and is disabled by default. Synchronous requests sent with the
+     * classic client, see {@link #setClassicClientEnabled(boolean)}, are not hedged.
+     *
+     * @param hedgingPolicy the policy deciding when requests are hedged
+     */
+    public ApacheHttpClient5TransportBuilder setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+        Objects.requireNonNull(hedgingPolicy, "hedgingPolicy must not be null");
+        this.hedgingPolicy = hedgingPolicy;
+        return this;
+    }
+
+    /**
+     * Limits how many requests each node has in flight. The supplier is called once per node, and nodes whose
+     * {@link ConcurrencyLimiter} is saturated are skipped; requests fail with a
+     * {@link org.opensearch.client.transport.ConcurrencyLimitExceededException} when all nodes are saturated.
+     * A global limit can be added by wrapping the transport in a
+     * {@link org.opensearch.client.transport.ConcurrencyLimitingTransport}.
+     *
+     * @param nodeConcurrencyLimiter creates the limiter of a node, e.g. {@code () -> ConcurrencyLimiter.builder().build()}
+     */
+    public ApacheHttpClient5TransportBuilder setNodeConcurrencyLimiter(Supplier<ConcurrencyLimiter> nodeConcurrencyLimiter) {
+        Objects.requireNonNull(nodeConcurrencyLimiter, "nodeConcurrencyLimiter must not be null");
+        this.nodeConcurrencyLimiter = nodeConcurrencyLimiter;
+        return this;
+    }
+
+    /**
+     * Sets the {@link TransportInstrumentation} that the metrics of each request are reported to, for instance a
+     * {@link org.opensearch.client.transport.instrumentation.HdrHistogramInstrumentation}.
+     *
+     * @param instrumentation the instrumentation to report the metrics of the requests to
+     * @throws NullPointerException if {@code instrumentation} is {@code null}.
+     */
+    public ApacheHttpClient5TransportBuilder setInstrumentation(TransportInstrumentation instrumentation) {
+        Objects.requireNonNull(instrumentation, "instrumentation must not be null");
+        this.instrumentation = instrumentation;
+        return this;
+    }
+
     /**
      * Whether the REST client should use Transfer-Encoding: chunked for requests or not"
+     * <p>
+     * When enabled, JSON and nd-json request bodies are serialized while they are being sent instead of being
+     * buffered in memory beforehand, and compressed on the fly if compression is enabled.
      *
      * @param chunkedEnabled force enable/disable chunked transfer-encoding.
      */
@@ -271,6 +453,14 @@ public class ApacheHttpClient5TransportBuilder {
         CloseableHttpAsyncClient httpClient = AccessController.doPrivileged(
             (PrivilegedAction<CloseableHttpAsyncClient>) this::createHttpClient
         );
+        CloseableHttpClient classicHttpClient = null;
+        if (classicClientEnabled) {
+            classicHttpClient = AccessController.doPrivileged((PrivilegedAction<CloseableHttpClient>) this::createClassicHttpClient);
+        }
+        CloseableHttpAsyncClient http2Client = null;
+        if (http2Enabled) {
+            http2Client = AccessController.doPrivileged((PrivilegedAction<CloseableHttpAsyncClient>) this::createHttp2Client);
+        }
 
         if (mapper == null) {
             mapper = new JacksonJsonpMapper();
@@ -287,10 +477,23 @@ public class ApacheHttpClient5TransportBuilder {
             nodeSelector,
             strictDeprecationMode,
             compressionEnabled,
-            chunkedEnabled.orElse(false)
+            chunkedEnabled.orElse(false),
+            new Settings(
+                requestBufferPool,
+                deserializationExecutor,
+                classicHttpClient,
+                hedgingPolicy,
+                nodeConcurrencyLimiter,
+                http2Client,
+                http2MaxConcurrentStreams,
+                instrumentation
+            )
         );
 
         httpClient.start();
+        if (http2Client != null) {
+            http2Client.start();
+        }
         return transport;
     }
 
@@ -325,7 +528,7 @@ public class ApacheHttpClient5TransportBuilder {
         return new ApacheHttpClient5TransportBuilder(nodes);
     }
 
-    private CloseableHttpAsyncClient createHttpClient() {
+    private RequestConfig createRequestConfig() {
         // default timeouts are all infinite
         RequestConfig.Builder requestConfigBuilder = RequestConfig.custom()
             .setConnectTimeout(Timeout.ofMilliseconds(DEFAULT_CONNECT_TIMEOUT_MILLIS))
@@ -334,19 +537,70 @@ public class ApacheHttpClient5TransportBuilder {
         if (requestConfigCallback != null) {
             requestConfigBuilder = requestConfigCallback.customizeRequestConfig(requestConfigBuilder);
         }
+        return requestConfigBuilder.build();
+    }
 
+    private CloseableHttpClient createClassicHttpClient() {
         try {
-            final TlsStrategy tlsStrategy = ClientTlsStrategyBuilder.create()
-                .setSslContext(SSLContext.getDefault())
-                // See https://issues.apache.org/jira/browse/HTTPCLIENT-2219
-                .setTlsDetailsFactory(new Factory<SSLEngine, TlsDetails>() {
-                    @Override
-                    public TlsDetails create(final SSLEngine sslEngine) {
-                        return new TlsDetails(sslEngine.getSession(), sslEngine.getApplicationProtocol());
-                    }
-                })
+            final PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnPerRoute(DEFAULT_MAX_CONN_PER_ROUTE)
+                .setMaxConnTotal(DEFAULT_MAX_CONN_TOTAL)
+                .setTlsSocketStrategy(new DefaultClientTlsStrategy(SSLContext.getDefault()))
                 .build();
 
+            HttpClientBuilder httpClientBuilder = HttpClientBuilder.create()
+                .setDefaultRequestConfig(createRequestConfig())
+                .setConnectionManager(connectionManager)
+                .setTargetAuthenticationStrategy(DefaultAuthenticationStrategy.INSTANCE)
+                // Compression is handled by the transport
+                .disableContentCompression()
+                .disableAutomaticRetries();
+            if (classicHttpClientConfigCallback != null) {
+                httpClientBuilder = classicHttpClientConfigCallback.customizeHttpClient(httpClientBuilder);
+            }
+
+            final HttpClientBuilder finalBuilder = httpClientBuilder;
+            return AccessController.doPrivileged((PrivilegedAction<CloseableHttpClient>) finalBuilder::build);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("could not create the default ssl context", e);
+        }
+    }
+
+    private CloseableHttpAsyncClient createHttp2Client() {
+        try {
+            H2AsyncClientBuilder httpClientBuilder = H2AsyncClientBuilder.create()
+                .setDefaultRequestConfig(createRequestConfig())
+                .setTlsStrategy(createTlsStrategy())
+                .setTargetAuthenticationStrategy(DefaultAuthenticationStrategy.INSTANCE)
+                .disableAutomaticRetries();
+            if (http2ClientConfigCallback != null) {
+                httpClientBuilder = http2ClientConfigCallback.customizeHttpClient(httpClientBuilder);
+            }
+
+            final H2AsyncClientBuilder finalBuilder = httpClientBuilder;
+            return AccessController.doPrivileged((PrivilegedAction<CloseableHttpAsyncClient>) finalBuilder::build);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("could not create the default ssl context", e);
+        }
+    }
+
+    private static TlsStrategy createTlsStrategy() throws NoSuchAlgorithmException {
+        return ClientTlsStrategyBuilder.create()
+            .setSslContext(SSLContext.getDefault())
+            // See https://issues.apache.org/jira/browse/HTTPCLIENT-2219
+            .setTlsDetailsFactory(new Factory<SSLEngine, TlsDetails>() {
+                @Override
+                public TlsDetails create(final SSLEngine sslEngine) {
+                    return new TlsDetails(sslEngine.getSession(), sslEngine.getApplicationProtocol());
+                }
+            })
+            .build();
+    }
+
+    private CloseableHttpAsyncClient createHttpClient() {
+        try {
+            final TlsStrategy tlsStrategy = createTlsStrategy();
+
             final PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
                 .setMaxConnPerRoute(DEFAULT_MAX_CONN_PER_ROUTE)
                 .setMaxConnTotal(DEFAULT_MAX_CONN_TOTAL)
@@ -354,7 +608,7 @@ public class ApacheHttpClient5TransportBuilder {
                 .build();
 
             HttpAsyncClientBuilder httpClientBuilder = HttpAsyncClientBuilder.create()
-                .setDefaultRequestConfig(requestConfigBuilder.build())
+                .setDefaultRequestConfig(createRequestConfig())
                 .setConnectionManager(connectionManager)
                 .setTargetAuthenticationStrategy(DefaultAuthenticationStrategy.INSTANCE)
                 .disableAutomaticRetries();
@@ -369,6 +623,49 @@ public class ApacheHttpClient5TransportBuilder {
         }
     }
 
+    /**
+     * The options of a transport that can only be set with this builder.
+     */
+    static final class Settings {
+        static final Settings DEFAULT = new Settings(null, null, null, null, null, null, DEFAULT_HTTP2_MAX_CONCURRENT_STREAMS, null);
+
+        @Nullable
+        final ByteArrayPool requestBufferPool;
+        @Nullable
+        final Executor deserializationExecutor;
+        @Nullable
+        final CloseableHttpClient classicClient;
+        @Nullable
+        final HedgingPolicy hedgingPolicy;
+        @Nullable
+        final Supplier<ConcurrencyLimiter> nodeConcurrencyLimiter;
+        @Nullable
+        final CloseableHttpAsyncClient http2Client;
+        final int http2MaxConcurrentStreams;
+        @Nullable
+        final TransportInstrumentation instrumentation;
+
+        Settings(
+            @Nullable ByteArrayPool requestBufferPool,
+            @Nullable Executor deserializationExecutor,
+            @Nullable CloseableHttpClient classicClient,
+            @Nullable HedgingPolicy hedgingPolicy,
+            @Nullable Supplier<ConcurrencyLimiter> nodeConcurrencyLimiter,
+            @Nullable CloseableHttpAsyncClient http2Client,
+            int http2MaxConcurrentStreams,
+            @Nullable TransportInstrumentation instrumentation
+        ) {
+            this.requestBufferPool = requestBufferPool;
+            this.deserializationExecutor = deserializationExecutor;
+            this.classicClient = classicClient;
+            this.hedgingPolicy = hedgingPolicy;
+            this.nodeConcurrencyLimiter = nodeConcurrencyLimiter;
+            this.http2Client = http2Client;
+            this.http2MaxConcurrentStreams = http2MaxConcurrentStreams;
+            this.instrumentation = instrumentation;
+        }
+    }
+
     /**
      * Callback used the default {@link RequestConfig} being set to the {@link CloseableHttpClient}
      * @see HttpClientBuilder#setDefaultRequestConfig
@@ -401,4 +698,33 @@ public class ApacheHttpClient5TransportBuilder {
         HttpAsyncClientBuilder customizeHttpClient(HttpAsyncClientBuilder httpClientBuilder);
     }
 
+    /**
+     * Callback used to customize the classic {@link CloseableHttpClient} instance used for synchronous requests when
+     * {@link #setClassicClientEnabled(boolean)} is enabled.
+     */
+    public interface ClassicHttpClientConfigCallback {
+        /**
+         * Allows to customize the {@link CloseableHttpClient} being created and used for synchronous requests.
+         * Commonly used to customize the default {@link CredentialsProvider} for authentication, without losing
+         * any other useful default value that the builder internally sets, like connection pooling.
+         *
+         * @param httpClientBuilder the {@link HttpClientBuilder} for customizing the client instance.
+         */
+        HttpClientBuilder customizeHttpClient(HttpClientBuilder httpClientBuilder);
+    }
+
+    /**
+     * Callback used to customize the {@link CloseableHttpAsyncClient} instance used for HTTP/2 requests when
+     * {@link #setHttp2Enabled(boolean)} is enabled.
+     */
+    public interface Http2ClientConfigCallback {
+        /**
+         * Allows to customize the {@link CloseableHttpAsyncClient} being created and used for HTTP/2 requests.
+         * Commonly used to customize the default {@link CredentialsProvider} for authentication, or the TLS strategy.
+         *
+         * @param httpClientBuilder the {@link H2AsyncClientBuilder} for customizing the client instance.
+         */
+        H2AsyncClientBuilder customizeHttpClient(H2AsyncClientBuilder httpClientBuilder);
+    }
+
 }
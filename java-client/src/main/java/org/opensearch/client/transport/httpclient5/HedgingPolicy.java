@@ -0,0 +1,204 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.opensearch.client.opensearch.core.CountRequest;
+import org.opensearch.client.opensearch.core.GetRequest;
+import org.opensearch.client.opensearch.core.MgetRequest;
+import org.opensearch.client.opensearch.core.SearchRequest;
+
+/**
+ * Decides when {@link ApacheHttpClient5Transport} sends a second copy of a request to another node because the first
+ * one is slow to answer. Whichever copy answers first is used and the other one is cancelled.
+ * <p>
+ * Only read-only requests are hedged: {@link SearchRequest}, {@link GetRequest}, {@link MgetRequest} and
+ * {@link CountRequest}. Searches that start a scroll are not hedged: each copy would open a scroll context, and the
+ * one of the cancelled copy would stay open until its keep-alive expires. The hedge is sent once the request has been waiting for longer than a fixed delay or, when a
+ * percentile is set, than this percentile of the latencies observed so far. The extra load is capped by a budget: each
+ * hedgeable request earns a fraction of a hedge, and a hedge is only sent if a whole one has been earned.
+ * <p>
+ * A policy keeps state and can be shared by several transports, which then share its budget and latencies.
+ * Synchronous requests sent with the classic client are never hedged.
+ */
+public final class HedgingPolicy {
+    static final int SAMPLES = 1024;
+    static final int MIN_SAMPLES = 100;
+    private static final int RECOMPUTE_INTERVAL = 128;
+    private static final long TOKEN = 1000;
+
+    private final long delayNanos;
+    private final double percentile;
+    private final long tokensPerRequest;
+    private final long maxTokens;
+
+    private final AtomicLong tokens;
+    private final AtomicLongArray samples = new AtomicLongArray(SAMPLES);
+    private final AtomicInteger sampleCount = new AtomicInteger();
+    private volatile long percentileNanos = -1;
+    private final AtomicLong hedgedRequests = new AtomicLong();
+    private final AtomicLong wonHedges = new AtomicLong();
+
+    private HedgingPolicy(Builder builder) {
+        this.delayNanos = builder.delay.toNanos();
+        this.percentile = builder.percentile;
+        this.tokensPerRequest = Math.round(builder.budget * TOKEN);
+        this.maxTokens = builder.maxBurst * TOKEN;
+        this.tokens = new AtomicLong(maxTokens);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Whether the request can be hedged.
+     */
+    public boolean isHedgeable(Object request) {
+        if (request instanceof SearchRequest) {
+            return ((SearchRequest) request).scroll() == null;
+        }
+        return request instanceof GetRequest || request instanceof MgetRequest || request instanceof CountRequest;
+    }
+
+    /**
+     * The number of hedges that were sent.
+     */
+    public long hedgedRequests() {
+        return hedgedRequests.get();
+    }
+
+    /**
+     * The number of hedges that answered before the request they were hedging.
+     */
+    public long wonHedges() {
+        return wonHedges.get();
+    }
+
+    /**
+     * How long to wait for a response before sending a hedge.
+     */
+    long delayNanos() {
+        final long observed = percentileNanos;
+        return Math.max(delayNanos, observed);
+    }
+
+    /**
+     * Called when a hedgeable request is sent, to earn a fraction of a hedge.
+     */
+    void onRequest() {
+        if (tokensPerRequest > 0) {
+            tokens.getAndUpdate(t -> Math.min(maxTokens, t + tokensPerRequest));
+        }
+    }
+
+    /**
+     * Spends a hedge from the budget, returning {@code false} if the budget is exhausted.
+     */
+    boolean tryAcquire() {
+        while (true) {
+            final long current = tokens.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - TOKEN)) {
+                hedgedRequests.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Called with the time it took to get the response of a hedgeable request.
+     */
+    void onResponse(long latencyNanos, boolean hedgeWon) {
+        if (hedgeWon) {
+            wonHedges.incrementAndGet();
+        }
+        if (percentile <= 0) {
+            return;
+        }
+        final int count = sampleCount.incrementAndGet();
+        samples.set((count - 1) & (SAMPLES - 1), latencyNanos);
+        if (count >= MIN_SAMPLES && count % RECOMPUTE_INTERVAL == MIN_SAMPLES % RECOMPUTE_INTERVAL) {
+            // Sorting a copy every few requests is cheaper than keeping the samples sorted
+            final long[] sorted = new long[Math.min(count, SAMPLES)];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            final int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            percentileNanos = sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "HedgingPolicy{delay=" + Duration.ofNanos(delayNanos) + ", percentile=" + percentile + "}";
+    }
+
+    public static class Builder {
+        private Duration delay = Duration.ofMillis(50);
+        private double percentile = 0;
+        private double budget = 0.05;
+        private int maxBurst = 10;
+
+        private Builder() {}
+
+        /**
+         * Sets how long to wait for a response before sending a hedge. When a percentile is set, this is the delay
+         * used until enough latencies have been observed, and the minimum delay afterwards. Defaults to 50ms.
+         */
+        public Builder delay(Duration delay) {
+            Objects.requireNonNull(delay, "delay must not be null");
+            if (delay.isNegative()) {
+                throw new IllegalArgumentException("delay must not be negative");
+            }
+            this.delay = delay;
+            return this;
+        }
+
+        /**
+         * Sends a hedge once a request has been waiting for longer than this percentile of the latencies of the last
+         * hedgeable requests, e.g. {@code 95}. Not set by default.
+         */
+        public Builder percentile(double percentile) {
+            if (percentile <= 0 || percentile >= 100) {
+                throw new IllegalArgumentException("percentile must be between 0 and 100 exclusive");
+            }
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * Sets the ratio of hedges to hedgeable requests that may be sent over time, and how many hedges can be sent
+         * in a row when the budget has not been used for a while. Defaults to {@code 0.05} and {@code 10}.
+         */
+        public Builder budget(double ratio, int maxBurst) {
+            if (ratio < 0 || ratio > 1) {
+                throw new IllegalArgumentException("ratio must be between 0 and 1");
+            }
+            if (maxBurst < 1) {
+                throw new IllegalArgumentException("maxBurst must be positive");
+            }
+            this.budget = ratio;
+            this.maxBurst = maxBurst;
+            return this;
+        }
+
+        public HedgingPolicy build() {
+            return new HedgingPolicy(this);
+        }
+    }
+}
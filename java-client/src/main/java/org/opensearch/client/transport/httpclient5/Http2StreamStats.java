@@ -0,0 +1,161 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * How much of the HTTP/2 connection to a node is used, when HTTP/2 is enabled with
+ * {@link ApacheHttpClient5TransportBuilder#setHttp2Enabled(boolean)}. A node whose streams are often all in use, or
+ * whose requests often overflow to HTTP/1.1, needs a higher maximum number of concurrent streams; one whose peak
+ * stays well below the maximum can do with a lower one.
+ *
+ * @see ApacheHttpClient5Transport#getHttp2StreamStats()
+ */
+public final class Http2StreamStats {
+    static final long INITIAL_FALLBACK_NANOS = TimeUnit.MINUTES.toNanos(1);
+    static final long MAX_FALLBACK_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private final int maxConcurrentStreams;
+    private final LongSupplier nanoTime;
+    private final AtomicInteger activeStreams = new AtomicInteger();
+    private final AtomicInteger peakStreams = new AtomicInteger();
+    private final AtomicLong overflowedRequests = new AtomicLong();
+    private volatile boolean http2Confirmed;
+    private volatile boolean http1Fallback;
+    private volatile long http1FallbackEndNanos;
+    private long fallbackNanos;
+
+    Http2StreamStats(int maxConcurrentStreams) {
+        this(maxConcurrentStreams, System::nanoTime);
+    }
+
+    Http2StreamStats(int maxConcurrentStreams, LongSupplier nanoTime) {
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Opens a stream if fewer than the maximum are open.
+     *
+     * @return whether the request can be sent over HTTP/2
+     */
+    boolean tryAcquire() {
+        if (isHttp1Fallback()) {
+            return false;
+        }
+        while (true) {
+            final int active = activeStreams.get();
+            if (active >= maxConcurrentStreams) {
+                overflowedRequests.incrementAndGet();
+                return false;
+            }
+            if (activeStreams.compareAndSet(active, active + 1)) {
+                peakStreams.accumulateAndGet(active + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Closes a stream opened with {@link #tryAcquire()}.
+     *
+     * @param answered whether the node answered over HTTP/2
+     */
+    void release(boolean answered) {
+        activeStreams.decrementAndGet();
+        if (answered) {
+            http2Confirmed = true;
+            http1Fallback = false;
+        }
+    }
+
+    /**
+     * Sends the requests to the node over HTTP/1.1 for a while, unless it already answered over HTTP/2. The node is
+     * then tried over HTTP/2 again, as it may have been upgraded, and each failed try doubles the time before the next
+     * one, up to an hour.
+     *
+     * @return whether the node falls back to HTTP/1.1
+     */
+    synchronized boolean fallBackToHttp1() {
+        if (http2Confirmed) {
+            return false;
+        }
+        final long now = nanoTime.getAsLong();
+        // Requests sent over HTTP/2 at the same time fail together, only the first one extends the fallback
+        if (false == http1Fallback || now - http1FallbackEndNanos >= 0) {
+            fallbackNanos = http1Fallback ? Math.min(MAX_FALLBACK_NANOS, fallbackNanos * 2) : INITIAL_FALLBACK_NANOS;
+            http1FallbackEndNanos = now + fallbackNanos;
+            http1Fallback = true;
+        }
+        return true;
+    }
+
+    /**
+     * The maximum number of concurrent streams on the connection to the node. The node may allow fewer, in which case
+     * the requests over its limit wait for a stream to be closed.
+     */
+    public int maxConcurrentStreams() {
+        return maxConcurrentStreams;
+    }
+
+    /**
+     * The number of requests currently sent over the connection to the node.
+     */
+    public int activeStreams() {
+        return activeStreams.get();
+    }
+
+    /**
+     * The highest number of requests sent at the same time over the connection to the node.
+     */
+    public int peakStreams() {
+        return peakStreams.get();
+    }
+
+    /**
+     * The ratio of the streams currently open to the maximum.
+     */
+    public double utilization() {
+        return (double) activeStreams.get() / maxConcurrentStreams;
+    }
+
+    /**
+     * The number of requests sent over HTTP/1.1 because all the streams were in use.
+     */
+    public long overflowedRequests() {
+        return overflowedRequests.get();
+    }
+
+    /**
+     * Whether the node recently did not accept HTTP/2 connections, in which case requests are sent to it over
+     * HTTP/1.1 until it is tried over HTTP/2 again.
+     */
+    public boolean isHttp1Fallback() {
+        return http1Fallback && nanoTime.getAsLong() - http1FallbackEndNanos < 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Http2StreamStats{activeStreams="
+            + activeStreams.get()
+            + ", peakStreams="
+            + peakStreams.get()
+            + ", maxConcurrentStreams="
+            + maxConcurrentStreams
+            + ", overflowedRequests="
+            + overflowedRequests.get()
+            + ", http1Fallback="
+            + isHttp1Fallback()
+            + "}";
+    }
+}
@@ -32,9 +32,15 @@
 
 package org.opensearch.client.transport.httpclient5;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
 import org.opensearch.client.transport.httpclient5.internal.HeapBufferedAsyncResponseConsumer;
+import org.opensearch.client.transport.httpclient5.internal.StreamingAsyncResponseConsumer;
 
 /**
  * Factory used to create instances of {@link AsyncResponseConsumer}. Each request retry needs its own instance of the
@@ -84,4 +90,71 @@ public interface HttpAsyncResponseConsumerFactory {
             return new HeapBufferedAsyncResponseConsumer(bufferLimit);
         }
     }
+
+    /**
+     * Factory used to create instances of {@link StreamingAsyncResponseConsumer}, which parse the response body while it
+     * is being received instead of buffering it entirely in heap memory first. This reduces the latency and the peak memory
+     * usage of large responses, such as search or scroll pages and {@code _cat} APIs.
+     * <p>
+     * Responses are deserialized on the provided executor, whose threads block while waiting for the body to arrive.
+     * By default, a shared cached pool of daemon threads is used.
+     */
+    class StreamingResponseConsumerFactory implements HttpAsyncResponseConsumerFactory {
+
+        // default buffer size is 64KB
+        static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+        /**
+         * Creates streaming consumers with a 64KB buffer, deserializing responses on the default executor.
+         */
+        public static final StreamingResponseConsumerFactory DEFAULT = new StreamingResponseConsumerFactory(DEFAULT_BUFFER_SIZE);
+
+        private final int bufferSize;
+        private final Executor executor;
+
+        /**
+         * Creates a {@link StreamingResponseConsumerFactory} instance with the given buffer size, deserializing responses
+         * on the default executor.
+         *
+         * @param bufferSizeBytes the size of the buffer between the network and the deserializer
+         */
+        public StreamingResponseConsumerFactory(int bufferSizeBytes) {
+            this(bufferSizeBytes, null);
+        }
+
+        /**
+         * Creates a {@link StreamingResponseConsumerFactory} instance with the given buffer size and executor.
+         *
+         * @param bufferSizeBytes the size of the buffer between the network and the deserializer
+         * @param executor the executor on which responses are deserialized, or {@code null} for the default one
+         */
+        public StreamingResponseConsumerFactory(int bufferSizeBytes, Executor executor) {
+            this.bufferSize = bufferSizeBytes;
+            this.executor = executor;
+        }
+
+        /**
+         * Creates the {@link AsyncResponseConsumer}, called once per request attempt.
+         */
+        @Override
+        public AsyncResponseConsumer<ClassicHttpResponse> createHttpAsyncResponseConsumer() {
+            return new StreamingAsyncResponseConsumer(bufferSize, executor == null ? DefaultExecutorHolder.EXECUTOR : executor);
+        }
+
+        /**
+         * Lazily creates the default executor, on first use of a factory that doesn't provide its own.
+         */
+        private static class DefaultExecutorHolder {
+            static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    final Thread thread = new Thread(r, "opensearch-java-response-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+    }
 }
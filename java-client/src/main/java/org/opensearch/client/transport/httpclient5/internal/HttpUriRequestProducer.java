@@ -8,6 +8,7 @@
 
 package org.opensearch.client.transport.httpclient5.internal;
 
+import javax.annotation.Nullable;
 import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpHost;
@@ -21,10 +22,13 @@ import org.apache.hc.core5.util.Args;
  */
 public class HttpUriRequestProducer extends BasicRequestProducer {
     private final HttpUriRequestBase request;
+    @Nullable
+    private final Runnable onRelease;
 
-    HttpUriRequestProducer(final HttpUriRequestBase request, final AsyncEntityProducer entityProducer) {
+    HttpUriRequestProducer(final HttpUriRequestBase request, final AsyncEntityProducer entityProducer, @Nullable final Runnable onRelease) {
         super(request, entityProducer);
         this.request = request;
+        this.onRelease = onRelease;
     }
 
     /**
@@ -42,6 +46,17 @@ public class HttpUriRequestProducer extends BasicRequestProducer {
      * @return new request producer
      */
     public static HttpUriRequestProducer create(final HttpUriRequestBase request, final HttpHost host) {
+        return create(request, host, null);
+    }
+
+    /**
+     * Create new request producer for {@link HttpUriRequestBase} instance and {@link HttpHost}
+     * @param request {@link HttpUriRequestBase} instance
+     * @param host {@link HttpHost} instance
+     * @param onRelease called once the exchange is over and the request entity is no longer read, may be {@code null}
+     * @return new request producer
+     */
+    public static HttpUriRequestProducer create(final HttpUriRequestBase request, final HttpHost host, @Nullable final Runnable onRelease) {
         Args.notNull(request, "Request");
         Args.notNull(host, "HttpHost");
 
@@ -52,11 +67,24 @@ public class HttpUriRequestProducer extends BasicRequestProducer {
         final HttpEntity entity = request.getEntity();
         AsyncEntityProducer entityProducer = null;
 
-        if (entity != null) {
+        if (entity instanceof JsonpHttpEntity) {
+            entityProducer = ((JsonpHttpEntity) entity).createAsyncEntityProducer();
+        } else if (entity != null) {
             entityProducer = new HttpEntityAsyncEntityProducer(entity);
         }
 
-        return new HttpUriRequestProducer(request, entityProducer);
+        return new HttpUriRequestProducer(request, entityProducer, onRelease);
+    }
+
+    @Override
+    public void releaseResources() {
+        try {
+            super.releaseResources();
+        } finally {
+            if (onRelease != null) {
+                onRelease.run();
+            }
+        }
     }
 
 }
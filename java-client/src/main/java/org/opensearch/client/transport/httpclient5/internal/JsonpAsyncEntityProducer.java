@@ -0,0 +1,209 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+import org.apache.hc.core5.util.Args;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.transport.TransportException;
+
+/**
+ * The {@link AsyncEntityProducer} that serializes a request body directly into the HTTP channel, using chunked
+ * transfer encoding and optionally gzip compression.
+ * <p>
+ * Items are serialized one at a time into a small reusable buffer, and the next item is only serialized once the
+ * channel has accepted the buffered bytes. Memory usage is therefore bounded by the size of the largest item
+ * (e.g. a single bulk document) rather than by the size of the whole body. The producer is repeatable: the
+ * body is serialized again if the request is retried on another node.
+ * <p>
+ * Serialization failures are reported as a {@link TransportException}, so that the transport can tell them apart
+ * from network failures.
+ */
+public class JsonpAsyncEntityProducer implements AsyncEntityProducer {
+    private static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final Object value;
+    private final JsonpMapper mapper;
+    private final ContentType contentType;
+    private final boolean compressed;
+    private final int chunkSize;
+    private final ChunkBuffer buffer;
+
+    private JsonpBodySerializer serializer;
+    private OutputStream out;
+    private int position;
+    private boolean serialized;
+    private boolean ended;
+
+    /**
+     * Create new async producer for a request body
+     * @param value the request body, serialized with {@code mapper}
+     * @param mapper the mapper
+     * @param contentType the content type of the body
+     * @param compressed whether the body is gzip compressed
+     * @param chunkSize the amount of serialized bytes after which they are written to the channel
+     */
+    public JsonpAsyncEntityProducer(Object value, JsonpMapper mapper, ContentType contentType, boolean compressed, int chunkSize) {
+        this.value = Args.notNull(value, "Value");
+        this.mapper = Args.notNull(mapper, "Mapper");
+        this.contentType = contentType;
+        this.compressed = compressed;
+        this.chunkSize = Args.positive(chunkSize, "Chunk size");
+        this.buffer = new ChunkBuffer(chunkSize);
+    }
+
+    /**
+     * Create new async producer for a request body with default chunk size (8192 bytes)
+     * @param value the request body, serialized with {@code mapper}
+     * @param mapper the mapper
+     * @param contentType the content type of the body
+     * @param compressed whether the body is gzip compressed
+     */
+    public JsonpAsyncEntityProducer(Object value, JsonpMapper mapper, ContentType contentType, boolean compressed) {
+        this(value, mapper, contentType, compressed, DEFAULT_CHUNK_SIZE);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType == null ? null : contentType.toString();
+    }
+
+    /**
+     * The length of the body is not known until it has been fully serialized.
+     */
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public int available() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return compressed ? "gzip" : null;
+    }
+
+    @Override
+    public boolean isChunked() {
+        return true;
+    }
+
+    @Override
+    public Set<String> getTrailerNames() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Writes the pending bytes to the channel, serializing more items when they have all been written, until the
+     * channel stops accepting data or the body is complete.
+     *
+     * @param channel the data channel capable to accepting more data.
+     */
+    @Override
+    public void produce(final DataStreamChannel channel) throws IOException {
+        if (ended) {
+            return;
+        }
+        if (serializer == null) {
+            start();
+        }
+
+        while (true) {
+            if (position < buffer.size()) {
+                position += channel.write(buffer.unread(position));
+                if (position < buffer.size()) {
+                    // The channel is full: wait to be called again
+                    return;
+                }
+            }
+
+            buffer.reset();
+            position = 0;
+
+            if (serialized) {
+                ended = true;
+                channel.endStream();
+                return;
+            }
+            fill();
+        }
+    }
+
+    @Override
+    public void failed(final Exception cause) {
+        releaseResources();
+    }
+
+    /**
+     * Resets the producer so that the body can be produced again.
+     */
+    @Override
+    public void releaseResources() {
+        serializer = null;
+        out = null;
+        position = 0;
+        serialized = false;
+        ended = false;
+        buffer.reset();
+    }
+
+    private void start() throws IOException {
+        serializer = new JsonpBodySerializer(value, mapper);
+        out = compressed ? new GZIPOutputStream(buffer, chunkSize) : buffer;
+    }
+
+    /**
+     * Serializes items until at least a chunk of data is available or the body is complete.
+     */
+    private void fill() throws IOException {
+        try {
+            while (buffer.size() < chunkSize) {
+                if (!serializer.writeNext(out)) {
+                    if (compressed) {
+                        ((GZIPOutputStream) out).finish();
+                    }
+                    serialized = true;
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new TransportException("Failed to serialize the request body", e);
+        }
+    }
+
+    /**
+     * A {@link ByteArrayOutputStream} whose content can be read without copying.
+     */
+    private static class ChunkBuffer extends ByteArrayOutputStream {
+        ChunkBuffer(int size) {
+            super(size);
+        }
+
+        ByteBuffer unread(int position) {
+            return ByteBuffer.wrap(buf, position, count - position);
+        }
+    }
+}
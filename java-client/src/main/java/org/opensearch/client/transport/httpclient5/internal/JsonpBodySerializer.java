@@ -0,0 +1,127 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5.internal;
+
+import jakarta.json.stream.JsonGenerator;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.NdJsonpSerializable;
+import org.opensearch.client.json.RawJson;
+
+/**
+ * Serializes a request body one item at a time, so that callers can interleave serialization with
+ * writing to the network. A {@link NdJsonpSerializable} value is flattened into its items, each one
+ * followed by a newline. Any other value is serialized as a single JSON item. {@link RawJson} items are written
+ * as they are.
+ */
+class JsonpBodySerializer {
+    private final JsonpMapper mapper;
+    private final boolean ndJson;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+
+    JsonpBodySerializer(Object value, JsonpMapper mapper) {
+        this.mapper = mapper;
+        this.ndJson = value instanceof NdJsonpSerializable;
+        if (ndJson) {
+            frames.push(new Frame(value, ((NdJsonpSerializable) value)._serializables()));
+        } else {
+            frames.push(new Frame(null, Collections.singletonList(value).iterator()));
+        }
+    }
+
+    /**
+     * Writes the next item to {@code out}.
+     *
+     * @return {@code false} if there are no more items to write.
+     */
+    boolean writeNext(OutputStream out) throws IOException {
+        while (!frames.isEmpty()) {
+            Frame frame = frames.peek();
+            if (!frame.items.hasNext()) {
+                frames.pop();
+                continue;
+            }
+
+            Object item = frame.items.next();
+            if (item instanceof NdJsonpSerializable && item != frame.owner) { // do not recurse on the item itself
+                frames.push(new Frame(item, ((NdJsonpSerializable) item)._serializables()));
+                continue;
+            }
+
+            RawJson raw = RawJson.rawBody(item);
+            if (raw != null) {
+                raw.writeTo(out);
+                if (ndJson) {
+                    out.write('\n');
+                }
+                return true;
+            }
+
+            // The generator flushes and closes its target: shield the caller's stream from it
+            JsonGenerator generator = mapper.jsonProvider().createGenerator(new NonClosingOutputStream(out));
+            mapper.serialize(item, generator);
+            generator.close();
+            if (ndJson) {
+                out.write('\n');
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Writes all remaining items to {@code out}.
+     */
+    void writeAll(OutputStream out) throws IOException {
+        while (writeNext(out)) {
+            // keep going
+        }
+    }
+
+    private static class Frame {
+        final Object owner;
+        final Iterator<?> items;
+
+        Frame(Object owner, Iterator<?> items) {
+            this.owner = owner;
+            this.items = items;
+        }
+    }
+
+    private static class NonClosingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+
+        NonClosingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+            // Flushing is left to the caller, to avoid sending one packet per item
+        }
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.util.Args;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.transport.TransportException;
+
+/**
+ * A request entity that is serialized on demand with a {@link JsonpMapper} instead of being buffered upfront.
+ * Its length is unknown, so it is always sent with chunked transfer encoding.
+ * <p>
+ * {@link HttpUriRequestProducer} sends it with a {@link JsonpAsyncEntityProducer}, which serializes it
+ * incrementally into the HTTP channel. The blocking {@link #writeTo(OutputStream)} method streams it to the
+ * connection of the classic client, and {@link #getContent()} is only used by code paths that need the whole
+ * content, such as request logging.
+ */
+public class JsonpHttpEntity extends AbstractHttpEntity {
+    private final Object value;
+    private final JsonpMapper mapper;
+    private final ContentType contentType;
+    private final boolean compressed;
+
+    /**
+     * Create new entity for a request body
+     * @param value the request body, serialized with {@code mapper}
+     * @param mapper the mapper
+     * @param contentType the content type of the body
+     * @param compressed whether the body is gzip compressed
+     */
+    public JsonpHttpEntity(Object value, JsonpMapper mapper, ContentType contentType, boolean compressed) {
+        super(contentType, compressed ? "gzip" : null, true);
+        this.value = Args.notNull(value, "Value");
+        this.mapper = Args.notNull(mapper, "Mapper");
+        this.contentType = contentType;
+        this.compressed = compressed;
+    }
+
+    /**
+     * Creates the async producer that streams this entity into the HTTP channel.
+     */
+    public AsyncEntityProducer createAsyncEntityProducer() {
+        return new JsonpAsyncEntityProducer(value, mapper, contentType, compressed);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeTo(baos);
+        return new ByteArrayInputStream(baos.toByteArray());
+    }
+
+    @Override
+    public void writeTo(final OutputStream outStream) throws IOException {
+        Args.notNull(outStream, "Output stream");
+        try {
+            if (compressed) {
+                final GZIPOutputStream gzip = new GZIPOutputStream(outStream);
+                new JsonpBodySerializer(value, mapper).writeAll(gzip);
+                gzip.finish();
+            } else {
+                new JsonpBodySerializer(value, mapper).writeAll(outStream);
+            }
+        } catch (RuntimeException e) {
+            // Same as the asynchronous producer, so that the transport doesn't blame the node
+            throw new TransportException("Failed to serialize the request body", e);
+        }
+        outStream.flush();
+    }
+
+    @Override
+    public void close() {}
+}
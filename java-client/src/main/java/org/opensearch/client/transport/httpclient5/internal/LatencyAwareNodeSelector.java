@@ -0,0 +1,174 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5.internal;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+import org.apache.hc.core5.http.HttpHost;
+
+/**
+ * A {@link RankingNodeSelector} that sends requests to the nodes that respond the fastest.
+ * <p>
+ * Each node is given a cost, which is its peak exponentially weighted moving average (EWMA) latency multiplied by
+ * the number of requests in flight to it, plus one. The average rises immediately to any latency higher than itself
+ * and otherwise decays towards recent observations over the configured decay time, so that a node that slows down
+ * is quickly avoided. It also decays towards zero while no response is received, so that nodes that were avoided
+ * are eventually tried again.
+ * <p>
+ * For each request, two of the selected nodes are picked at random and the one with the lowest cost is tried first
+ * (the "power of two choices"). This avoids sending every request to the same node when several nodes have
+ * similar costs. The other nodes are kept in round-robin order for retries.
+ * <p>
+ * Filtering nodes is delegated to another {@link NodeSelector}, {@link NodeSelector#ANY} by default.
+ */
+public class LatencyAwareNodeSelector implements RankingNodeSelector {
+    /**
+     * The default time over which latency observations decay.
+     */
+    public static final Duration DEFAULT_DECAY_TIME = Duration.ofSeconds(10);
+
+    /**
+     * Failed attempts are accounted as having taken at least this long.
+     */
+    static final long FAILURE_PENALTY_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final NodeSelector filter;
+    private final double decayNanos;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<HttpHost, NodeStats> stats = new ConcurrentHashMap<>();
+
+    public LatencyAwareNodeSelector() {
+        this(NodeSelector.ANY);
+    }
+
+    public LatencyAwareNodeSelector(NodeSelector filter) {
+        this(filter, DEFAULT_DECAY_TIME);
+    }
+
+    public LatencyAwareNodeSelector(NodeSelector filter, Duration decayTime) {
+        this(filter, decayTime, System::nanoTime);
+    }
+
+    LatencyAwareNodeSelector(NodeSelector filter, Duration decayTime, LongSupplier nanoClock) {
+        this.filter = Objects.requireNonNull(filter, "filter cannot be null");
+        if (decayTime.isNegative() || decayTime.isZero()) {
+            throw new IllegalArgumentException("decayTime must be positive");
+        }
+        this.decayNanos = decayTime.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public void select(Iterable<Node> nodes) {
+        filter.select(nodes);
+    }
+
+    @Override
+    public boolean isStateless() {
+        // Ranking happens separately for each request, only the filtering can be reused
+        return filter.isStateless();
+    }
+
+    @Override
+    public void rank(List<Node> nodes) {
+        final int size = nodes.size();
+        if (size < 2) {
+            return;
+        }
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        final long now = nanoClock.getAsLong();
+        final int best = cost(nodes.get(second), now) < cost(nodes.get(first), now) ? second : first;
+        if (best > 0) {
+            // Move the best node to the front, keeping the others in order
+            Collections.rotate(nodes.subList(0, best + 1), 1);
+        }
+    }
+
+    @Override
+    public void onAttemptStarted(Node node) {
+        statsFor(node).started();
+    }
+
+    @Override
+    public void onAttemptCompleted(Node node, long durationNanos, boolean success) {
+        statsFor(node).completed(success ? durationNanos : Math.max(durationNanos, FAILURE_PENALTY_NANOS), nanoClock.getAsLong());
+    }
+
+    @Override
+    public void onAttemptCancelled(Node node) {
+        statsFor(node).cancelled();
+    }
+
+    /**
+     * The current cost of a node, lower is better. Package private for testing.
+     */
+    double cost(Node node, long now) {
+        final NodeStats nodeStats = stats.get(node.getHost());
+        return nodeStats == null ? 1 : nodeStats.cost(now);
+    }
+
+    private NodeStats statsFor(Node node) {
+        return stats.computeIfAbsent(node.getHost(), host -> new NodeStats());
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyAwareNodeSelector{filter=" + filter + "}";
+    }
+
+    private final class NodeStats {
+        private int inFlight;
+        private double ewma;
+        private long stamp = nanoClock.getAsLong();
+
+        synchronized void started() {
+            inFlight++;
+        }
+
+        synchronized void cancelled() {
+            inFlight = Math.max(0, inFlight - 1);
+        }
+
+        synchronized void completed(long latencyNanos, long now) {
+            inFlight = Math.max(0, inFlight - 1);
+            if (latencyNanos > ewma) {
+                ewma = latencyNanos;
+            } else {
+                ewma = decayed(now) + latencyNanos * (1 - weight(now));
+            }
+            stamp = now;
+        }
+
+        synchronized double cost(long now) {
+            // One nanosecond is added so that in-flight requests count even before any latency was observed
+            return (decayed(now) + 1) * (inFlight + 1);
+        }
+
+        private double decayed(long now) {
+            return ewma * weight(now);
+        }
+
+        private double weight(long now) {
+            return Math.exp(-Math.max(0, now - stamp) / decayNanos);
+        }
+    }
+}
@@ -255,6 +255,14 @@ public class Node {
             return roles.contains("search");
         }
 
+        /**
+         * Returns whether the node is a coordinating only node, which doesn't hold data, run ingest pipelines or
+         * take part in cluster management, and only routes requests and reduces results.
+         */
+        public boolean isCoordinatingOnly() {
+            return false == isClusterManagerEligible() && false == isData() && false == isIngest() && false == isSearch();
+        }
+
         /**
          * Convert roles to string representation
          */
@@ -63,6 +63,15 @@ public interface NodeSelector {
      * Iterable doesn't allow any reordering.
      */
 
+    /**
+     * Whether {@link #select(Iterable)} only depends on the nodes it is given, so that it always removes the same
+     * nodes from the same list. The transport then reuses the selected nodes until the nodes or the denylist
+     * change, instead of calling this selector for each request. Defaults to {@code false}.
+     */
+    default boolean isStateless() {
+        return false;
+    }
+
     /**
      * Selector that matches any node.
      */
@@ -72,6 +81,11 @@ public interface NodeSelector {
             // Intentionally does nothing
         }
 
+        @Override
+        public boolean isStateless() {
+            return true;
+        }
+
         @Override
         public String toString() {
             return "ANY";
@@ -97,9 +111,50 @@ public interface NodeSelector {
             }
         }
 
+        @Override
+        public boolean isStateless() {
+            return true;
+        }
+
         @Override
         public String toString() {
             return "SKIP_DEDICATED_CLUSTER_MANAGERS";
         }
     };
+
+    /**
+     * Selector that prefers coordinating only nodes: if any of the nodes is known to be coordinating only (see
+     * {@link Node.Roles#isCoordinatingOnly()}), the other nodes are removed, otherwise all the nodes are kept.
+     * Nodes only have roles when they were sniffed.
+     */
+    NodeSelector PREFER_COORDINATING_ONLY = new NodeSelector() {
+        @Override
+        public void select(Iterable<Node> nodes) {
+            boolean foundCoordinatingOnly = false;
+            for (Node node : nodes) {
+                if (node.getRoles() != null && node.getRoles().isCoordinatingOnly()) {
+                    foundCoordinatingOnly = true;
+                    break;
+                }
+            }
+            if (foundCoordinatingOnly) {
+                for (Iterator<Node> itr = nodes.iterator(); itr.hasNext();) {
+                    Node node = itr.next();
+                    if (node.getRoles() == null || false == node.getRoles().isCoordinatingOnly()) {
+                        itr.remove();
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean isStateless() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "PREFER_COORDINATING_ONLY";
+        }
+    };
 }
@@ -0,0 +1,51 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5.internal;
+
+import java.util.List;
+
+/**
+ * A {@link NodeSelector} that also decides in which order the selected nodes are tried, based on what it learns
+ * from the requests sent to them.
+ * <p>
+ * The {@link org.opensearch.client.transport.httpclient5.ApacheHttpClient5Transport} notifies the selector when an
+ * attempt starts on a node and when it ends. Each call to {@link #onAttemptStarted(Node)} is followed by exactly
+ * one call to either {@link #onAttemptCompleted(Node, long, boolean)} or {@link #onAttemptCancelled(Node)}.
+ * These methods are called concurrently from the I/O threads and must be thread-safe and cheap.
+ */
+public interface RankingNodeSelector extends NodeSelector {
+    /**
+     * Reorders the living nodes selected for a request. The first node is tried first, the following ones are
+     * used for retries. The list has already been rotated in round-robin order, and implementations should
+     * preserve that order for the nodes they don't move, so that retries remain spread across the cluster.
+     *
+     * @param nodes the selected living nodes, never empty
+     */
+    void rank(List<Node> nodes);
+
+    /**
+     * Called when a request attempt is about to be sent to a node.
+     */
+    void onAttemptStarted(Node node);
+
+    /**
+     * Called when a request attempt to a node got a response or failed.
+     *
+     * @param node the node the attempt was sent to
+     * @param durationNanos the time elapsed since the attempt started, in nanoseconds
+     * @param success {@code false} if the node failed to respond or responded with a status that caused it to be
+     *                marked dead
+     */
+    void onAttemptCompleted(Node node, long durationNanos, boolean success);
+
+    /**
+     * Called when a request attempt was cancelled or abandoned for a reason that doesn't relate to the node.
+     */
+    void onAttemptCancelled(Node node);
+}
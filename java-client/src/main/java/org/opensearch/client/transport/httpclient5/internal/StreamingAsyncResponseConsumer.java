@@ -0,0 +1,164 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5.internal;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.nio.support.classic.ContentInputStream;
+import org.apache.hc.core5.http.nio.support.classic.SharedInputBuffer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.Args;
+
+/**
+ * An {@link AsyncResponseConsumer} that hands the response over as soon as its headers have been received, with an
+ * entity that streams the body while it is still being received. Deserialization therefore overlaps with the network
+ * transfer, and memory usage is bounded by the buffer size instead of the size of the response.
+ * <p>
+ * The I/O reactor stops reading from the connection when the buffer is full, and resumes once the application
+ * has read from it. As reading from the entity blocks until data is available, the response is handed over on the
+ * provided {@link Executor} and never on the I/O reactor thread, which would otherwise deadlock.
+ */
+public class StreamingAsyncResponseConsumer implements AsyncResponseConsumer<ClassicHttpResponse> {
+    private final int bufferSize;
+    private final Executor executor;
+
+    private volatile SharedInputBuffer buffer;
+    private volatile Exception failure;
+    private volatile boolean completed;
+
+    /**
+     * Creates a new instance of this consumer.
+     *
+     * @param bufferSize the size of the buffer between the I/O reactor and the application. Must be greater than 0.
+     * @param executor the executor on which the response is handed over and its body read.
+     */
+    public StreamingAsyncResponseConsumer(int bufferSize, Executor executor) {
+        this.bufferSize = Args.positive(bufferSize, "Buffer size");
+        this.executor = Args.notNull(executor, "Executor");
+    }
+
+    /**
+     * Get the size of the buffer.
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    @Override
+    public void consumeResponse(
+        final HttpResponse response,
+        final EntityDetails entityDetails,
+        final HttpContext context,
+        final FutureCallback<ClassicHttpResponse> resultCallback
+    ) throws HttpException, IOException {
+        final ClassicHttpResponse classicResponse = new BasicClassicHttpResponse(response.getCode());
+        classicResponse.setVersion(response.getVersion());
+        classicResponse.setHeaders(response.getHeaders());
+        classicResponse.setReasonPhrase(response.getReasonPhrase());
+        if (response.getLocale() != null) {
+            classicResponse.setLocale(response.getLocale());
+        }
+
+        if (entityDetails != null) {
+            buffer = new SharedInputBuffer(bufferSize);
+            classicResponse.setEntity(
+                new InputStreamEntity(
+                    new FailureAwareInputStream(new ContentInputStream(buffer)),
+                    entityDetails.getContentLength(),
+                    ContentType.parseLenient(entityDetails.getContentType()),
+                    entityDetails.getContentEncoding()
+                )
+            );
+        }
+
+        try {
+            executor.execute(() -> resultCallback.completed(classicResponse));
+        } catch (final RejectedExecutionException ex) {
+            resultCallback.failed(ex);
+        }
+    }
+
+    @Override
+    public void informationResponse(final HttpResponse response, final HttpContext context) throws HttpException, IOException {}
+
+    @Override
+    public void updateCapacity(final CapacityChannel capacityChannel) throws IOException {
+        buffer.updateCapacity(capacityChannel);
+    }
+
+    @Override
+    public void consume(final ByteBuffer src) throws IOException {
+        buffer.fill(src);
+    }
+
+    @Override
+    public void streamEnd(final List<? extends Header> trailers) throws HttpException, IOException {
+        completed = true;
+        buffer.markEndStream();
+    }
+
+    @Override
+    public void failed(final Exception cause) {
+        failure = cause;
+        releaseResources();
+    }
+
+    @Override
+    public void releaseResources() {
+        final SharedInputBuffer buffer = this.buffer;
+        if (buffer != null && !completed) {
+            // Unblocks the reader, which then gets the failure (if any) or an early end of stream.
+            // Once the body has been fully received, the remaining data stays readable.
+            buffer.abort();
+        }
+    }
+
+    /**
+     * Reports the failure of the exchange to the reader instead of a truncated body.
+     */
+    private class FailureAwareInputStream extends FilterInputStream {
+        FailureAwareInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return checkFailure(super.read());
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return checkFailure(super.read(b, off, len));
+        }
+
+        private int checkFailure(int result) throws IOException {
+            final Exception cause = failure;
+            if (result == -1 && cause != null) {
+                throw (cause instanceof IOException) ? (IOException) cause : new IOException(cause);
+            }
+            return result;
+        }
+    }
+}
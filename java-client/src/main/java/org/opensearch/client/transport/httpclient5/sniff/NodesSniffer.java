@@ -0,0 +1,25 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5.sniff;
+
+import java.io.IOException;
+import java.util.List;
+import org.opensearch.client.transport.httpclient5.internal.Node;
+
+/**
+ * Responsible for sniffing the http hosts
+ */
+public interface NodesSniffer {
+    /**
+     * Returns the sniffed OpenSearch nodes.
+     *
+     * @throws IOException if the nodes could not be retrieved
+     */
+    List<Node> sniff() throws IOException;
+}
@@ -0,0 +1,245 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5.sniff;
+
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParser.Event;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hc.core5.http.HttpHost;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.JsonpUtils;
+import org.opensearch.client.opensearch.generic.Body;
+import org.opensearch.client.opensearch.generic.OpenSearchGenericClient;
+import org.opensearch.client.opensearch.generic.Requests;
+import org.opensearch.client.opensearch.generic.Response;
+import org.opensearch.client.transport.OpenSearchTransport;
+import org.opensearch.client.transport.TransportException;
+import org.opensearch.client.transport.httpclient5.internal.Node;
+
+/**
+ * Class responsible for sniffing the http hosts from OpenSearch through the nodes info api and returning them back.
+ * Compatible with OpenSearch 1.x and 2.x.
+ * <p>
+ * The response is read without the typed nodes info API model, so that unknown roles or missing properties don't
+ * prevent nodes from being discovered. Nodes that don't have http enabled are skipped.
+ */
+public final class OpenSearchNodesSniffer implements NodesSniffer {
+    private static final Log logger = LogFactory.getLog(OpenSearchNodesSniffer.class);
+
+    /**
+     * The default timeout of the sniff request, in milliseconds.
+     */
+    public static final long DEFAULT_SNIFF_REQUEST_TIMEOUT = TimeUnit.SECONDS.toMillis(1);
+
+    private final OpenSearchGenericClient client;
+    private final JsonpMapper mapper;
+    private final Map<String, String> parameters;
+    private final Scheme scheme;
+
+    /**
+     * Creates a new instance of the OpenSearch sniffer. It will use the provided transport to fetch the hosts,
+     * through the nodes info api, the default sniff request timeout value {@link #DEFAULT_SNIFF_REQUEST_TIMEOUT}
+     * and http as the scheme for all the hosts.
+     *
+     * @param transport transport used to fetch the hosts from OpenSearch
+     */
+    public OpenSearchNodesSniffer(OpenSearchTransport transport) {
+        this(transport, DEFAULT_SNIFF_REQUEST_TIMEOUT, Scheme.HTTP);
+    }
+
+    /**
+     * Creates a new instance of the OpenSearch sniffer. It will use the provided transport to fetch the hosts
+     * through the nodes info api, the provided sniff request timeout value and scheme.
+     *
+     * @param transport transport used to fetch the hosts from OpenSearch
+     * @param sniffRequestTimeoutMillis the sniff request timeout (in milliseconds) to be passed in as a query string
+     *                                  parameter to OpenSearch. Allows to halt the request without any failure, as
+     *                                  only the nodes that have responded within this timeout will be returned.
+     * @param scheme the scheme to associate sniffed nodes with (as it is not returned by OpenSearch)
+     */
+    public OpenSearchNodesSniffer(OpenSearchTransport transport, long sniffRequestTimeoutMillis, Scheme scheme) {
+        Objects.requireNonNull(transport, "transport cannot be null");
+        if (sniffRequestTimeoutMillis < 0) {
+            throw new IllegalArgumentException("sniffRequestTimeoutMillis must be greater than 0");
+        }
+        this.client = new OpenSearchGenericClient(transport).withClientOptions(OpenSearchGenericClient.ClientOptions.throwOnHttpErrors());
+        this.mapper = transport.jsonpMapper();
+        this.parameters = Collections.singletonMap("timeout", sniffRequestTimeoutMillis + "ms");
+        this.scheme = Objects.requireNonNull(scheme, "scheme cannot be null");
+    }
+
+    /**
+     * Calls the nodes info api and returns a list of http hosts extracted from it.
+     */
+    @Override
+    public List<Node> sniff() throws IOException {
+        try (
+            Response response = client.execute(Requests.builder().method("GET").endpoint("/_nodes/http").query(parameters).build())
+        ) {
+            final Optional<Body> body = response.getBody();
+            if (body.isPresent() == false) {
+                throw new TransportException("Expecting a response body, but none was sent");
+            }
+            try (InputStream in = body.get().body()) {
+                return readNodes(in, mapper, scheme);
+            }
+        }
+    }
+
+    /**
+     * Reads the nodes from a nodes info api response. Package private for testing.
+     */
+    static List<Node> readNodes(InputStream in, JsonpMapper mapper, Scheme scheme) {
+        final List<Node> nodes = new ArrayList<>();
+        try (JsonParser parser = mapper.jsonProvider().createParser(in)) {
+            JsonpUtils.expectNextEvent(parser, Event.START_OBJECT);
+            while (parser.next() == Event.KEY_NAME) {
+                if ("nodes".equals(parser.getString())) {
+                    JsonpUtils.expectNextEvent(parser, Event.START_OBJECT);
+                    while (parser.next() == Event.KEY_NAME) {
+                        final String nodeId = parser.getString();
+                        JsonpUtils.expectNextEvent(parser, Event.START_OBJECT);
+                        final Node node = readNode(nodeId, parser, scheme);
+                        if (node != null) {
+                            nodes.add(node);
+                        }
+                    }
+                } else {
+                    JsonpUtils.skipValue(parser);
+                }
+            }
+        }
+        return nodes;
+    }
+
+    @Nullable
+    private static Node readNode(String nodeId, JsonParser parser, Scheme scheme) {
+        HttpHost publishedHost = null;
+        /*
+         * We sniff the bound hosts so we can look up the node based on any
+         * address on which it is listening. This is useful in OpenSearch's
+         * test framework where we sometimes publish ipv6 addresses but the
+         * tests contact the node on ipv4.
+         */
+        Set<HttpHost> boundHosts = new HashSet<>();
+        String name = null;
+        String version = null;
+        Set<String> roles = null;
+        Map<String, List<String>> attributes = null;
+
+        Event event;
+        while ((event = parser.next()) == Event.KEY_NAME) {
+            final String fieldName = parser.getString();
+            event = parser.next();
+            if ("http".equals(fieldName) && event == Event.START_OBJECT) {
+                while (parser.next() == Event.KEY_NAME) {
+                    final String httpFieldName = parser.getString();
+                    event = parser.next();
+                    if ("publish_address".equals(httpFieldName) && event == Event.VALUE_STRING) {
+                        publishedHost = readPublishAddress(parser.getString(), scheme);
+                    } else if ("bound_address".equals(httpFieldName) && event == Event.START_ARRAY) {
+                        while (parser.next() == Event.VALUE_STRING) {
+                            URI boundAddressAsURI = URI.create(scheme + "://" + parser.getString());
+                            boundHosts.add(new HttpHost(boundAddressAsURI.getScheme(), boundAddressAsURI.getHost(), boundAddressAsURI.getPort()));
+                        }
+                    } else {
+                        JsonpUtils.skipValue(parser, event);
+                    }
+                }
+            } else if ("name".equals(fieldName) && event == Event.VALUE_STRING) {
+                name = parser.getString();
+            } else if ("version".equals(fieldName) && event == Event.VALUE_STRING) {
+                version = parser.getString();
+            } else if ("roles".equals(fieldName) && event == Event.START_ARRAY) {
+                roles = new HashSet<>();
+                while (parser.next() == Event.VALUE_STRING) {
+                    roles.add(parser.getString());
+                }
+            } else if ("attributes".equals(fieldName) && event == Event.START_OBJECT) {
+                attributes = new HashMap<>();
+                while (parser.next() == Event.KEY_NAME) {
+                    final String key = parser.getString();
+                    event = parser.next();
+                    if (event == Event.VALUE_STRING) {
+                        attributes.put(key, Collections.singletonList(parser.getString()));
+                    } else {
+                        JsonpUtils.skipValue(parser, event);
+                    }
+                }
+            } else {
+                JsonpUtils.skipValue(parser, event);
+            }
+        }
+
+        // http section is not present if http is not enabled on the node, ignore such nodes
+        if (publishedHost == null) {
+            logger.debug("skipping node [" + nodeId + "] with http disabled");
+            return null;
+        }
+
+        boundHosts.add(publishedHost);
+        return new Node(
+            publishedHost,
+            boundHosts,
+            name,
+            version,
+            roles == null ? null : new Node.Roles(roles),
+            attributes == null ? null : Collections.unmodifiableMap(attributes)
+        );
+    }
+
+    private static HttpHost readPublishAddress(String address, Scheme scheme) {
+        final String host;
+        final URI publishAddressAsURI;
+        // The address is published as "hostname/ip:port" when the node was configured with a hostname
+        if (address.contains("/")) {
+            final String[] cnameAndURI = address.split("/", 2);
+            publishAddressAsURI = URI.create(scheme + "://" + cnameAndURI[1]);
+            host = cnameAndURI[0];
+        } else {
+            publishAddressAsURI = URI.create(scheme + "://" + address);
+            host = publishAddressAsURI.getHost();
+        }
+        return new HttpHost(publishAddressAsURI.getScheme(), host, publishAddressAsURI.getPort());
+    }
+
+    /**
+     * The scheme to associate sniffed nodes with.
+     */
+    public enum Scheme {
+        HTTP("http"),
+        HTTPS("https");
+
+        private final String name;
+
+        Scheme(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5.sniff;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.opensearch.client.transport.httpclient5.ApacheHttpClient5Transport;
+import org.opensearch.client.transport.httpclient5.internal.Node;
+
+/**
+ * {@link ApacheHttpClient5Transport.FailureListener} implementation that allows to perform sniffing on failure.
+ * Gets notified whenever a failure happens and uses a {@link Sniffer} instance to manually reload hosts and set
+ * them back to the transport. It must be set to the transport builder with
+ * {@link org.opensearch.client.transport.httpclient5.ApacheHttpClient5TransportBuilder#setFailureListener}, and
+ * {@link #setSniffer(Sniffer)} must be called once the sniffer is created.
+ */
+public class SniffOnFailureListener extends ApacheHttpClient5Transport.FailureListener {
+    private volatile Sniffer sniffer;
+    private final AtomicBoolean set;
+
+    /**
+     * Creates a {@link SniffOnFailureListener} instance.
+     */
+    public SniffOnFailureListener() {
+        this.set = new AtomicBoolean(false);
+    }
+
+    /**
+     * Sets the {@link Sniffer} instance used to perform sniffing.
+     *
+     * @throws IllegalStateException if the sniffer was already set, as it can only be set once
+     */
+    public void setSniffer(Sniffer sniffer) {
+        Objects.requireNonNull(sniffer, "sniffer must not be null");
+        if (set.compareAndSet(false, true)) {
+            this.sniffer = sniffer;
+        } else {
+            throw new IllegalStateException("sniffer can only be set once");
+        }
+    }
+
+    @Override
+    public void onFailure(Node node) {
+        if (sniffer == null) {
+            throw new IllegalStateException("sniffer was not set, unable to sniff on failure");
+        }
+        sniffer.sniffOnFailure();
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5.sniff;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.opensearch.client.transport.httpclient5.ApacheHttpClient5Transport;
+import org.opensearch.client.transport.httpclient5.internal.Node;
+
+/**
+ * Class responsible for sniffing nodes from some source (default is OpenSearch itself) and setting them to a
+ * provided instance of {@link ApacheHttpClient5Transport}, so that nodes that join or leave the cluster are picked
+ * up without rebuilding the transport and dropping its pooled connections.
+ * <p>
+ * Sniffing happens once when the sniffer is built, then periodically every {@code sniffInterval}. It can also be
+ * triggered when a node fails by setting a {@link SniffOnFailureListener} to the transport, in which case the
+ * following sniff happens after {@code sniffAfterFailureDelay}. Nodes are sniffed from a single background thread.
+ * <p>
+ * The sniffed nodes carry their roles, so that a {@link org.opensearch.client.transport.httpclient5.internal.NodeSelector}
+ * such as {@link org.opensearch.client.transport.httpclient5.internal.NodeSelector#PREFER_COORDINATING_ONLY} can be
+ * used to decide which of them receive the requests.
+ * <p>
+ * Must be closed when the transport is no longer used.
+ */
+public class Sniffer implements Closeable {
+    private static final Log logger = LogFactory.getLog(Sniffer.class);
+    private static final String SNIFFER_THREAD_NAME = "opensearch_java_client_sniffer";
+
+    private final NodesSniffer nodesSniffer;
+    private final ApacheHttpClient5Transport transport;
+    private final long sniffIntervalMillis;
+    private final long sniffAfterFailureDelayMillis;
+    private final ScheduledExecutorService scheduler;
+
+    // Guarded by this
+    private Future<?> nextSniff;
+    private int generation;
+    private boolean closed;
+
+    Sniffer(ApacheHttpClient5Transport transport, NodesSniffer nodesSniffer, long sniffInterval, long sniffAfterFailureDelay) {
+        this(transport, nodesSniffer, new SnifferThreadFactory(), sniffInterval, sniffAfterFailureDelay);
+    }
+
+    Sniffer(
+        ApacheHttpClient5Transport transport,
+        NodesSniffer nodesSniffer,
+        ThreadFactory threadFactory,
+        long sniffInterval,
+        long sniffAfterFailureDelay
+    ) {
+        this.transport = transport;
+        this.nodesSniffer = nodesSniffer;
+        this.sniffIntervalMillis = sniffInterval;
+        this.sniffAfterFailureDelayMillis = sniffAfterFailureDelay;
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, threadFactory);
+        // Cancelled sniffs are replaced right away, there is no need to keep them around until their delay expires
+        executor.setRemoveOnCancelPolicy(true);
+        this.scheduler = executor;
+        schedule(0L, sniffIntervalMillis);
+    }
+
+    /**
+     * Schedule sniffing to run as soon as possible if it isn't already running. Once such sniffing round runs
+     * it will also schedule a new round after sniffAfterFailureDelay ms.
+     */
+    public void sniffOnFailure() {
+        schedule(0L, sniffAfterFailureDelayMillis);
+    }
+
+    /**
+     * Sniffs the nodes right away and sets them to the transport, without affecting the schedule.
+     * Package private for testing.
+     */
+    void sniff() throws Exception {
+        final List<Node> sniffedNodes = nodesSniffer.sniff();
+        if (logger.isDebugEnabled()) {
+            logger.debug("sniffed nodes: " + sniffedNodes);
+        }
+        if (sniffedNodes.isEmpty()) {
+            logger.warn("no nodes to set, nodes will be updated at the next sniffing round");
+        } else {
+            transport.setNodes(sniffedNodes);
+        }
+    }
+
+    private synchronized void schedule(long delayMillis, long nextDelayMillis) {
+        if (closed) {
+            return;
+        }
+        if (nextSniff != null) {
+            // A running sniff is not interrupted, but it won't schedule the next one as a newer generation exists
+            nextSniff.cancel(false);
+        }
+        final int scheduledGeneration = ++generation;
+        nextSniff = scheduler.schedule(() -> run(scheduledGeneration, nextDelayMillis), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void run(int scheduledGeneration, long nextDelayMillis) {
+        try {
+            sniff();
+        } catch (Exception e) {
+            logger.error("error while sniffing nodes", e);
+        } finally {
+            synchronized (this) {
+                if (scheduledGeneration == generation) {
+                    schedule(nextDelayMillis, sniffIntervalMillis);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            if (nextSniff != null) {
+                nextSniff.cancel(false);
+            }
+        }
+        scheduler.shutdown();
+        try {
+            if (scheduler.awaitTermination(1000, TimeUnit.MILLISECONDS) == false) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns a new {@link SnifferBuilder} to help with {@link Sniffer} creation.
+     *
+     * @param transport the transport that gets its nodes set (via
+     *                  {@link ApacheHttpClient5Transport#setNodes(java.util.Collection)}) once they are fetched
+     * @return a new instance of {@link SnifferBuilder}
+     */
+    public static SnifferBuilder builder(ApacheHttpClient5Transport transport) {
+        return new SnifferBuilder(transport);
+    }
+
+    /**
+     * Sniffer builder. Helps creating a new {@link Sniffer}.
+     */
+    public static final class SnifferBuilder {
+        /**
+         * The default interval between sniffing rounds, in milliseconds.
+         */
+        public static final long DEFAULT_SNIFF_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+        /**
+         * The default delay of the sniffing round scheduled after a failure, in milliseconds.
+         */
+        public static final long DEFAULT_SNIFF_AFTER_FAILURE_DELAY = TimeUnit.MINUTES.toMillis(1);
+
+        private final ApacheHttpClient5Transport transport;
+        private long sniffIntervalMillis = DEFAULT_SNIFF_INTERVAL;
+        private long sniffAfterFailureDelayMillis = DEFAULT_SNIFF_AFTER_FAILURE_DELAY;
+        private NodesSniffer nodesSniffer;
+
+        private SnifferBuilder(ApacheHttpClient5Transport transport) {
+            this.transport = Objects.requireNonNull(transport, "transport cannot be null");
+        }
+
+        /**
+         * Sets the interval between consecutive ordinary sniff executions in milliseconds. Will be honoured when
+         * sniffOnFailure is disabled or when there are no failures between consecutive sniff executions.
+         *
+         * @throws IllegalArgumentException if sniffIntervalMillis is not greater than 0
+         */
+        public SnifferBuilder setSniffIntervalMillis(int sniffIntervalMillis) {
+            if (sniffIntervalMillis <= 0) {
+                throw new IllegalArgumentException("sniffIntervalMillis must be greater than 0");
+            }
+            this.sniffIntervalMillis = sniffIntervalMillis;
+            return this;
+        }
+
+        /**
+         * Sets the delay of a sniff execution scheduled after a failure (in milliseconds)
+         */
+        public SnifferBuilder setSniffAfterFailureDelayMillis(int sniffAfterFailureDelayMillis) {
+            if (sniffAfterFailureDelayMillis <= 0) {
+                throw new IllegalArgumentException("sniffAfterFailureDelayMillis must be greater than 0");
+            }
+            this.sniffAfterFailureDelayMillis = sniffAfterFailureDelayMillis;
+            return this;
+        }
+
+        /**
+         * Sets the {@link NodesSniffer} to be used to read hosts. A default instance of
+         * {@link OpenSearchNodesSniffer} is created when not provided. This method can be used to change the
+         * configuration of the {@link OpenSearchNodesSniffer}, or to provide a different implementation
+         * (e.g. in case hosts need to taken from a different source).
+         */
+        public SnifferBuilder setNodesSniffer(NodesSniffer nodesSniffer) {
+            this.nodesSniffer = Objects.requireNonNull(nodesSniffer, "nodesSniffer cannot be null");
+            return this;
+        }
+
+        /**
+         * Creates the {@link Sniffer} based on the provided configuration, and schedules the first sniffing round.
+         */
+        public Sniffer build() {
+            if (nodesSniffer == null) {
+                this.nodesSniffer = new OpenSearchNodesSniffer(transport);
+            }
+            return new Sniffer(transport, nodesSniffer, sniffIntervalMillis, sniffAfterFailureDelayMillis);
+        }
+    }
+
+    private static class SnifferThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+        private final ThreadFactory delegate = Executors.defaultThreadFactory();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            final Thread thread = delegate.newThread(r);
+            thread.setName(SNIFFER_THREAD_NAME + "[T#" + threadNumber.getAndIncrement() + "]");
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
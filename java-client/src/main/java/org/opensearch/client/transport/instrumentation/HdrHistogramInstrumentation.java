@@ -0,0 +1,247 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.instrumentation;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Records the latencies of the requests in <a href="https://hdrhistogram.github.io/HdrHistogram/">HdrHistogram</a>
+ * histograms, for each endpoint, split into serialization, network and deserialization time. Recording a request
+ * does not allocate nor lock, so that it can be used on the hot path.
+ * <p>
+ * The metrics are read periodically with {@link #snapshot()}, which returns what was recorded since the previous
+ * snapshot, for instance to tell whether the p99 latency of searches comes from the cluster, the wire or JSON mapping:
+ * <pre>{@code
+ * HdrHistogramInstrumentation instrumentation = new HdrHistogramInstrumentation();
+ * ApacheHttpClient5Transport transport = ApacheHttpClient5TransportBuilder.builder(hosts)
+ *     .setInstrumentation(instrumentation)
+ *     .build();
+ * ...
+ * EndpointSnapshot search = instrumentation.snapshot().get("search");
+ * long p99Network = search.networkNanos().getValueAtPercentile(99);
+ * }</pre>
+ * This class requires {@code org.hdrhistogram:HdrHistogram} on the classpath.
+ */
+public class HdrHistogramInstrumentation implements TransportInstrumentation {
+    /**
+     * The default highest latency that can be recorded, higher latencies are recorded as this value.
+     */
+    public static final long DEFAULT_HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    /**
+     * The default number of significant decimal digits to which latencies are recorded.
+     */
+    public static final int DEFAULT_SIGNIFICANT_DIGITS = 2;
+
+    private final long highestTrackableNanos;
+    private final int significantDigits;
+    private final ConcurrentMap<String, EndpointRecorder> endpoints = new ConcurrentHashMap<>();
+
+    public HdrHistogramInstrumentation() {
+        this(DEFAULT_HIGHEST_TRACKABLE_NANOS, DEFAULT_SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * @param highestTrackableNanos the highest latency that can be recorded, higher latencies are recorded as this
+     *                              value
+     * @param significantDigits the number of significant decimal digits to which latencies are recorded, between 0
+     *                          and 5. Each digit makes the histograms 10 times as large.
+     */
+    public HdrHistogramInstrumentation(long highestTrackableNanos, int significantDigits) {
+        if (highestTrackableNanos < 2) {
+            throw new IllegalArgumentException("highestTrackableNanos must be at least 2");
+        }
+        if (significantDigits < 0 || significantDigits > 5) {
+            throw new IllegalArgumentException("significantDigits must be between 0 and 5");
+        }
+        this.highestTrackableNanos = highestTrackableNanos;
+        this.significantDigits = significantDigits;
+    }
+
+    @Override
+    public void onRequestCompleted(RequestMetrics metrics) {
+        EndpointRecorder recorder = endpoints.get(metrics.endpointId());
+        if (recorder == null) {
+            recorder = endpoints.computeIfAbsent(metrics.endpointId(), id -> new EndpointRecorder());
+        }
+        recorder.record(metrics);
+    }
+
+    /**
+     * Returns the metrics recorded for each endpoint since the previous snapshot, and starts a new interval. Endpoints
+     * that have been called once are always included, possibly with no requests.
+     */
+    public Map<String, EndpointSnapshot> snapshot() {
+        final Map<String, EndpointSnapshot> snapshot = new LinkedHashMap<>();
+        for (Map.Entry<String, EndpointRecorder> entry : endpoints.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    private long clamp(long nanos) {
+        return Math.min(Math.max(nanos, 0), highestTrackableNanos);
+    }
+
+    private class EndpointRecorder {
+        private final Recorder totalNanos = new Recorder(highestTrackableNanos, significantDigits);
+        private final Recorder serializationNanos = new Recorder(highestTrackableNanos, significantDigits);
+        private final Recorder networkNanos = new Recorder(highestTrackableNanos, significantDigits);
+        private final Recorder deserializationNanos = new Recorder(highestTrackableNanos, significantDigits);
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder requestBytes = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+
+        void record(RequestMetrics metrics) {
+            totalNanos.recordValue(clamp(metrics.totalNanos()));
+            serializationNanos.recordValue(clamp(metrics.serializationNanos()));
+            networkNanos.recordValue(clamp(metrics.networkNanos()));
+            deserializationNanos.recordValue(clamp(metrics.deserializationNanos()));
+            if (metrics.failure() != null) {
+                failures.increment();
+            }
+            if (metrics.retries() > 0) {
+                retries.add(metrics.retries());
+            }
+            if (metrics.requestBytes() > 0) {
+                requestBytes.add(metrics.requestBytes());
+            }
+            if (metrics.responseBytes() > 0) {
+                responseBytes.add(metrics.responseBytes());
+            }
+        }
+
+        EndpointSnapshot snapshot() {
+            return new EndpointSnapshot(
+                totalNanos.getIntervalHistogram(),
+                serializationNanos.getIntervalHistogram(),
+                networkNanos.getIntervalHistogram(),
+                deserializationNanos.getIntervalHistogram(),
+                failures.sumThenReset(),
+                retries.sumThenReset(),
+                requestBytes.sumThenReset(),
+                responseBytes.sumThenReset()
+            );
+        }
+    }
+
+    /**
+     * The metrics recorded for an endpoint during an interval. The latency histograms are in nanoseconds.
+     */
+    public static final class EndpointSnapshot {
+        private final Histogram totalNanos;
+        private final Histogram serializationNanos;
+        private final Histogram networkNanos;
+        private final Histogram deserializationNanos;
+        private final long failures;
+        private final long retries;
+        private final long requestBytes;
+        private final long responseBytes;
+
+        EndpointSnapshot(
+            Histogram totalNanos,
+            Histogram serializationNanos,
+            Histogram networkNanos,
+            Histogram deserializationNanos,
+            long failures,
+            long retries,
+            long requestBytes,
+            long responseBytes
+        ) {
+            this.totalNanos = totalNanos;
+            this.serializationNanos = serializationNanos;
+            this.networkNanos = networkNanos;
+            this.deserializationNanos = deserializationNanos;
+            this.failures = failures;
+            this.retries = retries;
+            this.requestBytes = requestBytes;
+            this.responseBytes = responseBytes;
+        }
+
+        /**
+         * The number of requests completed, successfully or not.
+         */
+        public long requests() {
+            return totalNanos.getTotalCount();
+        }
+
+        public long failures() {
+            return failures;
+        }
+
+        /**
+         * The number of attempts made after the first one, over all requests.
+         */
+        public long retries() {
+            return retries;
+        }
+
+        /**
+         * The size of the request bodies whose size is known.
+         */
+        public long requestBytes() {
+            return requestBytes;
+        }
+
+        /**
+         * The size of the response bodies whose size is known.
+         */
+        public long responseBytes() {
+            return responseBytes;
+        }
+
+        public Histogram totalNanos() {
+            return totalNanos;
+        }
+
+        public Histogram serializationNanos() {
+            return serializationNanos;
+        }
+
+        public Histogram networkNanos() {
+            return networkNanos;
+        }
+
+        public Histogram deserializationNanos() {
+            return deserializationNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "EndpointSnapshot{requests="
+                + requests()
+                + ", failures="
+                + failures
+                + ", retries="
+                + retries
+                + ", requestBytes="
+                + requestBytes
+                + ", responseBytes="
+                + responseBytes
+                + ", p99TotalNanos="
+                + totalNanos.getValueAtPercentile(99)
+                + ", p99SerializationNanos="
+                + serializationNanos.getValueAtPercentile(99)
+                + ", p99NetworkNanos="
+                + networkNanos.getValueAtPercentile(99)
+                + ", p99DeserializationNanos="
+                + deserializationNanos.getValueAtPercentile(99)
+                + "}";
+        }
+    }
+}
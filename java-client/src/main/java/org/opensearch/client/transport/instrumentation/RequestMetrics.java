@@ -0,0 +1,367 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.instrumentation;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import org.opensearch.client.transport.Endpoint;
+
+/**
+ * The metrics of a request, passed to {@link TransportInstrumentation#onRequestCompleted(RequestMetrics)}.
+ * <p>
+ * The time spent on a request is split in three consecutive phases, which add up to {@link #totalNanos()}:
+ * <ul>
+ *     <li>serialization, until the request is ready to be sent. When the request body is streamed, it is serialized
+ *     while it is sent, and this time counts as network time;</li>
+ *     <li>network, until the response headers are received, including the failed attempts on other nodes and the
+ *     time spent waiting for a connection;</li>
+ *     <li>deserialization, until the response is deserialized. When the response body is parsed while it is
+ *     received, the time spent receiving it counts as deserialization time.</li>
+ * </ul>
+ */
+public final class RequestMetrics {
+    private static final String API_PACKAGE = "org.opensearch.client.opensearch.";
+    private static final ClassValue<String> ENDPOINT_IDS = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return computeEndpointId(type);
+        }
+    };
+
+    private final String endpointId;
+    @Nullable
+    private final Object context;
+    @Nullable
+    private final String node;
+    private final int statusCode;
+    private final long requestBytes;
+    private final long responseBytes;
+    private final long serializationNanos;
+    private final long networkNanos;
+    private final long deserializationNanos;
+    private final int retries;
+    @Nullable
+    private final Throwable failure;
+
+    private RequestMetrics(Recorder recorder, long endNanos, @Nullable Throwable failure) {
+        final long serializedNanos = recorder.serialized ? recorder.serializedNanos : recorder.startNanos;
+        final long respondedNanos = recorder.responded ? recorder.respondedNanos : endNanos;
+        this.endpointId = recorder.endpointId;
+        this.context = recorder.context;
+        this.node = recorder.node;
+        this.statusCode = recorder.statusCode;
+        this.requestBytes = recorder.requestBytes;
+        this.responseBytes = recorder.responseBytes;
+        this.serializationNanos = serializedNanos - recorder.startNanos;
+        this.networkNanos = Math.max(0, respondedNanos - serializedNanos);
+        this.deserializationNanos = Math.max(0, endNanos - respondedNanos);
+        this.retries = Math.max(0, recorder.attempts.get() - 1);
+        this.failure = failure;
+    }
+
+    /**
+     * The id of the endpoint, derived from the request type: {@code search} for a
+     * {@link org.opensearch.client.opensearch.core.SearchRequest}, {@code indices.create_index} for a
+     * {@link org.opensearch.client.opensearch.indices.CreateIndexRequest}, {@code nodes.info} for a
+     * {@link org.opensearch.client.opensearch.nodes.NodesInfoRequest}, etc.
+     */
+    public String endpointId() {
+        return endpointId;
+    }
+
+    /**
+     * The object returned by {@link TransportInstrumentation#onRequestStarted(String, Object)}.
+     */
+    @Nullable
+    public Object context() {
+        return context;
+    }
+
+    /**
+     * The node that the last attempt was sent to, as a URI such as {@code https://localhost:9200}, or {@code null} if
+     * the request could not be sent.
+     */
+    @Nullable
+    public String node() {
+        return node;
+    }
+
+    /**
+     * The HTTP status code of the response, or {@code 0} if no response was received.
+     */
+    public int statusCode() {
+        return statusCode;
+    }
+
+    /**
+     * The size of the request body, {@code 0} if there is none, or {@code -1} if it is not known because the body was
+     * streamed.
+     */
+    public long requestBytes() {
+        return requestBytes;
+    }
+
+    /**
+     * The size of the response body as announced by the node, or {@code -1} if it is not known, for instance
+     * because the response was chunked or there was no response.
+     */
+    public long responseBytes() {
+        return responseBytes;
+    }
+
+    public long serializationNanos() {
+        return serializationNanos;
+    }
+
+    public long networkNanos() {
+        return networkNanos;
+    }
+
+    public long deserializationNanos() {
+        return deserializationNanos;
+    }
+
+    public long totalNanos() {
+        return serializationNanos + networkNanos + deserializationNanos;
+    }
+
+    /**
+     * The number of attempts made by the transport after the first one, on other nodes or on the same node. Requests
+     * sent again by a {@link org.opensearch.client.transport.RetryingTransport} are reported once per attempt.
+     */
+    public int retries() {
+        return retries;
+    }
+
+    /**
+     * The failure of the request, or {@code null} if it succeeded.
+     */
+    @Nullable
+    public Throwable failure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestMetrics{endpointId="
+            + endpointId
+            + ", node="
+            + node
+            + ", statusCode="
+            + statusCode
+            + ", requestBytes="
+            + requestBytes
+            + ", responseBytes="
+            + responseBytes
+            + ", serializationNanos="
+            + serializationNanos
+            + ", networkNanos="
+            + networkNanos
+            + ", deserializationNanos="
+            + deserializationNanos
+            + ", retries="
+            + retries
+            + ", failure="
+            + failure
+            + "}";
+    }
+
+    /**
+     * Returns the id of the endpoint that a request is sent to.
+     *
+     * @see #endpointId()
+     */
+    public static String endpointId(@Nullable Object request, Endpoint<?, ?, ?> endpoint) {
+        if (request != null) {
+            return ENDPOINT_IDS.get(request.getClass());
+        }
+        final String name = endpoint.getClass().getSimpleName();
+        return name.isEmpty() ? "unknown" : toSnakeCase(name);
+    }
+
+    private static String computeEndpointId(Class<?> type) {
+        String name = type.getSimpleName();
+        if (name.endsWith("Request") && name.length() > "Request".length()) {
+            name = name.substring(0, name.length() - "Request".length());
+        }
+        name = toSnakeCase(name);
+
+        final String packageName = (type.getPackage() == null) ? "" : type.getPackage().getName();
+        if (false == packageName.startsWith(API_PACKAGE)) {
+            return name;
+        }
+        String namespace = packageName.substring(API_PACKAGE.length());
+        if (namespace.equals("core")) {
+            return name;
+        } else if (namespace.startsWith("core.")) {
+            namespace = namespace.substring("core.".length());
+        }
+        if (name.equals(namespace)) {
+            return name;
+        }
+        // The namespace is often part of the request name too: NodesInfoRequest in nodes is nodes.info
+        final String prefix = namespace.replace('.', '_') + "_";
+        if (name.startsWith(prefix) && name.length() > prefix.length()) {
+            name = name.substring(prefix.length());
+        }
+        return namespace + "." + name;
+    }
+
+    private static String toSnakeCase(String name) {
+        final StringBuilder sb = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) {
+                    sb.append('_');
+                }
+                sb.append(Character.toLowerCase(c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Records the metrics of a request as it goes through a transport, and reports them to the
+     * {@link TransportInstrumentation} when it completes. This class is used by transport implementations.
+     */
+    public static final class Recorder {
+        private final TransportInstrumentation instrumentation;
+        private final String endpointId;
+        @Nullable
+        private final Object context;
+        private final long startNanos;
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile boolean serialized;
+        private volatile long serializedNanos;
+        private volatile long requestBytes = -1;
+        private volatile boolean responded;
+        private volatile long respondedNanos;
+        private volatile String node;
+        private volatile int statusCode;
+        private volatile long responseBytes = -1;
+
+        private Recorder(@Nullable TransportInstrumentation instrumentation, String endpointId, @Nullable Object context, long startNanos) {
+            this.instrumentation = instrumentation;
+            this.endpointId = endpointId;
+            this.context = context;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Starts recording a request.
+         *
+         * @return the recorder, or {@code null} if {@code instrumentation} is {@code null}
+         */
+        @Nullable
+        public static Recorder start(
+            @Nullable TransportInstrumentation instrumentation,
+            @Nullable Object request,
+            Endpoint<?, ?, ?> endpoint
+        ) {
+            if (instrumentation == null) {
+                return null;
+            }
+            final String endpointId = endpointId(request, endpoint);
+            Object context = null;
+            try {
+                context = instrumentation.onRequestStarted(endpointId, request);
+            } catch (RuntimeException e) {
+                // Instrumentation must not fail requests
+            }
+            return new Recorder(instrumentation, endpointId, context, System.nanoTime());
+        }
+
+        /**
+         * Creates a recorder for one of the copies of a hedged request, that records the attempts and the response of
+         * that copy only. It never reports anything: once a copy decides the outcome of the request, its metrics are
+         * taken with {@link #useCopy(Recorder)}.
+         */
+        public Recorder newCopy() {
+            return new Recorder(null, endpointId, context, startNanos);
+        }
+
+        /**
+         * Takes the attempts, node and response recorded by the copy of a hedged request that decided its outcome,
+         * replacing those of the other copies. Must be called before {@link #complete(Throwable)}.
+         */
+        public void useCopy(Recorder copy) {
+            attempts.set(copy.attempts.get());
+            this.node = copy.node;
+            if (copy.responded) {
+                this.statusCode = copy.statusCode;
+                this.responseBytes = copy.responseBytes;
+                this.respondedNanos = copy.respondedNanos;
+                this.responded = true;
+            }
+        }
+
+        /**
+         * Called once the request is ready to be sent.
+         *
+         * @param requestBytes the size of the request body, {@code 0} if there is none, or {@code -1} if unknown
+         */
+        public void onSerialized(long requestBytes) {
+            if (serialized) {
+                // Hedged requests are serialized twice
+                return;
+            }
+            this.requestBytes = requestBytes;
+            this.serializedNanos = System.nanoTime();
+            this.serialized = true;
+        }
+
+        /**
+         * Called when an attempt is sent to a node.
+         */
+        public void onAttemptStarted(String node) {
+            attempts.incrementAndGet();
+            this.node = node;
+        }
+
+        /**
+         * Called when the response headers of an attempt are received. When the attempt is retried, the response of
+         * the next attempt replaces it.
+         *
+         * @param responseBytes the size of the response body, or {@code -1} if unknown
+         */
+        public void onResponse(String node, int statusCode, long responseBytes) {
+            this.node = node;
+            this.statusCode = statusCode;
+            this.responseBytes = responseBytes;
+            this.respondedNanos = System.nanoTime();
+            this.responded = true;
+        }
+
+        /**
+         * Called once the request has completed, reporting its metrics. Only the first call has an effect.
+         *
+         * @param failure the failure of the request, or {@code null} if it succeeded
+         */
+        public void complete(@Nullable Throwable failure) {
+            if (instrumentation == null || false == completed.compareAndSet(false, true)) {
+                return;
+            }
+            while ((failure instanceof CompletionException || failure instanceof ExecutionException) && failure.getCause() != null) {
+                failure = failure.getCause();
+            }
+            try {
+                instrumentation.onRequestCompleted(new RequestMetrics(this, System.nanoTime(), failure));
+            } catch (RuntimeException e) {
+                // Instrumentation must not fail requests
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.instrumentation;
+
+import javax.annotation.Nullable;
+
+/**
+ * Receives the metrics of each request sent by a transport: which endpoint was called on which node, how many bytes
+ * were exchanged, and how long the request spent being serialized, on the network and being deserialized. It is set
+ * with {@link org.opensearch.client.transport.httpclient5.ApacheHttpClient5TransportBuilder#setInstrumentation},
+ * {@link org.opensearch.client.transport.aws.AwsSdk2TransportOptions.Builder#setInstrumentation} or the
+ * {@link org.opensearch.client.transport.rest_client.RestClientTransport} constructor.
+ * <p>
+ * The methods are called from the threads that send and complete the requests, possibly I/O threads: they must be
+ * thread-safe, fast, and must not block. Exceptions they throw are ignored.
+ *
+ * @see HdrHistogramInstrumentation
+ */
+public interface TransportInstrumentation {
+    /**
+     * Called on the calling thread when a request is sent, before it is serialized. Tracing implementations typically
+     * open a span here.
+     *
+     * @param endpointId the id of the endpoint, see {@link RequestMetrics#endpointId()}
+     * @param request the request
+     * @return an object, such as a tracing span, handed back with {@link RequestMetrics#context()}
+     */
+    @Nullable
+    default Object onRequestStarted(String endpointId, @Nullable Object request) {
+        return null;
+    }
+
+    /**
+     * Called once a request has completed, successfully or not, after its response has been deserialized.
+     */
+    void onRequestCompleted(RequestMetrics metrics);
+}
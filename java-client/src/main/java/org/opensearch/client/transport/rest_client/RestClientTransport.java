@@ -37,6 +37,7 @@ import jakarta.json.stream.JsonParser;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.AbstractMap;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -61,6 +62,7 @@ import org.opensearch.client.RestClient;
 import org.opensearch.client.json.JsonpDeserializer;
 import org.opensearch.client.json.JsonpMapper;
 import org.opensearch.client.json.NdJsonpSerializable;
+import org.opensearch.client.json.RawJson;
 import org.opensearch.client.transport.Endpoint;
 import org.opensearch.client.transport.GenericEndpoint;
 import org.opensearch.client.transport.GenericSerializable;
@@ -70,6 +72,8 @@ import org.opensearch.client.transport.TransportException;
 import org.opensearch.client.transport.TransportOptions;
 import org.opensearch.client.transport.endpoints.BooleanEndpoint;
 import org.opensearch.client.transport.endpoints.BooleanResponse;
+import org.opensearch.client.transport.instrumentation.RequestMetrics;
+import org.opensearch.client.transport.instrumentation.TransportInstrumentation;
 import org.opensearch.client.util.ApiTypeHelper;
 import org.opensearch.client.util.MissingRequiredPropertyException;
 
@@ -102,11 +106,27 @@ public class RestClientTransport implements OpenSearchTransport {
     private final RestClient restClient;
     private final JsonpMapper mapper;
     private final RestClientOptions transportOptions;
+    @Nullable
+    private final TransportInstrumentation instrumentation;
 
     public RestClientTransport(RestClient restClient, JsonpMapper mapper, @Nullable TransportOptions options) {
+        this(restClient, mapper, options, null);
+    }
+
+    /**
+     * Creates a transport that reports the metrics of each request to {@code instrumentation}, if not null. The
+     * {@link RestClient} retries failed requests on other nodes internally, so the metrics do not count retries.
+     */
+    public RestClientTransport(
+        RestClient restClient,
+        JsonpMapper mapper,
+        @Nullable TransportOptions options,
+        @Nullable TransportInstrumentation instrumentation
+    ) {
         this.restClient = restClient;
         this.mapper = mapper;
         this.transportOptions = options == null ? RestClientOptions.initialOptions() : RestClientOptions.of(options);
+        this.instrumentation = instrumentation;
     }
 
     public RestClientTransport(RestClient restClient, JsonpMapper mapper) {
@@ -124,7 +144,7 @@ public class RestClientTransport implements OpenSearchTransport {
      * Copies this {@link #RestClientTransport} with specific request options.
      */
     public RestClientTransport withRequestOptions(@Nullable TransportOptions options) {
-        return new RestClientTransport(this.restClient, this.mapper, options);
+        return new RestClientTransport(this.restClient, this.mapper, options, this.instrumentation);
     }
 
     @Override
@@ -148,9 +168,28 @@ public class RestClientTransport implements OpenSearchTransport {
         @Nullable TransportOptions options
     ) throws IOException {
 
-        org.opensearch.client.Request clientReq = prepareLowLevelRequest(request, endpoint, options);
-        org.opensearch.client.Response clientResp = restClient.performRequest(clientReq);
-        return getHighLevelResponse(clientResp, endpoint);
+        final RequestMetrics.Recorder metrics = RequestMetrics.Recorder.start(instrumentation, request, endpoint);
+        try {
+            org.opensearch.client.Request clientReq = prepareLowLevelRequest(request, endpoint, options, metrics);
+            org.opensearch.client.Response clientResp;
+            try {
+                clientResp = restClient.performRequest(clientReq);
+            } catch (ResponseException e) {
+                onResponse(e.getResponse(), metrics);
+                throw e;
+            }
+            onResponse(clientResp, metrics);
+            ResponseT response = getHighLevelResponse(clientResp, endpoint);
+            if (metrics != null) {
+                metrics.complete(null);
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            if (metrics != null) {
+                metrics.complete(e);
+            }
+            throw e;
+        }
     }
 
     public <RequestT, ResponseT, ErrorT> CompletableFuture<ResponseT> performRequestAsync(
@@ -158,9 +197,21 @@ public class RestClientTransport implements OpenSearchTransport {
         Endpoint<RequestT, ResponseT, ErrorT> endpoint,
         @Nullable TransportOptions options
     ) {
-        org.opensearch.client.Request clientReq = prepareLowLevelRequest(request, endpoint, options);
+        final RequestMetrics.Recorder metrics = RequestMetrics.Recorder.start(instrumentation, request, endpoint);
+        org.opensearch.client.Request clientReq;
+        try {
+            clientReq = prepareLowLevelRequest(request, endpoint, options, metrics);
+        } catch (RuntimeException e) {
+            if (metrics != null) {
+                metrics.complete(e);
+            }
+            throw e;
+        }
 
         RequestFuture<ResponseT> future = new RequestFuture<>();
+        if (metrics != null) {
+            future.whenComplete((r, e) -> metrics.complete(e));
+        }
 
         // Propagate required property checks to the thread that will decode the response
         boolean disableRequiredChecks = ApiTypeHelper.requiredPropertiesCheckDisabled();
@@ -168,6 +219,7 @@ public class RestClientTransport implements OpenSearchTransport {
         future.cancellable = restClient.performRequestAsync(clientReq, new ResponseListener() {
             @Override
             public void onSuccess(Response clientResp) {
+                onResponse(clientResp, metrics);
                 try (ApiTypeHelper.DisabledChecksHandle h = ApiTypeHelper.DANGEROUS_disableRequiredPropertiesCheck(disableRequiredChecks)) {
 
                     ResponseT response = getHighLevelResponse(clientResp, endpoint);
@@ -180,6 +232,9 @@ public class RestClientTransport implements OpenSearchTransport {
 
             @Override
             public void onFailure(Exception e) {
+                if (e instanceof ResponseException) {
+                    onResponse(((ResponseException) e).getResponse(), metrics);
+                }
                 future.completeExceptionally(e);
             }
         });
@@ -190,7 +245,8 @@ public class RestClientTransport implements OpenSearchTransport {
     private <RequestT> org.opensearch.client.Request prepareLowLevelRequest(
         RequestT request,
         Endpoint<RequestT, ?, ?> endpoint,
-        @Nullable TransportOptions options
+        @Nullable TransportOptions options,
+        @Nullable RequestMetrics.Recorder metrics
     ) {
         String method = endpoint.method(request);
         String path = endpoint.requestUrl(request);
@@ -213,7 +269,10 @@ public class RestClientTransport implements OpenSearchTransport {
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
 
             ContentType contentType = JsonContentType;
-            if (request instanceof NdJsonpSerializable) {
+            RawJson rawBody = RawJson.rawBody(request);
+            if (rawBody != null) {
+                writeRawJson(rawBody, baos);
+            } else if (request instanceof NdJsonpSerializable) {
                 writeNdJson((NdJsonpSerializable) request, baos);
             } else if (request instanceof GenericSerializable) {
                 contentType = ContentType.parse(((GenericSerializable) request).serialize(baos));
@@ -227,9 +286,24 @@ public class RestClientTransport implements OpenSearchTransport {
         }
         // Request parameter intercepted by LLRC
         clientReq.addParameter("ignore", "400,401,403,404,405");
+        if (metrics != null) {
+            final HttpEntity entity = clientReq.getEntity();
+            metrics.onSerialized(entity == null ? 0 : entity.getContentLength());
+        }
         return clientReq;
     }
 
+    private static void onResponse(Response clientResp, @Nullable RequestMetrics.Recorder metrics) {
+        if (metrics != null) {
+            final HttpEntity entity = clientResp.getEntity();
+            metrics.onResponse(
+                clientResp.getHost().toURI(),
+                clientResp.getStatusLine().getStatusCode(),
+                entity == null ? 0 : Math.max(-1, entity.getContentLength())
+            );
+        }
+    }
+
     /**
      * Write an nd-json value by serializing each of its items on a separate line, recursing if its items themselves implement
      * {@link NdJsonpSerializable} to flattening nested structures.
@@ -240,6 +314,9 @@ public class RestClientTransport implements OpenSearchTransport {
             Object item = values.next();
             if (item instanceof NdJsonpSerializable && item != value) { // do not recurse on the item itself
                 writeNdJson((NdJsonpSerializable) item, baos);
+            } else if (item instanceof RawJson) {
+                writeRawJson((RawJson) item, baos);
+                baos.write('\n');
             } else {
                 JsonGenerator generator = mapper.jsonProvider().createGenerator(baos);
                 mapper.serialize(item, generator);
@@ -249,6 +326,15 @@ public class RestClientTransport implements OpenSearchTransport {
         }
     }
 
+    private static void writeRawJson(RawJson value, ByteArrayOutputStream baos) {
+        try {
+            value.writeTo(baos);
+        } catch (IOException e) {
+            // Not thrown by in-memory streams
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private <ResponseT, ErrorT> ResponseT getHighLevelResponse(
         org.opensearch.client.Response clientResp,
         Endpoint<?, ResponseT, ErrorT> endpoint
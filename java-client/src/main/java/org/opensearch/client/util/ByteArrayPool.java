@@ -0,0 +1,193 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.opensearch.client.transport.OpenSearchTransport;
+
+/**
+ * A bounded pool of reusable byte arrays, used by {@link OpenSearchTransport} implementations to serialize request
+ * bodies without allocating a new buffer for each request.
+ * <p>
+ * The pool retains at most {@code maxPooledBuffers} arrays, none of them larger than {@code maxRetainedSize}: buffers
+ * that grew beyond that size to serialize an unusually large request are left to the garbage collector. Buffers are
+ * kept in a fixed array of slots, and each thread starts looking for a free buffer at a different slot, so that
+ * concurrent requests rarely contend on the same slot and acquiring or releasing a buffer allocates nothing.
+ * <p>
+ * The pool keeps allocation counters that can be sampled to compute the allocation rate of the serialization path.
+ * In a steady state, most acquisitions should be {@linkplain #reuses() reuses}.
+ */
+public final class ByteArrayPool {
+    /**
+     * Default number of pooled buffers.
+     */
+    public static final int DEFAULT_MAX_POOLED_BUFFERS = 16;
+
+    /**
+     * Default size of newly allocated buffers.
+     */
+    public static final int DEFAULT_INITIAL_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Default maximum size of a buffer that is returned to the pool.
+     */
+    public static final int DEFAULT_MAX_RETAINED_SIZE = 1024 * 1024;
+
+    private static final ByteArrayPool DEFAULT = new ByteArrayPool(
+        DEFAULT_MAX_POOLED_BUFFERS,
+        DEFAULT_INITIAL_BUFFER_SIZE,
+        DEFAULT_MAX_RETAINED_SIZE
+    );
+
+    private final AtomicReferenceArray<byte[]> slots;
+    private final int initialBufferSize;
+    private final int maxRetainedSize;
+
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAdder reuses = new LongAdder();
+    private final LongAdder discards = new LongAdder();
+
+    /**
+     * Creates a pool.
+     *
+     * @param maxPooledBuffers the maximum number of buffers retained by the pool. Zero disables pooling.
+     * @param initialBufferSize the size of newly allocated buffers
+     * @param maxRetainedSize buffers larger than this size are not returned to the pool
+     */
+    public ByteArrayPool(int maxPooledBuffers, int initialBufferSize, int maxRetainedSize) {
+        if (maxPooledBuffers < 0) {
+            throw new IllegalArgumentException("maxPooledBuffers must not be negative");
+        }
+        if (initialBufferSize <= 0) {
+            throw new IllegalArgumentException("initialBufferSize must be positive");
+        }
+        this.slots = new AtomicReferenceArray<>(maxPooledBuffers);
+        this.initialBufferSize = initialBufferSize;
+        this.maxRetainedSize = maxRetainedSize;
+    }
+
+    /**
+     * The pool shared by transports that are not configured with a specific one.
+     */
+    public static ByteArrayPool defaultPool() {
+        return DEFAULT;
+    }
+
+    /**
+     * Creates a pool that doesn't retain any buffer, but still records allocations.
+     */
+    public static ByteArrayPool unpooled() {
+        return new ByteArrayPool(0, DEFAULT_INITIAL_BUFFER_SIZE, 0);
+    }
+
+    /**
+     * Creates an output stream that writes into a buffer from this pool. The buffer is returned to the pool when
+     * {@link PooledByteArrayOutputStream#release()} is called.
+     */
+    public PooledByteArrayOutputStream newOutputStream() {
+        return new PooledByteArrayOutputStream(this);
+    }
+
+    /**
+     * Number of buffers that had to be allocated, either because the pool was empty or to grow a buffer.
+     */
+    public long allocations() {
+        return allocations.sum();
+    }
+
+    /**
+     * Total size in bytes of the buffers that had to be allocated.
+     */
+    public long allocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    /**
+     * Number of buffers that were taken from the pool instead of being allocated.
+     */
+    public long reuses() {
+        return reuses.sum();
+    }
+
+    /**
+     * Number of released buffers that were not retained, because they were too large or the pool was full.
+     */
+    public long discards() {
+        return discards.sum();
+    }
+
+    /**
+     * Number of buffers currently available in the pool.
+     */
+    public int pooledBuffers() {
+        int count = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Takes a buffer from the pool, or allocates one if the pool is empty.
+     */
+    byte[] acquire() {
+        final int length = slots.length();
+        if (length > 0) {
+            final int start = stripe(length);
+            for (int i = 0; i < length; i++) {
+                final int slot = (start + i) % length;
+                if (slots.get(slot) != null) {
+                    final byte[] buffer = slots.getAndSet(slot, null);
+                    if (buffer != null) {
+                        reuses.increment();
+                        return buffer;
+                    }
+                }
+            }
+        }
+        return allocate(initialBufferSize);
+    }
+
+    /**
+     * Allocates a new buffer of the given size, recording the allocation.
+     */
+    byte[] allocate(int size) {
+        allocations.increment();
+        allocatedBytes.add(size);
+        return new byte[size];
+    }
+
+    /**
+     * Returns a buffer to the pool, unless it is too large or the pool is full.
+     */
+    void release(byte[] buffer) {
+        final int length = slots.length();
+        if (buffer.length <= maxRetainedSize && length > 0) {
+            final int start = stripe(length);
+            for (int i = 0; i < length; i++) {
+                final int slot = (start + i) % length;
+                if (slots.get(slot) == null && slots.compareAndSet(slot, null, buffer)) {
+                    return;
+                }
+            }
+        }
+        discards.increment();
+    }
+
+    private static int stripe(int length) {
+        // Spread the thread id bits so that consecutive ids don't map to consecutive slots
+        final long id = Thread.currentThread().getId();
+        final int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash >>> 1) % length;
+    }
+}
@@ -10,10 +10,10 @@ package org.opensearch.client.util;
 
 import jakarta.json.stream.JsonGenerator;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 import java.util.zip.GZIPOutputStream;
 import javax.annotation.CheckForNull;
@@ -21,6 +21,7 @@ import javax.annotation.Nonnull;
 import org.apache.hc.core5.http.ContentType;
 import org.opensearch.client.json.JsonpMapper;
 import org.opensearch.client.json.NdJsonpSerializable;
+import org.opensearch.client.json.RawJson;
 import org.opensearch.client.transport.GenericSerializable;
 import org.opensearch.client.transport.OpenSearchTransport;
 
@@ -31,10 +32,13 @@ import org.opensearch.client.transport.OpenSearchTransport;
  * <P>
  *     Request bodies can be automatically compressed when they exceed a given size.
  * </P>
+ * <P>
+ *     The content is captured in buffers taken from a {@link ByteArrayPool}. Once the request has completed,
+ *     {@link #release()} returns them to the pool.
+ * </P>
  */
 public class OpenSearchRequestBodyBuffer {
     private static final byte[] NO_BYTES = new byte[0];
-    private final OutputBuffer outputBuffer;
     private final CompressingOutputBuffer captureBuffer;
     private final JsonpMapper mapper;
     private final JsonGenerator jsonGenerator;
@@ -51,8 +55,19 @@ public class OpenSearchRequestBodyBuffer {
      *                               compressed.  Pass Integer.MAX_VALUE to prevent compression
      */
     public OpenSearchRequestBodyBuffer(JsonpMapper mapper, int requestCompressionSize) {
-        this.outputBuffer = new OutputBuffer();
-        this.captureBuffer = new CompressingOutputBuffer(this.outputBuffer, requestCompressionSize);
+        this(mapper, requestCompressionSize, ByteArrayPool.unpooled());
+    }
+
+    /**
+     * Create a request body buffer whose content is captured in buffers from a pool
+     *
+     * @param mapper                 mapper used to serialize the content
+     * @param requestCompressionSize When the captured data exceeds this size, it will be automatically
+     *                               compressed.  Pass Integer.MAX_VALUE to prevent compression
+     * @param pool                   pool providing the buffers
+     */
+    public OpenSearchRequestBodyBuffer(JsonpMapper mapper, int requestCompressionSize, ByteArrayPool pool) {
+        this.captureBuffer = new CompressingOutputBuffer(pool, requestCompressionSize);
         this.mapper = mapper;
         jsonGenerator = mapper.jsonProvider().createGenerator(this.captureBuffer);
     }
@@ -70,9 +85,15 @@ public class OpenSearchRequestBodyBuffer {
             isMulti = true;
         }
         hasContent = true;
+        RawJson raw;
         if (content instanceof NdJsonpSerializable) {
             isMulti = true;
             addNdJson(((NdJsonpSerializable) content));
+        } else if ((raw = RawJson.rawBody(content)) != null) {
+            raw.writeTo(captureBuffer);
+            if (isMulti) {
+                captureBuffer.write((byte) '\n');
+            }
         } else if (content instanceof GenericSerializable) {
             ContentType.parse(((GenericSerializable) content).serialize(captureBuffer));
             if (isMulti) {
@@ -93,6 +114,10 @@ public class OpenSearchRequestBodyBuffer {
             Object value = values.next();
             if (value instanceof NdJsonpSerializable && value != content) {
                 addNdJson((NdJsonpSerializable) value);
+            } else if (value instanceof RawJson) {
+                hasContent = true;
+                ((RawJson) value).writeTo(captureBuffer);
+                captureBuffer.write((byte) '\n');
             } else {
                 hasContent = true;
                 mapper.serialize(value, jsonGenerator);
@@ -147,7 +172,7 @@ public class OpenSearchRequestBodyBuffer {
      */
     public long getContentLength() {
         ensureClosed();
-        return outputBuffer.size();
+        return captureBuffer.output().size();
     }
 
     /**
@@ -162,7 +187,7 @@ public class OpenSearchRequestBodyBuffer {
     public byte[] getByteArray() {
         if (arrayMemo == null) {
             ensureClosed();
-            arrayMemo = outputBuffer.size() <= 0 ? NO_BYTES : outputBuffer.toByteArray();
+            arrayMemo = captureBuffer.output().size() <= 0 ? NO_BYTES : captureBuffer.output().toByteArray();
         }
         return arrayMemo;
     }
@@ -182,13 +207,41 @@ public class OpenSearchRequestBodyBuffer {
      */
     public InputStream getInputStream() {
         ensureClosed();
-        if (outputBuffer.size() <= 0) {
+        if (captureBuffer.output().size() <= 0) {
             return new ByteArrayInputStream(NO_BYTES);
         } else {
-            return outputBuffer.toInputStream();
+            return captureBuffer.output().toInputStream();
         }
     }
 
+    /**
+     * Get the contents of this buffer as a new read-only ByteBuffer.
+     * <p>
+     * Calls to this method are cheap, since all the new buffers will share the same
+     * underlying array
+     * </P>
+     * <p>
+     * This call finalizes the buffer.  After this call, any attempt to add more content
+     * will throw an IOException.
+     * </P>
+     *
+     * @return The buffered data
+     */
+    public ByteBuffer getByteBuffer() {
+        ensureClosed();
+        return captureBuffer.output().toByteBuffer();
+    }
+
+    /**
+     * Return the underlying buffers to their pool. The content of this buffer, including any stream
+     * previously returned by {@link #getInputStream()} or {@link #getByteBuffer()}, must not be used
+     * after this call.
+     */
+    public void release() {
+        ensureClosed();
+        captureBuffer.output().release();
+    }
+
     /**
      * This call finalizes the buffer.  After this call, any attempt to add more content
      * will throw an IOException.
@@ -211,12 +264,6 @@ public class OpenSearchRequestBodyBuffer {
         }
     }
 
-    private static class OutputBuffer extends ByteArrayOutputStream {
-        InputStream toInputStream() {
-            return new ByteArrayInputStream(this.buf, 0, this.count);
-        }
-    }
-
     private static class ClosedOutputBuffer extends OutputStream {
         static final ClosedOutputBuffer INSTANCE = new ClosedOutputBuffer();
 
@@ -230,14 +277,16 @@ public class OpenSearchRequestBodyBuffer {
     }
 
     private static class CompressingOutputBuffer extends OutputStream {
-        private final OutputBuffer outputBuffer;
+        private final ByteArrayPool pool;
         private final int requestCompressionSize;
+        private PooledByteArrayOutputStream outputBuffer;
         private OutputStream delegate;
         private int bytesUntilCompression;
         private boolean isCompressed;
 
-        private CompressingOutputBuffer(OutputBuffer outputBuffer, int requestCompressionSize) {
-            this.outputBuffer = outputBuffer;
+        private CompressingOutputBuffer(ByteArrayPool pool, int requestCompressionSize) {
+            this.pool = pool;
+            this.outputBuffer = pool.newOutputStream();
             this.delegate = outputBuffer;
             this.requestCompressionSize = requestCompressionSize;
             this.bytesUntilCompression = requestCompressionSize;
@@ -248,6 +297,10 @@ public class OpenSearchRequestBodyBuffer {
             return isCompressed;
         }
 
+        public PooledByteArrayOutputStream output() {
+            return outputBuffer;
+        }
+
         @Override
         public void write(byte[] b) throws IOException {
             if ((bytesUntilCompression -= b.length) < 0) {
@@ -276,12 +329,13 @@ public class OpenSearchRequestBodyBuffer {
             if (delegate == outputBuffer && requestCompressionSize < Integer.MAX_VALUE) {
                 // prevent future checks
                 this.bytesUntilCompression = Integer.MAX_VALUE;
-                byte[] uncompressed = outputBuffer.toByteArray();
-                outputBuffer.reset();
+                PooledByteArrayOutputStream uncompressed = outputBuffer;
+                outputBuffer = pool.newOutputStream();
                 delegate = new GZIPOutputStream(outputBuffer);
-                if (uncompressed.length > 0) {
-                    delegate.write(uncompressed);
+                if (uncompressed.size() > 0) {
+                    delegate.write(uncompressed.array(), 0, uncompressed.size());
                 }
+                uncompressed.release();
                 isCompressed = true;
             }
         }
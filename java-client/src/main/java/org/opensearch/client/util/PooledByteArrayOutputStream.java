@@ -0,0 +1,132 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * An output stream that writes into a buffer taken from a {@link ByteArrayPool}, and whose content can be read
+ * without being copied. Unlike {@link java.io.ByteArrayOutputStream}, it is not thread-safe.
+ * <p>
+ * Once the content is no longer needed, {@link #release()} must be called to return the buffer to the pool. The
+ * stream and any view of its content must not be used afterwards.
+ */
+public final class PooledByteArrayOutputStream extends OutputStream {
+    private final ByteArrayPool pool;
+    private byte[] buf;
+    private int count;
+
+    PooledByteArrayOutputStream(ByteArrayPool pool) {
+        this.pool = pool;
+        this.buf = pool.acquire();
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(count + 1);
+        buf[count] = (byte) b;
+        count += 1;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        if ((off < 0) || (off > b.length) || (len < 0) || ((off + len) - b.length > 0)) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureCapacity(count + len);
+        System.arraycopy(b, off, buf, count, len);
+        count += len;
+    }
+
+    /**
+     * The number of bytes written to this stream.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Discards the content of this stream, keeping its buffer.
+     */
+    public void reset() {
+        checkNotReleased();
+        count = 0;
+    }
+
+    /**
+     * The buffer holding the content of this stream, which may be larger than {@link #size()}.
+     */
+    public byte[] array() {
+        checkNotReleased();
+        return buf;
+    }
+
+    /**
+     * A copy of the content of this stream.
+     */
+    public byte[] toByteArray() {
+        checkNotReleased();
+        return Arrays.copyOf(buf, count);
+    }
+
+    /**
+     * A new input stream reading the content of this stream, without copying it.
+     */
+    public InputStream toInputStream() {
+        checkNotReleased();
+        return new ByteArrayInputStream(buf, 0, count);
+    }
+
+    /**
+     * A new read-only byte buffer wrapping the content of this stream, without copying it.
+     */
+    public ByteBuffer toByteBuffer() {
+        checkNotReleased();
+        return ByteBuffer.wrap(buf, 0, count).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the buffer to the pool. Calling this method more than once has no effect.
+     */
+    public void release() {
+        if (buf != null) {
+            final byte[] released = buf;
+            buf = null;
+            count = 0;
+            pool.release(released);
+        }
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        checkNotReleased();
+        if (minCapacity - buf.length > 0) {
+            int newCapacity = Math.max(buf.length << 1, minCapacity);
+            if (newCapacity < 0) {
+                if (minCapacity < 0) {
+                    throw new OutOfMemoryError();
+                }
+                newCapacity = Integer.MAX_VALUE - 8;
+            }
+            // The smaller buffer is dropped: keeping it would fill the pool with buffers that are too small
+            final byte[] grown = pool.allocate(newCapacity);
+            System.arraycopy(buf, 0, grown, 0, count);
+            buf = grown;
+        }
+    }
+
+    private void checkNotReleased() {
+        if (buf == null) {
+            throw new IllegalStateException("The buffer has been released");
+        }
+    }
+}
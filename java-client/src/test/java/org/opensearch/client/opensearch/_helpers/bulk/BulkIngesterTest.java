@@ -0,0 +1,388 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.opensearch._helpers.bulk;
+
+import jakarta.json.stream.JsonGenerator;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.RawJson;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch._types.VersionType;
+import org.opensearch.client.opensearch.core.BulkRequest;
+import org.opensearch.client.opensearch.core.BulkResponse;
+import org.opensearch.client.opensearch.core.bulk.BulkOperation;
+import org.opensearch.client.opensearch.core.bulk.BulkResponseItem;
+import org.opensearch.client.opensearch.core.bulk.CreateOperation;
+import org.opensearch.client.opensearch.core.bulk.IndexOperation;
+import org.opensearch.client.opensearch.core.bulk.OperationType;
+import org.opensearch.client.transport.util.StubTransport;
+
+public class BulkIngesterTest extends Assert {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void flushesOnMaxOperations() {
+        BulkResponses responses = new BulkResponses(executor, 0);
+        BulkIngester<Void> ingester = BulkIngester.of(b -> b.client(client(responses)).maxOperations(10));
+
+        for (int i = 0; i < 25; i++) {
+            ingester.add(indexOp(i));
+        }
+        ingester.close();
+
+        assertEquals(3, responses.requests.size());
+        assertEquals(25, responses.requests.stream().mapToInt(r -> r.operations().size()).sum());
+        assertEquals(3, ingester.requestCount());
+        assertEquals(25, ingester.operationsCount());
+        assertEquals(0, ingester.pendingOperations());
+    }
+
+    @Test
+    public void flushesOnMaxSize() {
+        BulkResponses responses = new BulkResponses(executor, 0);
+        BulkIngester<Void> ingester = BulkIngester.of(b -> b.client(client(responses)).maxSize(100));
+
+        for (int i = 0; i < 10; i++) {
+            ingester.add(indexOp(i));
+        }
+        ingester.close();
+
+        assertTrue(responses.requests.size() > 1);
+        assertEquals(10, responses.requests.stream().mapToInt(r -> r.operations().size()).sum());
+    }
+
+    @Test
+    public void boundsConcurrentRequests() throws Exception {
+        BulkResponses responses = new BulkResponses(executor, 0);
+        responses.delayMillis = 20;
+        BulkIngester<Void> ingester = BulkIngester.of(b -> b.client(client(responses)).maxOperations(5).maxConcurrentRequests(2));
+
+        List<CompletableFuture<Void>> producers = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            producers.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 50; i++) {
+                    ingester.add(indexOp(i));
+                }
+            }));
+        }
+        CompletableFuture.allOf(producers.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        ingester.close();
+
+        assertEquals(200, responses.requests.stream().mapToInt(r -> r.operations().size()).sum());
+        assertTrue("max in flight was " + responses.maxInFlight.get(), responses.maxInFlight.get() <= 2);
+    }
+
+    @Test
+    public void reportsItemFailures() {
+        BulkResponses responses = new BulkResponses(executor, 3);
+        List<String> failedContexts = new CopyOnWriteArrayList<>();
+        AtomicInteger afterBulk = new AtomicInteger();
+
+        BulkIngester<String> ingester = BulkIngester.of(
+            b -> b.client(client(responses)).maxOperations(10).listener(new BulkListener<String>() {
+                @Override
+                public void beforeBulk(long executionId, BulkRequest request, List<String> contexts) {}
+
+                @Override
+                public void afterBulk(long executionId, BulkRequest request, List<String> contexts, BulkResponse response) {
+                    afterBulk.incrementAndGet();
+                }
+
+                @Override
+                public void afterBulk(long executionId, BulkRequest request, List<String> contexts, Throwable failure) {}
+
+                @Override
+                public void afterItemFailure(long executionId, BulkOperation operation, String context, BulkResponseItem item) {
+                    failedContexts.add(context);
+                }
+            })
+        );
+
+        for (int i = 0; i < 10; i++) {
+            ingester.add(indexOp(i), "doc-" + i);
+        }
+        ingester.close();
+
+        assertEquals(1, afterBulk.get());
+        assertEquals(Collections.singletonList("doc-3"), failedContexts);
+        assertEquals(1, ingester.failedItemsCount());
+    }
+
+    @Test
+    public void countsItemFailuresWithoutListener() {
+        BulkResponses responses = new BulkResponses(executor, 3);
+        BulkIngester<Void> ingester = BulkIngester.of(b -> b.client(client(responses)).maxOperations(10));
+
+        for (int i = 0; i < 25; i++) {
+            ingester.add(indexOp(i));
+        }
+        ingester.close();
+
+        assertEquals(3, ingester.failedItemsCount());
+    }
+
+    @Test
+    public void sendsDocumentsSerializedOnce() {
+        BulkResponses responses = new BulkResponses(executor, 0);
+        BulkIngester<Void> ingester = BulkIngester.of(b -> b.client(client(responses)));
+
+        ingester.add(indexOp(1));
+        ingester.add(BulkOperation.of(b -> b.delete(d -> d.index("test").id("2"))));
+        ingester.close();
+
+        List<BulkOperation> operations = responses.requests.get(0).operations();
+        IndexOperation<Object> index = operations.get(0).index();
+        assertEquals("test", index.index());
+        assertEquals("1", index.id());
+        assertTrue(index.document() instanceof RawJson);
+        assertEquals("{\"value\":1}", index.document().toString());
+        assertTrue(operations.get(1).isDelete());
+    }
+
+    @Test
+    public void sendsOperationHeadersAndGivesCallerOperationsToListener() {
+        BulkResponses responses = new BulkResponses(executor, 0);
+        List<BulkOperation> listened = new CopyOnWriteArrayList<>();
+        BulkIngester<Void> ingester = BulkIngester.of(b -> b.client(client(responses)).listener(new BulkListener<Void>() {
+            @Override
+            public void beforeBulk(long executionId, BulkRequest request, List<Void> contexts) {
+                listened.addAll(request.operations());
+            }
+
+            @Override
+            public void afterBulk(long executionId, BulkRequest request, List<Void> contexts, BulkResponse response) {}
+
+            @Override
+            public void afterBulk(long executionId, BulkRequest request, List<Void> contexts, Throwable failure) {}
+        }));
+
+        Map<String, Integer> document = Collections.singletonMap("value", 1);
+        BulkOperation index = BulkOperation.of(
+            b -> b.index(
+                i -> i.index("test")
+                    .id("1")
+                    .routing("r")
+                    .ifPrimaryTerm(1L)
+                    .ifSeqNo(2L)
+                    .version(3L)
+                    .versionType(VersionType.External)
+                    .pipeline("p")
+                    .requireAlias(true)
+                    .document(document)
+            )
+        );
+        BulkOperation create = BulkOperation.of(
+            b -> b.create(
+                c -> c.index("test")
+                    .id("2")
+                    .routing("r")
+                    .ifPrimaryTerm(1L)
+                    .ifSeqNo(2L)
+                    .version(3L)
+                    .versionType(VersionType.ExternalGte)
+                    .pipeline("p")
+                    .requireAlias(false)
+                    .document(document)
+            )
+        );
+        ingester.add(index);
+        ingester.add(create);
+        ingester.close();
+
+        List<BulkOperation> sent = responses.requests.get(0).operations();
+        assertEquals(header(index), header(sent.get(0)));
+        assertEquals(header(create), header(sent.get(1)));
+        assertTrue(sent.get(1).create().document() instanceof RawJson);
+        assertSame(index, listened.get(0));
+        assertSame(create, listened.get(1));
+
+        // Fails when a header is added to the operations, so that it is sent by the ingester too
+        Set<String> headers = new TreeSet<>(
+            List.of("id", "index", "routing", "ifPrimaryTerm", "ifSeqNo", "version", "versionType", "pipeline", "requireAlias")
+        );
+        for (Class<?> builder : List.of(IndexOperation.Builder.class, CreateOperation.Builder.class)) {
+            Set<String> setters = new TreeSet<>();
+            for (Method method : builder.getMethods()) {
+                if (method.getDeclaringClass().getPackage().equals(IndexOperation.class.getPackage())) {
+                    setters.add(method.getName());
+                }
+            }
+            setters.removeAll(List.of("document", "tDocumentSerializer", "build"));
+            assertEquals(builder.getName(), headers, setters);
+        }
+    }
+
+    @Test
+    public void flushesOnInterval() throws Exception {
+        BulkResponses responses = new BulkResponses(executor, 0);
+        BulkIngester<Void> ingester = BulkIngester.of(b -> b.client(client(responses)).flushInterval(50, TimeUnit.MILLISECONDS));
+        assertFlushedOnInterval(responses, ingester);
+
+        // Intervals shorter than a millisecond are not rounded down to zero, which would disable flushing
+        BulkResponses fast = new BulkResponses(executor, 0);
+        assertFlushedOnInterval(fast, BulkIngester.of(b -> b.client(client(fast)).flushInterval(500, TimeUnit.MICROSECONDS)));
+    }
+
+    @Test
+    public void rejectsOperationsWhenClosed() {
+        BulkResponses responses = new BulkResponses(executor, 0);
+        BulkIngester<Void> ingester = BulkIngester.of(b -> b.client(client(responses)));
+        ingester.close();
+
+        assertThrows(IllegalStateException.class, () -> ingester.add(indexOp(1)));
+    }
+
+    @Test
+    public void rejectsOperationsBlockedWhenClosed() throws Exception {
+        List<BulkRequest> requests = new CopyOnWriteArrayList<>();
+        BlockingQueue<CompletableFuture<Object>> pending = new LinkedBlockingQueue<>();
+        StubTransport transport = new StubTransport(request -> {
+            requests.add((BulkRequest) request);
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            pending.add(future);
+            return future;
+        });
+        BulkIngester<Void> ingester = BulkIngester.of(b -> b.client(new OpenSearchAsyncClient(transport)).maxOperations(2));
+
+        // The first request is in flight and the buffer is full again: the next producer blocks
+        for (int i = 0; i < 4; i++) {
+            ingester.add(indexOp(i));
+        }
+        AtomicReference<Throwable> producerFailure = new AtomicReference<>();
+        Thread producer = new Thread(() -> {
+            try {
+                ingester.add(indexOp(4));
+            } catch (Throwable t) {
+                producerFailure.set(t);
+            }
+        });
+        producer.start();
+        awaitWaiting(producer);
+
+        // Close while the producer is blocked, then let the first request complete
+        Thread closer = new Thread(ingester::close);
+        closer.start();
+        awaitWaiting(closer);
+        pending.take().complete(BulkResponse.of(r -> r.errors(false).items(Collections.emptyList()).took(1)));
+
+        producer.join(5000);
+        assertTrue(String.valueOf(producerFailure.get()), producerFailure.get() instanceof IllegalStateException);
+        pending.take().complete(BulkResponse.of(r -> r.errors(false).items(Collections.emptyList()).took(1)));
+        closer.join(5000);
+        assertFalse(closer.isAlive());
+        assertEquals(4, requests.stream().mapToInt(r -> r.operations().size()).sum());
+        assertEquals(0, ingester.pendingOperations());
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (thread.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(Thread.State.WAITING, thread.getState());
+    }
+
+    private static void assertFlushedOnInterval(BulkResponses responses, BulkIngester<Void> ingester) throws InterruptedException {
+        ingester.add(indexOp(1));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (responses.requests.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, responses.requests.size());
+        ingester.close();
+    }
+
+    private static String header(BulkOperation operation) {
+        JsonpMapper mapper = new JacksonJsonpMapper();
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = mapper.jsonProvider().createGenerator(writer)) {
+            operation.serialize(generator, mapper);
+        }
+        return writer.toString();
+    }
+
+    private static OpenSearchAsyncClient client(BulkResponses responses) {
+        return new OpenSearchAsyncClient(new StubTransport(responses));
+    }
+
+    private static BulkOperation indexOp(int i) {
+        return BulkOperation.of(b -> b.index(o -> o.index("test").id(String.valueOf(i)).document(Collections.singletonMap("value", i))));
+    }
+
+    /**
+     * Answers bulk requests asynchronously with a synthetic response.
+     */
+    private static class BulkResponses implements Function<Object, CompletableFuture<?>> {
+        private final ExecutorService executor;
+        private final int failedItem;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final List<BulkRequest> requests = new CopyOnWriteArrayList<>();
+        volatile long delayMillis = 0;
+
+        /**
+         * @param failedItem position of the item that fails in each response, or 0 for no failure
+         */
+        BulkResponses(ExecutorService executor, int failedItem) {
+            this.executor = executor;
+            this.failedItem = failedItem;
+        }
+
+        @Override
+        public CompletableFuture<?> apply(Object request) {
+            BulkRequest bulk = (BulkRequest) request;
+            requests.add(bulk);
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+
+            return StubTransport.respondAsync(() -> {
+                Thread.sleep(delayMillis);
+                List<BulkResponseItem> items = new ArrayList<>();
+                for (int i = 0; i < bulk.operations().size(); i++) {
+                    final boolean failed = failedItem > 0 && i == failedItem;
+                    items.add(BulkResponseItem.of(it -> {
+                        it.operationType(OperationType.Index).index("test").status(failed ? 400 : 201);
+                        if (failed) {
+                            it.error(e -> e.type("mapper_parsing_exception").reason("failed to parse"));
+                        }
+                        return it;
+                    }));
+                }
+                inFlight.decrementAndGet();
+                return BulkResponse.of(r -> r.errors(failedItem > 0).items(items).took(1));
+            }, executor);
+        }
+    }
+}
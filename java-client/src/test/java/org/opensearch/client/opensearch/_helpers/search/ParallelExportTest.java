@@ -0,0 +1,183 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.opensearch._helpers.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch._types.FieldValue;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.pit.CreatePitRequest;
+import org.opensearch.client.opensearch.core.pit.CreatePitResponse;
+import org.opensearch.client.opensearch.core.pit.DeletePitRequest;
+import org.opensearch.client.opensearch.core.pit.DeletePitResponse;
+import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.transport.util.StubTransport;
+
+public class ParallelExportTest extends Assert {
+
+    @Test
+    public void exportsAllSlices() {
+        SliceResponses responses = new SliceResponses(100);
+        Map<Integer, List<Integer>> docs = new ConcurrentHashMap<>();
+        Map<Integer, Boolean> completed = new ConcurrentHashMap<>();
+        ParallelExport<Integer> export = export(responses, 4);
+
+        List<ParallelExport.SliceStats> stats = export.run(new ParallelExport.Sink<Integer>() {
+            @Override
+            public void accept(int slice, Hit<Integer> hit) {
+                docs.computeIfAbsent(slice, s -> new CopyOnWriteArrayList<>()).add(hit.source());
+            }
+
+            @Override
+            public void sliceCompleted(int slice) {
+                completed.put(slice, true);
+            }
+        });
+
+        assertEquals(4, docs.size());
+        assertEquals(4, completed.size());
+        for (int slice = 0; slice < 4; slice++) {
+            List<Integer> sliceDocs = docs.get(slice);
+            assertEquals(25, sliceDocs.size());
+            for (int i = 0; i < sliceDocs.size(); i++) {
+                // Hits are delivered in order within a slice
+                assertEquals(slice + 4 * i, sliceDocs.get(i).intValue());
+            }
+
+            ParallelExport.SliceStats sliceStats = stats.get(slice);
+            assertEquals(slice, sliceStats.slice());
+            assertEquals(25, sliceStats.hitCount());
+            assertEquals(3, sliceStats.pageCount());
+            assertTrue(sliceStats.completed());
+            assertTrue(sliceStats.hitsPerSecond() > 0);
+        }
+
+        assertEquals(1, responses.createdPits.get());
+        assertEquals(12, responses.searches.size());
+        for (SearchRequest search : responses.searches) {
+            assertEquals("pit", search.pit().id());
+            assertEquals(4, search.slice().max());
+        }
+        assertEquals(1, responses.deletedPits.size());
+
+        assertThrows(IllegalStateException.class, () -> export.run((slice, hit) -> {}));
+    }
+
+    @Test
+    public void singleSliceIsNotSliced() {
+        SliceResponses responses = new SliceResponses(15);
+        AtomicInteger count = new AtomicInteger();
+        export(responses, 1).run((slice, hit) -> count.incrementAndGet());
+
+        assertEquals(15, count.get());
+        assertNull(responses.searches.get(0).slice());
+    }
+
+    @Test
+    public void stopsOnFirstFailure() {
+        SliceResponses responses = new SliceResponses(100);
+        ParallelExport<Integer> export = export(responses, 4);
+
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> export.run((slice, hit) -> {
+            if (slice == 1) {
+                throw new IOException("disk full");
+            }
+        }));
+        assertEquals("disk full", e.getCause().getMessage());
+        assertFalse(export.stats().get(1).completed());
+        assertEquals(1, responses.deletedPits.size());
+    }
+
+    @Test
+    public void rejectsSlicedRequests() {
+        SliceResponses responses = new SliceResponses(0);
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> ParallelExport.of(
+                b -> b.client(client(responses))
+                    .documentClass(Integer.class)
+                    .index("test")
+                    .request(r -> r.slice(s -> s.id(0).max(2)))
+            )
+        );
+    }
+
+    private static ParallelExport<Integer> export(SliceResponses responses, int slices) {
+        return ParallelExport.of(
+            b -> b.client(client(responses))
+                .documentClass(Integer.class)
+                .index("test")
+                .slices(slices)
+                .parallelism(2)
+                .iteratorSettings(it -> it.initialPageSize(10).pageSizeBounds(10, 10))
+        );
+    }
+
+    private static OpenSearchAsyncClient client(SliceResponses responses) {
+        return new OpenSearchAsyncClient(new StubTransport(responses));
+    }
+
+    /**
+     * Serves documents numbered from 0, sorted by their number. Document {@code i} belongs to slice {@code i % max}.
+     */
+    private static class SliceResponses implements Function<Object, CompletableFuture<?>> {
+        private final int docCount;
+        final AtomicInteger createdPits = new AtomicInteger();
+        final List<SearchRequest> searches = new CopyOnWriteArrayList<>();
+        final List<String> deletedPits = new CopyOnWriteArrayList<>();
+
+        SliceResponses(int docCount) {
+            this.docCount = docCount;
+        }
+
+        @Override
+        public CompletableFuture<?> apply(Object request) {
+            if (request instanceof CreatePitRequest) {
+                createdPits.incrementAndGet();
+                return CompletableFuture.completedFuture(
+                    CreatePitResponse.of(r -> r.pitId("pit").creationTime(0L).shards(s -> s.total(1).successful(1).failed(0)))
+                );
+            }
+            if (request instanceof DeletePitRequest) {
+                deletedPits.addAll(((DeletePitRequest) request).pitId());
+                return CompletableFuture.completedFuture(DeletePitResponse.of(r -> r.pits(new ArrayList<>())));
+            }
+
+            SearchRequest search = (SearchRequest) request;
+            searches.add(search);
+            int id = search.slice() == null ? 0 : search.slice().id();
+            int max = search.slice() == null ? 1 : search.slice().max();
+            int after = search.searchAfter().isEmpty() ? -1 : (int) search.searchAfter().get(0).longValue();
+            List<Hit<Integer>> hits = new ArrayList<>();
+            for (int i = id; i < docCount && hits.size() < search.size(); i += max) {
+                if (i > after) {
+                    final int doc = i;
+                    hits.add(Hit.of(h -> h.index("test").id(String.valueOf(doc)).source(doc).sort(FieldValue.of(doc))));
+                }
+            }
+            return CompletableFuture.supplyAsync(
+                () -> SearchResponse.<Integer>of(
+                    r -> r.took(1).timedOut(false).shards(s -> s.total(1).successful(1).failed(0)).hits(h -> h.hits(hits)).pitId("pit")
+                )
+            );
+        }
+    }
+}
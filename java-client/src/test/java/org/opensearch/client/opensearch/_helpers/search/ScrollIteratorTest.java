@@ -0,0 +1,208 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.opensearch._helpers.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch.core.ClearScrollRequest;
+import org.opensearch.client.opensearch.core.ClearScrollResponse;
+import org.opensearch.client.opensearch.core.ScrollRequest;
+import org.opensearch.client.opensearch.core.ScrollResponse;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.transport.util.StubTransport;
+
+public class ScrollIteratorTest extends Assert {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void iteratesOverAllPages() {
+        ScrollResponses responses = new ScrollResponses(executor, 25);
+        List<Integer> docs;
+        try (ScrollIterator<Integer> hits = iterator(responses, b -> b)) {
+            docs = hits.stream().map(Hit::source).collect(Collectors.toList());
+            assertEquals(4, hits.pageCount());
+            assertEquals(25, hits.hitCount());
+        }
+
+        assertEquals(25, docs.size());
+        for (int i = 0; i < docs.size(); i++) {
+            assertEquals(i, docs.get(i).intValue());
+        }
+        assertEquals(1, responses.searches.size());
+        assertEquals("5m", responses.searches.get(0).scroll().time());
+        // Each scroll request uses the id returned by the previous response
+        assertEquals(List.of("scroll-1", "scroll-2", "scroll-3"), responses.scrollIds);
+        assertEquals(List.of("scroll-4"), responses.clearedIds);
+    }
+
+    @Test
+    public void readsAhead() {
+        ScrollResponses responses = new ScrollResponses(executor, 25);
+        try (ScrollIterator<Integer> hits = iterator(responses, b -> b)) {
+            hits.next();
+            // The second page is requested as soon as the first one is received
+            assertEquals(1, responses.scrollIds.size());
+        }
+    }
+
+    @Test
+    public void boundsBufferedHits() {
+        ScrollResponses responses = new ScrollResponses(executor, 25);
+        try (ScrollIterator<Integer> hits = iterator(responses, b -> b.maxBufferedHits(15))) {
+            for (int i = 0; i < 4; i++) {
+                hits.next();
+            }
+            assertEquals(0, responses.scrollIds.size());
+            // 5 hits left in the current page and 10 in the next one
+            hits.next();
+            assertEquals(1, responses.scrollIds.size());
+        }
+    }
+
+    @Test
+    public void boundsBufferedBytes() {
+        ScrollResponses responses = new ScrollResponses(executor, 25);
+        try (ScrollIterator<Integer> hits = iterator(responses, b -> b.maxBufferedBytes(1500, hit -> 100))) {
+            for (int i = 0; i < 4; i++) {
+                hits.next();
+            }
+            assertEquals(0, responses.scrollIds.size());
+            hits.next();
+            assertEquals(1, responses.scrollIds.size());
+        }
+    }
+
+    @Test
+    public void clearsScrollWhenClosedEarly() {
+        ScrollResponses responses = new ScrollResponses(executor, 25);
+        ScrollIterator<Integer> hits = iterator(responses, b -> b);
+        hits.next();
+        hits.close();
+
+        assertFalse(hits.hasNext());
+        // The scroll is cleared once the page in flight has been received
+        assertEquals(List.of("scroll-2"), responses.clearedIds);
+
+        // Nothing is sent if no hit was requested
+        ScrollResponses unused = new ScrollResponses(executor, 25);
+        iterator(unused, b -> b).close();
+        assertEquals(0, unused.searches.size());
+        assertEquals(0, unused.clearedIds.size());
+    }
+
+    @Test
+    public void clearsScrollOnFailure() {
+        ScrollResponses responses = new ScrollResponses(executor, 25);
+        responses.failingScroll = 1;
+        ScrollIterator<Integer> hits = iterator(responses, b -> b);
+        for (int i = 0; i < 10; i++) {
+            hits.next();
+        }
+        IllegalStateException e = assertThrows(IllegalStateException.class, hits::next);
+        assertEquals("scroll failed", e.getMessage());
+        assertEquals(List.of("scroll-1"), responses.clearedIds);
+        assertFalse(hits.hasNext());
+    }
+
+    @Test
+    public void rejectsScrollRequests() {
+        ScrollResponses responses = new ScrollResponses(executor, 0);
+        assertThrows(IllegalArgumentException.class, () -> iterator(responses, b -> b.request(r -> r.scroll(t -> t.time("1m")))));
+    }
+
+    private static ScrollIterator<Integer> iterator(
+        ScrollResponses responses,
+        Function<ScrollIterator.Builder<Integer>, ScrollIterator.Builder<Integer>> settings
+    ) {
+        return ScrollIterator.of(
+            b -> settings.apply(b.client(client(responses)).documentClass(Integer.class).request(r -> r.size(10)))
+        );
+    }
+
+    private static OpenSearchAsyncClient client(ScrollResponses responses) {
+        return new OpenSearchAsyncClient(new StubTransport(responses));
+    }
+
+    /**
+     * Serves documents numbered from 0 in pages of the size of the search request.
+     */
+    private static class ScrollResponses implements Function<Object, CompletableFuture<?>> {
+        private final ExecutorService executor;
+        private final int docCount;
+        private final AtomicInteger scrollVersion = new AtomicInteger();
+        private volatile int pageSize;
+        private volatile int from;
+        final List<SearchRequest> searches = new CopyOnWriteArrayList<>();
+        final List<String> scrollIds = new CopyOnWriteArrayList<>();
+        final List<String> clearedIds = new CopyOnWriteArrayList<>();
+        // Position of the scroll request that fails, starting at 1, or 0 for no failure
+        volatile int failingScroll = 0;
+
+        ScrollResponses(ExecutorService executor, int docCount) {
+            this.executor = executor;
+            this.docCount = docCount;
+        }
+
+        @Override
+        public CompletableFuture<?> apply(Object request) {
+            if (request instanceof ClearScrollRequest) {
+                clearedIds.addAll(((ClearScrollRequest) request).scrollId());
+                return CompletableFuture.completedFuture(ClearScrollResponse.of(r -> r.succeeded(true).numFreed(1)));
+            }
+
+            final boolean failed;
+            if (request instanceof SearchRequest) {
+                searches.add((SearchRequest) request);
+                pageSize = ((SearchRequest) request).size();
+                failed = false;
+            } else {
+                scrollIds.add(((ScrollRequest) request).scrollId());
+                failed = scrollIds.size() == failingScroll;
+            }
+            return CompletableFuture.supplyAsync(() -> {
+                if (failed) {
+                    throw new IllegalStateException("scroll failed");
+                }
+                List<Hit<Integer>> hits = new ArrayList<>();
+                int to = Math.min(docCount, from + pageSize);
+                for (int i = from; i < to; i++) {
+                    final int doc = i;
+                    hits.add(Hit.of(h -> h.index("test").id(String.valueOf(doc)).source(doc)));
+                }
+                from = to;
+                String scrollId = "scroll-" + scrollVersion.incrementAndGet();
+                return ScrollResponse.<Integer>of(
+                    r -> r.took(1)
+                        .timedOut(false)
+                        .shards(s -> s.total(1).successful(1).failed(0))
+                        .hits(h -> h.hits(hits))
+                        .scrollId(scrollId)
+                );
+            }, executor);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.opensearch._helpers.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch._types.OpenSearchException;
+import org.opensearch.client.opensearch.core.MsearchRequest;
+import org.opensearch.client.opensearch.core.MsearchResponse;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.msearch.MultiSearchResponseItem;
+import org.opensearch.client.opensearch.core.msearch.RequestItem;
+import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.transport.util.StubTransport;
+
+public class SearchBatcherTest extends Assert {
+
+    @Test
+    public void sendsSearchesDirectlyWhenTrafficIsLow() {
+        SearchResponses responses = new SearchResponses();
+        try (SearchBatcher<Integer> batcher = batcher(responses, 4, 1, TimeUnit.SECONDS)) {
+            SearchResponse<Integer> response = batcher.search(s -> s.index("i-0")).join();
+            assertEquals("i-0", response.hits().hits().get(0).index());
+        }
+        assertEquals(1, responses.searches.size());
+        assertEquals(0, responses.msearches.size());
+    }
+
+    @Test
+    public void batchesSearchesUpToMaxBatchSize() {
+        SearchResponses responses = new SearchResponses();
+        List<CompletableFuture<SearchResponse<Integer>>> results = new ArrayList<>();
+        SearchBatcher<Integer> batcher = batcher(responses, 4, 1, TimeUnit.SECONDS);
+        for (int i = 0; i < 10; i++) {
+            final String index = "i-" + i;
+            results.add(batcher.search(s -> s.index(index).size(1)));
+        }
+        // The first search is sent directly, the next 8 in two batches
+        assertEquals(1, responses.searches.size());
+        assertEquals(2, responses.msearches.size());
+        assertEquals(4, responses.msearches.get(0).searches().size());
+        assertEquals("i-1", responses.msearches.get(0).searches().get(0).header().index().get(0));
+        assertFalse(results.get(9).isDone());
+
+        // The last search was pending and is sent on close, on its own
+        batcher.close();
+        assertEquals(2, responses.searches.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("i-" + i, results.get(i).join().hits().hits().get(0).index());
+        }
+        assertEquals(2, batcher.directCount());
+        assertEquals(2, batcher.batchCount());
+        assertEquals(8, batcher.batchedCount());
+        assertThrows(IllegalStateException.class, () -> batcher.search(s -> s.index("i")));
+    }
+
+    @Test
+    public void sendsBatchesAfterMaxWait() {
+        SearchResponses responses = new SearchResponses();
+        try (SearchBatcher<Integer> batcher = batcher(responses, 100, 20, TimeUnit.MILLISECONDS)) {
+            batcher.search(s -> s.index("i-0"));
+            CompletableFuture<SearchResponse<Integer>> first = batcher.search(s -> s.index("i-1"));
+            CompletableFuture<SearchResponse<Integer>> second = batcher.search(s -> s.index("i-2"));
+            assertEquals("i-1", first.join().hits().hits().get(0).index());
+            assertEquals("i-2", second.join().hits().hits().get(0).index());
+        }
+        assertEquals(1, responses.msearches.size());
+    }
+
+    @Test
+    public void routesFailuresToTheirSearch() {
+        SearchResponses responses = new SearchResponses();
+        CompletableFuture<SearchResponse<Integer>> failed;
+        CompletableFuture<SearchResponse<Integer>> succeeded;
+        try (SearchBatcher<Integer> batcher = batcher(responses, 2, 1, TimeUnit.SECONDS)) {
+            batcher.search(s -> s.index("i-0"));
+            failed = batcher.search(s -> s.index("missing"));
+            succeeded = batcher.search(s -> s.index("i-2"));
+        }
+        assertEquals(1, responses.msearches.size());
+        CompletionException e = assertThrows(CompletionException.class, failed::join);
+        assertTrue(e.getCause() instanceof OpenSearchException);
+        assertEquals("index_not_found_exception", ((OpenSearchException) e.getCause()).error().type());
+        assertEquals("i-2", succeeded.join().hits().hits().get(0).index());
+    }
+
+    @Test
+    public void convertsSearchRequests() {
+        RequestItem item = SearchBatcher.toRequestItem(
+            SearchRequest.of(s -> s.index("a", "b").routing("r").size(5).query(q -> q.matchAll(m -> m)).trackScores(true))
+        );
+        assertEquals(List.of("a", "b"), item.header().index());
+        assertEquals("r", item.header().routing());
+        assertEquals(5, item.body().size().intValue());
+        assertTrue(item.body().query().isMatchAll());
+        assertTrue(item.body().trackScores());
+
+        // Parameters that multi search items don't have
+        assertNull(SearchBatcher.toRequestItem(SearchRequest.of(s -> s.index("a").scroll(t -> t.time("1m")))));
+        assertNull(SearchBatcher.toRequestItem(SearchRequest.of(s -> s.index("a").terminateAfter(10L))));
+    }
+
+    private static SearchBatcher<Integer> batcher(SearchResponses responses, int maxBatchSize, long maxWait, TimeUnit unit) {
+        return SearchBatcher.of(
+            b -> b.client(new OpenSearchAsyncClient(new StubTransport(responses)))
+                .documentClass(Integer.class)
+                .maxBatchSize(maxBatchSize)
+                .maxWait(maxWait, unit)
+        );
+    }
+
+    /**
+     * Returns one hit per search, from the index of the search. Searches on the {@code missing} index fail.
+     */
+    private static class SearchResponses implements Function<Object, CompletableFuture<?>> {
+        final List<SearchRequest> searches = new CopyOnWriteArrayList<>();
+        final List<MsearchRequest> msearches = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableFuture<?> apply(Object request) {
+            if (request instanceof SearchRequest) {
+                SearchRequest search = (SearchRequest) request;
+                searches.add(search);
+                return CompletableFuture.completedFuture(response(search.index().get(0)));
+            }
+
+            MsearchRequest msearch = (MsearchRequest) request;
+            msearches.add(msearch);
+            List<MultiSearchResponseItem<Integer>> items = new ArrayList<>();
+            for (RequestItem item : msearch.searches()) {
+                String index = item.header().index().get(0);
+                if (index.equals("missing")) {
+                    items.add(
+                        MultiSearchResponseItem.<Integer>of(
+                            i -> i.failure(f -> f.status(404).error(e -> e.type("index_not_found_exception").reason("no such index")))
+                        )
+                    );
+                } else {
+                    items.add(
+                        MultiSearchResponseItem.<Integer>of(
+                            i -> i.result(
+                                r -> r.status(200)
+                                    .took(1)
+                                    .timedOut(false)
+                                    .shards(s -> s.total(1).successful(1).failed(0))
+                                    .hits(h -> h.hits(hit(index)))
+                            )
+                        )
+                    );
+                }
+            }
+            return CompletableFuture.completedFuture(MsearchResponse.<Integer>of(r -> r.took(1).responses(items)));
+        }
+
+        private static SearchResponse<Integer> response(String index) {
+            return SearchResponse.<Integer>of(
+                r -> r.took(1).timedOut(false).shards(s -> s.total(1).successful(1).failed(0)).hits(h -> h.hits(hit(index)))
+            );
+        }
+
+        private static Hit<Integer> hit(String index) {
+            return Hit.of(h -> h.index(index).id("1").source(1));
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.opensearch._helpers.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opensearch.client.opensearch.OpenSearchAsyncClient;
+import org.opensearch.client.opensearch._types.FieldValue;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.core.SearchResponse;
+import org.opensearch.client.opensearch.core.pit.CreatePitRequest;
+import org.opensearch.client.opensearch.core.pit.CreatePitResponse;
+import org.opensearch.client.opensearch.core.pit.DeletePitRequest;
+import org.opensearch.client.opensearch.core.pit.DeletePitResponse;
+import org.opensearch.client.opensearch.core.search.Hit;
+import org.opensearch.client.transport.util.StubTransport;
+
+public class SearchIteratorTest extends Assert {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void iteratesOverAllPages() {
+        PitResponses responses = new PitResponses(executor, 25);
+        List<Integer> docs;
+        try (SearchIterator<Integer> hits = iterator(responses)) {
+            docs = hits.stream().map(Hit::source).collect(Collectors.toList());
+            assertEquals(3, hits.pageCount());
+            assertEquals(25, hits.hitCount());
+        }
+
+        assertEquals(25, docs.size());
+        for (int i = 0; i < docs.size(); i++) {
+            assertEquals(i, docs.get(i).intValue());
+        }
+        assertEquals(1, responses.createdPits.get());
+        assertEquals(3, responses.searches.size());
+        // Each search uses the PIT id returned by the previous response, and is sorted by _id by default
+        assertEquals("pit-0", responses.searches.get(0).pit().id());
+        assertEquals("pit-2", responses.searches.get(2).pit().id());
+        assertEquals("_id", responses.searches.get(0).sort().get(0).field().field());
+        assertTrue(responses.searches.get(0).searchAfter().isEmpty());
+        assertEquals(19, responses.searches.get(2).searchAfter().get(0).longValue());
+        assertEquals(1, responses.deletedPits.size());
+        assertEquals("pit-3", responses.deletedPits.get(0));
+    }
+
+    @Test
+    public void prefetchesTheNextPage() {
+        PitResponses responses = new PitResponses(executor, 25);
+        try (SearchIterator<Integer> hits = iterator(responses)) {
+            hits.next();
+            // The second page is requested before the first one is consumed
+            assertEquals(2, responses.searches.size());
+            for (int i = 1; i < 10; i++) {
+                hits.next();
+            }
+            assertEquals(2, responses.searches.size());
+            hits.next();
+            assertEquals(3, responses.searches.size());
+        }
+    }
+
+    @Test
+    public void deletesThePitWhenClosedEarly() {
+        PitResponses responses = new PitResponses(executor, 25);
+        SearchIterator<Integer> hits = iterator(responses);
+        hits.next();
+        hits.close();
+
+        assertFalse(hits.hasNext());
+        assertEquals(1, responses.deletedPits.size());
+        // The PIT is deleted once the prefetched search has completed
+        assertEquals("pit-2", responses.deletedPits.get(0));
+
+        // Nothing is sent if no hit was requested
+        PitResponses unused = new PitResponses(executor, 25);
+        iterator(unused).close();
+        assertEquals(0, unused.createdPits.get());
+        assertEquals(0, unused.deletedPits.size());
+    }
+
+    @Test
+    public void deletesThePitOnFailure() {
+        PitResponses responses = new PitResponses(executor, 25);
+        responses.failingSearch = 2;
+        SearchIterator<Integer> hits = iterator(responses);
+        for (int i = 0; i < 10; i++) {
+            hits.next();
+        }
+        IllegalStateException e = assertThrows(IllegalStateException.class, hits::next);
+        assertEquals("search failed", e.getMessage());
+        assertEquals(1, responses.deletedPits.size());
+        assertFalse(hits.hasNext());
+    }
+
+    @Test
+    public void adaptsPageSize() {
+        PitResponses responses = new PitResponses(executor, 10_000);
+        responses.delayMillis = 20;
+        try (
+            SearchIterator<Integer> hits = SearchIterator.of(
+                b -> b.client(client(responses))
+                    .documentClass(Integer.class)
+                    .index("test")
+                    .initialPageSize(100)
+                    .pageSizeBounds(10, 300)
+                    .targetPageTime(1, TimeUnit.MILLISECONDS)
+            )
+        ) {
+            hits.next();
+            // Pages are too slow: the size is halved at most for each page
+            assertEquals(50, hits.pageSize());
+        }
+        assertEquals(100, responses.searches.get(0).size().intValue());
+        assertEquals(50, responses.searches.get(1).size().intValue());
+    }
+
+    @Test
+    public void rejectsInvalidRequests() {
+        PitResponses responses = new PitResponses(executor, 0);
+        OpenSearchAsyncClient client = client(responses);
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> SearchIterator.of(b -> b.client(client).documentClass(Integer.class).index("test").request(r -> r.index("other")))
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> SearchIterator.of(
+                b -> b.client(client).documentClass(Integer.class).index("test").request(r -> r.searchAfter(FieldValue.of(1)))
+            )
+        );
+        assertThrows(IllegalArgumentException.class, () -> SearchIterator.of(b -> b.client(client).documentClass(Integer.class)));
+        assertThrows(IllegalArgumentException.class, () -> new SearchIterator.Builder<Integer>().pageSizeBounds(10, 5));
+    }
+
+    private static SearchIterator<Integer> iterator(PitResponses responses) {
+        return SearchIterator.of(
+            b -> b.client(client(responses))
+                .documentClass(Integer.class)
+                .index("test")
+                .initialPageSize(10)
+                .pageSizeBounds(10, 10)
+        );
+    }
+
+    private static OpenSearchAsyncClient client(PitResponses responses) {
+        return new OpenSearchAsyncClient(new StubTransport(responses));
+    }
+
+    /**
+     * Serves documents numbered from 0, sorted by their number.
+     */
+    private static class PitResponses implements Function<Object, CompletableFuture<?>> {
+        private final ExecutorService executor;
+        private final int docCount;
+        private final AtomicInteger pitVersion = new AtomicInteger();
+        final AtomicInteger createdPits = new AtomicInteger();
+        final List<SearchRequest> searches = new CopyOnWriteArrayList<>();
+        final List<String> deletedPits = new CopyOnWriteArrayList<>();
+        volatile long delayMillis = 0;
+        // Position of the search that fails, starting at 1, or 0 for no failure
+        volatile int failingSearch = 0;
+
+        PitResponses(ExecutorService executor, int docCount) {
+            this.executor = executor;
+            this.docCount = docCount;
+        }
+
+        @Override
+        public CompletableFuture<?> apply(Object request) {
+            if (request instanceof CreatePitRequest) {
+                createdPits.incrementAndGet();
+                return CompletableFuture.completedFuture(
+                    CreatePitResponse.of(r -> r.pitId("pit-0").creationTime(0L).shards(s -> s.total(1).successful(1).failed(0)))
+                );
+            }
+            if (request instanceof DeletePitRequest) {
+                deletedPits.addAll(((DeletePitRequest) request).pitId());
+                return CompletableFuture.completedFuture(DeletePitResponse.of(r -> r.pits(new ArrayList<>())));
+            }
+
+            SearchRequest search = (SearchRequest) request;
+            searches.add(search);
+            final boolean failed = searches.size() == failingSearch;
+            return StubTransport.respondAsync(() -> {
+                Thread.sleep(delayMillis);
+                if (failed) {
+                    throw new IllegalStateException("search failed");
+                }
+                int from = search.searchAfter().isEmpty() ? 0 : (int) search.searchAfter().get(0).longValue() + 1;
+                int to = Math.min(docCount, from + search.size());
+                List<Hit<Integer>> hits = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    final int doc = i;
+                    hits.add(Hit.of(h -> h.index("test").id(String.valueOf(doc)).source(doc).sort(FieldValue.of(doc))));
+                }
+                String pitId = "pit-" + pitVersion.incrementAndGet();
+                return SearchResponse.<Integer>of(
+                    r -> r.took(1)
+                        .timedOut(false)
+                        .shards(s -> s.total(1).successful(1).failed(0))
+                        .hits(h -> h.hits(hits))
+                        .pitId(pitId)
+                );
+            }, executor);
+        }
+    }
+}
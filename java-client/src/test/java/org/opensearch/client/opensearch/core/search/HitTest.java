@@ -0,0 +1,93 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.opensearch.core.search;
+
+import jakarta.json.stream.JsonParser;
+import java.io.StringReader;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opensearch.client.json.JsonpDeserializer;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.JsonpMapperAttributes;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.json.jsonb.JsonbJsonpMapper;
+import org.opensearch.client.opensearch.model.ModelTestCase;
+
+public class HitTest extends Assert {
+    private static final String HIT = "{\"_index\":\"books\",\"_id\":\"1\",\"_score\":1.0,"
+        + "\"_source\":{\"title\":\"Dune\",\"pages\":412},\"sort\":[412]}";
+
+    @Test
+    public void testEagerSource() {
+        AtomicInteger deserialized = new AtomicInteger();
+        Hit<Book> hit = parse(new JacksonJsonpMapper(), deserialized);
+
+        assertEquals(1, deserialized.get());
+        assertEquals("Dune", hit.source().title);
+    }
+
+    @Test
+    public void testLazySource() {
+        testLazySource(new JacksonJsonpMapper().withAttribute(JsonpMapperAttributes.LAZY_HIT_SOURCE, true));
+    }
+
+    @Test
+    public void testLazySourceWithoutBufferingMapper() {
+        testLazySource(new JsonbJsonpMapper().withAttribute(JsonpMapperAttributes.LAZY_HIT_SOURCE, true));
+    }
+
+    private void testLazySource(JsonpMapper mapper) {
+        AtomicInteger deserialized = new AtomicInteger();
+        Hit<Book> hit = parse(mapper, deserialized);
+
+        assertEquals("1", hit.id());
+        assertEquals(412, hit.sort().get(0).longValue());
+        assertEquals(0, deserialized.get());
+
+        // Serializing the hit writes the raw source
+        assertEquals(HIT, ModelTestCase.toJson(hit, mapper));
+        assertEquals(0, deserialized.get());
+
+        Book book = hit.source();
+        assertEquals("Dune", book.title);
+        assertEquals(412, book.pages);
+        assertSame(book, hit.source());
+        assertEquals(1, deserialized.get());
+    }
+
+    private static Hit<Book> parse(JsonpMapper mapper, AtomicInteger deserialized) {
+        JsonpDeserializer<Book> bookDeserializer = JsonpDeserializer.of(
+            EnumSet.of(JsonParser.Event.START_OBJECT),
+            (JsonParser parser, JsonpMapper m, JsonParser.Event event) -> {
+                deserialized.incrementAndGet();
+                Book book = new Book();
+                while (parser.next() == JsonParser.Event.KEY_NAME) {
+                    String name = parser.getString();
+                    parser.next();
+                    if (name.equals("title")) {
+                        book.title = parser.getString();
+                    } else if (name.equals("pages")) {
+                        book.pages = parser.getInt();
+                    }
+                }
+                return book;
+            }
+        );
+
+        JsonParser parser = mapper.jsonProvider().createParser(new StringReader(HIT));
+        return Hit.createHitDeserializer(bookDeserializer).deserialize(parser, mapper);
+    }
+
+    private static class Book {
+        String title;
+        int pages;
+    }
+}
@@ -32,14 +32,18 @@
 
 package org.opensearch.client.opensearch.json;
 
+import jakarta.json.JsonObject;
 import jakarta.json.JsonString;
 import jakarta.json.JsonValue;
 import jakarta.json.stream.JsonParser;
 import java.io.StringReader;
+import java.util.Map;
 import org.junit.Assert;
 import org.junit.Test;
 import org.opensearch.client.json.JsonData;
+import org.opensearch.client.json.JsonpDeserializer;
 import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
 import org.opensearch.client.json.jsonb.JsonbJsonpMapper;
 import org.opensearch.client.opensearch.model.ModelTestCase;
 
@@ -89,4 +93,62 @@ public class JsonDataTest extends Assert {
         assertEquals(JsonValue.ValueType.STRING, value.getValueType());
         assertEquals("foo", ((JsonString) value).getString());
     }
+
+    @Test
+    public void testBufferedParsing() {
+        JsonpMapper mapper = new JacksonJsonpMapper();
+        String json = "{\"children\":[{\"doubleValue\":3.2,\"intValue\":2}],\"doubleValue\":2.1,\"intValue\":1,"
+            + "\"stringValue\":\"foo\"}";
+
+        JsonParser parser = mapper.jsonProvider().createParser(new StringReader(json));
+        JsonData data = JsonData.from(parser, mapper);
+
+        // Conversions replay the buffered events, and can be repeated
+        for (int i = 0; i < 2; i++) {
+            JsonpMapperTest.SomeClass to = data.to(JsonpMapperTest.SomeClass.class);
+            assertEquals("foo", to.getStringValue());
+            assertEquals(2, to.getChildren().get(0).getIntValue());
+        }
+
+        assertEquals("foo", data.to(JsonObject.class).getString("stringValue"));
+        assertSame(data.toJson(), data.to(JsonValue.class));
+        assertEquals(json, ModelTestCase.toJson(data, mapper));
+
+        // A mapper with another provider cannot replay the buffer
+        JsonpMapperTest.SomeClass to = data.to(JsonpMapperTest.SomeClass.class, new JsonbJsonpMapper());
+        assertEquals(1, to.getIntValue());
+    }
+
+    @Test
+    public void testBufferedSerialization() {
+        JsonpMapper mapper = new JacksonJsonpMapper();
+        String json = "{\"a\":[1,12345678901234567890,1.5,true,false,null],\"b\":{\"c\":\"d\",\"e\":{}},\"f\":[]}";
+
+        JsonData data = JsonData.from(mapper.jsonProvider().createParser(new StringReader(json)), mapper);
+
+        // Written from the buffered events, and again from the JsonValue once it has been built
+        assertEquals(json, ModelTestCase.toJson(data, mapper));
+        data.toJson();
+        assertEquals(json, ModelTestCase.toJson(data, mapper));
+    }
+
+    @Test
+    public void testBufferedDeserialize() {
+        JsonpMapper mapper = new JacksonJsonpMapper();
+        JsonData data = JsonData.from(mapper.jsonProvider().createParser(new StringReader("\"foo\"")), mapper);
+
+        assertEquals("foo", data.deserialize(JsonpDeserializer.stringDeserializer()));
+        assertEquals("\"foo\"", data.toString());
+    }
+
+    @Test
+    public void testBufferedConversion() {
+        JsonpMapperTest.SomeClass sc = new JsonpMapperTest.SomeClass();
+        sc.setIntValue(42);
+        sc.setStringValue("bar");
+
+        Map<?, ?> to = JsonData.of(sc).to(Map.class, new JacksonJsonpMapper());
+        assertEquals(42, to.get("intValue"));
+        assertEquals("bar", to.get("stringValue"));
+    }
 }
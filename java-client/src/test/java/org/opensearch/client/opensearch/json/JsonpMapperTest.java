@@ -40,12 +40,17 @@ import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.datatype.jsonp.JSONPModule;
 import jakarta.json.Json;
 import jakarta.json.JsonValue;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import jakarta.json.spi.JsonProvider;
 import jakarta.json.stream.JsonGenerator;
 import jakarta.json.stream.JsonParser;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.lang.reflect.Proxy;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -53,7 +58,9 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.opensearch.client.json.JsonData;
 import org.opensearch.client.json.JsonpDeserializer;
+import org.opensearch.client.json.JsonpDeserializerBase;
 import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.JsonpMapperBase;
 import org.opensearch.client.json.jackson.JacksonJsonpMapper;
 import org.opensearch.client.json.jsonb.JsonbJsonpMapper;
 import org.opensearch.client.opensearch.IOUtils;
@@ -71,6 +78,63 @@ public class JsonpMapperTest extends Assert {
         testDeserialize(mapper, json);
     }
 
+    @Test
+    public void testJsonbWithoutYasson() {
+        // Any JSON-B implementation, that doesn't have Yasson's extensions
+        Jsonb yasson = JsonbBuilder.create();
+        Jsonb jsonb = (Jsonb) Proxy.newProxyInstance(
+            Jsonb.class.getClassLoader(),
+            new Class<?>[] { Jsonb.class },
+            (proxy, method, args) -> method.invoke(yasson, args)
+        );
+        JsonpMapper mapper = new JsonbJsonpMapper(JsonProvider.provider(), jsonb);
+        testSerialize(mapper, json);
+        testDeserialize(mapper, json);
+        testNestedValue(mapper);
+    }
+
+    @Test
+    public void testNestedValues() {
+        testNestedValue(new JsonbJsonpMapper());
+        testNestedValue(new JacksonJsonpMapper());
+    }
+
+    private void testNestedValue(JsonpMapper mapper) {
+        SomeClass value = new SomeClass();
+        value.setIntValue(1);
+        value.setStringValue("foo");
+
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = mapper.jsonProvider().createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeKey("value");
+            mapper.serialize(value, generator);
+            generator.writeKey("array");
+            generator.writeStartArray();
+            mapper.serialize(Collections.singletonList(value), generator);
+            generator.writeEnd();
+            generator.write("after", true);
+            generator.writeEnd();
+        }
+        String json = writer.toString();
+        assertTrue(json, json.startsWith("{\"value\":{"));
+        assertTrue(json, json.endsWith("]],\"after\":true}"));
+
+        try (JsonParser parser = mapper.jsonProvider().createParser(new StringReader(json))) {
+            assertEquals(JsonParser.Event.START_OBJECT, parser.next());
+            assertEquals(JsonParser.Event.KEY_NAME, parser.next());
+            assertEquals("foo", mapper.deserialize(parser, SomeClass.class).getStringValue());
+            assertEquals(JsonParser.Event.KEY_NAME, parser.next());
+            assertEquals(JsonParser.Event.START_ARRAY, parser.next());
+            SomeClass[] array = mapper.deserialize(parser, SomeClass[].class);
+            assertEquals(1, array.length);
+            assertEquals(1, array[0].getIntValue());
+            assertEquals(JsonParser.Event.END_ARRAY, parser.next());
+            assertEquals(JsonParser.Event.KEY_NAME, parser.next());
+            assertEquals("after", parser.getString());
+        }
+    }
+
     @Test
     public void testJackson() {
         JacksonJsonpMapper mapper = new JacksonJsonpMapper();
@@ -168,6 +232,37 @@ public class JsonpMapperTest extends Assert {
         assertEquals(2, successes.get());
     }
 
+    @Test
+    public void testRegisteredSerializers() {
+        testRegisteredSerializers(new JsonbJsonpMapper());
+        testRegisteredSerializers(new JacksonJsonpMapper());
+    }
+
+    private void testRegisteredSerializers(JsonpMapperBase mapper) {
+        // Memoized before the registration
+        assertEquals(1, ModelTestCase.fromJson("{\"intValue\":1}", SomeClass.class, mapper).getIntValue());
+
+        mapper.registerDeserializer(SomeClass.class, new JsonpDeserializerBase<SomeClass>(EnumSet.of(JsonParser.Event.VALUE_STRING)) {
+            @Override
+            public SomeClass deserialize(JsonParser parser, JsonpMapper mapper, JsonParser.Event event) {
+                SomeClass value = new SomeClass();
+                value.setStringValue(parser.getString());
+                return value;
+            }
+        });
+        mapper.registerSerializer(SomeClass.class, (value, generator, m) -> generator.write(value.getStringValue()));
+
+        // Copies share the registrations
+        JsonpMapper copy = mapper.withAttribute("foo", "bar");
+        SomeClass parsed = ModelTestCase.fromJson("\"foo\"", SomeClass.class, copy);
+        assertEquals("foo", parsed.getStringValue());
+        assertEquals("\"foo\"", ModelTestCase.toJson(parsed, copy));
+        assertEquals("\"foo\"", ModelTestCase.toJson(parsed, mapper));
+
+        // Builtin deserializers are still used for other classes
+        assertEquals(2, copy.deserialize(copy.jsonProvider().createParser(new StringReader("2")), Integer.class).intValue());
+    }
+
     private void testSerialize(JsonpMapper mapper, String expected) {
 
         SomeClass something = new SomeClass();
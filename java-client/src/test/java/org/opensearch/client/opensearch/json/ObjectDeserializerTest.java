@@ -0,0 +1,68 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.opensearch.json;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opensearch.client.json.JsonpDeserializer;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.ObjectDeserializer;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.json.jsonb.JsonbJsonpMapper;
+
+public class ObjectDeserializerTest extends Assert {
+
+    private static class Item {
+        final List<String> fields = new ArrayList<>();
+    }
+
+    private static ObjectDeserializer<Item> deserializer() {
+        ObjectDeserializer<Item> op = new ObjectDeserializer<>(Item::new);
+        op.add((item, v) -> item.fields.add("a=" + v), JsonpDeserializer.stringDeserializer(), "a");
+        op.add((item, v) -> item.fields.add("b=" + v), JsonpDeserializer.stringDeserializer(), "b", "bee");
+        op.add((item, v) -> item.fields.add("c=" + v), JsonpDeserializer.stringDeserializer(), "c");
+        op.ignore("ignored");
+        return op;
+    }
+
+    @Test
+    public void testFieldOrderChanges() {
+        testFieldOrderChanges(new JacksonJsonpMapper());
+        testFieldOrderChanges(new JsonbJsonpMapper());
+    }
+
+    private void testFieldOrderChanges(JsonpMapper mapper) {
+        ObjectDeserializer<Item> op = deserializer();
+
+        assertEquals("[a=1, b=2, c=3]", parse(op, mapper, "{\"a\":\"1\",\"b\":\"2\",\"c\":\"3\"}"));
+        assertEquals("[a=1, b=2, c=3]", parse(op, mapper, "{\"a\":\"1\",\"b\":\"2\",\"c\":\"3\"}"));
+        assertEquals("[c=3, a=1]", parse(op, mapper, "{\"c\":\"3\",\"a\":\"1\"}"));
+        assertEquals("[b=2, c=3]", parse(op, mapper, "{\"unknown\":0,\"b\":\"2\",\"ignored\":[1],\"c\":\"3\"}"));
+        assertEquals("[a=1, b=2]", parse(op, mapper, "{\"a\":\"1\",\"bee\":\"2\"}"));
+        assertEquals("[]", parse(op, mapper, "{}"));
+        assertEquals("[a=1, b=2, c=3]", parse(op, mapper, "{\"a\":\"1\",\"b\":\"2\",\"c\":\"3\"}"));
+    }
+
+    @Test
+    public void testFieldsAddedAfterFirstUse() {
+        JsonpMapper mapper = new JacksonJsonpMapper();
+        ObjectDeserializer<Item> op = deserializer();
+        assertEquals("[a=1]", parse(op, mapper, "{\"a\":\"1\",\"d\":\"4\"}"));
+
+        op.add((item, v) -> item.fields.add("d=" + v), JsonpDeserializer.stringDeserializer(), "d");
+        assertEquals("[a=1, d=4]", parse(op, mapper, "{\"a\":\"1\",\"d\":\"4\"}"));
+    }
+
+    private static String parse(ObjectDeserializer<Item> op, JsonpMapper mapper, String json) {
+        return op.deserialize(mapper.jsonProvider().createParser(new StringReader(json)), mapper).fields.toString();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.opensearch.json;
+
+import jakarta.json.stream.JsonParser;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.RawJson;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.json.jsonb.JsonbJsonpMapper;
+import org.opensearch.client.opensearch.core.GetResponse;
+import org.opensearch.client.opensearch.core.IndexRequest;
+import org.opensearch.client.opensearch.model.ModelTestCase;
+
+public class RawJsonTest extends Assert {
+
+    @Test
+    public void testBytes() {
+        byte[] bytes = "[{\"a\":1}]".getBytes(StandardCharsets.UTF_8);
+        RawJson raw = RawJson.of(ByteBuffer.wrap(bytes, 1, 7));
+        assertEquals(7, raw.size());
+        assertEquals("{\"a\":1}", raw.toString());
+        assertEquals(7, raw.asByteBuffer().remaining());
+        assertTrue(raw.asByteBuffer().isReadOnly());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(7).put(bytes, 1, 7);
+        direct.flip();
+        assertEquals("{\"a\":1}", RawJson.of(direct).toString());
+        assertEquals(7, direct.remaining());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> RawJson.of(bytes, 2, 8));
+    }
+
+    @Test
+    public void testSerializeAndDeserialize() {
+        testSerializeAndDeserialize(new JacksonJsonpMapper());
+        testSerializeAndDeserialize(new JsonbJsonpMapper());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void testSerializeAndDeserialize(JsonpMapper mapper) {
+        // Serialized by parsing it when it isn't written by a transport
+        RawJson raw = RawJson.of("{ \"a\" : [1, \"b\"] }");
+        assertEquals("{\"a\":[1,\"b\"]}", ModelTestCase.toJson(raw, mapper));
+        assertEquals(1, ((Map<String, Object>) raw.to(Map.class, mapper)).size());
+
+        String json = "{\"_index\":\"i\",\"_id\":\"1\",\"found\":true,\"_source\":{\"a\":[1,\"b\"]}}";
+        try (JsonParser parser = mapper.jsonProvider().createParser(new StringReader(json))) {
+            GetResponse<RawJson> response = GetResponse.createGetResponseDeserializer(RawJson._DESERIALIZER).deserialize(parser, mapper);
+            assertEquals("{\"a\":[1,\"b\"]}", response.source().toString());
+        }
+    }
+
+    @Test
+    public void testRawBody() {
+        RawJson raw = RawJson.of("{}");
+        assertSame(raw, RawJson.rawBody(raw));
+        assertSame(raw, RawJson.rawBody(IndexRequest.of(r -> r.index("i").document(raw))));
+        // A custom serializer takes precedence
+        assertNull(RawJson.rawBody(IndexRequest.of(r -> r.index("i").document(raw).tDocumentSerializer((v, g, m) -> g.write("x")))));
+        assertNull(RawJson.rawBody(IndexRequest.of(r -> r.index("i").document("{}"))));
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.opensearch.client.transport.ConcurrencyLimiter.Outcome;
+
+public class ConcurrencyLimiterTest extends Assert {
+
+    @Test
+    public void testLimitGrowsAndShrinks() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder()
+            .initialLimit(4)
+            .limits(2, 10)
+            .backoffRatio(0.5)
+            .latencyTolerance(Double.POSITIVE_INFINITY)
+            .build();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+
+        // Successes while the limit is used let it grow, by one per limit's worth of successes
+        for (int i = 0; i < 4; i++) {
+            limiter.release(1000, Outcome.SUCCESS);
+            assertEquals(4, limiter.limit());
+            assertTrue(limiter.tryAcquire());
+        }
+        limiter.release(1000, Outcome.SUCCESS);
+        assertEquals(5, limiter.limit());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        // The requests in flight when the cluster gets overloaded only shrink the limit once
+        limiter.release(1000, Outcome.OVERLOADED);
+        assertEquals(2, limiter.limit());
+        limiter.release(1000, Outcome.OVERLOADED);
+        assertEquals(2, limiter.limit());
+        assertEquals(3, limiter.inFlight());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(0, Outcome.IGNORED);
+        limiter.release(0, Outcome.IGNORED);
+        assertEquals(2, limiter.limit());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testLimitConvergesToCapacity() {
+        final int capacity = 20;
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().initialLimit(5).latencyTolerance(Double.POSITIVE_INFINITY).build();
+        for (int round = 0; round < 200; round++) {
+            int sent = 0;
+            while (limiter.tryAcquire()) {
+                sent++;
+            }
+            // The cluster answers as many requests as it can and rejects the others
+            for (int i = 0; i < sent; i++) {
+                limiter.release(1000, i < capacity ? Outcome.SUCCESS : Outcome.OVERLOADED);
+            }
+            if (round >= 100) {
+                assertTrue(limiter.toString(), limiter.limit() >= capacity * 3 / 4 && limiter.limit() <= capacity * 5 / 4);
+            }
+        }
+    }
+
+    @Test
+    public void testLimitDoesNotGrowUnderLightLoad() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().initialLimit(10).build();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(1000, Outcome.SUCCESS);
+        }
+        assertEquals(10, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    public void testLimitShrinksWhenLatencyIncreases() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.builder().initialLimit(10).latencyTolerance(2).build();
+        limiter.tryAcquire();
+        limiter.release(100, Outcome.SUCCESS);
+        limiter.tryAcquire();
+        limiter.release(1000, Outcome.SUCCESS);
+        assertEquals(10, limiter.limit());
+
+        // The average latency is now more than twice the fastest one
+        limiter.tryAcquire();
+        limiter.release(1000, Outcome.SUCCESS);
+        assertEquals(9, limiter.limit());
+    }
+
+    @Test
+    public void testBuilderValidation() {
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimiter.builder().limits(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimiter.builder().backoffRatio(1));
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimiter.builder().latencyTolerance(0.5));
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimiter.builder().initialLimit(50).limits(1, 10).build());
+    }
+}
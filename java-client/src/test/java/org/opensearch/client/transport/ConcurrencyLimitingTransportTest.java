@@ -0,0 +1,128 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opensearch.client.transport.ConcurrencyLimiter.Outcome;
+import org.opensearch.client.transport.util.StubTransport;
+
+public class ConcurrencyLimitingTransportTest extends Assert {
+    private final ConcurrencyLimiter limiter = ConcurrencyLimiter.builder()
+        .initialLimit(2)
+        .limits(1, 2)
+        .latencyTolerance(Double.POSITIVE_INFINITY)
+        .build();
+
+    @Test
+    public void testFailsFastWhenLimitIsReached() throws Exception {
+        PendingResponses responses = new PendingResponses();
+        try (ConcurrencyLimitingTransport transport = new ConcurrencyLimitingTransport(new StubTransport(responses), limiter)) {
+            CompletableFuture<Object> first = transport.performRequestAsync(null, null, null);
+            CompletableFuture<Object> second = transport.performRequestAsync(null, null, null);
+            CompletableFuture<Object> third = transport.performRequestAsync(null, null, null);
+            assertEquals(2, responses.requests.size());
+            ExecutionException e = assertThrows(ExecutionException.class, third::get);
+            assertTrue(e.getCause() instanceof ConcurrencyLimitExceededException);
+
+            responses.requests.poll().complete("ok");
+            assertEquals("ok", first.get());
+            assertEquals(1, limiter.inFlight());
+            assertFalse(second.isDone());
+            transport.performRequestAsync(null, null, null);
+            assertEquals(2, responses.requests.size());
+        }
+    }
+
+    @Test
+    public void testQueuesUntilPermitIsReleased() throws Exception {
+        PendingResponses responses = new PendingResponses();
+        try (
+            ConcurrencyLimitingTransport transport = new ConcurrencyLimitingTransport(
+                new StubTransport(responses),
+                limiter,
+                Duration.ofMinutes(1),
+                1
+            )
+        ) {
+            transport.performRequestAsync(null, null, null);
+            transport.performRequestAsync(null, null, null);
+            CompletableFuture<Object> queued = transport.performRequestAsync(null, null, null);
+            CompletableFuture<Object> rejected = transport.performRequestAsync(null, null, null);
+            assertEquals(2, responses.requests.size());
+            assertTrue(rejected.isCompletedExceptionally());
+
+            // The queued request is sent when a request in flight completes
+            responses.requests.poll().completeExceptionally(new ConnectException("Connection refused"));
+            assertEquals(2, responses.requests.size());
+            assertFalse(queued.isDone());
+            responses.requests.poll();
+            responses.requests.poll().complete("queued");
+            assertEquals("queued", queued.get());
+        }
+    }
+
+    @Test
+    public void testQueueTimeout() throws Exception {
+        PendingResponses responses = new PendingResponses();
+        try (
+            ConcurrencyLimitingTransport transport = new ConcurrencyLimitingTransport(
+                new StubTransport(responses),
+                limiter,
+                Duration.ofMillis(50),
+                10
+            )
+        ) {
+            transport.performRequestAsync(null, null, null);
+            transport.performRequestAsync(null, null, null);
+            ConcurrencyLimitExceededException e = assertThrows(
+                ConcurrencyLimitExceededException.class,
+                () -> transport.performRequest(null, null, null)
+            );
+            assertTrue(e.getMessage().startsWith("Timed out"));
+            assertEquals(2, responses.requests.size());
+            assertEquals(2, limiter.inFlight());
+        }
+    }
+
+    @Test
+    public void testOutcome() {
+        assertEquals(Outcome.SUCCESS, ConcurrencyLimitingTransport.outcome(null));
+        assertEquals(Outcome.SUCCESS, ConcurrencyLimitingTransport.outcome(ExponentialBackoffRetryPolicyTest.error(404, "not_found")));
+        assertEquals(Outcome.OVERLOADED, ConcurrencyLimitingTransport.outcome(ExponentialBackoffRetryPolicyTest.error(429, "")));
+        assertEquals(
+            Outcome.OVERLOADED,
+            ConcurrencyLimitingTransport.outcome(ExponentialBackoffRetryPolicyTest.error(500, "es_rejected_execution_exception"))
+        );
+        assertEquals(Outcome.OVERLOADED, ConcurrencyLimitingTransport.outcome(new SocketTimeoutException("Read timed out")));
+        assertEquals(Outcome.IGNORED, ConcurrencyLimitingTransport.outcome(new ConnectException("Connection refused")));
+    }
+
+    /**
+     * Answers requests with futures that the test completes.
+     */
+    private static class PendingResponses implements Function<Object, CompletableFuture<?>> {
+        final Queue<CompletableFuture<Object>> requests = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public CompletableFuture<?> apply(Object request) {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            requests.add(future);
+            return future;
+        }
+    }
+}
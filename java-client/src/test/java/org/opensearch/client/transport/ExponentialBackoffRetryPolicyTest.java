@@ -0,0 +1,149 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opensearch.client.opensearch._types.ErrorResponse;
+import org.opensearch.client.opensearch._types.OpenSearchException;
+import org.opensearch.client.opensearch.core.BulkRequest;
+import org.opensearch.client.opensearch.core.DeleteRequest;
+import org.opensearch.client.opensearch.core.IndexRequest;
+import org.opensearch.client.opensearch.core.ScrollRequest;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.generic.Requests;
+
+public class ExponentialBackoffRetryPolicyTest extends Assert {
+    private static final SearchRequest SEARCH = SearchRequest.of(s -> s.index("test"));
+    private static final IndexRequest<String> INDEX = IndexRequest.of(i -> i.index("test").document("doc"));
+
+    static OpenSearchException error(int status, String type) {
+        return new OpenSearchException(ErrorResponse.of(r -> r.status(status).error(e -> e.type(type).reason("failed"))));
+    }
+
+    @Test
+    public void testRetryableFailures() {
+        ExponentialBackoffRetryPolicy policy = ExponentialBackoffRetryPolicy.builder().build();
+        assertTrue(policy.isRetryable(SEARCH, error(429, "too_many_requests")));
+        assertTrue(policy.isRetryable(SEARCH, error(503, "unavailable")));
+        assertTrue(policy.isRetryable(SEARCH, error(500, "es_rejected_execution_exception")));
+        assertTrue(policy.isRetryable(SEARCH, new ConnectException("Connection refused")));
+        assertTrue(policy.isRetryable(SEARCH, new IOException("wrapped", error(429, "too_many_requests"))));
+
+        assertFalse(policy.isRetryable(SEARCH, error(400, "mapper_parsing_exception")));
+        assertFalse(policy.isRetryable(SEARCH, new TransportException("Failed to serialize the request")));
+        assertFalse(policy.isRetryable(SEARCH, new IllegalStateException()));
+
+        policy = ExponentialBackoffRetryPolicy.builder().retryStatuses(503).retryOnConnectionFailure(false).build();
+        assertFalse(policy.isRetryable(SEARCH, error(429, "too_many_requests")));
+        assertTrue(policy.isRetryable(SEARCH, error(503, "unavailable")));
+        assertFalse(policy.isRetryable(SEARCH, new ConnectException("Connection refused")));
+    }
+
+    @Test
+    public void testNonIdempotentRequests() {
+        ExponentialBackoffRetryPolicy policy = ExponentialBackoffRetryPolicy.builder().build();
+        // Rejected requests were not executed
+        assertTrue(policy.isRetryable(INDEX, error(429, "too_many_requests")));
+        assertTrue(policy.isRetryable(INDEX, error(500, "es_rejected_execution_exception")));
+        // Other failures may happen after the request was executed
+        assertFalse(policy.isRetryable(INDEX, error(502, "bad_gateway")));
+        assertFalse(policy.isRetryable(INDEX, error(504, "gateway_timeout")));
+        assertFalse(policy.isRetryable(INDEX, new ConnectException("Connection refused")));
+
+        policy = ExponentialBackoffRetryPolicy.builder().idempotentRequests(request -> true).build();
+        assertTrue(policy.isRetryable(INDEX, error(502, "bad_gateway")));
+        assertTrue(policy.isRetryable(INDEX, new ConnectException("Connection refused")));
+    }
+
+    @Test
+    public void testIdempotentRequests() {
+        assertTrue(ExponentialBackoffRetryPolicy.isIdempotent(SEARCH));
+        assertTrue(ExponentialBackoffRetryPolicy.isIdempotent(IndexRequest.of(i -> i.index("test").id("1").document("doc"))));
+        assertTrue(ExponentialBackoffRetryPolicy.isIdempotent(DeleteRequest.of(d -> d.index("test").id("1"))));
+        assertTrue(ExponentialBackoffRetryPolicy.isIdempotent(Requests.builder().method("GET").endpoint("/_cluster/health").build()));
+
+        assertFalse(ExponentialBackoffRetryPolicy.isIdempotent(INDEX));
+        assertFalse(ExponentialBackoffRetryPolicy.isIdempotent(BulkRequest.of(b -> b.index("test").operations(List.of()))));
+        assertFalse(ExponentialBackoffRetryPolicy.isIdempotent(Requests.builder().method("POST").endpoint("/test/_doc").build()));
+        assertFalse(ExponentialBackoffRetryPolicy.isIdempotent(null));
+    }
+
+    @Test
+    public void testDoesNotRetryScrollsThatMayHaveBeenExecuted() {
+        ExponentialBackoffRetryPolicy policy = ExponentialBackoffRetryPolicy.builder().build();
+        // Sending the scroll again would skip a page, and sending the search again would open another scroll context
+        ScrollRequest scroll = ScrollRequest.of(s -> s.scrollId("scroll-1").scroll(t -> t.time("1m")));
+        SearchRequest scrollSearch = SearchRequest.of(s -> s.index("test").scroll(t -> t.time("1m")));
+        for (Object request : List.of(scroll, scrollSearch)) {
+            assertFalse(ExponentialBackoffRetryPolicy.isIdempotent(request));
+            assertTrue(policy.isRetryable(request, error(429, "too_many_requests")));
+            assertFalse(policy.isRetryable(request, error(503, "unavailable")));
+            assertFalse(policy.isRetryable(request, new ConnectException("Connection refused")));
+        }
+    }
+
+    @Test
+    public void testExponentialBackoff() {
+        ExponentialBackoffRetryPolicy policy = ExponentialBackoffRetryPolicy.builder()
+            .initialDelay(Duration.ofMillis(100))
+            .maxDelay(Duration.ofSeconds(1))
+            .maxAttempts(10)
+            .maxElapsedTime(Duration.ofMinutes(1))
+            .random(() -> 1)
+            .build();
+        assertEquals(Duration.ofMillis(100), policy.onFailure(null, 1, 0, error(429, "")));
+        assertEquals(Duration.ofMillis(200), policy.onFailure(null, 2, 0, error(429, "")));
+        assertEquals(Duration.ofMillis(400), policy.onFailure(null, 3, 0, error(429, "")));
+        assertEquals(Duration.ofMillis(800), policy.onFailure(null, 4, 0, error(429, "")));
+        assertEquals(Duration.ofSeconds(1), policy.onFailure(null, 5, 0, error(429, "")));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), policy.backoffNanos(100));
+    }
+
+    @Test
+    public void testJitter() {
+        ExponentialBackoffRetryPolicy policy = ExponentialBackoffRetryPolicy.builder().budget(0, 1000).maxAttempts(10).build();
+        for (int i = 0; i < 100; i++) {
+            Duration delay = policy.onFailure(SEARCH, 3, 0, error(503, ""));
+            assertTrue(delay.toMillis() <= 400);
+        }
+    }
+
+    @Test
+    public void testLimits() {
+        ExponentialBackoffRetryPolicy policy = ExponentialBackoffRetryPolicy.builder()
+            .maxAttempts(3)
+            .maxElapsedTime(Duration.ofSeconds(1))
+            .random(() -> 1)
+            .build();
+        assertNotNull(policy.onFailure(null, 2, 0, error(429, "")));
+        assertNull(policy.onFailure(null, 3, 0, error(429, "")));
+        // The retry would start after the maximum elapsed time
+        assertNull(policy.onFailure(null, 1, TimeUnit.MILLISECONDS.toNanos(950), error(429, "")));
+        assertNull(policy.onFailure(null, 1, 0, error(404, "")));
+    }
+
+    @Test
+    public void testBudget() {
+        ExponentialBackoffRetryPolicy policy = ExponentialBackoffRetryPolicy.builder().budget(0.5, 2).build();
+        assertNotNull(policy.onFailure(null, 1, 0, error(429, "")));
+        assertNotNull(policy.onFailure(null, 1, 0, error(429, "")));
+        assertNull(policy.onFailure(null, 1, 0, error(429, "")));
+
+        policy.onSuccess(null);
+        assertNull(policy.onFailure(null, 1, 0, error(429, "")));
+        policy.onSuccess(null);
+        assertNotNull(policy.onFailure(null, 1, 0, error(429, "")));
+    }
+}
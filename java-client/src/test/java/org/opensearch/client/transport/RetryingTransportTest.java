@@ -0,0 +1,111 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opensearch.client.opensearch._types.OpenSearchException;
+import org.opensearch.client.opensearch.core.IndexRequest;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.transport.util.StubTransport;
+
+public class RetryingTransportTest extends Assert {
+    private final RetryPolicy policy = ExponentialBackoffRetryPolicy.builder()
+        .initialDelay(Duration.ofMillis(1))
+        .maxAttempts(3)
+        .build();
+
+    @Test
+    public void testRetriesUntilSuccess() throws IOException {
+        FailingResponses responses = new FailingResponses(2);
+        try (RetryingTransport transport = new RetryingTransport(new StubTransport(responses), policy)) {
+            assertEquals("ok", transport.performRequest(null, null, null));
+            assertEquals(3, responses.attempts.get());
+        }
+    }
+
+    @Test
+    public void testReportsLastFailure() throws IOException {
+        FailingResponses responses = new FailingResponses(5);
+        try (RetryingTransport transport = new RetryingTransport(new StubTransport(responses), policy)) {
+            OpenSearchException e = assertThrows(OpenSearchException.class, () -> transport.performRequest(null, null, null));
+            assertEquals(429, e.status());
+            assertEquals(3, responses.attempts.get());
+        }
+    }
+
+    @Test
+    public void testDoesNotRetryOtherFailures() throws IOException {
+        FailingResponses responses = new FailingResponses(5);
+        responses.failure = new TransportException("Failed to decode the response");
+        try (RetryingTransport transport = new RetryingTransport(new StubTransport(responses), policy)) {
+            assertThrows(TransportException.class, () -> transport.performRequest(null, null, null));
+            assertEquals(1, responses.attempts.get());
+        }
+    }
+
+    @Test
+    public void testRetriesAsyncRequests() throws Exception {
+        FailingResponses responses = new FailingResponses(2);
+        responses.failure = new ConnectException("Connection refused");
+        SearchRequest search = SearchRequest.of(s -> s.index("test"));
+        try (RetryingTransport transport = new RetryingTransport(new StubTransport(responses), policy)) {
+            assertEquals("ok", transport.performRequestAsync(search, null, null).get());
+            assertEquals(3, responses.attempts.get());
+
+            responses.attempts.set(-10);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> transport.performRequestAsync(search, null, null).get());
+            assertTrue(e.getCause() instanceof ConnectException);
+            assertEquals(-7, responses.attempts.get());
+        }
+    }
+
+    @Test
+    public void testDoesNotRetryWritesAfterConnectionFailures() throws Exception {
+        FailingResponses responses = new FailingResponses(2);
+        responses.failure = new ConnectException("Connection refused");
+        IndexRequest<String> index = IndexRequest.of(i -> i.index("test").document("doc"));
+        try (RetryingTransport transport = new RetryingTransport(new StubTransport(responses), policy)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> transport.performRequestAsync(index, null, null).get());
+            assertTrue(e.getCause() instanceof ConnectException);
+            assertEquals(1, responses.attempts.get());
+        }
+    }
+
+    /**
+     * Fails the first requests, and answers the next ones with "ok".
+     */
+    private static class FailingResponses implements Function<Object, CompletableFuture<?>> {
+        private final int failures;
+        final AtomicInteger attempts = new AtomicInteger();
+        volatile Exception failure = ExponentialBackoffRetryPolicyTest.error(429, "es_rejected_execution_exception");
+
+        FailingResponses(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public CompletableFuture<?> apply(Object request) {
+            return StubTransport.respondAsync(() -> {
+                if (attempts.incrementAndGet() <= failures) {
+                    throw failure;
+                }
+                return "ok";
+            }, ForkJoinPool.commonPool());
+        }
+    }
+}
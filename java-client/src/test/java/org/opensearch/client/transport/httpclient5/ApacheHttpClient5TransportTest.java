@@ -0,0 +1,448 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5;
+
+import jakarta.json.stream.JsonParser;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.HttpVersion;
+import org.apache.hc.core5.http.ProtocolVersion;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
+import org.apache.hc.core5.http.impl.bootstrap.HttpServer;
+import org.apache.hc.core5.http.impl.bootstrap.ServerBootstrap;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+import org.apache.hc.core5.http.nio.support.classic.AbstractClassicServerExchangeHandler;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2ServerBootstrap;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.ListenerEndpoint;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opensearch.client.json.JsonpDeserializer;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.JsonpUtils;
+import org.opensearch.client.json.RawJson;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch.core.CountRequest;
+import org.opensearch.client.opensearch.generic.Body;
+import org.opensearch.client.opensearch.generic.OpenSearchGenericClient;
+import org.opensearch.client.opensearch.generic.Requests;
+import org.opensearch.client.opensearch.generic.Response;
+import org.opensearch.client.transport.ConcurrencyLimitExceededException;
+import org.opensearch.client.transport.ConcurrencyLimiter;
+import org.opensearch.client.transport.endpoints.SimpleEndpoint;
+import org.opensearch.client.transport.httpclient5.internal.Node;
+import org.opensearch.client.transport.instrumentation.RequestMetrics;
+
+public class ApacheHttpClient5TransportTest extends Assert {
+    // The deserializer returns the thread it runs on
+    private static final JsonpDeserializer<Thread> THREAD_DESERIALIZER = JsonpDeserializer.of(
+        EnumSet.of(JsonParser.Event.START_OBJECT),
+        (JsonParser parser, JsonpMapper mapper, JsonParser.Event event) -> {
+            JsonpUtils.skipValue(parser, event);
+            return Thread.currentThread();
+        }
+    );
+    private static final SimpleEndpoint<Void, Thread> ENDPOINT = new SimpleEndpoint<>(
+        r -> "GET",
+        r -> "/",
+        r -> Collections.emptyMap(),
+        r -> Collections.emptyMap(),
+        false,
+        THREAD_DESERIALIZER
+    );
+
+    private HttpServer server;
+    private ExecutorService transportExecutor;
+    private ExecutorService requestExecutor;
+    private ApacheHttpClient5Transport transport;
+
+    @Before
+    public void setUp() throws IOException {
+        server = ServerBootstrap.bootstrap()
+            .setListenerPort(0)
+            .register("*", (request, response, context) -> response.setEntity(new StringEntity("{}", ContentType.APPLICATION_JSON)))
+            .create();
+        server.start();
+
+        transportExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "transport-deserializer"));
+        requestExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "request-deserializer"));
+        transport = ApacheHttpClient5TransportBuilder.builder(new HttpHost("http", "localhost", server.getLocalPort()))
+            .setMapper(new JacksonJsonpMapper())
+            .setDeserializationExecutor(transportExecutor)
+            .build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        transport.close();
+        server.close(CloseMode.IMMEDIATE);
+        transportExecutor.shutdown();
+        requestExecutor.shutdown();
+    }
+
+    @Test
+    public void testAsyncResponseDeserializedOnExecutor() throws Exception {
+        assertEquals("transport-deserializer", transport.performRequestAsync(null, ENDPOINT, null).get().getName());
+    }
+
+    @Test
+    public void testAsyncResponseDeserializedOnRequestExecutor() throws Exception {
+        ApacheHttpClient5Options options = ApacheHttpClient5Options.DEFAULT.toBuilder()
+            .setDeserializationExecutor(requestExecutor)
+            .build();
+        assertEquals("request-deserializer", transport.performRequestAsync(null, ENDPOINT, options).get().getName());
+    }
+
+    @Test
+    public void testSyncResponseDeserializedOnCallingThread() throws Exception {
+        assertSame(Thread.currentThread(), transport.performRequest(null, ENDPOINT, null));
+    }
+
+    @Test
+    public void testRawJsonBodySentWithContentLength() throws Exception {
+        final Queue<String> requests = new ConcurrentLinkedQueue<>();
+        final HttpServer rawServer = ServerBootstrap.bootstrap().setListenerPort(0).register("*", (request, response, context) -> {
+            requests.add(
+                request.getFirstHeader("Content-Length").getValue()
+                    + " "
+                    + request.containsHeader("Transfer-Encoding")
+                    + " "
+                    + EntityUtils.toString(request.getEntity())
+            );
+            response.setEntity(new StringEntity("{}", ContentType.APPLICATION_JSON));
+        }).create();
+        rawServer.start();
+        final SimpleEndpoint<RawJson, Thread> endpoint = new SimpleEndpoint<>(
+            r -> "POST",
+            r -> "/",
+            r -> Collections.emptyMap(),
+            r -> Collections.emptyMap(),
+            true,
+            THREAD_DESERIALIZER
+        );
+        final HttpHost host = new HttpHost("http", "localhost", rawServer.getLocalPort());
+        try (
+            ApacheHttpClient5Transport chunked = ApacheHttpClient5TransportBuilder.builder(host)
+                .setMapper(new JacksonJsonpMapper())
+                .setChunkedEnabled(true)
+                .build()
+        ) {
+            // Raw documents have a known length, even when other bodies are chunked
+            chunked.performRequestAsync(RawJson.of("{\"a\":1}"), endpoint, null).get();
+            assertEquals("7 false {\"a\":1}", requests.poll());
+        } finally {
+            rawServer.close(CloseMode.IMMEDIATE);
+        }
+    }
+
+    @Test
+    public void testClassicClient() throws Exception {
+        final HttpHost unreachable;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            unreachable = new HttpHost("http", "localhost", socket.getLocalPort());
+        }
+
+        try (
+            ApacheHttpClient5Transport classic = ApacheHttpClient5TransportBuilder.builder(
+                unreachable,
+                new HttpHost("http", "localhost", server.getLocalPort())
+            ).setMapper(new JacksonJsonpMapper()).setClassicClientEnabled(true).build()
+        ) {
+            // The unreachable node is tried first by one of the requests, which is then retried on the other one
+            for (int i = 0; i < 2; i++) {
+                assertSame(Thread.currentThread(), classic.performRequest(null, ENDPOINT, null));
+            }
+
+            // Asynchronous requests still use the asynchronous client
+            assertNotSame(Thread.currentThread(), classic.performRequestAsync(null, ENDPOINT, null).get());
+
+            try (Response response = new OpenSearchGenericClient(classic).execute(Requests.builder().endpoint("/").method("GET").build())) {
+                assertEquals(200, response.getStatus());
+                assertEquals("{}", response.getBody().map(Body::bodyAsString).orElse(null));
+            }
+        }
+    }
+
+    @Test
+    public void testClassicClientReleasesPermitWhenClosed() throws Exception {
+        final HttpHost host = new HttpHost("http", "localhost", server.getLocalPort());
+        final ApacheHttpClient5Transport classic = ApacheHttpClient5TransportBuilder.builder(host)
+            .setMapper(new JacksonJsonpMapper())
+            .setClassicClientEnabled(true)
+            .setNodeConcurrencyLimiter(() -> ConcurrencyLimiter.builder().initialLimit(1).build())
+            .build();
+        classic.performRequest(null, ENDPOINT, null);
+        classic.close();
+
+        // The connection pool is shut down: the attempt fails before reaching the node, and gives its permit back
+        assertThrows(Exception.class, () -> classic.performRequest(null, ENDPOINT, null));
+        assertEquals(0, classic.nodeLimiter(host).inFlight());
+    }
+
+    @Test
+    public void testInstrumentation() throws Exception {
+        final HttpHost unreachable;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            unreachable = new HttpHost("http", "localhost", socket.getLocalPort());
+        }
+        final HttpHost host = new HttpHost("http", "localhost", server.getLocalPort());
+        final Queue<RequestMetrics> metrics = new ConcurrentLinkedQueue<>();
+
+        try (
+            ApacheHttpClient5Transport instrumented = ApacheHttpClient5TransportBuilder.builder(unreachable, host)
+                .setMapper(new JacksonJsonpMapper())
+                .setInstrumentation(metrics::add)
+                .build()
+        ) {
+            // The unreachable node is tried first by one of the requests, which is then retried on the other one
+            instrumented.performRequestAsync(null, ENDPOINT, null).get();
+            instrumented.performRequest(null, ENDPOINT, null);
+        }
+
+        assertEquals(2, metrics.size());
+        assertEquals(1, metrics.stream().mapToInt(RequestMetrics::retries).sum());
+        for (RequestMetrics m : metrics) {
+            assertEquals("simple_endpoint", m.endpointId());
+            assertEquals(host.toURI(), m.node());
+            assertEquals(200, m.statusCode());
+            assertEquals(0, m.requestBytes());
+            assertEquals(2, m.responseBytes());
+            assertNull(m.failure());
+            assertTrue(m.networkNanos() > 0);
+            assertEquals(m.serializationNanos() + m.networkNanos() + m.deserializationNanos(), m.totalNanos());
+        }
+    }
+
+    @Test
+    public void testHedgedRequest() throws Exception {
+        final HttpServer slowServer = ServerBootstrap.bootstrap().setListenerPort(0).register("*", (request, response, context) -> {
+            try {
+                Thread.sleep(3_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            response.setEntity(new StringEntity("{}", ContentType.APPLICATION_JSON));
+        }).create();
+        slowServer.start();
+
+        final SimpleEndpoint<CountRequest, Thread> countEndpoint = new SimpleEndpoint<>(
+            r -> "POST",
+            r -> "/_count",
+            r -> Collections.emptyMap(),
+            r -> Collections.emptyMap(),
+            false,
+            THREAD_DESERIALIZER
+        );
+        final HedgingPolicy policy = HedgingPolicy.builder().delay(Duration.ofMillis(100)).budget(1, 10).build();
+        try (
+            ApacheHttpClient5Transport hedging = ApacheHttpClient5TransportBuilder.builder(
+                new HttpHost("http", "localhost", slowServer.getLocalPort()),
+                new HttpHost("http", "localhost", server.getLocalPort())
+            ).setMapper(new JacksonJsonpMapper()).setHedgingPolicy(policy).build()
+        ) {
+            // One of the requests is first sent to the slow node, and answered by the other one
+            final long start = System.nanoTime();
+            for (int i = 0; i < 2; i++) {
+                hedging.performRequest(new CountRequest.Builder().build(), countEndpoint, null);
+            }
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+            assertEquals(1, policy.hedgedRequests());
+            assertEquals(1, policy.wonHedges());
+
+            // Other requests are not hedged: the one sent to the slow node waits for it
+            final CompletableFuture<Thread> first = hedging.performRequestAsync(null, ENDPOINT, null);
+            final CompletableFuture<Thread> second = hedging.performRequestAsync(null, ENDPOINT, null);
+            CompletableFuture.anyOf(first, second).get();
+            Thread.sleep(500);
+            assertTrue(first.isDone() ^ second.isDone());
+            assertEquals(1, policy.hedgedRequests());
+        } finally {
+            slowServer.close(CloseMode.IMMEDIATE);
+        }
+    }
+
+    @Test
+    public void testNodeConcurrencyLimit() throws Exception {
+        final HttpServer slowServer = ServerBootstrap.bootstrap().setListenerPort(0).register("*", (request, response, context) -> {
+            try {
+                Thread.sleep(1_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            response.setEntity(new StringEntity("{}", ContentType.APPLICATION_JSON));
+        }).create();
+        slowServer.start();
+
+        final HttpHost slowHost = new HttpHost("http", "localhost", slowServer.getLocalPort());
+        try (
+            ApacheHttpClient5Transport limited = ApacheHttpClient5TransportBuilder.builder(
+                slowHost,
+                new HttpHost("http", "localhost", server.getLocalPort())
+            )
+                .setMapper(new JacksonJsonpMapper())
+                .setNodeConcurrencyLimiter(() -> ConcurrencyLimiter.builder().initialLimit(1).build())
+                .build()
+        ) {
+            final CompletableFuture<Thread> slow = limited.performRequestAsync(null, ENDPOINT, null);
+
+            // The slow node is saturated: the following requests go to the other one
+            final long start = System.nanoTime();
+            for (int i = 0; i < 4; i++) {
+                limited.performRequest(null, ENDPOINT, null);
+            }
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+            assertEquals(1, limited.nodeLimiter(slowHost).inFlight());
+
+            limited.setNodes(Collections.singletonList(new Node(slowHost)));
+            ExecutionException e = assertThrows(ExecutionException.class, () -> limited.performRequestAsync(null, ENDPOINT, null).get());
+            assertTrue(e.getCause() instanceof ConcurrencyLimitExceededException);
+
+            slow.get();
+            assertEquals(0, limited.nodeLimiter(slowHost).inFlight());
+            limited.performRequestAsync(null, ENDPOINT, null).get();
+        } finally {
+            slowServer.close(CloseMode.IMMEDIATE);
+        }
+    }
+
+    @Test
+    public void testHttp2() throws Exception {
+        final Queue<ProtocolVersion> versions = new ConcurrentLinkedQueue<>();
+        final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+        // Accepts both HTTP/2 with prior knowledge and HTTP/1.1
+        final HttpAsyncServer h2Server = H2ServerBootstrap.bootstrap()
+            .register("*", () -> new AbstractClassicServerExchangeHandler(1024, serverExecutor) {
+                @Override
+                protected void handle(
+                    HttpRequest request,
+                    InputStream requestStream,
+                    HttpResponse response,
+                    OutputStream responseStream,
+                    HttpContext context
+                ) throws IOException {
+                    versions.add(context.getProtocolVersion());
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    response.setCode(200);
+                    response.addHeader("Content-Type", ContentType.APPLICATION_JSON.toString());
+                    responseStream.write("{}".getBytes(StandardCharsets.UTF_8));
+                }
+            })
+            .create();
+        h2Server.start();
+        final ListenerEndpoint endpoint = h2Server.listen(new InetSocketAddress(0), URIScheme.HTTP).get();
+        final HttpHost h2Host = new HttpHost("http", "localhost", ((InetSocketAddress) endpoint.getAddress()).getPort());
+
+        try (
+            ApacheHttpClient5Transport h2 = ApacheHttpClient5TransportBuilder.builder(h2Host)
+                .setMapper(new JacksonJsonpMapper())
+                .setHttp2Enabled(true)
+                .setHttp2MaxConcurrentStreams(3)
+                .build()
+        ) {
+            final List<CompletableFuture<Thread>> futures = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                futures.add(h2.performRequestAsync(null, ENDPOINT, null));
+            }
+            assertEquals(3, h2.getHttp2StreamStats().get(h2Host).activeStreams());
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+
+            // The requests over the limit were sent over HTTP/1.1
+            assertEquals(3, versions.stream().filter(HttpVersion.HTTP_2::equals).count());
+            assertEquals(2, versions.stream().filter(HttpVersion.HTTP_1_1::equals).count());
+            final Http2StreamStats stats = h2.getHttp2StreamStats().get(h2Host);
+            assertEquals(0, stats.activeStreams());
+            assertEquals(3, stats.peakStreams());
+            assertEquals(2, stats.overflowedRequests());
+            assertFalse(stats.isHttp1Fallback());
+
+            // Synchronous requests without the classic client use HTTP/2 too
+            versions.clear();
+            h2.performRequest(null, ENDPOINT, null);
+            assertEquals(HttpVersion.HTTP_2, versions.poll());
+        } finally {
+            h2Server.close(CloseMode.IMMEDIATE);
+            serverExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testHttp2FallsBackToHttp1() throws Exception {
+        final HttpHost host = new HttpHost("http", "localhost", server.getLocalPort());
+        try (
+            ApacheHttpClient5Transport h2 = ApacheHttpClient5TransportBuilder.builder(host)
+                .setMapper(new JacksonJsonpMapper())
+                .setHttp2Enabled(true)
+                .build()
+        ) {
+            // The server only speaks HTTP/1.1: the request is sent again over HTTP/1.1, and so are the following ones
+            for (int i = 0; i < 2; i++) {
+                h2.performRequestAsync(null, ENDPOINT, null).get();
+            }
+            final Http2StreamStats stats = h2.getHttp2StreamStats().get(host);
+            assertTrue(stats.isHttp1Fallback());
+            assertEquals(1, stats.peakStreams());
+            assertEquals(0, stats.activeStreams());
+        }
+    }
+
+    @Test
+    public void testHttp2FallbackResendsPostRequests() throws Exception {
+        final HttpHost host = new HttpHost("http", "localhost", server.getLocalPort());
+        final SimpleEndpoint<Void, Thread> post = new SimpleEndpoint<>(
+            r -> "POST",
+            r -> "/",
+            r -> Collections.emptyMap(),
+            r -> Collections.emptyMap(),
+            false,
+            THREAD_DESERIALIZER
+        );
+        try (
+            ApacheHttpClient5Transport h2 = ApacheHttpClient5TransportBuilder.builder(host)
+                .setMapper(new JacksonJsonpMapper())
+                .setHttp2Enabled(true)
+                .build()
+        ) {
+            // The node did not process the request when HTTP/2 was refused, so it is sent again over HTTP/1.1
+            assertNotNull(h2.performRequestAsync(null, post, null).get());
+            final Http2StreamStats stats = h2.getHttp2StreamStats().get(host);
+            assertTrue(stats.isHttp1Fallback());
+            assertEquals(0, stats.activeStreams());
+            assertNotNull(h2.performRequestAsync(null, post, null).get());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opensearch.client.opensearch.core.CountRequest;
+import org.opensearch.client.opensearch.core.IndexRequest;
+import org.opensearch.client.opensearch.core.SearchRequest;
+
+public class HedgingPolicyTest extends Assert {
+
+    @Test
+    public void testHedgeableRequests() {
+        HedgingPolicy policy = HedgingPolicy.builder().build();
+        assertTrue(policy.isHedgeable(new SearchRequest.Builder().build()));
+        // Each copy would open a scroll context
+        assertFalse(policy.isHedgeable(new SearchRequest.Builder().scroll(t -> t.time("1m")).build()));
+        assertTrue(policy.isHedgeable(new CountRequest.Builder().build()));
+        assertFalse(policy.isHedgeable(new IndexRequest.Builder<>().index("index").document("{}").build()));
+        assertFalse(policy.isHedgeable(null));
+    }
+
+    @Test
+    public void testBudget() {
+        HedgingPolicy policy = HedgingPolicy.builder().budget(0.1, 2).build();
+        assertTrue(policy.tryAcquire());
+        assertTrue(policy.tryAcquire());
+        assertFalse(policy.tryAcquire());
+
+        for (int i = 0; i < 9; i++) {
+            policy.onRequest();
+        }
+        assertFalse(policy.tryAcquire());
+        policy.onRequest();
+        assertTrue(policy.tryAcquire());
+        assertEquals(3, policy.hedgedRequests());
+
+        // The budget does not grow beyond the burst
+        for (int i = 0; i < 100; i++) {
+            policy.onRequest();
+        }
+        assertTrue(policy.tryAcquire());
+        assertTrue(policy.tryAcquire());
+        assertFalse(policy.tryAcquire());
+    }
+
+    @Test
+    public void testPercentileDelay() {
+        HedgingPolicy policy = HedgingPolicy.builder().delay(Duration.ofMillis(5)).percentile(90).build();
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5), policy.delayNanos());
+
+        for (int i = 1; i <= HedgingPolicy.MIN_SAMPLES; i++) {
+            policy.onResponse(TimeUnit.MILLISECONDS.toNanos(i), false);
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(90), policy.delayNanos());
+
+        // The fixed delay is a lower bound
+        policy = HedgingPolicy.builder().delay(Duration.ofSeconds(1)).percentile(90).build();
+        for (int i = 1; i <= HedgingPolicy.MIN_SAMPLES; i++) {
+            policy.onResponse(TimeUnit.MILLISECONDS.toNanos(i), true);
+        }
+        assertEquals(TimeUnit.SECONDS.toNanos(1), policy.delayNanos());
+        assertEquals(HedgingPolicy.MIN_SAMPLES, policy.wonHedges());
+    }
+}
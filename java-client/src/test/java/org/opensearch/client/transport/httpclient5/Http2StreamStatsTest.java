@@ -0,0 +1,49 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class Http2StreamStatsTest extends Assert {
+
+    @Test
+    public void testHttp1FallbackIsRetried() {
+        AtomicLong now = new AtomicLong();
+        Http2StreamStats stats = new Http2StreamStats(10, now::get);
+        assertTrue(stats.tryAcquire());
+        stats.release(false);
+        assertTrue(stats.fallBackToHttp1());
+        assertTrue(stats.isHttp1Fallback());
+        assertFalse(stats.tryAcquire());
+
+        // Requests that failed at the same time don't extend the fallback
+        now.addAndGet(Http2StreamStats.INITIAL_FALLBACK_NANOS / 2);
+        assertTrue(stats.fallBackToHttp1());
+        now.addAndGet(Http2StreamStats.INITIAL_FALLBACK_NANOS / 2);
+        assertFalse(stats.isHttp1Fallback());
+
+        // HTTP/2 is tried again, and another failure doubles the fallback
+        assertTrue(stats.tryAcquire());
+        stats.release(false);
+        assertTrue(stats.fallBackToHttp1());
+        now.addAndGet(Http2StreamStats.INITIAL_FALLBACK_NANOS);
+        assertTrue(stats.isHttp1Fallback());
+        now.addAndGet(Http2StreamStats.INITIAL_FALLBACK_NANOS);
+        assertFalse(stats.isHttp1Fallback());
+
+        // Once the node answers over HTTP/2, it no longer falls back
+        assertTrue(stats.tryAcquire());
+        stats.release(true);
+        assertFalse(stats.fallBackToHttp1());
+        assertFalse(stats.isHttp1Fallback());
+        assertTrue(stats.tryAcquire());
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.hc.client5.http.impl.auth.BasicAuthCache;
+import org.apache.hc.core5.http.HttpHost;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opensearch.client.transport.httpclient5.ApacheHttpClient5Transport.NodeSnapshot;
+import org.opensearch.client.transport.httpclient5.ApacheHttpClient5Transport.NodeTuple;
+import org.opensearch.client.transport.httpclient5.internal.Node;
+import org.opensearch.client.transport.httpclient5.internal.NodeSelector;
+
+public class NodeSnapshotTest extends Assert {
+    private final List<Node> nodes = Arrays.asList(
+        new Node(new HttpHost("node1", 9200)),
+        new Node(new HttpHost("node2", 9200)),
+        new Node(new HttpHost("node3", 9200))
+    );
+    private final NodeTuple<List<Node>> nodeTuple = new NodeTuple<>(nodes, new BasicAuthCache());
+    private final Map<HttpHost, DeadHostState> denylist = new HashMap<>();
+    private long nanoTime = 0;
+    private final Supplier<Long> timeSupplier = () -> nanoTime;
+
+    @Test
+    public void testRoundRobin() throws IOException {
+        NodeSnapshot snapshot = NodeSnapshot.create(nodeTuple, denylist, 0, NodeSelector.ANY);
+        AtomicInteger lastNodeIndex = new AtomicInteger(Integer.MAX_VALUE - 4);
+        for (int i = 0; i < 8; i++) {
+            List<Node> expected = new ArrayList<>(nodes);
+            Collections.rotate(expected, lastNodeIndex.get());
+            assertEquals(expected, toList(ApacheHttpClient5Transport.selectNodes(snapshot, lastNodeIndex, NodeSelector.ANY)));
+        }
+    }
+
+    @Test
+    public void testStatelessSelectorIsCalledOnce() throws IOException {
+        CountingSelector selector = new CountingSelector(true);
+        NodeSnapshot snapshot = NodeSnapshot.create(nodeTuple, denylist, 0, selector);
+        AtomicInteger lastNodeIndex = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(2, toList(ApacheHttpClient5Transport.selectNodes(snapshot, lastNodeIndex, selector)).size());
+        }
+        assertEquals(1, selector.calls);
+    }
+
+    @Test
+    public void testSelectorIsCalledForEachRequest() throws IOException {
+        CountingSelector selector = new CountingSelector(false);
+        NodeSnapshot snapshot = NodeSnapshot.create(nodeTuple, denylist, 0, selector);
+        AtomicInteger lastNodeIndex = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(2, toList(ApacheHttpClient5Transport.selectNodes(snapshot, lastNodeIndex, selector)).size());
+        }
+        assertEquals(3, selector.calls);
+        assertEquals(3, snapshot.livingNodes.size());
+    }
+
+    @Test
+    public void testStaleSnapshot() throws IOException {
+        denylist.put(nodes.get(0).getHost(), new DeadHostState(timeSupplier));
+        NodeSnapshot snapshot = NodeSnapshot.create(nodeTuple, denylist, 1, NodeSelector.ANY);
+        assertEquals(nodes.subList(1, 3), snapshot.livingNodes);
+        assertTrue(snapshot.isCurrent(nodeTuple, 1));
+
+        assertFalse(snapshot.isCurrent(nodeTuple, 2));
+        assertFalse(snapshot.isCurrent(new NodeTuple<>(nodes, nodeTuple.authCache), 1));
+
+        // The dead node is due to be retried
+        nanoTime += TimeUnit.MINUTES.toNanos(1) + 1;
+        assertFalse(snapshot.isCurrent(nodeTuple, 1));
+        assertEquals(nodes, NodeSnapshot.create(nodeTuple, denylist, 1, NodeSelector.ANY).livingNodes);
+    }
+
+    @Test
+    public void testRevivesDeadNode() throws IOException {
+        for (Node node : nodes) {
+            nanoTime += 1;
+            denylist.put(node.getHost(), new DeadHostState(timeSupplier));
+        }
+        NodeSnapshot snapshot = NodeSnapshot.create(nodeTuple, denylist, 3, NodeSelector.ANY);
+        assertTrue(snapshot.livingNodes.isEmpty());
+        assertEquals(
+            Collections.singletonList(nodes.get(0)),
+            toList(ApacheHttpClient5Transport.selectNodes(snapshot, new AtomicInteger(), NodeSelector.ANY))
+        );
+
+        NodeSelector rejectAll = n -> {
+            for (Iterator<Node> itr = n.iterator(); itr.hasNext();) {
+                itr.next();
+                itr.remove();
+            }
+        };
+        assertThrows(IOException.class, () -> ApacheHttpClient5Transport.selectNodes(snapshot, new AtomicInteger(), rejectAll));
+    }
+
+    private static List<Node> toList(Iterator<Node> itr) {
+        List<Node> list = new ArrayList<>();
+        itr.forEachRemaining(list::add);
+        return list;
+    }
+
+    /**
+     * Keeps all the nodes but the last one, and counts how many times it was called.
+     */
+    private static class CountingSelector implements NodeSelector {
+        private final boolean stateless;
+        private int calls;
+
+        CountingSelector(boolean stateless) {
+            this.stateless = stateless;
+        }
+
+        @Override
+        public void select(Iterable<Node> nodes) {
+            calls++;
+            Node last = null;
+            for (Node node : nodes) {
+                last = node;
+            }
+            for (Iterator<Node> itr = nodes.iterator(); itr.hasNext();) {
+                if (itr.next() == last) {
+                    itr.remove();
+                }
+            }
+        }
+
+        @Override
+        public boolean isStateless() {
+            return stateless;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.RawJson;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.opensearch.core.BulkRequest;
+import org.opensearch.client.opensearch.core.bulk.BulkOperation;
+import org.opensearch.client.transport.TransportException;
+
+public class JsonpAsyncEntityProducerTest extends Assert {
+    private final JsonpMapper mapper = new JacksonJsonpMapper();
+
+    @Test
+    public void testProducesNdJsonAcrossWrites() throws IOException {
+        BulkRequest request = bulkRequest(200);
+        JsonpAsyncEntityProducer producer = new JsonpAsyncEntityProducer(request, mapper, ContentType.APPLICATION_JSON, false, 256);
+
+        String body = new String(produce(producer, 100), StandardCharsets.UTF_8);
+
+        assertEquals(expectedBody(request), body);
+        assertTrue(producer.isChunked());
+        assertEquals(-1, producer.getContentLength());
+        assertNull(producer.getContentEncoding());
+    }
+
+    @Test
+    public void testProducesGzipBody() throws IOException {
+        BulkRequest request = bulkRequest(200);
+        JsonpAsyncEntityProducer producer = new JsonpAsyncEntityProducer(request, mapper, ContentType.APPLICATION_JSON, true, 256);
+
+        byte[] compressed = produce(producer, 100);
+
+        assertEquals("gzip", producer.getContentEncoding());
+        assertEquals(expectedBody(request), new String(gunzip(compressed), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testProducesJsonBody() throws IOException {
+        JsonpAsyncEntityProducer producer = new JsonpAsyncEntityProducer(
+            Collections.singletonMap("field", "value"),
+            mapper,
+            ContentType.APPLICATION_JSON,
+            false
+        );
+
+        assertEquals("{\"field\":\"value\"}", new String(produce(producer, 4), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testIsRepeatable() throws IOException {
+        BulkRequest request = bulkRequest(50);
+        JsonpAsyncEntityProducer producer = new JsonpAsyncEntityProducer(request, mapper, ContentType.APPLICATION_JSON, true, 256);
+
+        byte[] first = produce(producer, 1000);
+        producer.releaseResources();
+        byte[] second = produce(producer, 1000);
+
+        assertTrue(producer.isRepeatable());
+        assertArrayEquals(gunzip(first), gunzip(second));
+    }
+
+    @Test
+    public void testWrapsSerializationFailures() {
+        JsonpAsyncEntityProducer producer = new JsonpAsyncEntityProducer(new Object(), mapper, ContentType.APPLICATION_JSON, false);
+
+        assertThrows(TransportException.class, () -> produce(producer, 1000));
+    }
+
+    @Test
+    public void testEntityWritesSameContent() throws IOException {
+        BulkRequest request = bulkRequest(20);
+        JsonpHttpEntity entity = new JsonpHttpEntity(request, mapper, ContentType.APPLICATION_JSON, false);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entity.writeTo(out);
+
+        assertEquals(expectedBody(request), new String(out.toByteArray(), StandardCharsets.UTF_8));
+        byte[] produced = produce((JsonpAsyncEntityProducer) entity.createAsyncEntityProducer(), 64);
+        assertEquals(expectedBody(request), new String(produced, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testWritesRawDocumentsVerbatim() throws IOException {
+        RawJson first = RawJson.of("{ \"value\" : 0 }".getBytes(StandardCharsets.UTF_8));
+        RawJson second = RawJson.of(ByteBuffer.wrap("[{\"value\":1}]".getBytes(StandardCharsets.UTF_8), 1, 11));
+        BulkRequest request = BulkRequest.of(
+            b -> b.operations(o -> o.index(i -> i.index("test").id("0").document(first)))
+                .operations(o -> o.create(c -> c.index("test").id("1").document(second)))
+        );
+        JsonpAsyncEntityProducer producer = new JsonpAsyncEntityProducer(request, mapper, ContentType.APPLICATION_JSON, false, 256);
+
+        assertEquals(
+            "{\"index\":{\"_id\":\"0\",\"_index\":\"test\"}}\n{ \"value\" : 0 }\n"
+                + "{\"create\":{\"_id\":\"1\",\"_index\":\"test\"}}\n{\"value\":1}\n",
+            new String(produce(producer, 7), StandardCharsets.UTF_8)
+        );
+    }
+
+    private static byte[] produce(JsonpAsyncEntityProducer producer, int capacity) throws IOException {
+        CapturingChannel channel = new CapturingChannel(capacity);
+        int calls = 0;
+        while (!channel.ended) {
+            producer.produce(channel);
+            assertTrue("too many calls to produce()", ++calls < 100_000);
+        }
+        return channel.out.toByteArray();
+    }
+
+    private String expectedBody(BulkRequest request) {
+        StringBuilder sb = new StringBuilder();
+        for (BulkOperation op : request.operations()) {
+            sb.append("{\"index\":{\"_id\":\"").append(op.index().id()).append("\",\"_index\":\"test\"}}\n");
+            sb.append("{\"value\":").append(op.index().id()).append("}\n");
+        }
+        return sb.toString();
+    }
+
+    private static BulkRequest bulkRequest(int size) {
+        List<BulkOperation> operations = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            final int id = i;
+            operations.add(
+                BulkOperation.of(b -> b.index(o -> o.index("test").id(String.valueOf(id)).document(Collections.singletonMap("value", id))))
+            );
+        }
+        return BulkRequest.of(b -> b.operations(operations));
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[1024];
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                out.write(buf, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * A channel that accepts at most {@code capacity} bytes per call to {@code produce()}.
+     */
+    private static class CapturingChannel implements DataStreamChannel {
+        private final int capacity;
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private int remaining;
+        private boolean ended;
+
+        CapturingChannel(int capacity) {
+            this.capacity = capacity;
+            this.remaining = capacity;
+        }
+
+        @Override
+        public void requestOutput() {}
+
+        @Override
+        public int write(ByteBuffer src) {
+            int n = Math.min(remaining, src.remaining());
+            byte[] bytes = new byte[n];
+            src.get(bytes);
+            out.write(bytes, 0, n);
+            remaining -= n;
+            if (remaining == 0) {
+                // Simulate a socket buffer that has been flushed before the next write
+                remaining = capacity;
+            }
+            return n;
+        }
+
+        @Override
+        public void endStream() {
+            assertFalse("stream ended twice", ended);
+            ended = true;
+        }
+
+        @Override
+        public void endStream(List<? extends Header> trailers) {
+            endStream();
+        }
+    }
+}
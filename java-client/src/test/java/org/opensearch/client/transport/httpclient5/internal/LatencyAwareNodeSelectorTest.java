@@ -0,0 +1,132 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5.internal;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hc.core5.http.HttpHost;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LatencyAwareNodeSelectorTest extends Assert {
+    private final Node fast = new Node(new HttpHost("fast", 9200));
+    private final Node slow = new Node(new HttpHost("slow", 9200));
+    private final AtomicLong now = new AtomicLong();
+    private final LatencyAwareNodeSelector selector = new LatencyAwareNodeSelector(NodeSelector.ANY, Duration.ofSeconds(10), now::get);
+
+    @Test
+    public void testPrefersFastNode() {
+        observe(fast, 5);
+        observe(slow, 200);
+
+        assertEquals(100, timesRankedFirst(fast, Arrays.asList(slow, fast), 100));
+    }
+
+    @Test
+    public void testPrefersLessLoadedNode() {
+        observe(fast, 10);
+        observe(slow, 10);
+        for (int i = 0; i < 3; i++) {
+            selector.onAttemptStarted(slow);
+        }
+
+        assertEquals(100, timesRankedFirst(fast, Arrays.asList(slow, fast), 100));
+
+        for (int i = 0; i < 3; i++) {
+            selector.onAttemptCancelled(slow);
+        }
+        assertEquals(selector.cost(fast, now.get()), selector.cost(slow, now.get()), 0.0);
+    }
+
+    @Test
+    public void testPenalizesFailures() {
+        observe(fast, 50);
+        selector.onAttemptStarted(slow);
+        selector.onAttemptCompleted(slow, TimeUnit.MILLISECONDS.toNanos(1), false);
+
+        assertTrue(selector.cost(slow, now.get()) >= LatencyAwareNodeSelector.FAILURE_PENALTY_NANOS);
+        assertEquals(100, timesRankedFirst(fast, Arrays.asList(slow, fast), 100));
+    }
+
+    @Test
+    public void testLatencyDecays() {
+        observe(fast, 10);
+        observe(slow, 500);
+
+        // Lower latencies are only taken into account progressively, unlike peaks
+        observe(slow, 10);
+        assertTrue(selector.cost(slow, now.get()) > selector.cost(fast, now.get()) * 10);
+
+        // Idle nodes get their cost decayed, so that they are tried again
+        double cost = selector.cost(slow, now.get());
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertTrue(selector.cost(slow, now.get()) < cost / 100);
+    }
+
+    @Test
+    public void testKeepsOtherNodesInOrder() {
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            nodes.add(new Node(new HttpHost("node" + i, 9200)));
+        }
+        for (int i = 0; i < 5; i++) {
+            observe(nodes.get(i), 10 * (5 - i));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            List<Node> ranked = new ArrayList<>(nodes);
+            selector.rank(ranked);
+
+            List<Node> others = new ArrayList<>(nodes);
+            others.remove(ranked.get(0));
+            assertEquals(others, ranked.subList(1, ranked.size()));
+        }
+    }
+
+    @Test
+    public void testSingleNode() {
+        List<Node> nodes = new ArrayList<>(Arrays.asList(fast));
+        selector.rank(nodes);
+        assertEquals(Arrays.asList(fast), nodes);
+    }
+
+    @Test
+    public void testDelegatesFiltering() {
+        LatencyAwareNodeSelector filtering = new LatencyAwareNodeSelector(nodes -> {
+            Iterator<Node> it = nodes.iterator();
+            it.next();
+            it.remove();
+        });
+        List<Node> nodes = new ArrayList<>(Arrays.asList(fast, slow));
+        filtering.select(nodes);
+        assertEquals(Arrays.asList(slow), nodes);
+    }
+
+    private void observe(Node node, long millis) {
+        selector.onAttemptStarted(node);
+        selector.onAttemptCompleted(node, TimeUnit.MILLISECONDS.toNanos(millis), true);
+    }
+
+    private int timesRankedFirst(Node expected, List<Node> nodes, int iterations) {
+        int count = 0;
+        for (int i = 0; i < iterations; i++) {
+            List<Node> ranked = new ArrayList<>(nodes);
+            selector.rank(ranked);
+            if (ranked.get(0) == expected) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
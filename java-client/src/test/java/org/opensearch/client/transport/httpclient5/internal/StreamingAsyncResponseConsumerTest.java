@@ -0,0 +1,156 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.impl.BasicEntityDetails;
+import org.apache.hc.core5.http.message.BasicHttpResponse;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StreamingAsyncResponseConsumerTest extends Assert {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final CompletableFuture<ClassicHttpResponse> handover = new CompletableFuture<>();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testHandsResponseOverBeforeBodyIsReceived() throws Exception {
+        StreamingAsyncResponseConsumer consumer = new StreamingAsyncResponseConsumer(16, executor);
+        AtomicInteger capacity = new AtomicInteger();
+        consumer.consumeResponse(response(), entityDetails(), null, callback(response -> {}));
+        ClassicHttpResponse response = handover.get(5, TimeUnit.SECONDS);
+        consumer.updateCapacity(capacity::addAndGet);
+
+        assertEquals(200, response.getCode());
+        assertEquals(ContentType.APPLICATION_JSON.getMimeType(), ContentType.parse(response.getEntity().getContentType()).getMimeType());
+
+        CompletableFuture<String> body = CompletableFuture.supplyAsync(() -> read(response), executor);
+        byte[] bytes = "{\"took\":1,\"hits\":[1,2,3,4,5,6,7,8,9,10]}".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i += 8) {
+            consumer.consume(ByteBuffer.wrap(bytes, i, Math.min(8, bytes.length - i)));
+        }
+        consumer.streamEnd(null);
+
+        assertEquals(new String(bytes, StandardCharsets.UTF_8), body.get(5, TimeUnit.SECONDS));
+        assertTrue("capacity should have been released by the reader", capacity.get() > 0);
+    }
+
+    @Test
+    public void testBodyRemainsReadableAfterExchangeCompletes() throws Exception {
+        StreamingAsyncResponseConsumer consumer = new StreamingAsyncResponseConsumer(16, executor);
+        consumer.consumeResponse(response(), entityDetails(), null, callback(response -> {}));
+        ClassicHttpResponse response = handover.get(5, TimeUnit.SECONDS);
+        consumer.updateCapacity(increment -> {});
+
+        consumer.consume(ByteBuffer.wrap("{\"took\":1}".getBytes(StandardCharsets.UTF_8)));
+        consumer.streamEnd(null);
+        consumer.releaseResources();
+
+        assertEquals("{\"took\":1}", read(response));
+    }
+
+    @Test
+    public void testReportsFailureToReader() throws Exception {
+        StreamingAsyncResponseConsumer consumer = new StreamingAsyncResponseConsumer(16, executor);
+        consumer.consumeResponse(response(), entityDetails(), null, callback(response -> {}));
+        ClassicHttpResponse response = handover.get(5, TimeUnit.SECONDS);
+        consumer.updateCapacity(increment -> {});
+
+        consumer.consume(ByteBuffer.wrap("{\"took\"".getBytes(StandardCharsets.UTF_8)));
+        consumer.failed(new IOException("connection reset"));
+
+        IOException e = assertThrows(IOException.class, () -> {
+            try (InputStream in = response.getEntity().getContent()) {
+                while (in.read() != -1) {
+                    // keep reading
+                }
+            }
+        });
+        assertEquals("connection reset", e.getMessage());
+    }
+
+    @Test
+    public void testResponseWithoutBody() throws Exception {
+        StreamingAsyncResponseConsumer consumer = new StreamingAsyncResponseConsumer(16, executor);
+        consumer.consumeResponse(response(), null, null, callback(response -> {}));
+
+        assertNull(handover.get(5, TimeUnit.SECONDS).getEntity());
+    }
+
+    @Test
+    public void testHandsResponseOverOnExecutor() throws Exception {
+        StreamingAsyncResponseConsumer consumer = new StreamingAsyncResponseConsumer(16, executor);
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        consumer.consumeResponse(response(), entityDetails(), null, callback(response -> thread.set(Thread.currentThread())));
+        handover.get(5, TimeUnit.SECONDS);
+
+        assertNotSame(Thread.currentThread(), thread.get());
+    }
+
+    private FutureCallback<ClassicHttpResponse> callback(Consumer<ClassicHttpResponse> onCompleted) {
+        return new FutureCallback<ClassicHttpResponse>() {
+            @Override
+            public void completed(ClassicHttpResponse result) {
+                onCompleted.accept(result);
+                handover.complete(result);
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                handover.completeExceptionally(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                handover.cancel(false);
+            }
+        };
+    }
+
+    private static BasicHttpResponse response() {
+        return new BasicHttpResponse(200, "OK");
+    }
+
+    private static BasicEntityDetails entityDetails() {
+        return new BasicEntityDetails(-1, ContentType.APPLICATION_JSON);
+    }
+
+    private static String read(ClassicHttpResponse response) {
+        try (InputStream in = response.getEntity().getContent()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[5];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                out.write(buf, 0, n);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5.sniff;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import org.apache.hc.core5.http.HttpHost;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.json.jsonb.JsonbJsonpMapper;
+import org.opensearch.client.transport.httpclient5.internal.Node;
+
+public class OpenSearchNodesSnifferTest extends Assert {
+    private static final String NODES = "{"
+        + "\"_nodes\":{\"total\":3,\"successful\":3,\"failed\":0},"
+        + "\"cluster_name\":\"test\","
+        + "\"nodes\":{"
+        + "\"n1\":{\"name\":\"data-1\",\"transport_address\":\"10.0.0.1:9300\",\"host\":\"10.0.0.1\",\"version\":\"2.17.0\","
+        + "\"roles\":[\"data\",\"ingest\",\"custom_role\"],\"attributes\":{\"zone\":\"a\",\"shard_indexing_pressure_enabled\":\"true\"},"
+        + "\"http\":{\"bound_address\":[\"[::1]:9200\",\"127.0.0.1:9200\"],\"publish_address\":\"10.0.0.1:9200\","
+        + "\"max_content_length_in_bytes\":104857600}},"
+        + "\"n2\":{\"name\":\"coordinating-1\",\"version\":\"2.17.0\",\"roles\":[],"
+        + "\"http\":{\"bound_address\":[\"10.0.0.2:9200\"],\"publish_address\":\"coordinating-1.local/10.0.0.2:9200\"}},"
+        + "\"n3\":{\"name\":\"no-http\",\"version\":\"2.17.0\",\"roles\":[\"cluster_manager\"]}"
+        + "}}";
+
+    @Test
+    public void testReadNodes() {
+        testReadNodes(new JacksonJsonpMapper());
+        testReadNodes(new JsonbJsonpMapper());
+    }
+
+    private void testReadNodes(JsonpMapper mapper) {
+        List<Node> nodes = OpenSearchNodesSniffer.readNodes(
+            new ByteArrayInputStream(NODES.getBytes(StandardCharsets.UTF_8)),
+            mapper,
+            OpenSearchNodesSniffer.Scheme.HTTPS
+        );
+        assertEquals(2, nodes.size());
+
+        Node data = nodes.get(0);
+        assertEquals(new HttpHost("https", "10.0.0.1", 9200), data.getHost());
+        assertEquals(3, data.getBoundHosts().size());
+        assertTrue(data.getBoundHosts().contains(new HttpHost("https", "127.0.0.1", 9200)));
+        assertEquals("data-1", data.getName());
+        assertEquals("2.17.0", data.getVersion());
+        assertEquals(new Node.Roles(new HashSet<>(Arrays.asList("data", "ingest", "custom_role"))), data.getRoles());
+        assertFalse(data.getRoles().isCoordinatingOnly());
+        assertEquals(Collections.singletonList("a"), data.getAttributes().get("zone"));
+
+        Node coordinating = nodes.get(1);
+        assertEquals(new HttpHost("https", "coordinating-1.local", 9200), coordinating.getHost());
+        assertTrue(coordinating.getRoles().isCoordinatingOnly());
+        assertNull(coordinating.getAttributes());
+    }
+}
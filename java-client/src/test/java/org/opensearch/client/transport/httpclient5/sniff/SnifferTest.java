@@ -0,0 +1,107 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.httpclient5.sniff;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.apache.hc.core5.http.HttpHost;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.transport.httpclient5.ApacheHttpClient5Transport;
+import org.opensearch.client.transport.httpclient5.ApacheHttpClient5TransportBuilder;
+import org.opensearch.client.transport.httpclient5.internal.Node;
+
+public class SnifferTest extends Assert {
+    private final Node initial = new Node(new HttpHost("http", "localhost", 9200));
+    private final BlockingQueue<List<Node>> sniffed = new LinkedBlockingQueue<>();
+    private final NodesSniffer nodesSniffer = () -> {
+        List<Node> nodes = sniffed.poll();
+        if (nodes == null) {
+            throw new IllegalStateException("no nodes to sniff");
+        }
+        return nodes;
+    };
+    private ApacheHttpClient5Transport transport;
+
+    @Before
+    public void setUp() {
+        transport = ApacheHttpClient5TransportBuilder.builder(initial.getHost()).setMapper(new JacksonJsonpMapper()).build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        transport.close();
+    }
+
+    @Test
+    public void testSniffsOnStartAndPeriodically() throws Exception {
+        List<Node> first = nodes("node1", "node2");
+        List<Node> second = nodes("node2", "node3");
+        sniffed.add(first);
+        sniffed.add(second);
+
+        try (Sniffer sniffer = Sniffer.builder(transport).setNodesSniffer(nodesSniffer).setSniffIntervalMillis(50).build()) {
+            awaitNodes(second);
+        }
+    }
+
+    @Test
+    public void testSniffOnFailure() throws Exception {
+        List<Node> first = nodes("node1");
+        List<Node> second = nodes("node1", "node2");
+        sniffed.add(first);
+
+        SniffOnFailureListener listener = new SniffOnFailureListener();
+        try (
+            Sniffer sniffer = Sniffer.builder(transport)
+                .setNodesSniffer(nodesSniffer)
+                .setSniffIntervalMillis((int) TimeUnit.HOURS.toMillis(1))
+                .build()
+        ) {
+            listener.setSniffer(sniffer);
+            awaitNodes(first);
+
+            sniffed.add(second);
+            listener.onFailure(first.get(0));
+            awaitNodes(second);
+
+            assertThrows(IllegalStateException.class, () -> listener.setSniffer(sniffer));
+        }
+    }
+
+    @Test
+    public void testKeepsNodesWhenNoneAreSniffed() throws Exception {
+        sniffed.add(Collections.emptyList());
+
+        try (Sniffer sniffer = Sniffer.builder(transport).setNodesSniffer(nodesSniffer).build()) {
+            sniffed.add(Collections.emptyList());
+            sniffer.sniff();
+            assertEquals(Collections.singletonList(initial), transport.getNodes());
+        }
+    }
+
+    private void awaitNodes(List<Node> expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (expected.equals(transport.getNodes()) == false && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, transport.getNodes());
+    }
+
+    private static List<Node> nodes(String... hosts) {
+        return Arrays.asList(Arrays.stream(hosts).map(host -> new Node(new HttpHost("http", host, 9200))).toArray(Node[]::new));
+    }
+}
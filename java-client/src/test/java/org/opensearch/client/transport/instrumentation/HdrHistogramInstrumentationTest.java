@@ -0,0 +1,129 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.instrumentation;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+import org.opensearch.client.opensearch.core.SearchRequest;
+import org.opensearch.client.opensearch.indices.CreateIndexRequest;
+import org.opensearch.client.opensearch.nodes.NodesInfoRequest;
+import org.opensearch.client.transport.httpclient5.HedgingPolicy;
+
+public class HdrHistogramInstrumentationTest extends Assert {
+
+    @Test
+    public void testEndpointIds() {
+        assertEquals("search", RequestMetrics.endpointId(new SearchRequest.Builder().build(), SearchRequest._ENDPOINT));
+        assertEquals(
+            "indices.create_index",
+            RequestMetrics.endpointId(new CreateIndexRequest.Builder().index("i").build(), CreateIndexRequest._ENDPOINT)
+        );
+        assertEquals("nodes.info", RequestMetrics.endpointId(new NodesInfoRequest.Builder().build(), NodesInfoRequest._ENDPOINT));
+        // Types outside of the API are named after their class
+        assertEquals("hedging_policy", RequestMetrics.endpointId(HedgingPolicy.builder().build(), SearchRequest._ENDPOINT));
+    }
+
+    @Test
+    public void testRecordsPhasesPerEndpoint() throws Exception {
+        final HdrHistogramInstrumentation instrumentation = new HdrHistogramInstrumentation();
+        final SearchRequest request = new SearchRequest.Builder().build();
+
+        for (int i = 0; i < 3; i++) {
+            final RequestMetrics.Recorder recorder = RequestMetrics.Recorder.start(instrumentation, request, SearchRequest._ENDPOINT);
+            recorder.onSerialized(100);
+            recorder.onAttemptStarted("http://node1:9200");
+            if (i == 2) {
+                recorder.onAttemptStarted("http://node2:9200");
+            }
+            Thread.sleep(5);
+            recorder.onResponse("http://node2:9200", 200, 1000);
+            recorder.complete(null);
+            // Only the first completion is reported
+            recorder.complete(new IOException());
+        }
+        final RequestMetrics.Recorder failed = RequestMetrics.Recorder.start(instrumentation, request, SearchRequest._ENDPOINT);
+        failed.onSerialized(-1);
+        failed.complete(new IOException());
+
+        final Map<String, HdrHistogramInstrumentation.EndpointSnapshot> snapshot = instrumentation.snapshot();
+        assertEquals(1, snapshot.size());
+        final HdrHistogramInstrumentation.EndpointSnapshot search = snapshot.get("search");
+        assertEquals(4, search.requests());
+        assertEquals(1, search.failures());
+        assertEquals(1, search.retries());
+        assertEquals(300, search.requestBytes());
+        assertEquals(3000, search.responseBytes());
+        assertTrue(search.networkNanos().getValueAtPercentile(50) >= TimeUnit.MILLISECONDS.toNanos(5));
+        assertTrue(search.totalNanos().getMaxValue() >= search.networkNanos().getMaxValue());
+
+        // A snapshot only covers what was recorded since the previous one
+        final HdrHistogramInstrumentation.EndpointSnapshot next = instrumentation.snapshot().get("search");
+        assertEquals(0, next.requests());
+        assertEquals(0, next.failures());
+    }
+
+    @Test
+    public void testHedgedCopies() {
+        final RequestMetrics[] reported = new RequestMetrics[1];
+        final RequestMetrics.Recorder recorder = RequestMetrics.Recorder.start(
+            metrics -> reported[0] = metrics,
+            null,
+            SearchRequest._ENDPOINT
+        );
+        recorder.onSerialized(10);
+        final RequestMetrics.Recorder primary = recorder.newCopy();
+        final RequestMetrics.Recorder hedge = recorder.newCopy();
+        primary.onAttemptStarted("http://node1:9200");
+        hedge.onAttemptStarted("http://node2:9200");
+        hedge.onResponse("http://node2:9200", 200, 100);
+        // The copies don't report anything themselves
+        hedge.complete(null);
+        assertNull(reported[0]);
+
+        // Only the winning copy is reported, even if the other one answers later
+        recorder.useCopy(hedge);
+        primary.onResponse("http://node1:9200", 503, 5);
+        recorder.complete(null);
+        assertEquals("http://node2:9200", reported[0].node());
+        assertEquals(200, reported[0].statusCode());
+        assertEquals(100, reported[0].responseBytes());
+        assertEquals(10, reported[0].requestBytes());
+        assertEquals(0, reported[0].retries());
+    }
+
+    @Test
+    public void testContextAndFailingInstrumentation() {
+        final Object span = new Object();
+        final RequestMetrics[] reported = new RequestMetrics[1];
+        final TransportInstrumentation instrumentation = new TransportInstrumentation() {
+            @Override
+            public Object onRequestStarted(String endpointId, Object request) {
+                return span;
+            }
+
+            @Override
+            public void onRequestCompleted(RequestMetrics metrics) {
+                reported[0] = metrics;
+                throw new IllegalStateException("must not fail the request");
+            }
+        };
+
+        final RequestMetrics.Recorder recorder = RequestMetrics.Recorder.start(instrumentation, null, SearchRequest._ENDPOINT);
+        recorder.complete(null);
+        assertSame(span, reported[0].context());
+        assertNull(reported[0].node());
+        assertEquals(0, reported[0].statusCode());
+        assertEquals(0, reported[0].retries());
+
+        assertNull(RequestMetrics.Recorder.start(null, null, SearchRequest._ENDPOINT));
+    }
+}
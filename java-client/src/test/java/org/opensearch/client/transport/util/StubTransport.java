@@ -0,0 +1,115 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.transport.util;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.jackson.JacksonJsonpMapper;
+import org.opensearch.client.transport.Endpoint;
+import org.opensearch.client.transport.OpenSearchTransport;
+import org.opensearch.client.transport.TransportOptions;
+import org.opensearch.client.transport.httpclient5.ApacheHttpClient5Options;
+
+/**
+ * A transport that answers each request with a function of the request, which returns the future response. The
+ * function is called on the thread that sends the request, and can complete the response on another thread, or
+ * leave it to the test. Synchronous requests wait for the response.
+ */
+public class StubTransport implements OpenSearchTransport {
+    private final JsonpMapper mapper = new JacksonJsonpMapper();
+    private final Function<Object, CompletableFuture<?>> responses;
+
+    public StubTransport(Function<Object, CompletableFuture<?>> responses) {
+        this.responses = responses;
+    }
+
+    /**
+     * Returns the response computed now, or a failed future if computing it throws.
+     */
+    public static <R> CompletableFuture<R> respond(Callable<R> response) {
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        try {
+            future.complete(response.call());
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Returns the response computed on {@code executor}, which fails if computing it throws.
+     */
+    public static <R> CompletableFuture<R> respondAsync(Callable<R> response, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return response.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    @Override
+    public <RequestT, ResponseT, ErrorT> ResponseT performRequest(
+        RequestT request,
+        Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+        @Nullable TransportOptions options
+    ) throws IOException {
+        try {
+            return performRequestAsync(request, endpoint, options).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the response", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <RequestT, ResponseT, ErrorT> CompletableFuture<ResponseT> performRequestAsync(
+        RequestT request,
+        Endpoint<RequestT, ResponseT, ErrorT> endpoint,
+        @Nullable TransportOptions options
+    ) {
+        return (CompletableFuture<ResponseT>) responses.apply(request);
+    }
+
+    @Override
+    public JsonpMapper jsonpMapper() {
+        return mapper;
+    }
+
+    @Override
+    public TransportOptions options() {
+        return ApacheHttpClient5Options.DEFAULT;
+    }
+
+    @Override
+    public void close() {}
+}
@@ -0,0 +1,121 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.client.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ByteArrayPoolTest extends Assert {
+
+    @Test
+    public void testReusesReleasedBuffer() {
+        ByteArrayPool pool = new ByteArrayPool(4, 16, 1024);
+
+        PooledByteArrayOutputStream first = pool.newOutputStream();
+        byte[] buffer = first.array();
+        first.release();
+
+        PooledByteArrayOutputStream second = pool.newOutputStream();
+        assertSame(buffer, second.array());
+        assertEquals(0, second.size());
+        assertEquals(1, pool.allocations());
+        assertEquals(16, pool.allocatedBytes());
+        assertEquals(1, pool.reuses());
+        assertEquals(0, pool.pooledBuffers());
+    }
+
+    @Test
+    public void testGrowsBuffer() throws IOException {
+        ByteArrayPool pool = new ByteArrayPool(4, 4, 1024);
+        PooledByteArrayOutputStream out = pool.newOutputStream();
+
+        byte[] data = "{\"field\":\"value\"}".getBytes(StandardCharsets.UTF_8);
+        out.write(data);
+        out.write('\n');
+
+        assertEquals(data.length + 1, out.size());
+        assertEquals("{\"field\":\"value\"}\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(3, pool.allocations());
+
+        out.release();
+        assertEquals(1, pool.pooledBuffers());
+        assertTrue(pool.newOutputStream().array().length >= data.length + 1);
+    }
+
+    @Test
+    public void testDiscardsLargeBuffers() {
+        ByteArrayPool pool = new ByteArrayPool(4, 16, 32);
+        PooledByteArrayOutputStream out = pool.newOutputStream();
+        out.write(new byte[64], 0, 64);
+        out.release();
+
+        assertEquals(0, pool.pooledBuffers());
+        assertEquals(1, pool.discards());
+    }
+
+    @Test
+    public void testDiscardsBuffersWhenFull() {
+        ByteArrayPool pool = new ByteArrayPool(1, 16, 1024);
+        PooledByteArrayOutputStream first = pool.newOutputStream();
+        PooledByteArrayOutputStream second = pool.newOutputStream();
+        first.release();
+        second.release();
+
+        assertEquals(1, pool.pooledBuffers());
+        assertEquals(1, pool.discards());
+    }
+
+    @Test
+    public void testUnpooled() {
+        ByteArrayPool pool = ByteArrayPool.unpooled();
+        pool.newOutputStream().release();
+        pool.newOutputStream().release();
+
+        assertEquals(2, pool.allocations());
+        assertEquals(0, pool.reuses());
+        assertEquals(0, pool.pooledBuffers());
+    }
+
+    @Test
+    public void testViewsDoNotCopy() throws IOException {
+        ByteArrayPool pool = new ByteArrayPool(4, 16, 1024);
+        PooledByteArrayOutputStream out = pool.newOutputStream();
+        out.write("abc".getBytes(StandardCharsets.UTF_8));
+
+        ByteBuffer buffer = out.toByteBuffer();
+        assertTrue(buffer.isReadOnly());
+        assertEquals(3, buffer.remaining());
+
+        try (InputStream in = out.toInputStream()) {
+            ByteArrayOutputStream read = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1) {
+                read.write(b);
+            }
+            assertEquals("abc", new String(read.toByteArray(), StandardCharsets.UTF_8));
+        }
+        assertEquals(1, pool.allocations());
+    }
+
+    @Test
+    public void testReleaseIsIdempotent() {
+        ByteArrayPool pool = new ByteArrayPool(4, 16, 1024);
+        PooledByteArrayOutputStream out = pool.newOutputStream();
+        out.release();
+        out.release();
+
+        assertEquals(1, pool.pooledBuffers());
+        assertThrows(IllegalStateException.class, () -> out.write(1));
+    }
+}
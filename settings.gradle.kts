@@ -30,6 +30,14 @@
  * GitHub history for details.
  */
 
+pluginManagement {
+  val jmhPluginVersion: String by settings
+
+  plugins {
+    id("me.champeau.jmh") version(jmhPluginVersion)
+  }
+}
+
 plugins {
   id("org.gradle.toolchains.foojay-resolver-convention") version("0.7.0")
 }
@@ -38,3 +46,4 @@ rootProject.name = "opensearch-java"
 include("java-client")
 include("java-codegen")
 include("samples")
+include("java-client-benchmarks")